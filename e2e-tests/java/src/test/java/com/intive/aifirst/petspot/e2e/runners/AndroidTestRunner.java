@@ -78,7 +78,8 @@ import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
     value = "pretty," +
             "html:target/cucumber-reports/android/cucumber.html," +
             "json:target/cucumber-android.json," +
-            "junit:target/cucumber-android.xml"
+            "junit:target/cucumber-android.xml," +
+            "com.intive.aifirst.petspot.e2e.utils.DurationHistoryPlugin"
 )
 public class AndroidTestRunner {
     // No implementation needed - JUnit Platform Suite handles execution
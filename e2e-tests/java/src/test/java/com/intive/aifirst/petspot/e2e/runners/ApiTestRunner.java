@@ -0,0 +1,73 @@
+package com.intive.aifirst.petspot.e2e.runners;
+
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+
+/**
+ * JUnit Platform Suite for running API-level tests with Cucumber.
+ * 
+ * <p>This test runner configures Cucumber to execute only API-tagged scenarios:
+ * <ul>
+ *   <li>Filter: {@code @api} tag (executes only API scenarios)</li>
+ *   <li>Features: {@code features/api/*.feature} files</li>
+ *   <li>Step Definitions: {@code steps.api} package</li>
+ *   <li>Hooks: {@code utils.Hooks} for lifecycle management</li>
+ * </ul>
+ * 
+ * <p>No browser or emulator is started - scenarios call the backend REST API directly,
+ * so the whole suite runs in seconds.
+ * 
+ * <h2>Prerequisites:</h2>
+ * <ul>
+ *   <li>Backend running on {@code api.base.url} (default: http://localhost:3000)</li>
+ * </ul>
+ * 
+ * <h2>How to Run:</h2>
+ * <pre>
+ * # Run all API tests
+ * mvn test -Dtest=ApiTestRunner
+ * 
+ * # Run against a different backend
+ * mvn test -Dtest=ApiTestRunner -Dapi.base.url=http://localhost:3001
+ * </pre>
+ * 
+ * <h2>Reports Generated:</h2>
+ * <ul>
+ *   <li>HTML Report: {@code target/cucumber-reports/api/cucumber.html}</li>
+ *   <li>JSON Report: {@code target/cucumber-api.json}</li>
+ *   <li>JUnit XML: {@code target/cucumber-api.xml}</li>
+ * </ul>
+ * 
+ * @see io.cucumber.junit.platform.engine.Cucumber
+ * @see org.junit.platform.suite.api.Suite
+ */
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("features/api")
+@ConfigurationParameter(
+    key = FILTER_TAGS_PROPERTY_NAME,
+    value = "@api"
+)
+@ConfigurationParameter(
+    key = GLUE_PROPERTY_NAME,
+    value = "com.intive.aifirst.petspot.e2e.utils," +
+            "com.intive.aifirst.petspot.e2e.steps.api"
+)
+@ConfigurationParameter(
+    key = PLUGIN_PROPERTY_NAME,
+    value = "pretty," +
+            "html:target/cucumber-reports/api/cucumber.html," +
+            "json:target/cucumber-api.json," +
+            "junit:target/cucumber-api.xml," +
+            "com.intive.aifirst.petspot.e2e.utils.DurationHistoryPlugin"
+)
+public class ApiTestRunner {
+    // No implementation needed - JUnit Platform Suite handles execution
+    // This class serves as a configuration entry point for Cucumber tests
+}
@@ -80,7 +80,8 @@ import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
     value = "pretty," +
             "html:target/cucumber-reports/ios/cucumber.html," +
             "json:target/cucumber-ios.json," +
-            "junit:target/cucumber-ios.xml"
+            "junit:target/cucumber-ios.xml," +
+            "com.intive.aifirst.petspot.e2e.utils.DurationHistoryPlugin"
 )
 public class IosTestRunner {
     // No implementation needed - JUnit Platform Suite handles execution
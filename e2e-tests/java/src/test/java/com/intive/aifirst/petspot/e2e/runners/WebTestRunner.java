@@ -64,7 +64,8 @@ import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
     value = "pretty," +
             "html:target/cucumber-reports/web/cucumber.html," +
             "json:target/cucumber-web.json," +
-            "junit:target/cucumber-web.xml"
+            "junit:target/cucumber-web.xml," +
+            "com.intive.aifirst.petspot.e2e.utils.DurationHistoryPlugin"
 )
 public class WebTestRunner {
     // No implementation needed - JUnit Platform Suite handles execution
@@ -0,0 +1,348 @@
+package com.intive.aifirst.petspot.e2e.steps.api;
+
+import com.intive.aifirst.petspot.e2e.utils.ApiClient;
+import io.cucumber.java.After;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Step definitions for API-level announcement scenarios.
+ *
+ * <p>Checks the data rules behind the UI scenarios (status values, date format, location
+ * filtering, microchip conflicts, photo upload auth) directly against {@code /api/v1/announcements}.
+ * No browser or emulator is started, so each scenario runs in milliseconds and the web/mobile
+ * tiers can focus on rendering.
+ *
+ * <h2>Architecture:</h2>
+ * <ul>
+ *   <li>Step Definitions (this class) → implements Given/When/Then methods</li>
+ *   <li>{@link ApiClient} → sends HTTP requests to the backend</li>
+ * </ul>
+ *
+ * <p>Announcements created by a scenario are deleted through the admin API after it finishes.
+ *
+ * @see ApiClient
+ */
+public class AnnouncementApiSteps {
+
+    private static final String ANNOUNCEMENTS_PATH = "/api/v1/announcements";
+
+    /** Mean Earth radius used by the backend's Haversine filter */
+    private static final double EARTH_RADIUS_KM = 6371;
+
+    /** Smallest valid JPEG header - enough for the backend's magic-bytes check */
+    private static final byte[] JPEG_BYTES = {
+        (byte) 0xff, (byte) 0xd8, (byte) 0xff, (byte) 0xe0, 0x00, 0x10, 0x4a, 0x46, 0x49, 0x46, 0x00, 0x01,
+        (byte) 0xff, (byte) 0xd9
+    };
+
+    private final List<String> createdIds = new ArrayList<>();
+    private Map<String, Object> createdAnnouncement;
+    private String microchipNumber;
+    private ApiClient.Response lastResponse;
+
+    // ========================================
+    // Given Steps (Setup / Preconditions)
+    // ========================================
+
+    /**
+     * Creates an announcement and uploads its photo so it becomes visible in the list.
+     *
+     * <p>Maps to Gherkin: "Given an announcement with a photo exists at latitude 51.1 and longitude 17.0"
+     */
+    @Given("an announcement with a photo exists at latitude {double} and longitude {double}")
+    public void announcementWithPhotoExists(double latitude, double longitude) {
+        createdAnnouncement = createAnnouncement(baseAnnouncement(latitude, longitude));
+        ApiClient.Response upload = uploadPhoto((String) createdAnnouncement.get("managementPassword"));
+        assertEquals(201, upload.status(), "Photo upload should succeed: " + upload.body());
+    }
+
+    /**
+     * Creates an announcement without uploading a photo.
+     *
+     * <p>Maps to Gherkin: "Given an announcement without a photo exists"
+     */
+    @Given("an announcement without a photo exists")
+    public void announcementWithoutPhotoExists() {
+        createdAnnouncement = createAnnouncement(baseAnnouncement(51.1, 17.0));
+    }
+
+    /**
+     * Creates an announcement with a random microchip number.
+     *
+     * <p>Maps to Gherkin: "Given an announcement with a unique microchip number exists"
+     */
+    @Given("an announcement with a unique microchip number exists")
+    public void announcementWithMicrochipExists() {
+        long number = ThreadLocalRandom.current().nextLong(100_000_000_000_000L, 999_999_999_999_999L);
+        microchipNumber = String.valueOf(number);
+        Map<String, Object> body = baseAnnouncement(51.1, 17.0);
+        body.put("microchipNumber", microchipNumber);
+        createdAnnouncement = createAnnouncement(body);
+    }
+
+    // ========================================
+    // When Steps (Actions)
+    // ========================================
+
+    /**
+     * Requests the unfiltered announcement list.
+     *
+     * <p>Maps to Gherkin: "When I request the announcement list"
+     */
+    @When("I request the announcement list")
+    public void requestAnnouncementList() {
+        lastResponse = ApiClient.get(ANNOUNCEMENTS_PATH);
+    }
+
+    /**
+     * Requests announcements filtered by location.
+     *
+     * <p>Maps to Gherkin: "When I request announcements near latitude 51.1 and longitude 17.0 within 5 km"
+     */
+    @When("I request announcements near latitude {double} and longitude {double} within {int} km")
+    public void requestAnnouncementsNear(double latitude, double longitude, int range) {
+        lastResponse = ApiClient.get(ANNOUNCEMENTS_PATH + "?lat=" + latitude + "&lng=" + longitude + "&range=" + range);
+    }
+
+    /**
+     * Requests the announcement list with a raw query string (used for validation checks).
+     *
+     * <p>Maps to Gherkin: "When I request announcements with query "lat=51.1""
+     */
+    @When("I request announcements with query {string}")
+    public void requestAnnouncementsWithQuery(String query) {
+        lastResponse = ApiClient.get(ANNOUNCEMENTS_PATH + "?" + query);
+    }
+
+    /**
+     * Tries to create a second announcement with the microchip number from the Given step.
+     *
+     * <p>Maps to Gherkin: "When I create another announcement with the same microchip number"
+     */
+    @When("I create another announcement with the same microchip number")
+    public void createAnnouncementWithSameMicrochip() {
+        Map<String, Object> body = baseAnnouncement(51.1, 17.0);
+        body.put("microchipNumber", microchipNumber);
+        lastResponse = ApiClient.postJson(ANNOUNCEMENTS_PATH, body);
+        if (lastResponse.status() == 201) {
+            createdIds.add((String) lastResponse.json().get("id"));
+        }
+    }
+
+    /**
+     * Uploads a photo without an Authorization header.
+     *
+     * <p>Maps to Gherkin: "When I upload a photo without credentials"
+     */
+    @When("I upload a photo without credentials")
+    public void uploadPhotoWithoutCredentials() {
+        lastResponse = ApiClient.postPhoto(photosPath(), JPEG_BYTES, null, null);
+    }
+
+    /**
+     * Uploads a photo with a management password that does not match the announcement.
+     *
+     * <p>Maps to Gherkin: "When I upload a photo with a wrong management password"
+     */
+    @When("I upload a photo with a wrong management password")
+    public void uploadPhotoWithWrongPassword() {
+        String password = (String) createdAnnouncement.get("managementPassword");
+        lastResponse = uploadPhoto("000000".equals(password) ? "111111" : "000000");
+    }
+
+    /**
+     * Uploads a photo with the management password returned on creation.
+     *
+     * <p>Maps to Gherkin: "When I upload a photo with the management password"
+     */
+    @When("I upload a photo with the management password")
+    public void uploadPhotoWithManagementPassword() {
+        lastResponse = uploadPhoto((String) createdAnnouncement.get("managementPassword"));
+    }
+
+    // ========================================
+    // Then Steps (Assertions / Verification)
+    // ========================================
+
+    /**
+     * Verifies the HTTP status of the last response.
+     *
+     * <p>Maps to Gherkin: "Then the response status should be 400"
+     */
+    @Then("the response status should be {int}")
+    public void responseStatusShouldBe(int status) {
+        assertEquals(status, lastResponse.status(), "Unexpected response: " + lastResponse.body());
+    }
+
+    /**
+     * Verifies the {@code error.field} of the last error response.
+     *
+     * <p>Maps to Gherkin: "And the error field should be "lng""
+     */
+    @Then("the error field should be {string}")
+    public void errorFieldShouldBe(String field) {
+        assertEquals(field, lastResponse.errorField());
+    }
+
+    /**
+     * Verifies every listed announcement has one of the allowed status values.
+     *
+     * <p>Maps to Gherkin: "Then every listed announcement should have status "MISSING" or "FOUND""
+     */
+    @Then("every listed announcement should have status {string} or {string}")
+    public void everyAnnouncementShouldHaveStatus(String first, String second) {
+        for (Map<String, Object> announcement : listed()) {
+            Object status = announcement.get("status");
+            assertTrue(first.equals(status) || second.equals(status),
+                "Unexpected status " + status + " for announcement " + announcement.get("id"));
+        }
+    }
+
+    /**
+     * Verifies every listed announcement has an ISO last-seen date (rendered as DD/MM/YYYY by clients).
+     *
+     * <p>Maps to Gherkin: "And every listed announcement should have an ISO last seen date"
+     */
+    @Then("every listed announcement should have an ISO last seen date")
+    public void everyAnnouncementShouldHaveIsoDate() {
+        for (Map<String, Object> announcement : listed()) {
+            Object date = announcement.get("lastSeenDate");
+            assertTrue(date instanceof String && ((String) date).matches("\\d{4}-\\d{2}-\\d{2}"),
+                "Unexpected lastSeenDate " + date + " for announcement " + announcement.get("id"));
+        }
+    }
+
+    /**
+     * Verifies every listed announcement has a photo.
+     *
+     * <p>Maps to Gherkin: "And every listed announcement should have a photo URL"
+     */
+    @Then("every listed announcement should have a photo URL")
+    public void everyAnnouncementShouldHavePhoto() {
+        for (Map<String, Object> announcement : listed()) {
+            assertNotNull(announcement.get("photoUrl"), "Missing photoUrl for announcement " + announcement.get("id"));
+        }
+    }
+
+    /**
+     * Verifies every listed announcement lies within the requested radius.
+     *
+     * <p>Maps to Gherkin: "And every listed announcement should be within 5 km of latitude 51.1 and longitude 17.0"
+     */
+    @Then("every listed announcement should be within {int} km of latitude {double} and longitude {double}")
+    public void everyAnnouncementShouldBeWithinRange(int range, double latitude, double longitude) {
+        for (Map<String, Object> announcement : listed()) {
+            double distance = distanceKm(latitude, longitude,
+                (Double) announcement.get("locationLatitude"), (Double) announcement.get("locationLongitude"));
+            assertTrue(distance < range,
+                "Announcement " + announcement.get("id") + " is " + distance + " km away (range " + range + " km)");
+        }
+    }
+
+    /**
+     * Verifies the announcement created in the Given step is part of the list.
+     *
+     * <p>Maps to Gherkin: "Then the created announcement should be listed"
+     */
+    @Then("the created announcement should be listed")
+    public void createdAnnouncementShouldBeListed() {
+        assertTrue(
+            isCreatedAnnouncementListed(),
+            "Announcement " + createdAnnouncement.get("id") + " should be listed"
+        );
+    }
+
+    /**
+     * Verifies the announcement created in the Given step is not part of the list.
+     *
+     * <p>Maps to Gherkin: "Then the created announcement should not be listed"
+     */
+    @Then("the created announcement should not be listed")
+    public void createdAnnouncementShouldNotBeListed() {
+        assertFalse(
+            isCreatedAnnouncementListed(),
+            "Announcement " + createdAnnouncement.get("id") + " should not be listed"
+        );
+    }
+
+    // ========================================
+    // Cleanup
+    // ========================================
+
+    /**
+     * Deletes announcements created by the scenario so API runs don't pollute UI test data.
+     */
+    @After("@api")
+    public void deleteCreatedAnnouncements() {
+        for (String id : createdIds) {
+            ApiClient.Response response = ApiClient.adminDelete("/api/admin/v1/announcements/" + id);
+            if (response.status() != 204 && response.status() != 404) {
+                System.err.println("Failed to delete announcement " + id + ": " + response.body());
+            }
+        }
+        createdIds.clear();
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private Map<String, Object> baseAnnouncement(double latitude, double longitude) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("petName", "E2E API");
+        body.put("species", "DOG");
+        body.put("sex", "MALE");
+        body.put("lastSeenDate", LocalDate.now().minusDays(1).toString());
+        body.put("status", "MISSING");
+        body.put("locationLatitude", latitude);
+        body.put("locationLongitude", longitude);
+        body.put("email", "e2e-api@example.com");
+        return body;
+    }
+
+    private Map<String, Object> createAnnouncement(Map<String, Object> body) {
+        ApiClient.Response response = ApiClient.postJson(ANNOUNCEMENTS_PATH, body);
+        assertEquals(201, response.status(), "Announcement creation should succeed: " + response.body());
+        Map<String, Object> created = response.json();
+        createdIds.add((String) created.get("id"));
+        return created;
+    }
+
+    private ApiClient.Response uploadPhoto(String password) {
+        return ApiClient.postPhoto(photosPath(), JPEG_BYTES, (String) createdAnnouncement.get("id"), password);
+    }
+
+    private String photosPath() {
+        return ANNOUNCEMENTS_PATH + "/" + createdAnnouncement.get("id") + "/photos";
+    }
+
+    private List<Map<String, Object>> listed() {
+        assertEquals(200, lastResponse.status(), "List request failed: " + lastResponse.body());
+        return lastResponse.data();
+    }
+
+    private boolean isCreatedAnnouncementListed() {
+        Object id = createdAnnouncement.get("id");
+        return listed().stream().anyMatch(announcement -> id.equals(announcement.get("id")));
+    }
+
+    /** Same great-circle formula as the backend's location filter */
+    private static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double deltaLambda = Math.toRadians(lng2 - lng1);
+        double cosine = Math.cos(phi1) * Math.cos(phi2) * Math.cos(deltaLambda) + Math.sin(phi1) * Math.sin(phi2);
+        return EARTH_RADIUS_KM * Math.acos(Math.min(1.0, cosine));
+    }
+}
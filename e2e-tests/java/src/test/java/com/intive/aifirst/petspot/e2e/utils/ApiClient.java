@@ -0,0 +1,173 @@
+package com.intive.aifirst.petspot.e2e.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Thin HTTP client for the PetSpot backend REST API.
+ *
+ * <p>Used by the API test tier ({@code steps.api}) to check data rules directly against
+ * {@code /api/v1/announcements} without a browser or emulator, and by infrastructure
+ * code that needs to prepare or clean up backend data.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * ApiClient.Response response = ApiClient.get("/api/v1/announcements?lat=51.1&lng=17.0&range=5");
+ * assertEquals(200, response.status());
+ * List<Map<String, Object>> announcements = response.data();
+ * }</pre>
+ *
+ * @see TestConfig#getApiBaseUrl()
+ */
+public final class ApiClient {
+
+    /** Shared HTTP client (thread-safe, keeps connections alive between requests) */
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private static final Gson GSON = new Gson();
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private ApiClient() {
+        // Static access only
+    }
+
+    /**
+     * HTTP response with helpers for the backend's JSON shapes.
+     *
+     * @param status HTTP status code
+     * @param body raw response body
+     */
+    public record Response(int status, String body) {
+
+        /** Parses the body as a JSON object (e.g. single announcement or error response). */
+        public Map<String, Object> json() {
+            return GSON.fromJson(body, new TypeToken<Map<String, Object>>() { }.getType());
+        }
+
+        /** Parses the {@code data} array of a list response. */
+        @SuppressWarnings("unchecked")
+        public List<Map<String, Object>> data() {
+            return (List<Map<String, Object>>) json().get("data");
+        }
+
+        /** Returns the {@code error.field} value of an error response, or null. */
+        @SuppressWarnings("unchecked")
+        public String errorField() {
+            Map<String, Object> error = (Map<String, Object>) json().get("error");
+            return error == null ? null : (String) error.get("field");
+        }
+    }
+
+    /**
+     * Sends a GET request.
+     *
+     * @param path path with optional query string, e.g. {@code /api/v1/announcements?lat=1&lng=2}
+     * @return response
+     */
+    public static Response get(String path) {
+        return send(newRequest(path).GET().build());
+    }
+
+    /**
+     * Sends a POST request with a JSON body.
+     *
+     * @param path request path
+     * @param body object serialized with Gson
+     * @return response
+     */
+    public static Response postJson(String path, Object body) {
+        return send(newRequest(path)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(body)))
+            .build());
+    }
+
+    /**
+     * Uploads a photo as {@code multipart/form-data} field {@code photo}.
+     *
+     * @param path request path, e.g. {@code /api/v1/announcements/{id}/photos}
+     * @param photo file content
+     * @param username Basic auth username, or null to send no Authorization header
+     * @param password Basic auth password
+     * @return response
+     */
+    public static Response postPhoto(String path, byte[] photo, String username, String password) {
+        String boundary = "petspot-" + UUID.randomUUID();
+        ByteArrayOutputStream multipart = new ByteArrayOutputStream();
+        multipart.writeBytes(("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"photo\"; filename=\"photo.jpg\"\r\n"
+            + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        multipart.writeBytes(photo);
+        multipart.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest.Builder builder = newRequest(path)
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(multipart.toByteArray()));
+        if (username != null) {
+            String credentials = username + ":" + password;
+            builder.header("Authorization",
+                "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return send(builder.build());
+    }
+
+    /**
+     * Sends an empty POST request authenticated with the admin token.
+     *
+     * @param path request path
+     * @return response
+     */
+    public static Response adminPost(String path) {
+        return send(newRequest(path)
+            .header("Authorization", TestConfig.getAdminToken())
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build());
+    }
+
+    /**
+     * Sends a DELETE request authenticated with the admin token.
+     *
+     * @param path request path
+     * @return response
+     */
+    public static Response adminDelete(String path) {
+        return send(newRequest(path)
+            .header("Authorization", TestConfig.getAdminToken())
+            .DELETE()
+            .build());
+    }
+
+    private static HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder()
+            .uri(URI.create(TestConfig.getApiBaseUrl() + path))
+            .timeout(REQUEST_TIMEOUT);
+    }
+
+    private static Response send(HttpRequest request) {
+        try {
+            HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Request failed: " + request.method() + " " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during request: " + request.method() + " " + request.uri(), e);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.intive.aifirst.petspot.e2e.utils;
 
 import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.InteractsWithApps;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.options.UiAutomator2Options;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.ios.options.XCUITestOptions;
+import org.openqa.selenium.WebDriverException;
 
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -19,6 +21,8 @@ import java.time.Duration;
  *   <li>Automatic platform detection (Android vs iOS)</li>
  *   <li>Platform-specific capabilities configuration</li>
  *   <li>Connection to Appium server (default: http://127.0.0.1:4723)</li>
+ *   <li>One device per thread from {@link DevicePoolManager} (UDID, systemPort/wdaLocalPort,
+ *       Appium server) so mobile scenarios can run in parallel on several emulators/simulators</li>
  * </ul>
  * 
  * <h2>Prerequisites:</h2>
@@ -54,12 +58,11 @@ public class AppiumDriverManager {
     /** ThreadLocal storage for AppiumDriver instances (one per thread for parallel execution) */
     private static final ThreadLocal<AppiumDriver> driver = new ThreadLocal<>();
     
-    /** Appium server URL (default local server, overridable via system/env property) */
-    // Note: Appium 2.x doesn't use /wd/hub suffix anymore
-    private static final String APPIUM_SERVER_URL = System.getProperty(
-        "APPIUM_SERVER_URL",
-        System.getenv().getOrDefault("APPIUM_SERVER_URL", "http://127.0.0.1:4723")
-    );
+    /** Android application id of the app under test (override with mobile.app.package) */
+    private static final String DEFAULT_ANDROID_APP_ID = "com.intive.aifirst.petspot";
+    
+    /** iOS bundle id of the app under test without team suffix (override with ios.bundle.id) */
+    private static final String DEFAULT_IOS_BUNDLE_ID = "com.intive.aifirst.petspot.PetSpot";
     
     /** Default implicit wait timeout in seconds */
     private static final int DEFAULT_IMPLICIT_WAIT_SECONDS = 10;
@@ -80,6 +83,16 @@ public class AppiumDriverManager {
         return driver.get();
     }
     
+    /**
+     * Gets the AppiumDriver instance for the current thread using the platform detected
+     * from scenario tags ({@code PLATFORM} system property set by {@link Hooks}, default Android).
+     * 
+     * @return AppiumDriver instance for current thread
+     */
+    public static AppiumDriver getDriver() {
+        return getDriver(System.getProperty("PLATFORM", "Android"));
+    }
+    
     /**
      * Initializes a new AppiumDriver with platform-specific configuration.
      * 
@@ -99,24 +112,40 @@ public class AppiumDriverManager {
      *   <li>App: {@code /apps/petspot-ios.app}</li>
      * </ul>
      * 
+     * <p>The device is leased from {@link DevicePoolManager}. If the session cannot be created
+     * (crashed or hung emulator), the device is reported and the next free device is tried.
+     * 
      * @param platform Platform name: "Android" or "iOS"
      * @throws IllegalArgumentException if platform is not recognized
      * @throws RuntimeException if Appium server URL is malformed or connection fails
      */
     private static void initializeDriver(String platform) {
-        AppiumDriver appiumDriver;
+        if (!"android".equalsIgnoreCase(platform) && !"ios".equalsIgnoreCase(platform)) {
+            throw new IllegalArgumentException(
+                "Unsupported platform: " + platform + ". Expected 'Android' or 'iOS'"
+            );
+        }
         
-        try {
-            URL serverUrl = new URL(APPIUM_SERVER_URL);
-            
-            if ("android".equalsIgnoreCase(platform)) {
-                appiumDriver = initializeAndroidDriver(serverUrl);
-            } else if ("ios".equalsIgnoreCase(platform)) {
-                appiumDriver = initializeIOSDriver(serverUrl);
-            } else {
-                throw new IllegalArgumentException(
-                    "Unsupported platform: " + platform + ". Expected 'Android' or 'iOS'"
-                );
+        int attempts = DevicePoolManager.size(platform);
+        for (int attempt = 1; ; attempt++) {
+            DevicePoolManager.Device device = DevicePoolManager.acquire(platform);
+            AppiumDriver appiumDriver;
+            try {
+                URL serverUrl = new URL(device.serverUrl());
+                appiumDriver = "android".equalsIgnoreCase(platform)
+                    ? initializeAndroidDriver(serverUrl, device)
+                    : initializeIOSDriver(serverUrl, device);
+            } catch (MalformedURLException e) {
+                DevicePoolManager.release();
+                throw new RuntimeException("Invalid Appium server URL: " + device.serverUrl(), e);
+            } catch (WebDriverException e) {
+                // Session could not start on this device - let the pool rebalance and try another one
+                DevicePoolManager.reportFailure();
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                System.err.println("Session failed on " + device.name() + ", retrying: " + e.getMessage());
+                continue;
             }
             
             // Set implicit wait (Appium will poll for elements up to this timeout)
@@ -126,9 +155,7 @@ public class AppiumDriverManager {
             
             // Store in ThreadLocal for thread safety
             driver.set(appiumDriver);
-            
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Invalid Appium server URL: " + APPIUM_SERVER_URL, e);
+            return;
         }
     }
     
@@ -136,14 +163,19 @@ public class AppiumDriverManager {
      * Initializes AndroidDriver with UiAutomator2 capabilities.
      * 
      * @param serverUrl Appium server URL
+     * @param device Leased device (UDID and systemPort unique per worker)
      * @return Configured AndroidDriver instance
      */
-    private static AndroidDriver initializeAndroidDriver(URL serverUrl) {
+    private static AndroidDriver initializeAndroidDriver(URL serverUrl, DevicePoolManager.Device device) {
         UiAutomator2Options options = new UiAutomator2Options();
         options.setPlatformName("Android");
         options.setPlatformVersion("14");                // Android 14 (API 34)
-        options.setDeviceName("Android Emulator");
+        options.setDeviceName(device.name());
         options.setAutomationName("UiAutomator2");
+        if (device.udid() != null) {
+            options.setUdid(device.udid());
+            options.setSystemPort(device.port());        // UiAutomator2 server port, unique per device
+        }
         
         // App path (relative to project root)
         String appPath = System.getProperty("user.dir") + "/apps/petspot-android.apk";
@@ -159,9 +191,10 @@ public class AppiumDriverManager {
      * Initializes IOSDriver with XCUITest capabilities.
      * 
      * @param serverUrl Appium server URL
+     * @param device Leased device (UDID and wdaLocalPort unique per worker)
      * @return Configured IOSDriver instance
      */
-    private static IOSDriver initializeIOSDriver(URL serverUrl) {
+    private static IOSDriver initializeIOSDriver(URL serverUrl, DevicePoolManager.Device device) {
         XCUITestOptions options = new XCUITestOptions();
         // Note: Device name must match an available simulator (run: xcrun simctl list devices)
         String iosDeviceName = System.getProperty(
@@ -176,8 +209,12 @@ public class AppiumDriverManager {
 
         options.setPlatformName("iOS");
         options.setPlatformVersion(iosPlatformVersion);
-        options.setDeviceName(iosDeviceName);
+        options.setDeviceName(device.udid() != null ? device.name() : iosDeviceName);
         options.setAutomationName("XCUITest");
+        if (device.udid() != null) {
+            options.setUdid(device.udid());
+            options.setWdaLocalPort(device.port());      // WebDriverAgent port, unique per simulator
+        }
         
         // App path (relative to project root)
         String appPath = System.getProperty(
@@ -196,15 +233,40 @@ public class AppiumDriverManager {
     }
     
     /**
-     * Quits the AppiumDriver instance and removes it from ThreadLocal storage.
+     * Restarts the app under test without ending the Appium session (used when drivers are reused
+     * between runs). Skips session creation and app installation. No-op if no driver exists.
+     */
+    public static void resetApp() {
+        AppiumDriver appiumDriver = driver.get();
+        if (!(appiumDriver instanceof InteractsWithApps apps)) {
+            return;
+        }
+        String appId = appiumDriver instanceof IOSDriver
+            ? TestConfig.getProperty("ios.bundle.id", DEFAULT_IOS_BUNDLE_ID)
+            : TestConfig.getProperty("mobile.app.package", DEFAULT_ANDROID_APP_ID);
+        apps.terminateApp(appId);
+        apps.activateApp(appId);
+    }
+    
+    /**
+     * Quits the AppiumDriver instance, removes it from ThreadLocal storage and returns
+     * the device to {@link DevicePoolManager}.
      * 
      * <p>This method should be called in @After hooks to ensure proper cleanup.
      * Safe to call even if no driver exists (no-op in that case).
+     * If the session already died (e.g. emulator crash), the device is reported to the pool.
      */
     public static void quitDriver() {
         if (driver.get() != null) {
-            driver.get().quit();
-            driver.remove();  // Prevent memory leaks
+            try {
+                driver.get().quit();
+                DevicePoolManager.release();
+            } catch (WebDriverException e) {
+                DevicePoolManager.reportFailure();
+                throw e;
+            } finally {
+                driver.remove();  // Prevent memory leaks
+            }
         }
     }
     
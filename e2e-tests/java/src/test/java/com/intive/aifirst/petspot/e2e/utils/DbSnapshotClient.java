@@ -0,0 +1,57 @@
+package com.intive.aifirst.petspot.e2e.utils;
+
+/**
+ * Client for the backend's test-only DB snapshot endpoints ({@code /api/admin/v1/snapshots}).
+ *
+ * <p>Used by {@link Hooks} to reset backend state before {@code @isolatedDb} scenarios
+ * instead of deleting rows one by one or restarting the backend container:
+ * <ul>
+ *   <li>First tagged scenario: saves the current backend state as the baseline snapshot</li>
+ *   <li>Every following tagged scenario: restores the baseline (single DB transaction, milliseconds)</li>
+ * </ul>
+ *
+ * <h2>Prerequisites:</h2>
+ * <ul>
+ *   <li>Backend started with {@code ENABLE_TEST_SNAPSHOTS=true} (set in {@code docker-compose.qa-env.yml})</li>
+ *   <li>{@code api.base.url} pointing at the backend (see {@code test.properties})</li>
+ * </ul>
+ *
+ * @see TestConfig#getApiBaseUrl()
+ * @see TestConfig#getDbSnapshotName()
+ */
+public final class DbSnapshotClient {
+
+    /** Whether the baseline snapshot has already been taken in this JVM (guarded by class lock) */
+    private static boolean baselineCreated;
+
+    private DbSnapshotClient() {
+        // Static access only
+    }
+
+    /**
+     * Restores the baseline snapshot, creating it on first use.
+     *
+     * @throws IllegalStateException if the backend rejects the request
+     */
+    public static synchronized void restoreBaseline() {
+        String name = TestConfig.getDbSnapshotName();
+        if (!baselineCreated) {
+            send("/api/admin/v1/snapshots/" + name, 201);
+            baselineCreated = true;
+            System.out.println("Created backend DB snapshot: " + name);
+            return;
+        }
+        send("/api/admin/v1/snapshots/" + name + "/restore", 204);
+        System.out.println("Restored backend DB snapshot: " + name);
+    }
+
+    private static void send(String path, int expectedStatus) {
+        ApiClient.Response response = ApiClient.adminPost(path);
+        if (response.status() != expectedStatus) {
+            throw new IllegalStateException(
+                "POST " + path + " returned " + response.status() + ": " + response.body()
+                + " (is the backend running with ENABLE_TEST_SNAPSHOTS=true?)"
+            );
+        }
+    }
+}
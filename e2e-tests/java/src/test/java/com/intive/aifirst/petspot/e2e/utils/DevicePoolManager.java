@@ -0,0 +1,382 @@
+package com.intive.aifirst.petspot.e2e.utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of local Android emulators / iOS simulators for parallel mobile scenarios.
+ *
+ * <p>Each worker thread leases one device for the lifetime of its Appium session. A lease carries
+ * everything two parallel sessions must not share:
+ * <ul>
+ *   <li>Device UDID ({@code appium:udid})</li>
+ *   <li>Android {@code appium:systemPort} / iOS {@code appium:wdaLocalPort}</li>
+ *   <li>Appium server URL - shared server, or a dedicated server per device
+ *       ({@code -Dmobile.appium.server.per.device=true})</li>
+ * </ul>
+ *
+ * <h2>Device Discovery:</h2>
+ * <ul>
+ *   <li>Android: {@code adb devices} (every device in state {@code device})</li>
+ *   <li>iOS: booted simulators from {@code xcrun simctl list devices booted -j}</li>
+ *   <li>Explicit list overrides discovery: {@code -Dmobile.device.udids=emulator-5554,emulator-5556}</li>
+ *   <li>Nothing found → single default device (previous single-emulator behaviour)</li>
+ * </ul>
+ *
+ * <h2>Crash Handling:</h2>
+ * <p>A device whose session could not be created or whose session died is health-checked
+ * ({@code adb get-state} / {@code simctl}); unhealthy devices are quarantined and re-probed whenever
+ * a worker is waiting for a device, so work rebalances onto the remaining devices and a recovered
+ * emulator rejoins the pool.
+ *
+ * <h2>Configuration (system properties):</h2>
+ * <pre>
+ * mobile.device.udids                 Comma-separated UDIDs (default: discovered)
+ * mobile.device.lease.timeout         Seconds a worker waits for a free device (default: 600)
+ * mobile.system.port.base             First Android systemPort (default: 8200)
+ * mobile.wda.port.base                First iOS wdaLocalPort (default: 8100)
+ * mobile.appium.server.per.device     Start one Appium server per device (default: false)
+ * mobile.appium.port.base             First port of per-device Appium servers (default: 4724)
+ * </pre>
+ *
+ * @see AppiumDriverManager
+ */
+public final class DevicePoolManager {
+
+    /** Shared Appium server URL (default local server, overridable via system/env property) */
+    // Note: Appium 2.x doesn't use /wd/hub suffix anymore
+    private static final String DEFAULT_SERVER_URL = System.getProperty(
+        "APPIUM_SERVER_URL",
+        System.getenv().getOrDefault("APPIUM_SERVER_URL", "http://127.0.0.1:4723")
+    );
+
+    private static final int DEFAULT_SYSTEM_PORT_BASE = 8200;
+
+    private static final int DEFAULT_WDA_PORT_BASE = 8100;
+
+    private static final int DEFAULT_APPIUM_PORT_BASE = 4724;
+
+    private static final Duration APPIUM_STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(2))
+        .build();
+
+    /** Pools per platform ("android" / "ios"), created on first lease */
+    private static final Map<String, DevicePoolManager> POOLS = new HashMap<>();
+
+    /** Device leased by the current worker thread */
+    private static final ThreadLocal<Device> LEASE = new ThreadLocal<>();
+
+    /** Appium servers started by this JVM (stopped on shutdown) */
+    private static final List<Process> APPIUM_SERVERS = new ArrayList<>();
+
+    private final String platform;
+    private final BlockingQueue<Device> available = new LinkedBlockingQueue<>();
+    private final List<Device> quarantined = new ArrayList<>();
+    private final int size;
+
+    /**
+     * Device assigned to one worker.
+     *
+     * @param platform pool key ("android" / "ios")
+     * @param udid device UDID, or null for the default device (let Appium pick)
+     * @param name device name reported to Appium
+     * @param port Android systemPort or iOS wdaLocalPort
+     * @param serverUrl Appium server URL
+     */
+    public record Device(String platform, String udid, String name, int port, String serverUrl) {
+    }
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            synchronized (APPIUM_SERVERS) {
+                APPIUM_SERVERS.forEach(Process::destroy);
+            }
+        }, "appium-server-shutdown"));
+    }
+
+    private DevicePoolManager(String platform, List<Device> devices) {
+        this.platform = platform;
+        this.size = devices.size();
+        available.addAll(devices);
+    }
+
+    /**
+     * Leases a device for the current thread, waiting until one is free.
+     * Returns the existing lease if the thread already holds one.
+     *
+     * @param platform "Android" or "iOS" (case-insensitive)
+     * @return leased device
+     * @throws IllegalStateException if no device becomes available within the lease timeout
+     */
+    public static Device acquire(String platform) {
+        Device leased = LEASE.get();
+        if (leased != null) {
+            return leased;
+        }
+        Device device = pool(platform).take();
+        LEASE.set(device);
+        System.out.println("Leased device " + device.name() + " (" + device.udid() + ") to "
+            + Thread.currentThread().getName());
+        return device;
+    }
+
+    /**
+     * Returns the current thread's device to the pool (call after the driver has quit).
+     * No-op if the thread holds no lease.
+     */
+    public static void release() {
+        Device device = LEASE.get();
+        if (device != null) {
+            LEASE.remove();
+            pool(device.platform()).available.add(device);
+        }
+    }
+
+    /**
+     * Reports that the current thread's device failed (session could not start or died).
+     * The device stays in the pool if it is still healthy, otherwise it is quarantined
+     * until it responds again. The thread's lease is dropped either way.
+     */
+    public static void reportFailure() {
+        Device device = LEASE.get();
+        if (device == null) {
+            return;
+        }
+        LEASE.remove();
+        DevicePoolManager pool = pool(device.platform());
+        if (pool.isHealthy(device)) {
+            pool.available.add(device);
+        } else {
+            System.err.println("Device " + device.name() + " (" + device.udid() + ") quarantined");
+            synchronized (pool.quarantined) {
+                pool.quarantined.add(device);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of devices in the pool (usable as Cucumber parallelism).
+     *
+     * @param platform "Android" or "iOS"
+     * @return pool size including quarantined devices
+     */
+    public static int size(String platform) {
+        return pool(platform).size;
+    }
+
+    private static synchronized DevicePoolManager pool(String platform) {
+        String key = platform.toLowerCase();
+        return POOLS.computeIfAbsent(key, k -> new DevicePoolManager(k, discover(k)));
+    }
+
+    private Device take() {
+        long deadline = System.nanoTime()
+            + TimeUnit.SECONDS.toNanos(Long.getLong("mobile.device.lease.timeout", 600L));
+        try {
+            while (System.nanoTime() < deadline) {
+                Device device = available.poll(5, TimeUnit.SECONDS);
+                if (device != null) {
+                    return device;
+                }
+                reviveQuarantined();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new IllegalStateException("No " + platform + " device available (pool size " + size
+            + ", quarantined " + quarantined.size() + ")");
+    }
+
+    private void reviveQuarantined() {
+        synchronized (quarantined) {
+            quarantined.removeIf(device -> {
+                if (!isHealthy(device)) {
+                    return false;
+                }
+                System.out.println("Device " + device.name() + " (" + device.udid() + ") back in pool");
+                available.add(device);
+                return true;
+            });
+        }
+    }
+
+    private boolean isHealthy(Device device) {
+        if (device.udid() == null) {
+            return true; // Default device is managed by Appium itself
+        }
+        if ("ios".equals(platform)) {
+            return bootedSimulators().containsKey(device.udid());
+        }
+        return "device".equals(run("adb", "-s", device.udid(), "get-state").trim());
+    }
+
+    // ===== Discovery =====
+
+    private static List<Device> discover(String platform) {
+        boolean ios = "ios".equals(platform);
+        Map<String, String> found = new HashMap<>();
+        String configured = System.getProperty("mobile.device.udids", "");
+        if (!configured.isBlank()) {
+            Arrays.stream(configured.split(",")).map(String::trim).filter(udid -> !udid.isEmpty())
+                .forEach(udid -> found.put(udid, udid));
+        } else if (ios) {
+            found.putAll(bootedSimulators());
+        } else {
+            found.putAll(androidDevices());
+        }
+
+        List<Device> devices = new ArrayList<>();
+        if (found.isEmpty()) {
+            String name = ios ? TestConfig.getIOSDeviceName() : TestConfig.getAndroidDeviceName();
+            devices.add(new Device(platform, null, name, 0, DEFAULT_SERVER_URL));
+        } else {
+            int portBase = ios
+                ? Integer.getInteger("mobile.wda.port.base", DEFAULT_WDA_PORT_BASE)
+                : Integer.getInteger("mobile.system.port.base", DEFAULT_SYSTEM_PORT_BASE);
+            int index = 0;
+            for (Map.Entry<String, String> entry : new TreeMap<>(found).entrySet()) {
+                devices.add(new Device(platform, entry.getKey(), entry.getValue(), portBase + index,
+                    serverUrlFor(index)));
+                index++;
+            }
+        }
+        System.out.println("Device pool (" + platform + "): " + devices);
+        return devices;
+    }
+
+    private static Map<String, String> androidDevices() {
+        Map<String, String> devices = new HashMap<>();
+        for (String line : run("adb", "devices").split("\n")) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length == 2 && "device".equals(parts[1])) {
+                devices.put(parts[0], parts[0]);
+            }
+        }
+        return devices;
+    }
+
+    private static Map<String, String> bootedSimulators() {
+        Map<String, String> devices = new HashMap<>();
+        String output = run("xcrun", "simctl", "list", "devices", "booted", "-j");
+        if (output.isBlank()) {
+            return devices;
+        }
+        try {
+            JsonObject runtimes = JsonParser.parseString(output).getAsJsonObject().getAsJsonObject("devices");
+            for (Map.Entry<String, JsonElement> runtime : runtimes.entrySet()) {
+                for (JsonElement element : runtime.getValue().getAsJsonArray()) {
+                    JsonObject device = element.getAsJsonObject();
+                    if ("Booted".equals(device.get("state").getAsString())) {
+                        devices.put(device.get("udid").getAsString(), device.get("name").getAsString());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not parse simctl output: " + e.getMessage());
+        }
+        return devices;
+    }
+
+    // ===== Appium servers =====
+
+    private static String serverUrlFor(int index) {
+        if (!Boolean.getBoolean("mobile.appium.server.per.device")) {
+            return DEFAULT_SERVER_URL;
+        }
+        int port = Integer.getInteger("mobile.appium.port.base", DEFAULT_APPIUM_PORT_BASE) + index;
+        String url = "http://127.0.0.1:" + port;
+        if (!isAppiumReady(url)) {
+            startAppiumServer(port);
+            waitForAppium(url);
+        }
+        return url;
+    }
+
+    private static void startAppiumServer(int port) {
+        try {
+            File log = new File("target", "appium-" + port + ".log");
+            log.getParentFile().mkdirs();
+            Process process = new ProcessBuilder("appium", "--port", String.valueOf(port), "--log-level", "warn")
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+            synchronized (APPIUM_SERVERS) {
+                APPIUM_SERVERS.add(process);
+            }
+            System.out.println("Started Appium server on port " + port + " (log: " + log + ")");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start Appium on port " + port + " (is appium on PATH?)", e);
+        }
+    }
+
+    private static void waitForAppium(String url) {
+        long deadline = System.nanoTime() + APPIUM_STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (isAppiumReady(url)) {
+                return;
+            }
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new IllegalStateException("Appium server not ready: " + url);
+    }
+
+    private static boolean isAppiumReady(String url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/status"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+            return HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Runs a command and returns its output, or an empty string if it is unavailable.
+     */
+    private static String run(String... command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (InputStream output = process.getInputStream()) {
+                String result = new String(output.readAllBytes(), StandardCharsets.UTF_8);
+                return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0 ? result : "";
+            }
+        } catch (IOException e) {
+            return ""; // Tool not installed (e.g. xcrun on Linux)
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        }
+    }
+}
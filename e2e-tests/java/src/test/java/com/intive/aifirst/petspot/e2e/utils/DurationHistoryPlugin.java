@@ -0,0 +1,209 @@
+package com.intive.aifirst.petspot.e2e.utils;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cucumber plugin that records scenario and step durations and flags slowdowns.
+ *
+ * <p>Registered in every runner's {@code cucumber.plugin} list. On each run it:
+ * <ol>
+ *   <li>Collects per-scenario and per-step durations together with the git revision</li>
+ *   <li>Appends them to {@link DurationHistoryStore} (survives {@code mvn clean})</li>
+ *   <li>Compares each passed scenario/step with its rolling baseline (last N passed runs)</li>
+ *   <li>Prints a slowdown report and writes it to {@code target/duration-report.txt}</li>
+ *   <li>Optionally fails the run when a scenario regresses past the gate threshold</li>
+ * </ol>
+ *
+ * <p>A duration is flagged as a slowdown when it is more than {@code zscore} standard deviations
+ * above the baseline mean <em>and</em> at least {@code min.slowdown.ms} slower, so stable
+ * fast steps don't produce noise.
+ *
+ * <h2>Configuration (system properties):</h2>
+ * <pre>
+ * e2e.history.path              History directory (default: .e2e-history)
+ * e2e.history.window            Baseline size in runs (default: 10)
+ * e2e.history.min.samples       Runs required before comparing (default: 5)
+ * e2e.history.zscore            Significance threshold in std deviations (default: 3.0)
+ * e2e.history.min.slowdown.ms   Minimum absolute slowdown (default: 200)
+ * e2e.history.gate.threshold    Fail when a scenario is this fraction slower than baseline,
+ *                               e.g. 0.5 = 50% (default: unset, gate disabled)
+ * </pre>
+ *
+ * <h2>Example:</h2>
+ * <pre>
+ * mvn test -Dtest=WebTestRunner -De2e.history.gate.threshold=0.5
+ * </pre>
+ *
+ * @see DurationHistoryStore
+ */
+public class DurationHistoryPlugin implements ConcurrentEventListener {
+
+    private static final Path REPORT_FILE = Paths.get("target", "duration-report.txt");
+
+    private final long runId = System.currentTimeMillis();
+    private final String revision = resolveRevision();
+    private final DurationHistoryStore store = new DurationHistoryStore();
+    private final List<DurationHistoryStore.Entry> entries = Collections.synchronizedList(new ArrayList<>());
+
+    private final int window = Integer.getInteger("e2e.history.window", 10);
+    private final int minSamples = Integer.getInteger("e2e.history.min.samples", 5);
+    private final double zScoreThreshold = Double.parseDouble(System.getProperty("e2e.history.zscore", "3.0"));
+    private final long minSlowdownMs = Long.getLong("e2e.history.min.slowdown.ms", 200L);
+    private final String gateThreshold = System.getProperty("e2e.history.gate.threshold");
+
+    /** Slowdown of one scenario or step compared with its baseline */
+    private record Slowdown(DurationHistoryStore.Kind kind, String key, long durationMs, double meanMs, double zScore) {
+
+        double ratio() {
+            return (durationMs - meanMs) / meanMs;
+        }
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> onTestRunFinished());
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        if (!(event.getTestStep() instanceof PickleStepTestStep step)) {
+            return; // Hooks are attributed to their scenario only
+        }
+        String key = scenarioKey(event.getTestCase())
+            + " > " + step.getStep().getLine() + " " + step.getStep().getText();
+        entries.add(new DurationHistoryStore.Entry(runId, revision, DurationHistoryStore.Kind.STEP, key,
+            event.getResult().getStatus().name(), event.getResult().getDuration().toMillis()));
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        entries.add(new DurationHistoryStore.Entry(runId, revision, DurationHistoryStore.Kind.SCENARIO,
+            scenarioKey(event.getTestCase()), event.getResult().getStatus().name(),
+            event.getResult().getDuration().toMillis()));
+    }
+
+    private void onTestRunFinished() {
+        List<Slowdown> slowdowns;
+        try {
+            store.append(entries);
+            slowdowns = new ArrayList<>(findSlowdowns(DurationHistoryStore.Kind.SCENARIO));
+            slowdowns.addAll(findSlowdowns(DurationHistoryStore.Kind.STEP));
+            writeReport(slowdowns);
+        } catch (IOException e) {
+            System.err.println("Duration history unavailable (" + store.getFile() + "): " + e.getMessage());
+            return;
+        }
+        enforceGate(slowdowns);
+    }
+
+    private List<Slowdown> findSlowdowns(DurationHistoryStore.Kind kind) throws IOException {
+        Map<String, List<Long>> baseline = store.baseline(kind, runId, window);
+        List<Slowdown> slowdowns = new ArrayList<>();
+        synchronized (entries) {
+            for (DurationHistoryStore.Entry entry : entries) {
+                List<Long> samples = baseline.get(entry.key());
+                if (entry.kind() != kind || !"PASSED".equals(entry.status())
+                        || samples == null || samples.size() < minSamples) {
+                    continue;
+                }
+                double mean = samples.stream().mapToLong(Long::longValue).average().orElse(0);
+                double variance = samples.stream().mapToDouble(d -> (d - mean) * (d - mean)).sum()
+                    / Math.max(samples.size() - 1, 1);
+                // Floor the deviation at 1 ms so perfectly stable baselines don't divide by zero
+                double zScore = (entry.durationMs() - mean) / Math.max(Math.sqrt(variance), 1.0);
+                if (zScore > zScoreThreshold && entry.durationMs() - mean >= minSlowdownMs) {
+                    slowdowns.add(new Slowdown(kind, entry.key(), entry.durationMs(), mean, zScore));
+                }
+            }
+        }
+        return slowdowns;
+    }
+
+    private void writeReport(List<Slowdown> slowdowns) throws IOException {
+        StringBuilder report = new StringBuilder()
+            .append("========== Duration History Report ==========\n")
+            .append("Revision: ").append(revision).append('\n')
+            .append("History: ").append(store.getFile()).append('\n');
+        if (slowdowns.isEmpty()) {
+            report.append("No significant slowdowns against the last ").append(window).append(" runs\n");
+        }
+        for (Slowdown slowdown : slowdowns) {
+            report.append(String.format("SLOWER %-8s %6d ms vs %8.0f ms baseline (+%3.0f%%, z=%.1f)  %s%n",
+                slowdown.kind(), slowdown.durationMs(), slowdown.meanMs(), slowdown.ratio() * 100,
+                slowdown.zScore(), slowdown.key()));
+        }
+        report.append("=============================================\n");
+
+        System.out.print(report);
+        Files.createDirectories(REPORT_FILE.getParent());
+        Files.writeString(REPORT_FILE, report.toString(), StandardCharsets.UTF_8);
+    }
+
+    private void enforceGate(List<Slowdown> slowdowns) {
+        if (gateThreshold == null || gateThreshold.isBlank()) {
+            return;
+        }
+        double threshold = Double.parseDouble(gateThreshold);
+        List<String> regressions = slowdowns.stream()
+            .filter(slowdown -> slowdown.kind() == DurationHistoryStore.Kind.SCENARIO && slowdown.ratio() > threshold)
+            .map(Slowdown::key)
+            .toList();
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("Scenario duration regressed more than " + Math.round(threshold * 100)
+                + "% against baseline: " + regressions);
+        }
+    }
+
+    private static String scenarioKey(TestCase testCase) {
+        String uri = testCase.getUri().toString();
+        int featuresIndex = uri.indexOf("features/");
+        String path = featuresIndex >= 0 ? uri.substring(featuresIndex) : uri;
+        return path + ":" + testCase.getLocation().getLine() + " " + testCase.getName();
+    }
+
+    /**
+     * Resolves the current git revision from CI variables or the local repository.
+     */
+    private static String resolveRevision() {
+        for (String variable : new String[] {"GIT_COMMIT", "GITHUB_SHA", "CI_COMMIT_SHA"}) {
+            String value = System.getenv(variable);
+            if (value != null && !value.isBlank()) {
+                return value.length() > 12 ? value.substring(0, 12) : value;
+            }
+        }
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short=12", "HEAD")
+                .redirectErrorStream(true)
+                .start();
+            try (InputStream output = process.getInputStream()) {
+                String revision = new String(output.readAllBytes(), StandardCharsets.UTF_8).trim();
+                if (process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0 && !revision.isEmpty()) {
+                    return revision;
+                }
+            }
+        } catch (IOException e) {
+            // git not available - fall through
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,140 @@
+package com.intive.aifirst.petspot.e2e.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only, file-based store of scenario and step durations across test runs.
+ *
+ * <p>Each run appends one tab-separated line per scenario and per step to
+ * {@code durations.tsv} in the history directory:
+ * <pre>
+ * runId  revision  kind      key                                              status  durationMs
+ * 1733…  a1b2c3d   SCENARIO  features/web/pet-list.feature:16 View pet list   PASSED  2310
+ * 1733…  a1b2c3d   STEP      features/web/pet-list.feature:17 I view the web… PASSED  12
+ * </pre>
+ *
+ * <p>The file is plain text so it can be cached between CI runs or committed to a results branch.
+ * The directory is configured with {@code -De2e.history.path=...}
+ * (default: {@code .e2e-history} in the Maven project directory).
+ *
+ * @see DurationHistoryPlugin
+ */
+public final class DurationHistoryStore {
+
+    /** Default history directory (relative to the Maven project directory) */
+    private static final String DEFAULT_PATH = ".e2e-history";
+
+    private static final String FILE_NAME = "durations.tsv";
+
+    /** Kind of recorded entry */
+    public enum Kind { SCENARIO, STEP }
+
+    /**
+     * Single recorded duration.
+     *
+     * @param runId run identifier (run start time in epoch millis)
+     * @param revision git revision the run was executed on
+     * @param kind scenario or step
+     * @param key stable identifier (feature path, line and name)
+     * @param status Cucumber result status
+     * @param durationMs duration in milliseconds
+     */
+    public record Entry(long runId, String revision, Kind kind, String key, String status, long durationMs) {
+
+        String toLine() {
+            return runId + "\t" + revision + "\t" + kind + "\t" + sanitize(key) + "\t" + status + "\t" + durationMs;
+        }
+
+        static Entry fromLine(String line) {
+            String[] parts = line.split("\t", -1);
+            return new Entry(Long.parseLong(parts[0]), parts[1], Kind.valueOf(parts[2]), parts[3], parts[4],
+                Long.parseLong(parts[5]));
+        }
+
+        private static String sanitize(String value) {
+            return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        }
+    }
+
+    private final Path file;
+
+    /**
+     * Creates a store in the configured history directory.
+     */
+    public DurationHistoryStore() {
+        this(Paths.get(System.getProperty("e2e.history.path", DEFAULT_PATH)));
+    }
+
+    /**
+     * Creates a store in the given directory.
+     *
+     * @param directory history directory (created on first write)
+     */
+    public DurationHistoryStore(Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+    }
+
+    /**
+     * Appends entries of a finished run.
+     *
+     * @param entries entries to append
+     * @throws IOException if the history file cannot be written
+     */
+    public synchronized void append(List<Entry> entries) throws IOException {
+        Files.createDirectories(file.getParent());
+        List<String> lines = entries.stream().map(Entry::toLine).collect(Collectors.toList());
+        Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Returns, per key, the durations of the most recent passed runs (oldest first).
+     *
+     * @param kind entry kind to read
+     * @param excludedRunId run to leave out (usually the current one)
+     * @param window maximum number of runs kept per key (rolling baseline size)
+     * @return durations in milliseconds grouped by key
+     * @throws IOException if the history file cannot be read
+     */
+    public synchronized Map<String, List<Long>> baseline(Kind kind, long excludedRunId, int window) throws IOException {
+        Map<String, List<Long>> result = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return result;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Entry entry;
+            try {
+                entry = Entry.fromLine(line);
+            } catch (RuntimeException e) {
+                continue; // Skip corrupted lines (e.g. interrupted write)
+            }
+            if (entry.kind() == kind && entry.runId() != excludedRunId && "PASSED".equals(entry.status())) {
+                result.computeIfAbsent(entry.key(), k -> new ArrayList<>()).add(entry.durationMs());
+            }
+        }
+        result.replaceAll((key, durations) ->
+            new ArrayList<>(durations.subList(Math.max(0, durations.size() - window), durations.size())));
+        return result;
+    }
+
+    /**
+     * Gets the history file location (for log output).
+     *
+     * @return path of the history file
+     */
+    public Path getFile() {
+        return file;
+    }
+}
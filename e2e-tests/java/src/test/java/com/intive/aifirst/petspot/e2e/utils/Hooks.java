@@ -12,10 +12,13 @@ import org.openqa.selenium.WebDriver;
  * <p>This class provides setup (@Before) and teardown (@After) hooks that run
  * automatically before and after each Cucumber scenario:
  * <ul>
- *   <li>@Before: Scenario initialization (currently placeholder)</li>
+ *   <li>@Before: Scenario initialization and backend DB restore for {@code @isolatedDb} scenarios</li>
  *   <li>@After: Driver cleanup and screenshot capture on failure</li>
  * </ul>
  * 
+ * <p>With {@code -De2e.driver.reuse=true} (watch mode) drivers are reset instead of quit,
+ * see {@link #releaseReusedDrivers()}.
+ * 
  * <h2>Hook Execution Order:</h2>
  * <pre>
  * 1. @Before hook (setup)
@@ -44,6 +47,12 @@ import org.openqa.selenium.WebDriver;
  */
 public class Hooks {
     
+    /**
+     * When true, drivers are reset instead of quit after each scenario so the browser/app
+     * stays warm between runs (set by {@link WatchModeDaemon}).
+     */
+    private static final boolean REUSE_DRIVERS = Boolean.getBoolean("e2e.driver.reuse");
+    
     /**
      * Executes before each Cucumber scenario.
      * 
@@ -64,6 +73,20 @@ public class Hooks {
         detectAndSetPlatform(scenario);
     }
     
+    /**
+     * Resets backend state before scenarios tagged {@code @isolatedDb}.
+     * 
+     * <p>The first tagged scenario saves the current backend state as a baseline snapshot;
+     * every following tagged scenario restores it, so data created by earlier scenarios
+     * cannot leak into assertions. Requires the backend to run with {@code ENABLE_TEST_SNAPSHOTS=true}.
+     * 
+     * @see DbSnapshotClient
+     */
+    @Before(value = "@isolatedDb", order = 0)
+    public void restoreBackendSnapshot() {
+        DbSnapshotClient.restoreBaseline();
+    }
+    
     /**
      * Detects platform (Android/iOS) from Cucumber scenario tags and sets PLATFORM system property.
      * 
@@ -125,8 +148,13 @@ public class Hooks {
             }
             
         } finally {
-            // Always quit drivers to prevent resource leaks
-            quitAllDrivers(scenario);
+            if (REUSE_DRIVERS) {
+                // Keep browser/app session warm for the next run (watch mode)
+                resetAllDrivers(scenario);
+            } else {
+                // Always quit drivers to prevent resource leaks
+                quitAllDrivers(scenario);
+            }
             
             System.out.println("========================================");
             System.out.println("Finished scenario: " + scenario.getName());
@@ -191,6 +219,48 @@ public class Hooks {
         }
     }
     
+    /**
+     * Resets all active drivers to a clean state without ending their sessions.
+     * Falls back to quitting a driver whose reset fails (e.g. crashed browser).
+     * 
+     * @param scenario Scenario being cleaned up
+     */
+    private void resetAllDrivers(Scenario scenario) {
+        if (getWebDriverSafely() != null) {
+            try {
+                WebDriverManager.resetSession();
+                System.out.println("Reset WebDriver session for scenario: " + scenario.getName());
+            } catch (Exception e) {
+                System.err.println("WebDriver reset failed, quitting: " + e.getMessage());
+                WebDriverManager.quitDriver();
+            }
+        }
+        if (getAppiumDriverSafely() != null) {
+            try {
+                AppiumDriverManager.resetApp();
+                System.out.println("Restarted app for scenario: " + scenario.getName());
+            } catch (Exception e) {
+                System.err.println("App reset failed, quitting AppiumDriver: " + e.getMessage());
+                AppiumDriverManager.quitDriver();
+            }
+        }
+    }
+    
+    /**
+     * Quits drivers kept alive by driver reuse mode.
+     * 
+     * <p>Called by {@link WatchModeDaemon} on shutdown, from the thread that ran the scenarios
+     * (drivers are stored per thread).
+     */
+    public static void releaseReusedDrivers() {
+        if (WebDriverManager.hasDriver()) {
+            WebDriverManager.quitDriver();
+        }
+        if (AppiumDriverManager.getCurrentPlatform() != null) {
+            AppiumDriverManager.quitDriver();
+        }
+    }
+    
     /**
      * Safely gets WebDriver instance without throwing if not initialized.
      * 
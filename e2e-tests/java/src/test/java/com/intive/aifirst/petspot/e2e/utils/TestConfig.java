@@ -104,6 +104,33 @@ public class TestConfig {
         }
     }
     
+    /**
+     * Gets the base URL of the backend API (used for test data setup and API-level checks).
+     * 
+     * @return API base URL (default: http://localhost:3000)
+     */
+    public static String getApiBaseUrl() {
+        return System.getProperty("api.base.url", properties.getProperty("api.base.url", "http://localhost:3000"));
+    }
+    
+    /**
+     * Gets the admin token sent in the Authorization header of admin API calls.
+     * 
+     * @return Admin token (default: backend's built-in admin token)
+     */
+    public static String getAdminToken() {
+        return System.getProperty("api.admin.token", properties.getProperty("api.admin.token", "tajnehasloadmina"));
+    }
+    
+    /**
+     * Gets the name of the backend DB snapshot restored before {@code @isolatedDb} scenarios.
+     * 
+     * @return Snapshot name (default: "e2e-baseline")
+     */
+    public static String getDbSnapshotName() {
+        return properties.getProperty("api.db.snapshot.name", "e2e-baseline");
+    }
+    
     // ===== Android Configuration =====
     
     /**
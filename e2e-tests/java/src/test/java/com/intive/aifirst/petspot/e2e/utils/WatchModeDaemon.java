@@ -0,0 +1,438 @@
+package com.intive.aifirst.petspot.e2e.utils;
+
+import io.cucumber.core.cli.Main;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Watch mode for fast local iteration on feature files and step definitions.
+ *
+ * <p>Keeps one JVM resident and re-runs only what changed, so a save gives feedback in seconds
+ * instead of paying for a Maven start, a glue scan and a Chrome/app launch on every run:
+ * <ul>
+ *   <li><b>Feature file saved</b> → only the changed scenarios run ({@code file:line});
+ *       a changed Feature header or Background re-runs the whole file</li>
+ *   <li><b>Step/page/screen source saved</b> → the file is recompiled in-process, step classes are
+ *       reloaded and the last selection re-runs</li>
+ *   <li>Drivers stay open between runs ({@code e2e.driver.reuse=true}): {@link Hooks} resets the
+ *       browser session / restarts the app instead of quitting the driver</li>
+ * </ul>
+ *
+ * <p>All scenarios execute on the main thread because drivers are stored per thread
+ * (see {@link WebDriverManager}, {@link AppiumDriverManager}).
+ *
+ * <h2>How to Run:</h2>
+ * <pre>
+ * # Web (default)
+ * mvn test-compile exec:exec -Pwatch
+ *
+ * # Mobile / API
+ * mvn test-compile exec:exec -Pwatch -Dwatch.platform=android
+ * mvn test-compile exec:exec -Pwatch -Dwatch.platform=api
+ * </pre>
+ *
+ * <h2>Console Commands:</h2>
+ * <pre>
+ * Enter   re-run last selection
+ * a       run all features of the watched platform
+ * q       quit (closes browser/app session)
+ * </pre>
+ */
+public final class WatchModeDaemon {
+
+    private static final Path FEATURES_DIR = Paths.get("src", "test", "resources", "features");
+
+    private static final Path SOURCES_DIR = Paths.get("src", "test", "java");
+
+    private static final Path CLASSES_DIR = Paths.get("target", "test-classes");
+
+    private static final String BASE_PACKAGE = "com.intive.aifirst.petspot.e2e.";
+
+    /** Packages reloaded after recompilation; everything else (drivers, hooks) stays loaded once */
+    private static final List<String> RELOADABLE_PACKAGES = List.of(
+        BASE_PACKAGE + "steps.", BASE_PACKAGE + "pages.", BASE_PACKAGE + "screens.");
+
+    /** Quiet period before a burst of file events (editor save) triggers a run */
+    private static final long DEBOUNCE_MS = 300;
+
+    private static final Pattern SCENARIO_START = Pattern.compile("^\\s*(Scenario|Scenario Outline|Example):.*");
+
+    private final String platform = System.getProperty("watch.platform", "web").toLowerCase();
+    private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+    private final Map<Path, FeatureBlocks> featureSnapshots = new HashMap<>();
+    private List<String> lastSelection = new ArrayList<>();
+    private ClassLoader glueClassLoader = newGlueClassLoader();
+    private boolean running = true;
+
+    /**
+     * Parsed feature file: header (Feature, Background) and scenario blocks keyed by start line.
+     */
+    private record FeatureBlocks(String header, Map<Integer, String> scenarios) {
+
+        static FeatureBlocks parse(List<String> lines) {
+            StringBuilder header = new StringBuilder();
+            Map<Integer, String> scenarios = new HashMap<>();
+            StringBuilder current = null;
+            int currentLine = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (SCENARIO_START.matcher(line).matches()) {
+                    if (current != null) {
+                        scenarios.put(currentLine, current.toString());
+                    }
+                    current = new StringBuilder();
+                    currentLine = i + 1;
+                }
+                (current == null ? header : current).append(line.strip()).append('\n');
+            }
+            if (current != null) {
+                scenarios.put(currentLine, current.toString());
+            }
+            return new FeatureBlocks(header.toString(), scenarios);
+        }
+    }
+
+    private WatchModeDaemon() {
+        // Started via main()
+    }
+
+    /**
+     * Starts the daemon (blocks until {@code q} is entered).
+     *
+     * @param args unused
+     * @throws IOException if the watched directories cannot be registered
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("e2e.driver.reuse", "true");
+        System.setProperty("cucumber.plugin", "pretty");
+        new WatchModeDaemon().run();
+    }
+
+    private void run() throws IOException {
+        Path featureRoot = featureRoot();
+        try (Stream<Path> features = Files.walk(featureRoot)) {
+            features.filter(WatchModeDaemon::isFeature).forEach(this::snapshot);
+        }
+        startFileWatcher(List.of(FEATURES_DIR, SOURCES_DIR));
+        startConsoleReader();
+
+        System.out.println("========================================");
+        System.out.println("Watch mode: " + platform + " (" + featureRoot + ")");
+        System.out.println("Save a feature or step file to run it. Enter = re-run, a = all, q = quit");
+        System.out.println("========================================");
+
+        try {
+            while (running) {
+                tasks.take().run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            Hooks.releaseReusedDrivers();
+        }
+        System.exit(0);
+    }
+
+    private void onFilesChanged(Set<Path> changed) {
+        List<Path> sources = changed.stream().filter(path -> path.toString().endsWith(".java")).toList();
+        if (!sources.isEmpty()) {
+            if (!recompile(sources)) {
+                return;
+            }
+            glueClassLoader = newGlueClassLoader();
+            if (changed.stream().noneMatch(WatchModeDaemon::isFeature)) {
+                runSelection(lastSelection);
+                return;
+            }
+        }
+
+        List<String> selection = new ArrayList<>();
+        changed.stream()
+            .filter(WatchModeDaemon::isFeature)
+            .filter(path -> path.startsWith(featureRoot()))
+            .forEach(path -> selection.addAll(changedScenarios(path)));
+        if (!selection.isEmpty()) {
+            runSelection(selection);
+        }
+    }
+
+    /**
+     * Diffs a feature file against its last snapshot.
+     *
+     * @return {@code file:line} entries of changed scenarios, or the file itself if the header changed
+     */
+    private List<String> changedScenarios(Path feature) {
+        FeatureBlocks previous = featureSnapshots.get(feature);
+        FeatureBlocks current = snapshot(feature);
+        if (current == null) {
+            return List.of(); // Deleted
+        }
+        if (previous == null || !previous.header().equals(current.header())) {
+            return List.of(feature.toString());
+        }
+        List<String> selection = new ArrayList<>();
+        current.scenarios().forEach((line, text) -> {
+            if (!previous.scenarios().containsValue(text)) {
+                selection.add(feature + ":" + line);
+            }
+        });
+        Collections.sort(selection);
+        return selection;
+    }
+
+    private FeatureBlocks snapshot(Path feature) {
+        try {
+            FeatureBlocks blocks = FeatureBlocks.parse(Files.readAllLines(feature, StandardCharsets.UTF_8));
+            featureSnapshots.put(feature, blocks);
+            return blocks;
+        } catch (IOException e) {
+            featureSnapshots.remove(feature);
+            return null;
+        }
+    }
+
+    private void runSelection(List<String> selection) {
+        if (selection.isEmpty()) {
+            System.out.println("Nothing to re-run yet - save a feature file first (or press 'a')");
+            return;
+        }
+        lastSelection = new ArrayList<>(selection);
+
+        List<String> args = new ArrayList<>(List.of(
+            "--glue", BASE_PACKAGE + "utils",
+            "--glue", BASE_PACKAGE + "steps." + platformFolder(),
+            "--tags", platformTag()));
+        args.addAll(selection);
+
+        System.out.println("Running: " + selection);
+        long start = System.nanoTime();
+        byte status = Main.run(args.toArray(String[]::new), glueClassLoader);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("========================================");
+        System.out.println((status == 0 ? "PASSED" : "FAILED") + " in " + elapsedMs + " ms - watching for changes");
+        System.out.println("========================================");
+    }
+
+    /**
+     * Compiles changed sources into {@code target/test-classes} against the current classpath.
+     *
+     * @return true if compilation succeeded
+     */
+    private boolean recompile(List<Path> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            System.err.println("No Java compiler available (running on a JRE?) - re-run mvn test-compile manually");
+            return false;
+        }
+        List<File> existing = sources.stream().filter(Files::exists).map(Path::toFile).toList();
+        if (existing.isEmpty()) {
+            return true;
+        }
+        try (StandardJavaFileManager fileManager =
+                compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<String> options = List.of(
+                "-d", CLASSES_DIR.toString(),
+                "-classpath", System.getProperty("java.class.path"),
+                "--release", "21",
+                "-encoding", "UTF-8");
+            boolean success = compiler.getTask(null, fileManager, null, options, null,
+                fileManager.getJavaFileObjectsFromFiles(existing)).call();
+            System.out.println((success ? "Recompiled: " : "Compilation FAILED: ") + sources);
+            return success;
+        } catch (IOException e) {
+            System.err.println("Compilation failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void startFileWatcher(List<Path> roots) throws IOException {
+        WatchService watchService = FileSystems.getDefault().newWatchService();
+        Map<WatchKey, Path> keys = new HashMap<>();
+        for (Path root : roots) {
+            registerRecursive(watchService, root, keys);
+        }
+
+        Thread watcher = new Thread(() -> {
+            Set<Path> pending = new LinkedHashSet<>();
+            try {
+                while (true) {
+                    // Block for the first event, then collect until the burst is quiet
+                    WatchKey key = pending.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+                    if (key == null) {
+                        Set<Path> batch = new LinkedHashSet<>(pending);
+                        tasks.add(() -> onFilesChanged(batch));
+                        pending.clear();
+                        continue;
+                    }
+                    Path dir = keys.get(key);
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (dir == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            continue;
+                        }
+                        Path path = dir.resolve((Path) event.context());
+                        if (Files.isDirectory(path)) {
+                            registerRecursive(watchService, path, keys);
+                        } else if (isFeature(path) || isReloadableSource(path)) {
+                            pending.add(path);
+                        }
+                    }
+                    key.reset();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                System.err.println("File watcher stopped: " + e.getMessage());
+            }
+        }, "watch-mode-files");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private static void registerRecursive(WatchService watchService, Path root, Map<WatchKey, Path> keys)
+            throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                keys.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY), dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void startConsoleReader() {
+        Thread console = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    switch (line.trim()) {
+                        case "" -> tasks.add(() -> runSelection(lastSelection));
+                        case "a" -> tasks.add(() -> runSelection(List.of(featureRoot().toString())));
+                        case "q" -> {
+                            tasks.add(() -> running = false);
+                            return;
+                        }
+                        default -> System.out.println("Unknown command: " + line + " (Enter, a, q)");
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Console input closed: " + e.getMessage());
+            }
+        }, "watch-mode-console");
+        console.setDaemon(true);
+        console.start();
+    }
+
+    private String platformFolder() {
+        return switch (platform) {
+            case "android", "ios" -> "mobile";
+            case "api" -> "api";
+            default -> "web";
+        };
+    }
+
+    private Path featureRoot() {
+        return FEATURES_DIR.resolve(platformFolder());
+    }
+
+    private String platformTag() {
+        return "@" + platform;
+    }
+
+    private static boolean isFeature(Path path) {
+        return path.toString().endsWith(".feature");
+    }
+
+    private static boolean isReloadableSource(Path path) {
+        String source = path.toString().replace(File.separatorChar, '.');
+        return source.endsWith(".java") && RELOADABLE_PACKAGES.stream().anyMatch(source::contains);
+    }
+
+    /**
+     * Creates a class loader that loads step/page/screen classes fresh from {@code target/test-classes}
+     * and delegates everything else to the application class loader, so drivers and hooks keep their state.
+     */
+    private static ClassLoader newGlueClassLoader() {
+        try {
+            return new ReloadingClassLoader(new URL[] {CLASSES_DIR.toUri().toURL()},
+                WatchModeDaemon.class.getClassLoader());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid classes directory: " + CLASSES_DIR, e);
+        }
+    }
+
+    /**
+     * Child-first class loader for {@link #RELOADABLE_PACKAGES}.
+     */
+    private static final class ReloadingClassLoader extends URLClassLoader {
+
+        ReloadingClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!isReloadable(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    loaded = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            // Glue scanning lists classes via resources: reloadable packages from this loader only,
+            // everything else from the parent only (otherwise Hooks would be registered twice)
+            return isReloadable(name.replace('/', '.')) ? findResources(name) : getParent().getResources(name);
+        }
+
+        private static boolean isReloadable(String name) {
+            return RELOADABLE_PACKAGES.stream().anyMatch(prefix -> name.startsWith(prefix)
+                || (name + ".").equals(prefix));
+        }
+    }
+}
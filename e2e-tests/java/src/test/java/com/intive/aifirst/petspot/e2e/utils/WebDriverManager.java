@@ -1,6 +1,8 @@
 package com.intive.aifirst.petspot.e2e.utils;
 
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 
@@ -99,6 +101,28 @@ public class WebDriverManager {
         driver.set(webDriver);
     }
     
+    /**
+     * Resets browser state without closing the browser (used when drivers are reused between runs).
+     * 
+     * <p>Clears cookies and web storage and navigates to a blank page, so the next scenario
+     * starts clean while skipping the Chrome launch. No-op if no driver exists.
+     */
+    public static void resetSession() {
+        WebDriver webDriver = driver.get();
+        if (webDriver == null) {
+            return;
+        }
+        webDriver.manage().deleteAllCookies();
+        if (webDriver instanceof JavascriptExecutor executor) {
+            try {
+                executor.executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            } catch (WebDriverException e) {
+                // Storage not accessible on current page (e.g. about:blank) - nothing to clear
+            }
+        }
+        webDriver.get("about:blank");
+    }
+    
     /**
      * Quits the WebDriver instance and removes it from ThreadLocal storage.
      * 
@@ -0,0 +1,69 @@
+# Feature: Announcements API
+# API-level checks of the data rules that web/mobile scenarios otherwise verify through the UI.
+# Runs without a browser or emulator: mvn test -Dtest=ApiTestRunner
+
+@api
+Feature: Announcements API
+  As a QA engineer
+  I want data rules of the announcements API checked directly
+  So that UI scenarios can focus on rendering
+
+  Scenario: Listed announcements expose valid status, date and photo
+    Given an announcement with a photo exists at latitude 51.1 and longitude 17.0
+    When I request the announcement list
+    Then every listed announcement should have status "MISSING" or "FOUND"
+    And every listed announcement should have an ISO last seen date
+    And every listed announcement should have a photo URL
+    And the created announcement should be listed
+
+  Scenario: Announcements without photo are not listed
+    Given an announcement without a photo exists
+    When I request the announcement list
+    Then the created announcement should not be listed
+
+  Scenario: Location filter includes announcements within range
+    Given an announcement with a photo exists at latitude 51.1 and longitude 17.0
+    When I request announcements near latitude 51.12 and longitude 17.02 within 5 km
+    Then the created announcement should be listed
+    And every listed announcement should be within 5 km of latitude 51.12 and longitude 17.02
+
+  Scenario: Location filter excludes announcements outside range
+    Given an announcement with a photo exists at latitude 51.1 and longitude 17.0
+    When I request announcements near latitude 52.23 and longitude 21.01 within 10 km
+    Then the created announcement should not be listed
+    And every listed announcement should be within 10 km of latitude 52.23 and longitude 21.01
+
+  Scenario Outline: Location filter rejects invalid parameters
+    When I request announcements with query "<query>"
+    Then the response status should be 400
+    And the error field should be "<field>"
+
+    Examples:
+      | query                      | field |
+      | lat=51.1                   | lng   |
+      | lng=17.0                   | lat   |
+      | lat=91&lng=17.0            | lat   |
+      | lat=51.1&lng=17.0&range=-1 | range |
+
+  Scenario: Duplicate microchip number is rejected
+    Given an announcement with a unique microchip number exists
+    When I create another announcement with the same microchip number
+    Then the response status should be 409
+    And the error field should be "microchipNumber"
+
+  Scenario: Photo upload requires credentials
+    Given an announcement without a photo exists
+    When I upload a photo without credentials
+    Then the response status should be 401
+
+  Scenario: Photo upload rejects wrong management password
+    Given an announcement without a photo exists
+    When I upload a photo with a wrong management password
+    Then the response status should be 403
+
+  Scenario: Photo upload with management password makes announcement visible
+    Given an announcement without a photo exists
+    When I upload a photo with the management password
+    Then the response status should be 201
+    When I request the announcement list
+    Then the created announcement should be listed
@@ -0,0 +1,193 @@
+/**
+ * Benchmark of list endpoint throughput with a single server process versus cluster mode.
+ *
+ * Starts the real server (`src/index.ts`) on a throwaway SQLite database, once with CLUSTER_WORKERS=1 and once
+ * with N workers, fills it with announcements and drives GET /api/v1/announcements from client threads using
+ * keep-alive connections. The client shares the machine with the server, so N should leave some cores free.
+ *
+ * Usage: npm run benchmark:cluster [-- <workers> <seconds per scenario> <announcements> <connections>]
+ */
+import { spawn } from 'child_process';
+import type { ChildProcess } from 'child_process';
+import os from 'os';
+import path from 'path';
+import { promises as fs } from 'fs';
+import { Worker } from 'worker_threads';
+import knex from 'knex';
+import knexConfig from '../knexfile.ts';
+
+const [
+  clusterWorkers = Math.max(os.availableParallelism() - 2, 2),
+  durationSeconds = 10,
+  announcementCount = 200,
+  connections = 64
+] = process.argv.slice(2).map(Number);
+const CLIENT_THREADS = 4;
+const PORT = 3917;
+const SERVER_DIR = path.join(import.meta.dirname, '..');
+
+// Inline CommonJS source, as in KeyDerivationPool, so the client threads need no separate build step
+const CLIENT_SOURCE = `
+const http = require('http');
+const { parentPort, workerData } = require('worker_threads');
+const { url, connections, deadline } = workerData;
+const agent = new http.Agent({ keepAlive: true, maxSockets: connections });
+const latencies = [];
+let errors = 0;
+
+function get() {
+  return new Promise((resolve) => {
+    const start = process.hrtime.bigint();
+    http.get(url, { agent }, (res) => {
+      res.resume();
+      res.on('end', () => {
+        if (res.statusCode === 200) latencies.push(Number(process.hrtime.bigint() - start) / 1e6);
+        else errors++;
+        resolve();
+      });
+    }).on('error', () => { errors++; resolve(); });
+  });
+}
+
+async function loop() {
+  while (Date.now() < deadline) await get();
+}
+
+Promise.all(Array.from({ length: connections }, loop)).then(() => {
+  agent.destroy();
+  parentPort.postMessage({ latencies, errors });
+});
+`;
+
+interface ClientResult {
+  latencies: number[];
+  errors: number;
+}
+
+function announcementRow(i: number) {
+  const createdAt = new Date(Date.UTC(2025, 10, 1) + i * 60000).toISOString();
+  return {
+    id: `bench-${i.toString().padStart(6, '0')}`,
+    pet_name: `Pet ${i}`,
+    species: i % 2 ? 'DOG' : 'CAT',
+    sex: 'MALE',
+    description: 'Benchmark announcement with a description of typical length for the list view.',
+    location_latitude: 49 + Math.random() * 6,
+    location_longitude: 14 + Math.random() * 10,
+    last_seen_date: '2025-11-18',
+    email: 'owner@example.com',
+    photo_url: `/images/bench-${i}.jpeg`,
+    status: 'MISSING',
+    management_password_hash: 'hash',
+    created_at: createdAt,
+    updated_at: createdAt
+  };
+}
+
+async function startServer(workers: number, dbFile: string): Promise<ChildProcess> {
+  const server = spawn(process.execPath, ['--experimental-transform-types', './src/index.ts'], {
+    cwd: SERVER_DIR,
+    stdio: 'ignore',
+    env: {
+      ...process.env,
+      NODE_ENV: 'production',
+      PORT: String(PORT),
+      CLUSTER_WORKERS: String(workers),
+      DATABASE_PATH: dbFile,
+      JWT_SECRET: 'benchmark-secret-key-of-at-least-32-bytes'
+    }
+  });
+
+  const deadline = Date.now() + 30000;
+  while (Date.now() < deadline) {
+    try {
+      const response = await fetch(`http://localhost:${PORT}/api/health`);
+      if (response.ok) {
+        // The first worker is up; give the remaining cluster workers time to start listening
+        await new Promise((resolve) => setTimeout(resolve, 1000));
+        return server;
+      }
+    } catch {
+      // not listening yet
+    }
+    await new Promise((resolve) => setTimeout(resolve, 200));
+  }
+  server.kill('SIGKILL');
+  throw new Error('Server did not start within 30 s');
+}
+
+async function stopServer(server: ChildProcess): Promise<void> {
+  const exited = new Promise((resolve) => server.once('exit', resolve));
+  server.kill('SIGTERM');
+  await exited;
+}
+
+async function fillDatabase(dbFile: string): Promise<void> {
+  // The server reseeds on start, so rows are added afterwards; WAL lets this process write alongside it
+  const db = knex({ ...knexConfig, connection: { filename: dbFile } });
+  try {
+    await db.batchInsert('announcement', Array.from({ length: announcementCount }, (_, i) => announcementRow(i)), 200);
+    await db('dataset_version').where('id', 1).increment('version', 1);
+  } finally {
+    await db.destroy();
+  }
+}
+
+async function load(): Promise<ClientResult> {
+  const deadline = Date.now() + durationSeconds * 1000;
+  const results = await Promise.all(
+    Array.from(
+      { length: CLIENT_THREADS },
+      () =>
+        new Promise<ClientResult>((resolve, reject) => {
+          const worker = new Worker(CLIENT_SOURCE, {
+            eval: true,
+            workerData: {
+              url: `http://localhost:${PORT}/api/v1/announcements`,
+              connections: Math.ceil(connections / CLIENT_THREADS),
+              deadline
+            }
+          });
+          worker.once('message', resolve);
+          worker.once('error', reject);
+        })
+    )
+  );
+  return { latencies: results.flatMap((result) => result.latencies), errors: results.reduce((sum, result) => sum + result.errors, 0) };
+}
+
+async function run(workers: number): Promise<void> {
+  const workDir = await fs.mkdtemp(path.join(os.tmpdir(), 'petspot-cluster-bench-'));
+  const dbFile = path.join(workDir, 'bench.db');
+  const server = await startServer(workers, dbFile);
+
+  try {
+    await fillDatabase(dbFile);
+    await fetch(`http://localhost:${PORT}/api/v1/announcements`); // warm up
+    report(`${workers} worker${workers > 1 ? 's' : ''}`, await load());
+  } finally {
+    await stopServer(server);
+    await fs.rm(workDir, { recursive: true, force: true });
+  }
+}
+
+function report(name: string, result: ClientResult): void {
+  const latencies = [...result.latencies].sort((a, b) => a - b);
+  const percentile = (p: number) => latencies[Math.min(latencies.length - 1, Math.floor(latencies.length * p))] ?? 0;
+  console.info(
+    [
+      name.padEnd(12),
+      `${(latencies.length / durationSeconds).toFixed(0).padStart(7)} req/s`,
+      `p50 ${percentile(0.5).toFixed(2).padStart(7)} ms`,
+      `p99 ${percentile(0.99).toFixed(2).padStart(7)} ms`,
+      `errors ${result.errors}`
+    ].join(' | ')
+  );
+}
+
+console.info(
+  `GET /api/v1/announcements, ${announcementCount} announcements, ${connections} connections, ${durationSeconds} s per scenario, ` +
+    `${os.availableParallelism()} cores`
+);
+await run(1);
+await run(clusterWorkers);
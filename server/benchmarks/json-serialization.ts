@@ -0,0 +1,137 @@
+/**
+ * Benchmark of serializing the `{ data }` list response.
+ *
+ * Compares JSON.stringify (res.json), a serializer compiled from the Announcement field types (the approach
+ * of schema-based serializers such as fast-json-stringify: one string concatenation per field, no property
+ * enumeration) and sharedJson on a cache hit, which is what the list endpoint uses for cached lists. The
+ * brotli column is the compression a hit would pay without the compressed copy kept by sharedJson.
+ *
+ * Needs Node 22.7+ for type stripping, like the node:24 runtime of the server image.
+ *
+ * Usage: npm run benchmark:serialization [-- 1000 10000]
+ */
+import zlib from 'zlib';
+import type { Announcement, AnnouncementField } from '../src/types/announcement.ts';
+import { sharedJson } from '../src/lib/memoized-json.ts';
+
+const SIZES = process.argv.slice(2).map(Number).filter((size) => size > 0);
+const RUNS_PER_CASE = 100;
+
+type FieldKind = 'string' | 'number' | 'json';
+
+const ANNOUNCEMENT_SCHEMA: Record<AnnouncementField, FieldKind> = {
+  id: 'string',
+  petName: 'string',
+  species: 'string',
+  breed: 'string',
+  sex: 'string',
+  age: 'number',
+  description: 'string',
+  microchipNumber: 'string',
+  locationLatitude: 'number',
+  locationLongitude: 'number',
+  lastSeenDate: 'string',
+  email: 'string',
+  phone: 'string',
+  photoUrl: 'string',
+  photoVariants: 'json',
+  status: 'string',
+  reward: 'string',
+  createdAt: 'string',
+  updatedAt: 'string'
+};
+
+// eslint-disable-next-line no-control-regex
+const ESCAPE_REQUIRED = /[\u0000-\u001f"\\\ud800-\udfff]/;
+
+const writers = {
+  string: (value: string) => (ESCAPE_REQUIRED.test(value) ? JSON.stringify(value) : `"${value}"`),
+  number: (value: number) => (Number.isFinite(value) ? String(value) : 'null'),
+  json: (value: unknown) => JSON.stringify(value)
+};
+
+function compileSerializer(schema: Record<string, FieldKind>): (item: Announcement) => string {
+  const statements = Object.entries(schema).map(
+    ([field, kind]) =>
+      `v = item[${JSON.stringify(field)}]; if (v !== undefined) json += ${JSON.stringify(`,${JSON.stringify(field)}:`)} + ` +
+      `(v === null ? 'null' : writers.${kind}(v));`
+  );
+  const body = ["let json = '';", 'let v;', ...statements, "return '{' + json.substring(1) + '}';"].join('\n');
+  return new Function('writers', `return function serialize(item) {\n${body}\n};`)(writers);
+}
+
+const serializeAnnouncement = compileSerializer(ANNOUNCEMENT_SCHEMA);
+
+function announcement(i: number): Announcement {
+  return {
+    id: `7c9e6679-7425-40de-944b-e07fc1f9${String(i).padStart(4, '0')}`,
+    petName: i % 3 === 0 ? null : 'Burek',
+    species: 'DOG',
+    breed: 'Mieszaniec',
+    sex: 'MALE',
+    age: i % 5 === 0 ? null : 4,
+    description: 'Brązowy pies z białą łatą na piersi, w czerwonej obroży. Przyjazny, reaguje na imię.',
+    microchipNumber: null,
+    locationLatitude: 54.35 + (i % 1000) / 10000,
+    locationLongitude: 18.65 - (i % 700) / 10000,
+    lastSeenDate: '2025-11-18',
+    email: 'john@example.com',
+    phone: '+48 123 456 789',
+    photoUrl: `/images/${i}.jpeg`,
+    photoVariants:
+      i % 2 === 0
+        ? null
+        : {
+            card: { width: 320, webp: `/images/${i}-card.webp`, avif: `/images/${i}-card.avif` },
+            popup: { width: 640, webp: `/images/${i}-popup.webp`, avif: `/images/${i}-popup.avif` },
+            full: { width: 1600, webp: `/images/${i}-full.webp`, avif: `/images/${i}-full.avif` }
+          },
+    status: 'MISSING',
+    reward: i % 4 === 0 ? '500 zł' : null,
+    createdAt: '2025-11-20T11:00:00.000Z',
+    updatedAt: '2025-11-20T11:00:00.000Z'
+  };
+}
+
+function measure(run: () => unknown): { median: number; p95: number } {
+  const durations: number[] = [];
+  for (let i = 0; i < 20; i++) {
+    run(); // warm up the JIT
+  }
+  for (let i = 0; i < RUNS_PER_CASE; i++) {
+    const start = process.hrtime.bigint();
+    run();
+    durations.push(Number(process.hrtime.bigint() - start) / 1e6);
+  }
+  durations.sort((a, b) => a - b);
+  return { median: durations[Math.floor(durations.length / 2)], p95: durations[Math.floor(durations.length * 0.95)] };
+}
+
+function benchmark(size: number): void {
+  const announcements = Array.from({ length: size }, (_, i) => announcement(i));
+  const expected = JSON.stringify({ data: announcements });
+  const compiled = () => `{"data":[${announcements.map(serializeAnnouncement).join(',')}]}`;
+  const memoized = () => sharedJson(announcements, (list) => `{"data":${JSON.stringify(list)}}`).text;
+  if (compiled() !== expected || memoized() !== expected) {
+    throw new Error('Serializers disagree with JSON.stringify');
+  }
+
+  const results = [
+    { name: 'JSON.stringify', ...measure(() => JSON.stringify({ data: announcements })) },
+    { name: 'compiled', ...measure(compiled) },
+    { name: 'cache hit', ...measure(memoized) },
+    { name: 'brotli', ...measure(() => zlib.brotliCompressSync(expected, { params: { [zlib.constants.BROTLI_PARAM_QUALITY]: 4 } })) }
+  ];
+  console.info(
+    [
+      String(size).padStart(6),
+      `${(Buffer.byteLength(expected) / 1024).toFixed(0).padStart(6)} KiB`,
+      ...results.map(({ name, median, p95 }) => `${name} ${median.toFixed(2).padStart(7)} ms (p95 ${p95.toFixed(2)})`)
+    ].join(' | ')
+  );
+}
+
+console.info(`list response | median of ${RUNS_PER_CASE} serializations (${process.version})`);
+for (const size of SIZES.length > 0 ? SIZES : [1_000, 10_000]) {
+  benchmark(size);
+}
@@ -0,0 +1,109 @@
+/**
+ * Benchmark of the location-filtered announcement query.
+ *
+ * Compares the previous full-scan Haversine query with the indexed path of AnnouncementRepository.findAll
+ * (bounding box prefilter over the grid cell / latitude-longitude indexes) on a throwaway SQLite database.
+ *
+ * Usage: npm run benchmark:location [-- 10000 100000 1000000]
+ */
+import os from 'os';
+import path from 'path';
+import { promises as fs } from 'fs';
+import knex from 'knex';
+import knexConfig from '../knexfile.ts';
+import { AnnouncementRepository } from '../src/database/repositories/announcement-repository.ts';
+
+const SIZES = process.argv.slice(2).map(Number).filter((size) => size > 0);
+const QUERIES_PER_CASE = 30;
+const INSERT_CHUNK_SIZE = 500;
+const RANGES_KM = [5, 50];
+
+// Announcements spread over Poland (roughly 49-55°N, 14-24°E)
+const AREA = { minLat: 49, maxLat: 55, minLng: 14, maxLng: 24 };
+
+const FULL_SCAN_SQL = `
+  SELECT * FROM (
+    SELECT *, (6371 * acos(
+      cos(radians(?)) * cos(radians(location_latitude)) * cos(radians(location_longitude) - radians(?)) +
+      sin(radians(?)) * sin(radians(location_latitude))
+    )) AS distance
+    FROM announcement
+  ) WHERE distance < ? AND photo_url IS NOT NULL`;
+
+function randomIn(min: number, max: number): number {
+  return min + Math.random() * (max - min);
+}
+
+function randomCenter() {
+  return { lat: randomIn(AREA.minLat + 1, AREA.maxLat - 1), lng: randomIn(AREA.minLng + 1, AREA.maxLng - 1) };
+}
+
+async function measure(run: () => Promise<unknown>): Promise<{ median: number; p95: number }> {
+  const durations: number[] = [];
+  await run(); // warm up page cache
+  for (let i = 0; i < QUERIES_PER_CASE; i++) {
+    const start = process.hrtime.bigint();
+    await run();
+    durations.push(Number(process.hrtime.bigint() - start) / 1e6);
+  }
+  durations.sort((a, b) => a - b);
+  return { median: durations[Math.floor(durations.length / 2)], p95: durations[Math.floor(durations.length * 0.95)] };
+}
+
+async function benchmark(size: number): Promise<void> {
+  const dbFile = path.join(os.tmpdir(), `petspot-location-bench-${process.pid}.db`);
+  await fs.rm(dbFile, { force: true });
+  const db = knex({ ...knexConfig, connection: { filename: dbFile } });
+
+  try {
+    await db.migrate.latest();
+    await db.transaction(async (trx) => {
+      for (let offset = 0; offset < size; offset += INSERT_CHUNK_SIZE) {
+        const rows = Array.from({ length: Math.min(INSERT_CHUNK_SIZE, size - offset) }, (_, i) => ({
+          id: `bench-${offset + i}`,
+          species: 'DOG',
+          sex: 'MALE',
+          location_latitude: randomIn(AREA.minLat, AREA.maxLat),
+          location_longitude: randomIn(AREA.minLng, AREA.maxLng),
+          last_seen_date: '2025-11-18',
+          photo_url: '/images/bench.jpg',
+          status: 'MISSING',
+          management_password_hash: 'hash',
+          created_at: '2025-11-18T10:00:00.000Z',
+          updated_at: '2025-11-18T10:00:00.000Z'
+        }));
+        await trx('announcement').insert(rows);
+      }
+    });
+    await db.raw('ANALYZE');
+
+    const repository = new AnnouncementRepository(db);
+    for (const range of RANGES_KM) {
+      const fullScan = await measure(() => {
+        const { lat, lng } = randomCenter();
+        return db.raw(FULL_SCAN_SQL, [lat, lng, lat, range]);
+      });
+      const indexed = await measure(() => {
+        const { lat, lng } = randomCenter();
+        return repository.findAll({ lat, lng, range });
+      });
+      console.info(
+        [
+          String(size).padStart(9),
+          `${String(range).padStart(3)} km`,
+          `full scan ${fullScan.median.toFixed(2).padStart(9)} ms (p95 ${fullScan.p95.toFixed(2)})`,
+          `indexed ${indexed.median.toFixed(2).padStart(8)} ms (p95 ${indexed.p95.toFixed(2)})`,
+          `${(fullScan.median / indexed.median).toFixed(1)}x`
+        ].join(' | ')
+      );
+    }
+  } finally {
+    await db.destroy();
+    await fs.rm(dbFile, { force: true });
+  }
+}
+
+console.info(`announcements |  range | median of ${QUERIES_PER_CASE} queries`);
+for (const size of SIZES.length > 0 ? SIZES : [10_000, 100_000, 1_000_000]) {
+  await benchmark(size);
+}
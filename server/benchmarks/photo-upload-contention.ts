@@ -0,0 +1,127 @@
+/**
+ * Benchmark of announcement creation and photo upload throughput under write contention.
+ *
+ * Runs concurrent upload and create loops against a throwaway SQLite database and compares the previous
+ * upload flow (photo written to disk inside the `photo_url` transaction) with PhotoUploadService, which
+ * keeps the transaction to the UPDATE and renames the staged file after commit. Creates insert rows
+ * directly so password hashing does not hide the lock wait.
+ *
+ * Usage: npm run benchmark:upload-contention [-- <photo size MB> <seconds per scenario>]
+ */
+import { randomBytes } from 'crypto';
+import os from 'os';
+import path from 'path';
+import { promises as fs } from 'fs';
+import knex from 'knex';
+import type { Knex } from 'knex';
+import knexConfig from '../knexfile.ts';
+import { AnnouncementRepository } from '../src/database/repositories/announcement-repository.ts';
+import { PhotoUploadService } from '../src/services/photo-upload-service.ts';
+
+const [photoSizeMb = 5, durationSeconds = 5] = process.argv.slice(2).map(Number);
+const UPLOAD_CONCURRENCY = 4;
+const CREATE_CONCURRENCY = 4;
+
+type UploadFlow = (db: Knex, id: string, photo: Buffer, imagesDir: string) => Promise<void>;
+
+interface Result {
+  uploads: number;
+  creates: number;
+  createLatencies: number[];
+}
+
+/** Upload flow before the transaction was shortened: file I/O while holding the write lock */
+const legacyUpload: UploadFlow = async (db, id, photo, imagesDir) => {
+  await db.transaction(async (trx) => {
+    await trx('announcement').where('id', id).update({ photo_url: `/images/${id}.jpeg`, updated_at: new Date().toISOString() });
+    await fs.writeFile(path.join(imagesDir, `${id}.jpeg`), photo);
+  });
+};
+
+function currentUpload(service: PhotoUploadService): UploadFlow {
+  return async (_db, id, photo, imagesDir) => {
+    // The upload middleware streams the request body to a temp file before the service runs
+    const tempPath = path.join(imagesDir, '.uploads', `${id}-${process.hrtime.bigint()}.upload`);
+    await fs.writeFile(tempPath, photo);
+    await service.uploadPhoto(id, { tempPath, mimeType: 'image/jpeg', size: photo.length, sha256: 'benchmark' }, imagesDir);
+  };
+}
+
+function announcementRow(id: string) {
+  const now = new Date().toISOString();
+  return {
+    id,
+    species: 'DOG',
+    sex: 'MALE',
+    location_latitude: 51.1,
+    location_longitude: 17.03,
+    last_seen_date: '2025-11-18',
+    status: 'MISSING',
+    management_password_hash: 'hash',
+    created_at: now,
+    updated_at: now
+  };
+}
+
+async function run(name: string, createFlow: (db: Knex) => UploadFlow): Promise<void> {
+  const workDir = await fs.mkdtemp(path.join(os.tmpdir(), 'petspot-upload-bench-'));
+  const imagesDir = path.join(workDir, 'images');
+  await fs.mkdir(path.join(imagesDir, '.uploads'), { recursive: true });
+  const db = knex({ ...knexConfig, connection: { filename: path.join(workDir, 'bench.db') } });
+
+  try {
+    await db.migrate.latest();
+    const uploadIds = Array.from({ length: UPLOAD_CONCURRENCY }, (_, i) => `upload-${i}`);
+    await db('announcement').insert(uploadIds.map(announcementRow));
+
+    const upload = createFlow(db);
+    const photo = randomBytes(photoSizeMb * 1024 * 1024);
+    const result: Result = { uploads: 0, creates: 0, createLatencies: [] };
+    const deadline = Date.now() + durationSeconds * 1000;
+    let sequence = 0;
+
+    const uploadLoops = uploadIds.map(async (id) => {
+      while (Date.now() < deadline) {
+        await upload(db, id, photo, imagesDir);
+        result.uploads++;
+      }
+    });
+    const createLoops = Array.from({ length: CREATE_CONCURRENCY }, async () => {
+      while (Date.now() < deadline) {
+        const start = process.hrtime.bigint();
+        await db('announcement').insert(announcementRow(`create-${sequence++}`));
+        result.createLatencies.push(Number(process.hrtime.bigint() - start) / 1e6);
+        result.creates++;
+      }
+    });
+    await Promise.all([...uploadLoops, ...createLoops]);
+
+    report(name, result);
+  } finally {
+    await db.destroy();
+    await fs.rm(workDir, { recursive: true, force: true });
+  }
+}
+
+function report(name: string, result: Result): void {
+  const latencies = [...result.createLatencies].sort((a, b) => a - b);
+  const percentile = (p: number) => latencies[Math.min(latencies.length - 1, Math.floor(latencies.length * p))] ?? 0;
+  console.info(
+    [
+      name.padEnd(24),
+      `uploads ${(result.uploads / durationSeconds).toFixed(1).padStart(7)}/s`,
+      `creates ${(result.creates / durationSeconds).toFixed(1).padStart(8)}/s`,
+      `create p50 ${percentile(0.5).toFixed(2).padStart(7)} ms`,
+      `p95 ${percentile(0.95).toFixed(2).padStart(7)} ms`,
+      `p99 ${percentile(0.99).toFixed(2).padStart(7)} ms`
+    ].join(' | ')
+  );
+}
+
+console.info(
+  `${UPLOAD_CONCURRENCY} upload + ${CREATE_CONCURRENCY} create workers, ${photoSizeMb} MB photos, ${durationSeconds} s per scenario`
+);
+await run('write inside transaction', () => legacyUpload);
+await run('rename after commit', (db) =>
+  currentUpload(new PhotoUploadService(new AnnouncementRepository(db), db.transaction.bind(db), path, fs))
+);
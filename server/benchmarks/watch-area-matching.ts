@@ -0,0 +1,91 @@
+/**
+ * Benchmark of matching a new announcement against saved watch areas.
+ *
+ * Compares loading every watch area and checking the distance in the application with
+ * WatchAreaRepository.findContaining (R*Tree bounding box lookup, then the exact distance check)
+ * on a throwaway SQLite database.
+ *
+ * Usage: npm run benchmark:watch-areas [-- 10000 100000]
+ */
+import os from 'os';
+import path from 'path';
+import { promises as fs } from 'fs';
+import knex from 'knex';
+import knexConfig from '../knexfile.ts';
+import { WatchAreaRepository } from '../src/database/repositories/watch-area-repository.ts';
+import { distanceKm } from '../src/lib/geo-grid.ts';
+import type { WatchAreaRow } from '../src/types/watch-area.ts';
+
+const SIZES = process.argv.slice(2).map(Number).filter((size) => size > 0);
+const QUERIES_PER_CASE = 100;
+const USERS = 1000;
+
+// Watch areas spread over Poland (roughly 49-55°N, 14-24°E)
+const AREA = { minLat: 49, maxLat: 55, minLng: 14, maxLng: 24 };
+
+function randomIn(min: number, max: number): number {
+  return min + Math.random() * (max - min);
+}
+
+async function measure(run: () => Promise<unknown>): Promise<{ median: number; p95: number }> {
+  const durations: number[] = [];
+  await run(); // warm up page cache
+  for (let i = 0; i < QUERIES_PER_CASE; i++) {
+    const start = process.hrtime.bigint();
+    await run();
+    durations.push(Number(process.hrtime.bigint() - start) / 1e6);
+  }
+  durations.sort((a, b) => a - b);
+  return { median: durations[Math.floor(durations.length / 2)], p95: durations[Math.floor(durations.length * 0.95)] };
+}
+
+async function benchmark(size: number): Promise<void> {
+  const dbFile = path.join(os.tmpdir(), `petspot-watch-area-bench-${process.pid}.db`);
+  await fs.rm(dbFile, { force: true });
+  const db = knex({ ...knexConfig, connection: { filename: dbFile } });
+
+  try {
+    await db.migrate.latest();
+    await db.transaction(async (trx) => {
+      await trx.batchInsert(
+        'user',
+        Array.from({ length: USERS }, (_, i) => ({ id: `bench-${i}`, email: `bench-${i}@example.com`, password_hash: 'hash' })),
+        500
+      );
+      const repository = new WatchAreaRepository(trx);
+      for (let i = 0; i < size; i++) {
+        await repository.create(`bench-${i % USERS}`, {
+          latitude: randomIn(AREA.minLat, AREA.maxLat),
+          longitude: randomIn(AREA.minLng, AREA.maxLng),
+          radiusKm: randomIn(1, 20)
+        });
+      }
+    });
+    await db.raw('ANALYZE');
+
+    const repository = new WatchAreaRepository(db);
+    const fullScan = await measure(async () => {
+      const lat = randomIn(AREA.minLat, AREA.maxLat);
+      const lng = randomIn(AREA.minLng, AREA.maxLng);
+      const rows: WatchAreaRow[] = await db('watch_area').select('*');
+      return rows.filter((row) => distanceKm(row.latitude, row.longitude, lat, lng) <= row.radius_km);
+    });
+    const indexed = await measure(() => repository.findContaining(randomIn(AREA.minLat, AREA.maxLat), randomIn(AREA.minLng, AREA.maxLng)));
+    console.info(
+      [
+        String(size).padStart(11),
+        `full scan ${fullScan.median.toFixed(2).padStart(9)} ms (p95 ${fullScan.p95.toFixed(2)})`,
+        `indexed ${indexed.median.toFixed(2).padStart(8)} ms (p95 ${indexed.p95.toFixed(2)})`,
+        `${(fullScan.median / indexed.median).toFixed(1)}x`
+      ].join(' | ')
+    );
+  } finally {
+    await db.destroy();
+    await fs.rm(dbFile, { force: true });
+  }
+}
+
+console.info(`watch areas | median of ${QUERIES_PER_CASE} matches`);
+for (const size of SIZES.length > 0 ? SIZES : [10_000, 100_000]) {
+  await benchmark(size);
+}
@@ -1,12 +1,9 @@
 import type { Knex } from 'knex';
 
+const DB_CLIENT = process.env.DB_CLIENT || 'sqlite';
 const DB_FILENAME = process.env.DATABASE_PATH || (process.env.NODE_ENV === 'test' ? './pets-its.db' : './pets.db');
 
-const config: Knex.Config = {
-  client: 'better-sqlite3',
-  connection: {
-    filename: DB_FILENAME
-  },
+const shared: Knex.Config = {
   migrations: {
     tableName: 'knex_migrations',
     directory: './src/database/migrations',
@@ -15,8 +12,70 @@ const config: Knex.Config = {
   seeds: {
     directory: './src/database/seeds',
     extension: 'ts'
-  },
-  useNullAsDefault: true
+  }
 };
 
+interface SqliteConnection {
+  pragma(source: string): unknown;
+}
+
+/**
+ * WAL lets readers in every cluster worker run alongside the single writer. synchronous=NORMAL is
+ * durable across application crashes in WAL mode (a power loss may drop the last commits), writers
+ * wait up to 5 s for the lock instead of failing with SQLITE_BUSY, and each connection keeps a 64 MB
+ * page cache plus a 256 MB memory map of the database file.
+ */
+const SQLITE_PRAGMAS = [
+  'journal_mode = WAL',
+  'synchronous = NORMAL',
+  'busy_timeout = 5000',
+  'cache_size = -65536',
+  'mmap_size = 268435456',
+  'temp_store = MEMORY'
+];
+
+function sqliteConfig(): Knex.Config {
+  return {
+    ...shared,
+    client: 'better-sqlite3',
+    connection: {
+      filename: DB_FILENAME
+    },
+    pool: {
+      afterCreate: (connection: SqliteConnection, done: (error: Error | null, connection: SqliteConnection) => void) => {
+        SQLITE_PRAGMAS.forEach((pragma) => connection.pragma(pragma));
+        done(null, connection);
+      }
+    },
+    useNullAsDefault: true
+  };
+}
+
+/**
+ * PostgreSQL with PostGIS. Connections are pooled per process (DB_POOL_MIN-DB_POOL_MAX) and
+ * requests wait at most DB_ACQUIRE_TIMEOUT_MS for a free connection.
+ */
+function postgresConfig(): Knex.Config {
+  const connectionString = process.env.DATABASE_URL;
+  if (!connectionString) {
+    throw new Error('DATABASE_URL environment variable is required when DB_CLIENT=postgres');
+  }
+  return {
+    ...shared,
+    client: 'pg',
+    connection: connectionString,
+    pool: {
+      min: Number(process.env.DB_POOL_MIN) || 2,
+      max: Number(process.env.DB_POOL_MAX) || 10
+    },
+    acquireConnectionTimeout: Number(process.env.DB_ACQUIRE_TIMEOUT_MS) || 10000
+  };
+}
+
+if (DB_CLIENT !== 'sqlite' && DB_CLIENT !== 'postgres') {
+  throw new Error(`Unsupported DB_CLIENT "${DB_CLIENT}", expected "sqlite" or "postgres"`);
+}
+
+const config: Knex.Config = DB_CLIENT === 'postgres' ? postgresConfig() : sqliteConfig();
+
 export default config;
@@ -0,0 +1,247 @@
+import { describe, it, expect, beforeAll, beforeEach, afterAll } from 'vitest';
+import { db } from '../../database/db-utils.ts';
+import { AnnouncementRepository } from '../../database/repositories/announcement-repository.ts';
+import type { CreateAnnouncementDto, PhotoVariants } from '../../types/announcement.ts';
+
+// Runs against the database selected by DB_CLIENT (SQLite by default, `npm run test:postgres` for PostgreSQL)
+const CENTER = { lat: 51.1079, lng: 17.0385 };
+
+function announcementRow(id: string, lat: number, lng: number, createdAt: string) {
+  return {
+    id,
+    species: 'DOG',
+    sex: 'MALE',
+    location_latitude: lat,
+    location_longitude: lng,
+    last_seen_date: '2025-11-18',
+    photo_url: `/images/${id}.jpeg`,
+    status: 'MISSING',
+    management_password_hash: 'hash',
+    created_at: createdAt,
+    updated_at: createdAt
+  };
+}
+
+describe('AnnouncementRepository', () => {
+  let repository: AnnouncementRepository;
+
+  beforeAll(async () => {
+    await db.migrate.latest();
+    repository = new AnnouncementRepository(db);
+  });
+
+  beforeEach(async () => {
+    await db('announcement').del();
+    await db('announcement_tombstone').del();
+  });
+
+  afterAll(async () => {
+    await db('announcement').del();
+    await db.destroy();
+  });
+
+  it('should create announcement and read it back with ISO timestamps', async () => {
+    // given
+    const data: CreateAnnouncementDto = {
+      species: 'CAT',
+      sex: 'FEMALE',
+      locationLatitude: CENTER.lat,
+      locationLongitude: CENTER.lng,
+      lastSeenDate: '2025-11-20',
+      status: 'MISSING',
+      email: 'owner@example.com'
+    };
+
+    // when
+    const created = await repository.create(data, '123456');
+    const found = await repository.findById(created.id);
+
+    // then
+    expect(found).toMatchObject({ species: 'CAT', locationLatitude: CENTER.lat, locationLongitude: CENTER.lng, photoUrl: null });
+    expect(found?.createdAt).toMatch(/^\d{4}-\d{2}-\d{2}T\d{2}:\d{2}:\d{2}\.\d{3}Z$/);
+  });
+
+  it('should return only announcements within range of location filter', async () => {
+    // given
+    await db('announcement').insert([
+      announcementRow('near', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'),
+      announcementRow('three-km', CENTER.lat + 0.027, CENTER.lng, '2025-11-20T11:00:00.000Z'),
+      announcementRow('twenty-km', CENTER.lat + 0.18, CENTER.lng, '2025-11-20T12:00:00.000Z')
+    ]);
+
+    // when
+    const within5km = await repository.findAll({ lat: CENTER.lat, lng: CENTER.lng, range: 5 });
+    const within50km = await repository.findAll({ lat: CENTER.lat, lng: CENTER.lng, range: 50 });
+
+    // then
+    expect(within5km.map((announcement) => announcement.id).sort()).toEqual(['near', 'three-km']);
+    expect(within50km).toHaveLength(3);
+  });
+
+  it('should return announcements updated and deleted since timestamp', async () => {
+    // given
+    await db('announcement').insert([
+      announcementRow('before', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'),
+      announcementRow('after', CENTER.lat, CENTER.lng, '2025-11-20T12:00:00.000Z')
+    ]);
+    const beforeDelete = new Date(Date.now() - 1000).toISOString();
+    await repository.delete('before');
+
+    // when
+    const updated = await repository.findUpdatedSince('2025-11-20T11:00:00.000Z');
+    const deleted = await repository.findDeletedSince(beforeDelete);
+
+    // then
+    expect(updated.map((announcement) => announcement.id)).toEqual(['after']);
+    expect(deleted).toEqual(['before']);
+    expect(await repository.findDeletedSince(new Date(Date.now() + 1000).toISOString())).toEqual([]);
+  });
+
+  it('should page through announcements in created_at order', async () => {
+    // given
+    await db('announcement').insert([
+      announcementRow('a', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'),
+      announcementRow('b', CENTER.lat, CENTER.lng, '2025-11-20T11:00:00.000Z'),
+      announcementRow('c', CENTER.lat, CENTER.lng, '2025-11-20T12:00:00.000Z')
+    ]);
+
+    // when
+    const first = await repository.findAll(undefined, { limit: 2 });
+    const last = first[first.length - 1];
+    const second = await repository.findAll(undefined, { limit: 2, cursor: { createdAt: last.createdAt, id: last.id } });
+
+    // then
+    expect(first.map((announcement) => announcement.id)).toEqual(['c', 'b']);
+    expect(second.map((announcement) => announcement.id)).toEqual(['a']);
+  });
+
+  it('should filter by status and page in lastSeenDate order', async () => {
+    // given
+    await db('announcement').insert([
+      { ...announcementRow('seen-18', CENTER.lat, CENTER.lng, '2025-11-21T10:00:00.000Z'), last_seen_date: '2025-11-18' },
+      { ...announcementRow('seen-20', CENTER.lat, CENTER.lng, '2025-11-19T10:00:00.000Z'), last_seen_date: '2025-11-20' },
+      { ...announcementRow('seen-19', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'), last_seen_date: '2025-11-19' },
+      { ...announcementRow('found', CENTER.lat, CENTER.lng, '2025-11-22T10:00:00.000Z'), last_seen_date: '2025-11-21', status: 'FOUND' }
+    ]);
+    const filter = { status: 'MISSING' as const, sort: 'lastSeenDate' as const };
+
+    // when
+    const first = await repository.findAll(undefined, { limit: 2 }, filter);
+    const last = first[first.length - 1];
+    const second = await repository.findAll(undefined, { limit: 2, cursor: { lastSeenDate: last.lastSeenDate, id: last.id } }, filter);
+    const nearby = await repository.findAll({ ...CENTER, range: 5 }, undefined, { ...filter, lastSeenFrom: '2025-11-19' });
+
+    // then
+    expect(first.map((announcement) => announcement.id)).toEqual(['seen-20', 'seen-19']);
+    expect(second.map((announcement) => announcement.id)).toEqual(['seen-18']);
+    expect(nearby.map((announcement) => announcement.id)).toEqual(['seen-20', 'seen-19']);
+  });
+
+  it('should read only requested fields', async () => {
+    // given
+    await db('announcement').insert([
+      announcementRow('near', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'),
+      announcementRow('far', CENTER.lat + 1, CENTER.lng, '2025-11-21T10:00:00.000Z')
+    ]);
+
+    // when
+    const found = await repository.findFields(['id', 'species', 'photoVariants', 'createdAt'], { ...CENTER, range: 5 }, { limit: 10 });
+
+    // then
+    expect(found).toEqual([{ id: 'near', species: 'DOG', photoVariants: null, createdAt: '2025-11-20T10:00:00.000Z' }]);
+  });
+
+  it('should store photo variants with photo URL', async () => {
+    // given
+    await db('announcement').insert(announcementRow('with-photo', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'));
+    const variants: PhotoVariants = {
+      card: { width: 400, webp: '/images/with-photo-card.webp', avif: '/images/with-photo-card.avif' },
+      popup: { width: 800, webp: '/images/with-photo-popup.webp', avif: '/images/with-photo-popup.avif' },
+      full: { width: 1600, webp: '/images/with-photo-full.webp', avif: '/images/with-photo-full.avif' }
+    };
+
+    // when
+    await db.transaction((trx) => repository.updatePhotoUrl(trx, 'with-photo', '/images/with-photo.png', variants));
+
+    // then
+    const found = await repository.findById('with-photo');
+    expect(found?.photoUrl).toBe('/images/with-photo.png');
+    expect(found?.photoVariants).toEqual(variants);
+  });
+
+  describe('search', () => {
+    const FIRST_PAGE = { limit: 10, offset: 0 };
+
+    it('should rank pet name matches first and match word prefixes', async () => {
+      // given
+      await db('announcement').insert([
+        { ...announcementRow('in-description', CENTER.lat, CENTER.lng, '2025-11-21T10:00:00.000Z'), description: 'Looks like Burek' },
+        { ...announcementRow('in-name', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'), pet_name: 'Burek', breed: 'Kundel' },
+        { ...announcementRow('other', CENTER.lat, CENTER.lng, '2025-11-19T10:00:00.000Z'), pet_name: 'Azor' },
+        { ...announcementRow('no-photo', CENTER.lat, CENTER.lng, '2025-11-19T10:00:00.000Z'), pet_name: 'Burek', photo_url: null }
+      ]);
+
+      // when
+      const byName = await repository.search(['burek'], undefined, FIRST_PAGE);
+      const byPrefixes = await repository.search(['bur', 'kund'], undefined, FIRST_PAGE);
+
+      // then
+      expect(byName.map((announcement) => announcement.id)).toEqual(['in-name', 'in-description']);
+      expect(byPrefixes.map((announcement) => announcement.id)).toEqual(['in-name']);
+    });
+
+    it('should combine text match with location filter and paging', async () => {
+      // given
+      await db('announcement').insert([
+        { ...announcementRow('near-1', CENTER.lat, CENTER.lng, '2025-11-21T10:00:00.000Z'), reward: '500 zł' },
+        { ...announcementRow('near-2', CENTER.lat + 0.01, CENTER.lng, '2025-11-20T10:00:00.000Z'), reward: '500 zł' },
+        { ...announcementRow('far', CENTER.lat + 1, CENTER.lng, '2025-11-22T10:00:00.000Z'), reward: '500 zł' }
+      ]);
+      const filter = { ...CENTER, range: 5 };
+
+      // when
+      const first = await repository.search(['500'], filter, { limit: 1, offset: 0 });
+      const second = await repository.search(['500'], filter, { limit: 1, offset: 1 });
+
+      // then
+      expect(first.map((announcement) => announcement.id)).toEqual(['near-1']);
+      expect(second.map((announcement) => announcement.id)).toEqual(['near-2']);
+    });
+
+    it('should ignore diacritics in announcements and search terms', async () => {
+      // given
+      await db('announcement').insert([
+        {
+          ...announcementRow('yellow', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'),
+          pet_name: 'Żółty',
+          description: 'Biała łapa'
+        },
+        { ...announcementRow('other', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'), pet_name: 'Azor' }
+      ]);
+
+      // when
+      const results = await Promise.all(
+        ['zolty', 'żółty', 'lapa', 'biała'].map((term) => repository.search([term], undefined, FIRST_PAGE))
+      );
+
+      // then
+      expect(results.map((found) => found.map((announcement) => announcement.id))).toEqual(Array(4).fill(['yellow']));
+    });
+
+    it('should follow updates and deletes of announcements', async () => {
+      // given
+      await db('announcement').insert([
+        { ...announcementRow('renamed', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'), pet_name: 'Reksio' },
+        { ...announcementRow('deleted', CENTER.lat, CENTER.lng, '2025-11-20T10:00:00.000Z'), pet_name: 'Reksio' }
+      ]);
+
+      // when
+      await db('announcement').where('id', 'renamed').update({ pet_name: 'Szarik' });
+      await repository.delete('deleted');
+
+      // then
+      expect(await repository.search(['reksio'], undefined, FIRST_PAGE)).toEqual([]);
+      expect((await repository.search(['szarik'], undefined, FIRST_PAGE)).map((announcement) => announcement.id)).toEqual(['renamed']);
+    });
+  });
+});
@@ -0,0 +1,132 @@
+import { describe, it, expect, beforeAll, beforeEach, afterAll } from 'vitest';
+import { db } from '../../database/db-utils.ts';
+import { WatchAreaRepository } from '../../database/repositories/watch-area-repository.ts';
+
+// Runs against the database selected by DB_CLIENT (SQLite by default, `npm run test:postgres` for PostgreSQL)
+const GDANSK = { latitude: 54.35, longitude: 18.65 };
+const USER_ID = 'watch-area-user';
+const ANNOUNCEMENT_ID = 'watch-area-announcement';
+
+const announcementRow = {
+  id: ANNOUNCEMENT_ID,
+  species: 'DOG',
+  sex: 'MALE',
+  location_latitude: GDANSK.latitude,
+  location_longitude: GDANSK.longitude,
+  last_seen_date: '2025-11-19',
+  status: 'MISSING',
+  management_password_hash: 'hash',
+  created_at: '2025-11-19T10:00:00.000Z',
+  updated_at: '2025-11-19T10:00:00.000Z'
+};
+
+describe('WatchAreaRepository', () => {
+  let repository: WatchAreaRepository;
+
+  beforeAll(async () => {
+    await db.migrate.latest();
+    repository = new WatchAreaRepository(db);
+  });
+
+  beforeEach(async () => {
+    await db('watch_area_notification').del();
+    await db('watch_area').del();
+    await db('user').where('id', USER_ID).del();
+    await db('user').insert({ id: USER_ID, email: 'watcher@example.com', password_hash: 'hash' });
+    await db('announcement').where('id', ANNOUNCEMENT_ID).del();
+    await db('announcement').insert(announcementRow);
+  });
+
+  afterAll(async () => {
+    await db('watch_area_notification').del();
+    await db('watch_area').del();
+    await db('user').where('id', USER_ID).del();
+    await db('announcement').where('id', ANNOUNCEMENT_ID).del();
+    await db.destroy();
+  });
+
+  it('should find areas whose circle contains the point', async () => {
+    // given
+    const small = await repository.create(USER_ID, { ...GDANSK, radiusKm: 2 });
+    const large = await repository.create(USER_ID, { ...GDANSK, radiusKm: 20 });
+    await repository.create(USER_ID, { latitude: 50.06, longitude: 19.94, radiusKm: 20 });
+
+    // when
+    const atCenter = await repository.findContaining(GDANSK.latitude, GDANSK.longitude);
+    // About 2.5 km north-east: inside the bounding box of the 2 km area but outside its circle
+    const inCorner = await repository.findContaining(GDANSK.latitude + 0.016, GDANSK.longitude + 0.027);
+
+    // then
+    expect(atCenter.map((area) => area.id).sort()).toEqual([small.id, large.id].sort());
+    expect(inCorner.map((area) => area.id)).toEqual([large.id]);
+  });
+
+  it('should match areas crossing the antimeridian', async () => {
+    // given
+    const area = await repository.create(USER_ID, { latitude: 0, longitude: 179.95, radiusKm: 20 });
+
+    // when
+    const found = await repository.findContaining(0, -179.95);
+
+    // then
+    expect(found.map((match) => match.id)).toEqual([area.id]);
+  });
+
+  it('should stop matching deleted areas and only delete areas of the owner', async () => {
+    // given
+    const area = await repository.create(USER_ID, { ...GDANSK, radiusKm: 5 });
+
+    // when
+    const deletedByOther = await repository.delete('other-user', area.id);
+    const deletedByOwner = await repository.delete(USER_ID, area.id);
+
+    // then
+    expect(deletedByOther).toBe(false);
+    expect(deletedByOwner).toBe(true);
+    expect(await repository.findContaining(GDANSK.latitude, GDANSK.longitude)).toEqual([]);
+  });
+
+  it('should queue a notification once per user and announcement', async () => {
+    // given
+    const area = await repository.create(USER_ID, { ...GDANSK, radiusKm: 5 });
+    const notification = { userId: USER_ID, watchAreaId: area.id, announcementId: ANNOUNCEMENT_ID };
+
+    // when
+    await repository.queueNotifications([notification]);
+    await repository.queueNotifications([notification]);
+
+    // then
+    const rows = await db('watch_area_notification').where('user_id', USER_ID);
+    expect(rows).toHaveLength(1);
+    expect(rows[0]).toMatchObject({ watch_area_id: area.id, announcement_id: ANNOUNCEMENT_ID, sent_at: null });
+  });
+
+  it.each([
+    { description: 'announcement', remove: () => db('announcement').where('id', ANNOUNCEMENT_ID).del() },
+    { description: 'watch area', remove: () => db('watch_area').where('user_id', USER_ID).del() }
+  ])('should drop queued notifications when the $description is deleted', async ({ remove }) => {
+    // given
+    const area = await repository.create(USER_ID, { ...GDANSK, radiusKm: 5 });
+    await repository.queueNotifications([{ userId: USER_ID, watchAreaId: area.id, announcementId: ANNOUNCEMENT_ID }]);
+
+    // when
+    await remove();
+
+    // then
+    expect(await db('watch_area_notification').where('user_id', USER_ID)).toEqual([]);
+  });
+
+  it('should not exceed the limit when areas are created concurrently', async () => {
+    // given
+    await repository.create(USER_ID, { ...GDANSK, radiusKm: 5 });
+
+    // when
+    const created = await Promise.all(
+      Array.from({ length: 5 }, (_, i) => repository.createWithinLimit(USER_ID, { ...GDANSK, radiusKm: i + 1 }, 3))
+    );
+
+    // then
+    expect(created.filter((area) => area !== null)).toHaveLength(2);
+    expect(await repository.findByUser(USER_ID)).toHaveLength(3);
+  });
+});
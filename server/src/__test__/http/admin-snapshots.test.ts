@@ -0,0 +1,81 @@
+import { promises as fs } from 'fs';
+import path from 'path';
+import { describe, it, expect, beforeEach, afterEach } from 'vitest';
+import request from 'supertest';
+import server from '../../server.ts';
+import { db } from '../../database/db-utils.ts';
+
+const ADMIN_TOKEN = 'tajnehasloadmina';
+const SNAPSHOT_NAME = 'it-snapshot';
+const IMAGES_DIR = path.join(process.cwd(), 'public', 'images');
+const EXTRA_IMAGE = 'aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa.jpeg';
+
+const TEST_ANNOUNCEMENT = {
+  id: 'aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa',
+  pet_name: 'Azor',
+  species: 'DOG',
+  breed: null,
+  sex: 'MALE',
+  age: 5,
+  description: null,
+  microchip_number: null,
+  location_latitude: 54.48,
+  location_longitude: 18.53,
+  last_seen_date: '2025-11-19',
+  email: 'test@example.pl',
+  phone: null,
+  photo_url: '/images/azor.jpg',
+  status: 'MISSING',
+  reward: null,
+  management_password_hash: 'test_hash_1',
+  created_at: '2025-11-19T10:00:00.000Z',
+  updated_at: '2025-11-19T10:00:00.000Z'
+};
+
+describe('Admin DB snapshots', () => {
+  beforeEach(async () => {
+    await db('announcement').del();
+    await db('announcement').insert(TEST_ANNOUNCEMENT);
+  });
+
+  afterEach(async () => {
+    await request(server).delete(`/api/admin/v1/snapshots/${SNAPSHOT_NAME}`).set('Authorization', ADMIN_TOKEN);
+    await fs.rm(path.join(IMAGES_DIR, EXTRA_IMAGE), { force: true });
+  });
+
+  it('should restore database rows and images to the snapshot state', async () => {
+    // given
+    await request(server).post(`/api/admin/v1/snapshots/${SNAPSHOT_NAME}`).set('Authorization', ADMIN_TOKEN).expect(201);
+    await db('announcement').del();
+    await fs.writeFile(path.join(IMAGES_DIR, EXTRA_IMAGE), Buffer.from([0xff, 0xd8, 0xff]));
+
+    // when
+    await request(server).post(`/api/admin/v1/snapshots/${SNAPSHOT_NAME}/restore`).set('Authorization', ADMIN_TOKEN).expect(204);
+
+    // then
+    const rows = await db('announcement').select('id');
+    expect(rows).toEqual([{ id: TEST_ANNOUNCEMENT.id }]);
+    await expect(fs.access(path.join(IMAGES_DIR, EXTRA_IMAGE))).rejects.toThrow();
+  });
+
+  it('should return 404 when restoring unknown snapshot', async () => {
+    // when
+    const response = await request(server).post('/api/admin/v1/snapshots/unknown/restore').set('Authorization', ADMIN_TOKEN).expect(404);
+
+    // then
+    expect(response.body.error.code).toBe('NOT_FOUND');
+  });
+
+  it('should return 400 for invalid snapshot name', async () => {
+    // when
+    const response = await request(server).post('/api/admin/v1/snapshots/..%2Fetc').set('Authorization', ADMIN_TOKEN).expect(400);
+
+    // then
+    expect(response.body.error.field).toBe('name');
+  });
+
+  it('should return 401 without admin token', async () => {
+    // when
+    await request(server).post(`/api/admin/v1/snapshots/${SNAPSHOT_NAME}`).expect(401);
+  });
+});
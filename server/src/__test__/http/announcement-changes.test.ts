@@ -0,0 +1,64 @@
+import { describe, it, expect, beforeEach } from 'vitest';
+import request from 'supertest';
+import server from '../../server.ts';
+import { db } from '../../database/db-utils.ts';
+
+const ADMIN_TOKEN = 'tajnehasloadmina';
+
+function announcementRow(id: string, updatedAt = new Date().toISOString()) {
+  return {
+    id,
+    species: 'DOG',
+    sex: 'MALE',
+    location_latitude: 54.48,
+    location_longitude: 18.53,
+    last_seen_date: '2025-11-19',
+    photo_url: `/images/${id}.jpeg`,
+    status: 'MISSING',
+    management_password_hash: 'hash',
+    created_at: updatedAt,
+    updated_at: updatedAt
+  };
+}
+
+describe('GET /api/v1/announcements/changes', () => {
+  beforeEach(async () => {
+    await db('announcement').del();
+    await db('announcement').insert([announcementRow('old', '2025-11-19T10:00:00.000Z'), announcementRow('kept')]);
+  });
+
+  it('should return full list with reset when since is not provided', async () => {
+    // when
+    const response = await request(server).get('/api/v1/announcements/changes').expect(200);
+
+    // then
+    expect(response.body.reset).toBe(true);
+    expect(response.body.data.map((announcement: { id: string }) => announcement.id).sort()).toEqual(['kept', 'old']);
+    expect(response.body.deleted).toEqual([]);
+    expect(response.body.watermark).toEqual(expect.any(String));
+  });
+
+  it('should return only changes and tombstones since watermark', async () => {
+    // given
+    const initial = await request(server).get('/api/v1/announcements/changes').expect(200);
+    await request(server).delete('/api/admin/v1/announcements/kept').set('Authorization', ADMIN_TOKEN).expect(204);
+    await db('announcement').insert(announcementRow('added'));
+
+    // when
+    const response = await request(server).get('/api/v1/announcements/changes').query({ since: initial.body.watermark }).expect(200);
+
+    // then
+    expect(response.body.reset).toBe(false);
+    expect(response.body.data.map((announcement: { id: string }) => announcement.id)).toEqual(['added']);
+    expect(response.body.deleted).toContain('kept');
+  });
+
+  it('should return 400 for invalid watermark', async () => {
+    // when
+    const response = await request(server).get('/api/v1/announcements/changes?since=garbage').expect(400);
+
+    // then
+    expect(response.body.error.code).toBe('INVALID_PARAMETER');
+    expect(response.body.error.field).toBe('since');
+  });
+});
@@ -0,0 +1,76 @@
+import { describe, it, expect, beforeEach, afterAll } from 'vitest';
+import request from 'supertest';
+import server from '../../server.ts';
+import { db } from '../../database/db-utils.ts';
+
+function announcementRow(id: string, petName: string, createdAt: string, lat = 54.48) {
+  return {
+    id,
+    pet_name: petName,
+    species: 'DOG',
+    sex: 'MALE',
+    location_latitude: lat,
+    location_longitude: 18.53,
+    last_seen_date: '2025-11-19',
+    photo_url: `/images/${id}.jpeg`,
+    status: 'MISSING',
+    management_password_hash: 'hash',
+    created_at: createdAt,
+    updated_at: createdAt
+  };
+}
+
+describe('GET /api/v1/announcements/search', () => {
+  beforeEach(async () => {
+    await db('announcement').del();
+    await db('announcement').insert([
+      announcementRow('search-1', 'Burek', '2025-11-21T10:00:00.000Z'),
+      announcementRow('search-2', 'Burek', '2025-11-20T10:00:00.000Z'),
+      announcementRow('search-3', 'Burek', '2025-11-19T10:00:00.000Z', 50.06),
+      announcementRow('search-4', 'Azor', '2025-11-22T10:00:00.000Z')
+    ]);
+  });
+
+  afterAll(async () => {
+    await db('announcement').del();
+  });
+
+  it('should page through matches with next cursor', async () => {
+    // when
+    const first = await request(server).get('/api/v1/announcements/search').query({ q: 'burek', limit: 2 }).expect(200);
+    const second = await request(server)
+      .get('/api/v1/announcements/search')
+      .query({ q: 'burek', limit: 2, cursor: first.body.nextCursor })
+      .expect(200);
+
+    // then
+    expect(first.body.data.map((announcement: { id: string }) => announcement.id)).toEqual(['search-1', 'search-2']);
+    expect(second.body.data.map((announcement: { id: string }) => announcement.id)).toEqual(['search-3']);
+    expect(second.body.nextCursor).toBeNull();
+  });
+
+  it('should combine text match with location filter', async () => {
+    // when
+    const response = await request(server)
+      .get('/api/v1/announcements/search')
+      .query({ q: 'bur', lat: 50.06, lng: 18.53, range: 10 })
+      .expect(200);
+
+    // then
+    expect(response.body.data.map((announcement: { id: string }) => announcement.id)).toEqual(['search-3']);
+  });
+
+  it.each([
+    { query: {}, field: 'q' },
+    { query: { q: '!!!' }, field: 'q' },
+    { query: { q: 'burek', cursor: 'invalid' }, field: 'cursor' },
+    { query: { q: 'burek', lat: 50.06 }, field: 'lng' }
+  ])('should return 400 for invalid $field', async ({ query, field }) => {
+    // when
+    const response = await request(server).get('/api/v1/announcements/search').query(query).expect(400);
+
+    // then
+    expect(response.body.error.code).toBe('INVALID_PARAMETER');
+    expect(response.body.error.field).toBe(field);
+  });
+});
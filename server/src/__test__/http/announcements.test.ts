@@ -86,6 +86,7 @@ describe('GET /api/v1/announcements', () => {
       email: TEST_ANNOUNCEMENT_1.email,
       phone: TEST_ANNOUNCEMENT_1.phone,
       photoUrl: TEST_ANNOUNCEMENT_1.photo_url,
+      photoVariants: null,
       status: TEST_ANNOUNCEMENT_1.status,
       reward: TEST_ANNOUNCEMENT_1.reward,
       createdAt: expect.any(String),
@@ -151,6 +152,7 @@ describe('GET /api/v1/announcements/:id', () => {
       email: TEST_ANNOUNCEMENT_1.email,
       phone: TEST_ANNOUNCEMENT_1.phone,
       photoUrl: TEST_ANNOUNCEMENT_1.photo_url,
+      photoVariants: null,
       status: TEST_ANNOUNCEMENT_1.status,
       reward: TEST_ANNOUNCEMENT_1.reward,
       createdAt: expect.any(String),
@@ -668,6 +670,225 @@ describe('GET /api/v1/announcements - Location Filtering (User Story 1)', () =>
   });
 });
 
+describe('GET /api/v1/announcements - Pagination', () => {
+  const announcementAt = (id: string, createdAt: string, lat = 50.0614, lng = 19.9383) => ({
+    ...TEST_ANNOUNCEMENT_1,
+    id,
+    location_latitude: lat,
+    location_longitude: lng,
+    created_at: createdAt,
+    updated_at: createdAt
+  });
+
+  beforeEach(async () => {
+    await db('announcement').del();
+    await db('announcement').insert([
+      announcementAt('00000000-0000-0000-0000-000000000001', '2025-11-19T10:00:00.000Z'),
+      announcementAt('00000000-0000-0000-0000-000000000002', '2025-11-20T10:00:00.000Z'),
+      // Same created_at - order decided by id
+      announcementAt('00000000-0000-0000-0000-000000000003', '2025-11-21T10:00:00.000Z'),
+      announcementAt('00000000-0000-0000-0000-000000000004', '2025-11-21T10:00:00.000Z'),
+      // Far away (Warsaw) - excluded by location filter
+      announcementAt('00000000-0000-0000-0000-000000000005', '2025-11-22T10:00:00.000Z', 52.2297, 21.0122)
+    ]);
+  });
+
+  it('should walk all pages in (createdAt DESC, id DESC) order', async () => {
+    // given
+    const ids: string[] = [];
+    let cursor: string | null = null;
+    let pages = 0;
+
+    // when
+    do {
+      const response = await request(server)
+        .get('/api/v1/announcements')
+        .query(cursor ? { limit: 2, cursor } : { limit: 2 })
+        .expect(200);
+      ids.push(...response.body.data.map((a: Announcement) => a.id));
+      cursor = response.body.nextCursor;
+      pages++;
+    } while (cursor);
+
+    // then
+    expect(pages).toBe(3);
+    expect(ids).toEqual([
+      '00000000-0000-0000-0000-000000000005',
+      '00000000-0000-0000-0000-000000000004',
+      '00000000-0000-0000-0000-000000000003',
+      '00000000-0000-0000-0000-000000000002',
+      '00000000-0000-0000-0000-000000000001'
+    ]);
+  });
+
+  it('should paginate within location filter', async () => {
+    // when
+    const first = await request(server).get('/api/v1/announcements').query({ lat: 50.0614, lng: 19.9383, limit: 3 }).expect(200);
+    const second = await request(server)
+      .get('/api/v1/announcements')
+      .query({ lat: 50.0614, lng: 19.9383, limit: 3, cursor: first.body.nextCursor })
+      .expect(200);
+
+    // then
+    expect(first.body.data.map((a: Announcement) => a.id)).toEqual([
+      '00000000-0000-0000-0000-000000000004',
+      '00000000-0000-0000-0000-000000000003',
+      '00000000-0000-0000-0000-000000000002'
+    ]);
+    expect(second.body).toEqual({ data: [expect.objectContaining({ id: '00000000-0000-0000-0000-000000000001' })], nextCursor: null });
+  });
+
+  it('should keep unpaginated response shape when limit and cursor are absent', async () => {
+    // when
+    const response = await request(server).get('/api/v1/announcements').expect(200);
+
+    // then
+    expect(Object.keys(response.body)).toEqual(['data']);
+    expect(response.body.data).toHaveLength(5);
+  });
+
+  it.each([
+    { query: { limit: 0 }, field: 'limit' },
+    { query: { limit: 101 }, field: 'limit' },
+    { query: { limit: 'abc' }, field: 'limit' },
+    { query: { limit: 2, cursor: 'garbage' }, field: 'cursor' }
+  ])('should return HTTP 400 for invalid $field: $query', async ({ query, field }) => {
+    // when
+    const response = await request(server).get('/api/v1/announcements').query(query).expect(400);
+
+    // then
+    expect(response.body.error.code).toBe('INVALID_PARAMETER');
+    expect(response.body.error.field).toBe(field);
+  });
+});
+
+describe('GET /api/v1/announcements - Filters and sort', () => {
+  const announcement = (id: string, status: string, species: string, lastSeenDate: string, createdAt: string) => ({
+    ...TEST_ANNOUNCEMENT_1,
+    id,
+    status,
+    species,
+    microchip_number: null,
+    last_seen_date: lastSeenDate,
+    created_at: createdAt,
+    updated_at: createdAt
+  });
+
+  beforeEach(async () => {
+    await db('announcement').del();
+    await db('announcement').insert([
+      announcement('00000000-0000-0000-0000-000000000001', 'MISSING', 'DOG', '2025-11-18', '2025-11-21T10:00:00.000Z'),
+      announcement('00000000-0000-0000-0000-000000000002', 'MISSING', 'CAT', '2025-11-20', '2025-11-19T10:00:00.000Z'),
+      announcement('00000000-0000-0000-0000-000000000003', 'MISSING', 'DOG', '2025-11-19', '2025-11-20T10:00:00.000Z'),
+      announcement('00000000-0000-0000-0000-000000000004', 'FOUND', 'DOG', '2025-11-21', '2025-11-22T10:00:00.000Z')
+    ]);
+  });
+
+  it('should return most recently seen missing announcements first', async () => {
+    // when
+    const first = await request(server)
+      .get('/api/v1/announcements')
+      .query({ status: 'MISSING', sort: 'lastSeenDate', limit: 2 })
+      .expect(200);
+    const second = await request(server)
+      .get('/api/v1/announcements')
+      .query({ status: 'MISSING', sort: 'lastSeenDate', limit: 2, cursor: first.body.nextCursor })
+      .expect(200);
+
+    // then
+    expect(first.body.data.map((a: Announcement) => a.id)).toEqual([
+      '00000000-0000-0000-0000-000000000002',
+      '00000000-0000-0000-0000-000000000003'
+    ]);
+    expect(second.body).toEqual({ data: [expect.objectContaining({ id: '00000000-0000-0000-0000-000000000001' })], nextCursor: null });
+  });
+
+  it('should combine filters on the full list', async () => {
+    // when
+    const response = await request(server)
+      .get('/api/v1/announcements')
+      .query({ species: 'DOG', lastSeenFrom: '2025-11-19', lastSeenTo: '2025-11-21', sort: 'createdAt' })
+      .expect(200);
+
+    // then
+    expect(response.body.data.map((a: Announcement) => a.id)).toEqual([
+      '00000000-0000-0000-0000-000000000004',
+      '00000000-0000-0000-0000-000000000003'
+    ]);
+  });
+
+  it.each([
+    { query: { status: 'LOST' }, field: 'status' },
+    { query: { sort: 'petName' }, field: 'sort' },
+    { query: { lastSeenFrom: '19.11.2025' }, field: 'lastSeenFrom' },
+    { query: { lastSeenFrom: '2025-11-21', lastSeenTo: '2025-11-19' }, field: 'lastSeenFrom' },
+    { query: { sort: 'lastSeenDate', limit: 2, cursor: 'eyJjcmVhdGVkQXQiOiJ4IiwiaWQiOiJ5In0' }, field: 'cursor' }
+  ])('should return HTTP 400 for invalid $field: $query', async ({ query, field }) => {
+    // when
+    const response = await request(server).get('/api/v1/announcements').query(query).expect(400);
+
+    // then
+    expect(response.body.error.code).toBe('INVALID_PARAMETER');
+    expect(response.body.error.field).toBe(field);
+  });
+});
+
+describe('GET /api/v1/announcements - Sparse fieldsets and compression', () => {
+  beforeEach(async () => {
+    await db('announcement').del();
+    await db('announcement').insert([TEST_ANNOUNCEMENT_1, TEST_ANNOUNCEMENT_2]);
+  });
+
+  it('should return only requested fields', async () => {
+    // when
+    const response = await request(server).get('/api/v1/announcements').query({ fields: 'petName,status,photoUrl' }).expect(200);
+
+    // then
+    expect(response.body.data).toHaveLength(2);
+    response.body.data.forEach((announcement: Announcement) =>
+      expect(Object.keys(announcement)).toEqual(['id', 'petName', 'photoUrl', 'status'])
+    );
+  });
+
+  it('should page with fields that do not include the sort key', async () => {
+    // when
+    const first = await request(server).get('/api/v1/announcements').query({ fields: 'species', limit: 1 }).expect(200);
+    const second = await request(server)
+      .get('/api/v1/announcements')
+      .query({ fields: 'species', limit: 1, cursor: first.body.nextCursor })
+      .expect(200);
+
+    // then
+    expect(first.body.data).toEqual([{ id: expect.any(String), species: expect.any(String) }]);
+    expect(second.body.data).toHaveLength(1);
+    expect(second.body.data[0].id).not.toBe(first.body.data[0].id);
+  });
+
+  it('should return HTTP 400 for unknown field', async () => {
+    // when
+    const response = await request(server).get('/api/v1/announcements').query({ fields: 'id,managementPasswordHash' }).expect(400);
+
+    // then
+    expect(response.body.error.code).toBe('INVALID_PARAMETER');
+    expect(response.body.error.field).toBe('fields');
+  });
+
+  it('should compress list when client accepts gzip', async () => {
+    // given
+    await db('announcement').insert(
+      Array.from({ length: 8 }, (_, i) => ({ ...TEST_ANNOUNCEMENT_1, id: `cccccccc-cccc-cccc-cccc-cccccccccc0${i}` }))
+    );
+
+    // when
+    const response = await request(server).get('/api/v1/announcements').set('Accept-Encoding', 'gzip').expect(200);
+
+    // then
+    expect(response.headers['content-encoding']).toBe('gzip');
+    expect(response.headers.vary).toContain('Accept-Encoding');
+    expect(response.body.data).toHaveLength(10);
+  });
+});
+
 describe('DELETE /api/admin/v1/announcements/:id', () => {
   beforeEach(async () => {
     await db('announcement').del();
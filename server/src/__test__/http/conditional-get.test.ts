@@ -0,0 +1,81 @@
+import { describe, it, expect, beforeEach } from 'vitest';
+import request from 'supertest';
+import server from '../../server.ts';
+import { db } from '../../database/db-utils.ts';
+
+const VALID_ANNOUNCEMENT = {
+  species: 'DOG',
+  sex: 'MALE',
+  lastSeenDate: '2025-11-20',
+  status: 'MISSING' as const,
+  locationLatitude: 50.0614,
+  locationLongitude: 19.9383,
+  email: 'john@example.com'
+};
+
+describe('Conditional GET /api/v1/announcements', () => {
+  beforeEach(async () => {
+    await db('announcement').del();
+  });
+
+  it('should return ETag and 304 with empty body when If-None-Match matches', async () => {
+    // given
+    const first = await request(server).get('/api/v1/announcements').expect(200);
+    const etag = first.headers.etag;
+
+    // when
+    const response = await request(server).get('/api/v1/announcements').set('If-None-Match', etag).expect(304);
+
+    // then
+    expect(etag).toMatch(/^W\/".+"$/);
+    expect(first.headers['cache-control']).toBe('no-cache');
+    expect(response.text).toBe('');
+    expect(response.headers.etag).toBe(etag);
+  });
+
+  it('should return 200 with new ETag after announcement is created', async () => {
+    // given
+    const etag = (await request(server).get('/api/v1/announcements').expect(200)).headers.etag;
+
+    // when
+    await request(server).post('/api/v1/announcements').send(VALID_ANNOUNCEMENT).expect(201);
+    const response = await request(server).get('/api/v1/announcements').set('If-None-Match', etag).expect(200);
+
+    // then
+    expect(response.headers.etag).not.toBe(etag);
+  });
+
+  it('should return 200 with new ETag after announcement is deleted', async () => {
+    // given
+    const created = await request(server).post('/api/v1/announcements').send(VALID_ANNOUNCEMENT).expect(201);
+    const etag = (await request(server).get('/api/v1/announcements').expect(200)).headers.etag;
+
+    // when
+    await request(server).delete(`/api/admin/v1/announcements/${created.body.id}`).set('Authorization', 'tajnehasloadmina').expect(204);
+    const response = await request(server).get('/api/v1/announcements').set('If-None-Match', etag).expect(200);
+
+    // then
+    expect(response.headers.etag).not.toBe(etag);
+  });
+
+  it('should return 304 for unchanged announcement detail', async () => {
+    // given
+    const created = await request(server).post('/api/v1/announcements').send(VALID_ANNOUNCEMENT).expect(201);
+    const etag = (await request(server).get(`/api/v1/announcements/${created.body.id}`).expect(200)).headers.etag;
+
+    // when/then
+    await request(server).get(`/api/v1/announcements/${created.body.id}`).set('If-None-Match', etag).expect(304);
+  });
+
+  it('should return 200 with new ETag after another process changed the dataset', async () => {
+    // given
+    const etag = (await request(server).get('/api/v1/announcements').expect(200)).headers.etag;
+
+    // when
+    await db('dataset_version').where('id', 1).increment('version', 1);
+    const response = await request(server).get('/api/v1/announcements').set('If-None-Match', etag).expect(200);
+
+    // then
+    expect(response.headers.etag).not.toBe(etag);
+  });
+});
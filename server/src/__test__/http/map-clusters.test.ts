@@ -0,0 +1,93 @@
+import { describe, it, expect, beforeEach } from 'vitest';
+import request from 'supertest';
+import server from '../../server.ts';
+import { db } from '../../database/db-utils.ts';
+
+function announcementRow(id: string, latitude: number, longitude: number) {
+  return {
+    id,
+    species: 'DOG',
+    sex: 'MALE',
+    location_latitude: latitude,
+    location_longitude: longitude,
+    last_seen_date: '2025-11-19',
+    photo_url: `/images/${id}.jpeg`,
+    status: 'MISSING',
+    management_password_hash: 'hash',
+    created_at: '2025-11-19T10:00:00.000Z',
+    updated_at: '2025-11-19T10:00:00.000Z'
+  };
+}
+
+const GDANSK_VIEWPORT = 'minLat=54.3&minLng=18.4&maxLat=54.6&maxLng=18.8';
+// A few hundred pixels around a1 and a2 at zoom 18
+const STREET_VIEWPORT = 'minLat=54.479&minLng=18.529&maxLat=54.482&maxLng=18.532';
+
+describe('GET /api/v1/announcements/clusters', () => {
+  beforeEach(async () => {
+    await db('announcement').del();
+    await db('announcement').insert([
+      announcementRow('a1', 54.48, 18.53),
+      announcementRow('a2', 54.481, 18.531),
+      announcementRow('a3', 54.43, 18.57),
+      announcementRow('far', 50.06, 19.94)
+    ]);
+    // Rows are inserted directly, so bump the version the cluster index is rebuilt on
+    await db('dataset_version').where('id', 1).increment('version', 1);
+  });
+
+  it('should return clusters and single points in viewport', async () => {
+    // when
+    const response = await request(server).get(`/api/v1/announcements/clusters?${GDANSK_VIEWPORT}&zoom=10`).expect(200);
+
+    // then
+    expect(response.body.zoom).toBe(10);
+    expect(response.body.clusters).toHaveLength(1);
+    expect(response.body.clusters[0].count).toBe(2);
+    expect(response.body.clusters[0].latitude).toBeCloseTo(54.4805, 6);
+    expect(response.body.clusters[0].longitude).toBeCloseTo(18.5305, 6);
+    expect(['a1', 'a2']).toContain(response.body.clusters[0].sampleId);
+    expect(response.body.points).toEqual([{ id: 'a3', latitude: 54.43, longitude: 18.57, species: 'DOG', status: 'MISSING' }]);
+    expect(response.headers.etag).toBeDefined();
+  });
+
+  it('should return individual points when zoomed in', async () => {
+    // when
+    const response = await request(server).get(`/api/v1/announcements/clusters?${STREET_VIEWPORT}&zoom=18`).expect(200);
+
+    // then
+    expect(response.body.clusters).toEqual([]);
+    expect(response.body.points.map((point: { id: string }) => point.id).sort()).toEqual(['a1', 'a2']);
+  });
+
+  it('should rebuild clusters when dataset changes', async () => {
+    // given
+    await request(server).get(`/api/v1/announcements/clusters?${STREET_VIEWPORT}&zoom=18`).expect(200);
+    await db('announcement').insert(announcementRow('a4', 54.4805, 18.5305));
+    await db('dataset_version').where('id', 1).increment('version', 1);
+
+    // when
+    const response = await request(server).get(`/api/v1/announcements/clusters?${STREET_VIEWPORT}&zoom=18`).expect(200);
+
+    // then
+    expect(response.body.points.map((point: { id: string }) => point.id)).toContain('a4');
+  });
+
+  it('should return 400 when viewport is too large for zoom', async () => {
+    // when
+    const response = await request(server)
+      .get('/api/v1/announcements/clusters?minLat=-85&minLng=-180&maxLat=85&maxLng=180&zoom=17')
+      .expect(400);
+
+    // then
+    expect(response.body.error).toMatchObject({ code: 'INVALID_PARAMETER', field: 'zoom' });
+  });
+
+  it('should return 400 when zoom is missing', async () => {
+    // when
+    const response = await request(server).get(`/api/v1/announcements/clusters?${GDANSK_VIEWPORT}`).expect(400);
+
+    // then
+    expect(response.body.error).toMatchObject({ code: 'INVALID_PARAMETER', field: 'zoom' });
+  });
+});
@@ -0,0 +1,64 @@
+import http from 'http';
+import type { AddressInfo } from 'net';
+import { describe, it, expect } from 'vitest';
+import request from 'supertest';
+import server from '../../server.ts';
+import { announcementFeed } from '../../conf/di.conf.ts';
+
+describe('GET /metrics', () => {
+  it('should expose request latency by route template and status code', async () => {
+    // given
+    await request(server).get('/api/v1/announcements/00000000-0000-0000-0000-000000000000').expect(404);
+
+    // when
+    const response = await request(server).get('/metrics').expect(200);
+
+    // then
+    expect(response.headers['content-type']).toContain('text/plain');
+    expect(response.text).toContain(
+      'http_request_duration_seconds_count{method="GET",route="/api/v1/announcements/:id",status_code="404"} '
+    );
+    expect(response.text).not.toContain('00000000-0000-0000-0000-000000000000');
+  });
+
+  it('should expose repository query duration and runtime metrics', async () => {
+    // given
+    await request(server).get('/api/v1/announcements').expect(200);
+
+    // when
+    const response = await request(server).get('/metrics').expect(200);
+
+    // then
+    expect(response.text).toMatch(/db_query_duration_seconds_count\{repository="announcement",method="findAll",outcome="success"\} \d+/);
+    expect(response.text).toContain('# TYPE nodejs_eventloop_lag_p99_seconds gauge');
+    expect(response.text).toMatch(/^nodejs_eventloop_lag_p99_seconds \d/m);
+    expect(response.text).toMatch(/^process_resident_memory_bytes \d+/m);
+    expect(response.text).toMatch(/^password_hash_queue_depth 0$/m);
+    expect(response.text).toMatch(/^photo_uploads_active 0$/m);
+  });
+
+  it('should not record Server-Sent Events streams as request latency', async () => {
+    // given
+    const listener = server.listen(0);
+    const { port } = listener.address() as AddressInfo;
+
+    try {
+      // when
+      await new Promise<void>((resolve, reject) => {
+        http
+          .get(`http://localhost:${port}/api/v1/announcements/stream?lat=54.5&lng=18.5`, (res) => {
+            res.once('data', () => announcementFeed.close());
+            res.on('end', resolve);
+            res.resume();
+          })
+          .on('error', reject);
+      });
+      const response = await request(server).get('/metrics').expect(200);
+
+      // then
+      expect(response.text).not.toContain('route="/api/v1/announcements/stream"');
+    } finally {
+      listener.close();
+    }
+  });
+});
@@ -1,10 +1,13 @@
 import { promises as fs } from 'fs';
+import http from 'http';
+import type { AddressInfo } from 'net';
 import path from 'path';
 import { describe, it, expect, beforeEach, afterEach } from 'vitest';
 import request from 'supertest';
 import server from '../../server.ts';
 import { db } from '../../database/db-utils.ts';
 import { hashPassword } from '../../lib/password-management.ts';
+import { UPLOAD_TEMP_DIR } from '../../middlewares/upload-middleware.ts';
 import { AnnouncementRow } from '../../types/announcement';
 
 async function getPhotoUrl(id: string): Promise<string | null> {
@@ -27,6 +30,7 @@ const TEST_ANNOUNCEMENT: AnnouncementRow = {
   email: 'test@example.pl',
   phone: '+48 600 700 800',
   photo_url: null,
+  photo_variants: null,
   status: 'MISSING',
   reward: null,
   management_password_hash: await hashPassword(TEST_PASSWORD),
@@ -56,6 +60,28 @@ const JPEG_BUFFER = Buffer.from([
 
 const IMAGES_DIR = path.join(process.cwd(), 'public', 'images');
 
+/**
+ * Subscribes to the announcement stream, runs `action` once the stream is open and resolves with the first announcement event.
+ */
+function readStreamEvent(url: string, action: () => Promise<unknown>): Promise<string> {
+  return new Promise((resolve, reject) => {
+    const req = http.get(url, (res) => {
+      let buffer = '';
+      res.setEncoding('utf8');
+      res.on('data', (chunk: string) => {
+        buffer += chunk;
+        const event = buffer.split('\n\n').find((block) => block.includes('event: announcement'));
+        if (event) {
+          resolve(event);
+          req.destroy();
+        }
+      });
+      action().catch(reject);
+    });
+    req.on('error', reject);
+  });
+}
+
 describe('POST /api/v1/announcements/:id/photos', () => {
   beforeEach(async () => {
     const passwordHash = await hashPassword(TEST_PASSWORD);
@@ -75,6 +101,48 @@ describe('POST /api/v1/announcements/:id/photos', () => {
     }
   });
 
+  it('should change list ETag after photo upload is committed', async () => {
+    // given
+    const etag = (await request(server).get('/api/v1/announcements').expect(200)).headers.etag;
+
+    // when
+    await request(server)
+      .post(`/api/v1/announcements/${TEST_ANNOUNCEMENT.id}/photos`)
+      .set('Authorization', `Basic ${CREDENTIALS}`)
+      .attach('photo', JPEG_BUFFER, 'test.jpg')
+      .expect(201);
+    const response = await request(server).get('/api/v1/announcements').set('If-None-Match', etag).expect(200);
+
+    // then
+    expect(response.headers.etag).not.toBe(etag);
+    expect(response.body.data).toHaveLength(1);
+  });
+
+  it('should push announcement to nearby stream subscribers when its first photo is uploaded', async () => {
+    // given
+    const listener = server.listen(0);
+    const { port } = listener.address() as AddressInfo;
+
+    try {
+      // when
+      const event = await readStreamEvent(`http://localhost:${port}/api/v1/announcements/stream?lat=54.5&lng=18.5&range=5`, () =>
+        request(server)
+          .post(`/api/v1/announcements/${TEST_ANNOUNCEMENT.id}/photos`)
+          .set('Authorization', `Basic ${CREDENTIALS}`)
+          .attach('photo', JPEG_BUFFER, 'test.jpg')
+          .expect(201)
+      );
+
+      // then
+      const data = JSON.parse(event.split('\n').find((line) => line.startsWith('data: '))?.slice('data: '.length) ?? '{}');
+      expect(event).toContain(`id: ${TEST_ANNOUNCEMENT.id}`);
+      expect(data).toMatchObject({ id: TEST_ANNOUNCEMENT.id, photoUrl: `/images/${TEST_ANNOUNCEMENT.id}.jpeg` });
+      expect(data).not.toHaveProperty('managementPasswordHash');
+    } finally {
+      listener.close();
+    }
+  });
+
   it('should return 201 when uploading valid photo with valid credentials', async () => {
     // Given / When
     const response = await request(server)
@@ -148,9 +216,26 @@ describe('POST /api/v1/announcements/:id/photos', () => {
     expect(await getPhotoUrl(TEST_ANNOUNCEMENT.id)).toBeNull();
   });
 
+  it('should reject invalid format without leaving temp files behind', async () => {
+    // Given
+    const invalidBuffer = Buffer.alloc(64 * 1024, 0x00);
+
+    // When
+    const response = await request(server)
+      .post(`/api/v1/announcements/${TEST_ANNOUNCEMENT.id}/photos`)
+      .set('Authorization', `Basic ${CREDENTIALS}`)
+      .attach('photo', invalidBuffer, 'fake.jpg');
+
+    // Then
+    expect(response.status).toBe(400);
+    expect(response.body.error.code).toBe('INVALID_FILE_FORMAT');
+    expect(await fs.readdir(UPLOAD_TEMP_DIR).catch(() => [])).toEqual([]);
+  });
+
   it('should return 413 when file size exceeds 20MB limit', async () => {
     // Given
     const largeBuffer = Buffer.alloc(21 * 1024 * 1024, 0xff);
+    JPEG_BUFFER.copy(largeBuffer);
 
     // When
     const response = await request(server)
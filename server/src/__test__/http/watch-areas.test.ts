@@ -0,0 +1,125 @@
+import { describe, it, expect, beforeEach, afterAll } from 'vitest';
+import request from 'supertest';
+import server from '../../server.ts';
+import { db } from '../../database/db-utils.ts';
+
+const GDANSK = { latitude: 54.35, longitude: 18.65 };
+
+async function registerUser(email: string): Promise<string> {
+  const response = await request(server).post('/api/v1/users').send({ email, password: 'password123' }).expect(201);
+  return response.body.accessToken;
+}
+
+async function cleanUp(): Promise<void> {
+  await db('watch_area_notification').del();
+  await db('watch_area').del();
+  await db('user').whereLike('email', '%@watch-areas.test').del();
+}
+
+describe('/api/v1/users/me/watch-areas', () => {
+  let token: string;
+
+  beforeEach(async () => {
+    await cleanUp();
+    token = await registerUser('watcher@watch-areas.test');
+  });
+
+  afterAll(async () => {
+    await cleanUp();
+  });
+
+  it('should create and list watch areas of the authenticated user', async () => {
+    // when
+    const created = await request(server)
+      .post('/api/v1/users/me/watch-areas')
+      .set('Authorization', `Bearer ${token}`)
+      .send({ name: 'Home', ...GDANSK, radiusKm: 5 })
+      .expect(201);
+    const listed = await request(server).get('/api/v1/users/me/watch-areas').set('Authorization', `Bearer ${token}`).expect(200);
+
+    // then
+    expect(created.body).toMatchObject({ name: 'Home', ...GDANSK, radiusKm: 5 });
+    expect(listed.body.data).toEqual([created.body]);
+  });
+
+  it('should not list watch areas of other users', async () => {
+    // given
+    const otherToken = await registerUser('other@watch-areas.test');
+    await request(server)
+      .post('/api/v1/users/me/watch-areas')
+      .set('Authorization', `Bearer ${otherToken}`)
+      .send({ ...GDANSK, radiusKm: 5 })
+      .expect(201);
+
+    // when
+    const response = await request(server).get('/api/v1/users/me/watch-areas').set('Authorization', `Bearer ${token}`).expect(200);
+
+    // then
+    expect(response.body.data).toEqual([]);
+  });
+
+  it('should queue notification when announcement is created inside watch area', async () => {
+    // given
+    const area = await request(server)
+      .post('/api/v1/users/me/watch-areas')
+      .set('Authorization', `Bearer ${token}`)
+      .send({ ...GDANSK, radiusKm: 5 })
+      .expect(201);
+
+    // when
+    const announcement = await request(server)
+      .post('/api/v1/announcements')
+      .send({
+        species: 'DOG',
+        sex: 'MALE',
+        lastSeenDate: '2025-11-20',
+        status: 'MISSING',
+        locationLatitude: GDANSK.latitude + 0.01,
+        locationLongitude: GDANSK.longitude,
+        email: 'john@example.com'
+      })
+      .expect(201);
+
+    // then
+    const notifications = await db('watch_area_notification').where('announcement_id', announcement.body.id);
+    expect(notifications).toHaveLength(1);
+    expect(notifications[0]).toMatchObject({ watch_area_id: area.body.id, sent_at: null });
+  });
+
+  it('should delete own watch area and return 404 for unknown one', async () => {
+    // given
+    const area = await request(server)
+      .post('/api/v1/users/me/watch-areas')
+      .set('Authorization', `Bearer ${token}`)
+      .send({ ...GDANSK, radiusKm: 5 })
+      .expect(201);
+
+    // when/then
+    await request(server).delete(`/api/v1/users/me/watch-areas/${area.body.id}`).set('Authorization', `Bearer ${token}`).expect(204);
+    await request(server).delete(`/api/v1/users/me/watch-areas/${area.body.id}`).set('Authorization', `Bearer ${token}`).expect(404);
+  });
+
+  it('should return 400 for radius above the limit', async () => {
+    // when
+    const response = await request(server)
+      .post('/api/v1/users/me/watch-areas')
+      .set('Authorization', `Bearer ${token}`)
+      .send({ ...GDANSK, radiusKm: 51 })
+      .expect(400);
+
+    // then
+    expect(response.body.error.field).toBe('radiusKm');
+  });
+
+  it.each([
+    { description: 'no token', authorization: undefined },
+    { description: 'invalid token', authorization: 'Bearer invalid' },
+    { description: 'wrong scheme', authorization: 'Basic dXNlcjpwYXNz' }
+  ])('should return 401 for $description', async ({ authorization }) => {
+    // given
+    const call = request(server).get('/api/v1/users/me/watch-areas');
+
+    // when/then
+    await (authorization ? call.set('Authorization', authorization) : call).expect(401);
+  });
+});
@@ -1 +1,4 @@
 process.env.JWT_SECRET = 'test-secret-key-for-jwt-testing-minimum-32-bytes';
+process.env.ENABLE_TEST_SNAPSHOTS = 'true';
+// Tests reset tables directly, bypassing the dataset version the list cache is keyed by
+process.env.LIST_CACHE_TTL_MS = '0';
@@ -1,8 +1,18 @@
+import { availableParallelism } from 'os';
+
 const jwtSecret = process.env.JWT_SECRET;
 if (!jwtSecret) {
   throw new Error('JWT_SECRET environment variable is not set');
 }
 
+// Test-only admin capabilities (DB snapshot/restore) are opt-in and never enabled in production deployments
+const testSnapshotsEnabled = process.env.ENABLE_TEST_SNAPSHOTS === 'true';
+
+// CLUSTER_WORKERS=auto forks one HTTP worker per core, a number forks that many; unset or 1 runs a single process
+const clusterWorkers = process.env.CLUSTER_WORKERS === 'auto' ? availableParallelism() : Number(process.env.CLUSTER_WORKERS) || 1;
+
 export default {
-  jwtSecret
+  jwtSecret,
+  testSnapshotsEnabled,
+  clusterWorkers
 };
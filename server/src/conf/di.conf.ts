@@ -1,29 +1,84 @@
 import { promises as fs } from 'fs';
+import os from 'os';
 import path from 'path';
+import type { Announcement } from '../types/announcement.ts';
 import { AnnouncementRepository } from '../database/repositories/announcement-repository.ts';
 import { AnnouncementService } from '../services/announcement-service.ts';
 import { PhotoUploadService } from '../services/photo-upload-service.ts';
 import { UserRepository } from '../database/repositories/user-repository.ts';
+import { WatchAreaRepository } from '../database/repositories/watch-area-repository.ts';
 import { UserService } from '../services/user-service.ts';
+import { DbSnapshotService } from '../services/db-snapshot-service.ts';
+import { MapClusterService } from '../services/map-cluster-service.ts';
+import { AnnouncementSyncService } from '../services/announcement-sync-service.ts';
+import { AnnouncementFeed } from '../services/announcement-feed.ts';
+import { WatchAreaService } from '../services/watch-area-service.ts';
 import validateCreateAnnouncement from '../lib/announcement-validation.ts';
 import validateCreateUser from '../lib/user-validation.ts';
+import validateCreateWatchArea from '../lib/watch-area-validation.ts';
 import sanitizeText from '../lib/text-sanitization.ts';
-import { validateImageFormat } from '../lib/file-validation.ts';
+import { generateImageVariants } from '../lib/image-variants.ts';
 import { validateLocation } from '../lib/location-validation.ts';
+import { validateViewport } from '../lib/viewport-validation.ts';
+import { DatasetVersion } from '../lib/dataset-version.ts';
+import { CoalescingCache } from '../lib/coalescing-cache.ts';
+import { createClusterRelay, RELAY_CHANNELS } from '../lib/cluster-relay.ts';
 import { db } from '../database/db-utils.ts';
 
-export const announcementRepository = new AnnouncementRepository(db);
+export const datasetVersion = new DatasetVersion(db);
 
-export const photoUploadService = new PhotoUploadService(announcementRepository, validateImageFormat, db.transaction.bind(db), path, fs);
+export const announcementRepository = new AnnouncementRepository(db, datasetVersion);
+
+// Announcement stream: shared heartbeat every FEED_HEARTBEAT_MS, up to FEED_MAX_SUBSCRIBERS connections per process
+export const announcementFeed = new AnnouncementFeed(validateLocation, {
+  heartbeatMs: Number(process.env.FEED_HEARTBEAT_MS) || 25000,
+  maxBufferedBytes: 64 * 1024,
+  maxSubscribers: Number(process.env.FEED_MAX_SUBSCRIBERS) || 10000
+});
+
+const publishVisibleAnnouncement = createClusterRelay<Announcement>(RELAY_CHANNELS.announcementFeed, (announcement) =>
+  announcementFeed.publish(announcement)
+);
+
+export const photoUploadService = new PhotoUploadService(
+  announcementRepository,
+  db.transaction.bind(db),
+  path,
+  fs,
+  generateImageVariants,
+  publishVisibleAnnouncement
+);
+
+export const watchAreaService = new WatchAreaService(new WatchAreaRepository(db), validateCreateWatchArea, sanitizeText);
+
+// Full list results for LIST_CACHE_TTL_MS (default 5 s, 0 disables) in up to LIST_CACHE_SIZE entries
+const listCacheTtlMs = Number(process.env.LIST_CACHE_TTL_MS ?? 5000);
 
 export const announcementService = new AnnouncementService(
   announcementRepository,
   validateCreateAnnouncement,
   sanitizeText,
   validateLocation,
-  photoUploadService
+  photoUploadService,
+  listCacheTtlMs > 0
+    ? { cache: new CoalescingCache(Number(process.env.LIST_CACHE_SIZE) || 500, listCacheTtlMs), datasetVersion }
+    : undefined,
+  watchAreaService
 );
 
+export const mapClusterService = new MapClusterService(announcementRepository, datasetVersion, validateViewport);
+
+export const announcementSyncService = new AnnouncementSyncService(announcementRepository, datasetVersion);
+
 export const userRepository = new UserRepository(db);
 
 export const userService = new UserService(userRepository, validateCreateUser);
+
+export const dbSnapshotService = new DbSnapshotService(
+  db,
+  path,
+  fs,
+  process.env.SNAPSHOTS_PATH || path.join(os.tmpdir(), 'petspot-snapshots'),
+  path.join(process.cwd(), 'public', 'images'),
+  datasetVersion
+);
@@ -0,0 +1,35 @@
+import { Writable } from 'stream';
+import { pino } from 'pino';
+import { redactLogLine } from '../lib/pii-redaction.ts';
+
+/**
+ * Pino transport target, loaded by pino in its own worker thread.
+ * Receives NDJSON log lines from the main thread, redacts PII in request/response bodies
+ * and writes the lines to stdout asynchronously.
+ */
+export default function logTransport(): Writable {
+  const destination = pino.destination({ dest: 1, sync: false });
+  let pending = '';
+
+  return new Writable({
+    write(chunk: Buffer, _encoding, callback) {
+      // A chunk may hold several records and end in the middle of one
+      const lines = (pending + chunk.toString()).split('\n');
+      pending = lines.pop() ?? '';
+      for (const line of lines) {
+        if (line) {
+          destination.write(redactLogLine(line) + '\n');
+        }
+      }
+      callback();
+    },
+
+    final(callback) {
+      if (pending) {
+        destination.write(redactLogLine(pending) + '\n');
+      }
+      destination.flushSync();
+      callback();
+    }
+  });
+}
@@ -1,11 +1,29 @@
+import { fileURLToPath } from 'url';
 import { pino } from 'pino';
+import type { LoggerOptions } from 'pino';
+import { getRequestId } from '../lib/request-context.ts';
 
-const log = pino({
+/**
+ * Outside tests, log lines go to a worker thread (log-transport.ts) that redacts PII and writes to stdout,
+ * so neither redaction nor stdout writes run on the request path. LOG_SYNC=true logs from the main thread.
+ */
+export const offThreadLogging = process.env.NODE_ENV !== 'test' && process.env.LOG_SYNC !== 'true';
+
+const options: LoggerOptions = {
   level: process.env.NODE_ENV === 'test' ? 'error' : 'info',
   timestamp: pino.stdTimeFunctions.isoTime,
   formatters: {
     level: (label: string) => ({ level: label.toUpperCase() })
+  },
+  // Evaluated on the calling thread, so the request ID is attached before the record leaves for the worker
+  mixin: () => {
+    const requestId = getRequestId();
+    return requestId ? { requestId } : {};
   }
-});
+};
+
+const log = offThreadLogging
+  ? pino(options, pino.transport({ target: fileURLToPath(new URL('./log-transport.ts', import.meta.url)) }))
+  : pino(options);
 
 export default log;
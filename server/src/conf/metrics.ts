@@ -0,0 +1,82 @@
+import { monitorEventLoopDelay } from 'perf_hooks';
+import { Counter, Gauge, Histogram, MetricsRegistry } from '../lib/metrics.ts';
+import { keyDerivationPool } from '../lib/password-management.ts';
+import { createClusterMetrics } from '../lib/cluster-metrics.ts';
+
+/**
+ * Application metrics, exposed in Prometheus text format on GET /metrics.
+ * Values are per process; in cluster mode every scrape includes all workers, labelled with `worker`.
+ */
+export const registry = new MetricsRegistry();
+
+export const renderMetrics = createClusterMetrics(registry);
+
+export const httpRequestDuration = registry.register(
+  new Histogram('http_request_duration_seconds', 'HTTP request latency by method, route template and status code', [
+    0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+  ])
+);
+
+export const dbQueryDuration = registry.register(
+  new Histogram('db_query_duration_seconds', 'Repository method duration, including Knex query time', [
+    0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1
+  ])
+);
+
+export const photoUploadDuration = registry.register(
+  new Histogram('photo_upload_duration_seconds', 'Photo processing time after the upload was streamed to disk', [
+    0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+  ])
+);
+
+export const activeUploads = registry.register(new Gauge('photo_uploads_active', 'Photo uploads currently being processed'));
+
+export const feedSubscribers = registry.register(new Gauge('announcement_feed_subscribers', 'Open announcement stream connections'));
+export const feedDroppedSubscribers = registry.register(
+  new Counter('announcement_feed_dropped_total', 'Announcement stream connections closed because the client fell behind')
+);
+
+registry.register(
+  new Gauge('password_hash_queue_depth', 'Password hashing calls waiting for a worker', () => keyDerivationPool.metrics().queued)
+);
+registry.register(
+  new Gauge('password_hash_workers_busy', 'Password hashing workers currently deriving a key', () => keyDerivationPool.metrics().busy)
+);
+registry.register(
+  new Counter('password_hash_rejected_total', 'Password hashing calls rejected with 503 because the queue was full', () =>
+    keyDerivationPool.metrics().rejected
+  )
+);
+
+const hashQueueWait = registry.register(
+  new Histogram('password_hash_queue_wait_seconds', 'Time password hashing calls waited for a worker', [
+    0, 0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5
+  ])
+);
+const hashDuration = registry.register(
+  new Histogram('password_hash_duration_seconds', 'Time spent deriving a password hash', [0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1])
+);
+keyDerivationPool.observe((queueWaitMs, deriveMs) => {
+  hashQueueWait.observe({}, queueWaitMs / 1000);
+  hashDuration.observe({}, deriveMs / 1000);
+});
+
+// Event loop delay over the last complete window. Reads do not reset it, so every scraper (and every cluster
+// scrape) sees the same values; the window is rotated by a timer instead.
+const EVENT_LOOP_WINDOW_MS = 10_000;
+const eventLoopDelay = monitorEventLoopDelay({ resolution: 10 });
+eventLoopDelay.enable();
+let eventLoopLag = { p50: 0, p99: 0, max: 0 };
+setInterval(() => {
+  eventLoopLag = { p50: eventLoopDelay.percentile(50) / 1e9, p99: eventLoopDelay.percentile(99) / 1e9, max: eventLoopDelay.max / 1e9 };
+  eventLoopDelay.reset();
+}, EVENT_LOOP_WINDOW_MS).unref();
+registry.register(new Gauge('nodejs_eventloop_lag_p50_seconds', 'Median event loop delay over the last 10 s', () => eventLoopLag.p50));
+registry.register(
+  new Gauge('nodejs_eventloop_lag_p99_seconds', '99th percentile event loop delay over the last 10 s', () => eventLoopLag.p99)
+);
+registry.register(new Gauge('nodejs_eventloop_lag_max_seconds', 'Maximum event loop delay over the last 10 s', () => eventLoopLag.max));
+
+registry.register(new Gauge('process_resident_memory_bytes', 'Resident set size', () => process.memoryUsage.rss()));
+registry.register(new Gauge('nodejs_heap_used_bytes', 'V8 heap in use', () => process.memoryUsage().heapUsed));
+registry.register(new Gauge('nodejs_heap_total_bytes', 'V8 heap allocated', () => process.memoryUsage().heapTotal));
@@ -2,6 +2,7 @@ import type { Knex } from 'knex';
 import knex from 'knex';
 import knexConfig from '../../knexfile.ts';
 import log from '../conf/logger.ts';
+import { DatasetVersion } from '../lib/dataset-version.ts';
 
 export const db = knex(knexConfig);
 
@@ -9,6 +10,8 @@ export async function runDbMigrations() {
   try {
     await db.migrate.latest();
     await db.seed.run();
+    // Seeds replace the announcements, so ETags and sync watermarks issued before the restart must not match any more
+    await new DatasetVersion(db).startEpoch();
     log.info('DB migrations ran successfully');
   } catch (error) {
     log.error(error, 'DB migration failed');
@@ -0,0 +1,15 @@
+import type { Knex } from 'knex';
+
+/**
+ * True when `knex` talks to PostgreSQL (DB_CLIENT=postgres), false for SQLite.
+ */
+export function isPostgres(knex: Knex): boolean {
+  return ['pg', 'postgres', 'postgresql'].includes(String(knex.client.config.client));
+}
+
+/**
+ * pg returns `timestamptz` columns as Date, SQLite returns the ISO string that was inserted.
+ */
+export function toIsoTimestamp(value: string | Date): string {
+  return value instanceof Date ? value.toISOString() : value;
+}
@@ -0,0 +1,25 @@
+import type { Knex } from 'knex';
+import { isPostgres } from '../dialect.ts';
+
+// Expression must match GEO_CELL_SQL in src/lib/geo-grid.ts, otherwise SQLite won't use the index
+const GEO_CELL_EXPRESSION =
+  '(min(CAST((location_latitude + 90) * 10 AS INTEGER), 1799) * 3600 + min(CAST((location_longitude + 180) * 10 AS INTEGER), 3599))';
+
+export async function up(knex: Knex): Promise<void> {
+  // PostgreSQL uses the PostGIS GiST index instead (20260119090000_add_announcement_location_geography)
+  if (!isPostgres(knex)) {
+    await knex.raw(
+      `CREATE INDEX announcement_geo_cell_idx ON announcement (${GEO_CELL_EXPRESSION}, location_latitude, location_longitude)`
+    );
+  }
+  await knex.schema.alterTable('announcement', (table) => {
+    table.index(['location_latitude', 'location_longitude'], 'announcement_location_idx');
+  });
+}
+
+export async function down(knex: Knex): Promise<void> {
+  await knex.schema.alterTable('announcement', (table) => {
+    table.dropIndex(['location_latitude', 'location_longitude'], 'announcement_location_idx');
+  });
+  await knex.raw('DROP INDEX IF EXISTS announcement_geo_cell_idx');
+}
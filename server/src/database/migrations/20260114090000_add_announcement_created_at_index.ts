@@ -0,0 +1,13 @@
+import type { Knex } from 'knex';
+
+export async function up(knex: Knex): Promise<void> {
+  await knex.schema.alterTable('announcement', (table) => {
+    table.index(['created_at', 'id'], 'announcement_created_at_id_idx');
+  });
+}
+
+export async function down(knex: Knex): Promise<void> {
+  await knex.schema.alterTable('announcement', (table) => {
+    table.dropIndex(['created_at', 'id'], 'announcement_created_at_id_idx');
+  });
+}
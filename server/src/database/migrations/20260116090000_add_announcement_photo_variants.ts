@@ -0,0 +1,13 @@
+import type { Knex } from 'knex';
+
+export async function up(knex: Knex): Promise<void> {
+  await knex.schema.alterTable('announcement', (table) => {
+    table.text('photo_variants').nullable();
+  });
+}
+
+export async function down(knex: Knex): Promise<void> {
+  await knex.schema.alterTable('announcement', (table) => {
+    table.dropColumn('photo_variants');
+  });
+}
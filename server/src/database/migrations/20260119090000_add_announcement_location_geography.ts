@@ -0,0 +1,32 @@
+import type { Knex } from 'knex';
+import { isPostgres } from '../dialect.ts';
+
+/**
+ * PostgreSQL only: stores the location as a PostGIS geography point behind a GiST index, used by the
+ * location filter through ST_DWithin. The column is generated from latitude/longitude, so writes stay
+ * identical on both databases. Coordinates become double precision (knex `float` maps to `real` in PostgreSQL).
+ * No-op on SQLite, which keeps the grid cell index.
+ */
+export async function up(knex: Knex): Promise<void> {
+  if (!isPostgres(knex)) {
+    return;
+  }
+  await knex.raw('CREATE EXTENSION IF NOT EXISTS postgis');
+  await knex.raw(
+    'ALTER TABLE announcement ALTER COLUMN location_latitude TYPE double precision, ALTER COLUMN location_longitude TYPE double precision'
+  );
+  await knex.raw(
+    `ALTER TABLE announcement ADD COLUMN location geography(Point, 4326)
+     GENERATED ALWAYS AS (ST_SetSRID(ST_MakePoint(location_longitude, location_latitude), 4326)::geography) STORED`
+  );
+  await knex.raw('CREATE INDEX announcement_location_gist_idx ON announcement USING GIST (location)');
+}
+
+export async function down(knex: Knex): Promise<void> {
+  if (!isPostgres(knex)) {
+    return;
+  }
+  await knex.raw('DROP INDEX IF EXISTS announcement_location_gist_idx');
+  await knex.raw('ALTER TABLE announcement DROP COLUMN IF EXISTS location');
+  await knex.raw('ALTER TABLE announcement ALTER COLUMN location_latitude TYPE real, ALTER COLUMN location_longitude TYPE real');
+}
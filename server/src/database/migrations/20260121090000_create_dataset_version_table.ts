@@ -0,0 +1,16 @@
+import type { Knex } from 'knex';
+
+/**
+ * Single-row counter behind the announcement ETags, shared by every server process.
+ */
+export async function up(knex: Knex): Promise<void> {
+  await knex.schema.createTable('dataset_version', (table) => {
+    table.integer('id').primary();
+    table.bigInteger('version').notNullable().defaultTo(0);
+  });
+  await knex('dataset_version').insert({ id: 1, version: 0 });
+}
+
+export async function down(knex: Knex): Promise<void> {
+  await knex.schema.dropTableIfExists('dataset_version');
+}
@@ -0,0 +1,29 @@
+import type { Knex } from 'knex';
+
+/**
+ * Delta sync: ids of deleted announcements, an index for announcements changed after a watermark,
+ * and a sync epoch that changes when the whole dataset is replaced (seeding, snapshot restore).
+ */
+export async function up(knex: Knex): Promise<void> {
+  await knex.schema.createTable('announcement_tombstone', (table) => {
+    table.string('id').primary();
+    table.timestamp('deleted_at').notNullable();
+    table.index(['deleted_at'], 'announcement_tombstone_deleted_at_idx');
+  });
+  await knex.schema.alterTable('announcement', (table) => {
+    table.index(['updated_at'], 'announcement_updated_at_idx');
+  });
+  await knex.schema.alterTable('dataset_version', (table) => {
+    table.bigInteger('epoch').notNullable().defaultTo(0);
+  });
+}
+
+export async function down(knex: Knex): Promise<void> {
+  await knex.schema.alterTable('dataset_version', (table) => {
+    table.dropColumn('epoch');
+  });
+  await knex.schema.alterTable('announcement', (table) => {
+    table.dropIndex(['updated_at'], 'announcement_updated_at_idx');
+  });
+  await knex.schema.dropTableIfExists('announcement_tombstone');
+}
@@ -0,0 +1,62 @@
+import type { Knex } from 'knex';
+import { isPostgres } from '../dialect.ts';
+
+/**
+ * Watch areas (circles saved by users) and the queue of notifications for announcements reported inside them.
+ *
+ * Each area also stores its bounding box, which is spatially indexed for the reverse lookup "which areas contain
+ * this point": an R*Tree virtual table kept in sync by triggers on SQLite, a GiST index over the box on PostgreSQL.
+ */
+export async function up(knex: Knex): Promise<void> {
+  await knex.schema.createTable('watch_area', (table) => {
+    table.increments('id');
+    table.text('user_id').notNullable().references('id').inTable('user').onDelete('CASCADE');
+    table.text('name');
+    table.double('latitude').notNullable();
+    table.double('longitude').notNullable();
+    table.double('radius_km').notNullable();
+    table.double('min_lat').notNullable();
+    table.double('max_lat').notNullable();
+    table.double('min_lng').notNullable();
+    table.double('max_lng').notNullable();
+    table.timestamp('created_at').notNullable().defaultTo(knex.fn.now());
+    table.index(['user_id'], 'watch_area_user_id_idx');
+  });
+
+  if (isPostgres(knex)) {
+    await knex.raw(
+      'CREATE INDEX watch_area_box_gist_idx ON watch_area USING GIST (box(point(min_lng, min_lat), point(max_lng, max_lat)))'
+    );
+  } else {
+    await knex.raw('CREATE VIRTUAL TABLE watch_area_rtree USING rtree(id, min_lat, max_lat, min_lng, max_lng)');
+    await knex.raw(`CREATE TRIGGER watch_area_rtree_insert AFTER INSERT ON watch_area BEGIN
+      INSERT INTO watch_area_rtree VALUES (new.id, new.min_lat, new.max_lat, new.min_lng, new.max_lng);
+    END`);
+    await knex.raw(`CREATE TRIGGER watch_area_rtree_update AFTER UPDATE ON watch_area BEGIN
+      UPDATE watch_area_rtree SET min_lat = new.min_lat, max_lat = new.max_lat, min_lng = new.min_lng, max_lng = new.max_lng
+      WHERE id = new.id;
+    END`);
+    await knex.raw(`CREATE TRIGGER watch_area_rtree_delete AFTER DELETE ON watch_area BEGIN
+      DELETE FROM watch_area_rtree WHERE id = old.id;
+    END`);
+  }
+
+  await knex.schema.createTable('watch_area_notification', (table) => {
+    table.increments('id');
+    table.text('user_id').notNullable().references('id').inTable('user').onDelete('CASCADE');
+    table.integer('watch_area_id').notNullable().references('id').inTable('watch_area').onDelete('CASCADE');
+    table.text('announcement_id').notNullable().references('id').inTable('announcement').onDelete('CASCADE');
+    table.timestamp('created_at').notNullable().defaultTo(knex.fn.now());
+    table.timestamp('sent_at');
+    table.unique(['user_id', 'announcement_id'], { indexName: 'watch_area_notification_user_announcement_idx' });
+    table.index(['sent_at', 'id'], 'watch_area_notification_pending_idx');
+  });
+}
+
+export async function down(knex: Knex): Promise<void> {
+  await knex.schema.dropTableIfExists('watch_area_notification');
+  if (!isPostgres(knex)) {
+    await knex.raw('DROP TABLE IF EXISTS watch_area_rtree');
+  }
+  await knex.schema.dropTableIfExists('watch_area');
+}
@@ -0,0 +1,69 @@
+import type { Knex } from 'knex';
+import { isPostgres } from '../dialect.ts';
+
+const SEARCHED_COLUMNS = ['pet_name', 'breed', 'description', 'reward'];
+
+const folded = (prefix: string) =>
+  SEARCHED_COLUMNS.map((column) => `replace(replace(${prefix}.${column}, 'ł', 'l'), 'Ł', 'L')`).join(', ');
+
+/**
+ * Full-text index over pet name, breed, description and reward.
+ *
+ * Both databases ignore diacritics, so `zolty` finds "Żółty":
+ *
+ * SQLite: FTS5 table with external content (the text is read from `announcement` by rowid, not stored twice),
+ * kept in sync by triggers. Only updates of the searched columns touch the index, so photo uploads do not.
+ * The unicode61 tokenizer strips only diacritics that Unicode can decompose, so `ł` is folded to `l` before
+ * indexing (and in search terms, see AnnouncementRepository.search). For the same reason the FTS5 'rebuild'
+ * command must not be used: a later migration that rebuilds the `announcement` table, which may change rowids,
+ * has to refill the index with the folded INSERT ... SELECT below.
+ * PostgreSQL: generated, weighted `tsvector` column behind a GIN index. The `petspot_search` configuration is
+ * `simple` (announcements are mostly Polish, which has no built-in stemmer) with `unaccent` in front of it.
+ */
+export async function up(knex: Knex): Promise<void> {
+  if (isPostgres(knex)) {
+    await knex.raw('CREATE EXTENSION IF NOT EXISTS unaccent');
+    await knex.raw('CREATE TEXT SEARCH CONFIGURATION petspot_search (COPY = simple)');
+    await knex.raw('ALTER TEXT SEARCH CONFIGURATION petspot_search ALTER MAPPING FOR hword, hword_part, word WITH unaccent, simple');
+    await knex.raw(
+      `ALTER TABLE announcement ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+         setweight(to_tsvector('petspot_search', coalesce(pet_name, '')), 'A') ||
+         setweight(to_tsvector('petspot_search', coalesce(breed, '')), 'B') ||
+         setweight(to_tsvector('petspot_search', coalesce(description, '')), 'C') ||
+         setweight(to_tsvector('petspot_search', coalesce(reward, '')), 'D')
+       ) STORED`
+    );
+    await knex.raw('CREATE INDEX announcement_search_gin_idx ON announcement USING GIN (search_vector)');
+    return;
+  }
+
+  const columns = SEARCHED_COLUMNS.join(', ');
+  await knex.raw(
+    `CREATE VIRTUAL TABLE announcement_fts USING fts5(${columns}, content='announcement', content_rowid='rowid',
+     tokenize='unicode61 remove_diacritics 2')`
+  );
+  await knex.raw(`CREATE TRIGGER announcement_fts_insert AFTER INSERT ON announcement BEGIN
+    INSERT INTO announcement_fts (rowid, ${columns}) VALUES (new.rowid, ${folded('new')});
+  END`);
+  await knex.raw(`CREATE TRIGGER announcement_fts_update AFTER UPDATE OF ${columns} ON announcement BEGIN
+    INSERT INTO announcement_fts (announcement_fts, rowid, ${columns}) VALUES ('delete', old.rowid, ${folded('old')});
+    INSERT INTO announcement_fts (rowid, ${columns}) VALUES (new.rowid, ${folded('new')});
+  END`);
+  await knex.raw(`CREATE TRIGGER announcement_fts_delete AFTER DELETE ON announcement BEGIN
+    INSERT INTO announcement_fts (announcement_fts, rowid, ${columns}) VALUES ('delete', old.rowid, ${folded('old')});
+  END`);
+  await knex.raw(`INSERT INTO announcement_fts (rowid, ${columns}) SELECT rowid, ${folded('announcement')} FROM announcement`);
+}
+
+export async function down(knex: Knex): Promise<void> {
+  if (isPostgres(knex)) {
+    await knex.raw('DROP INDEX IF EXISTS announcement_search_gin_idx');
+    await knex.raw('ALTER TABLE announcement DROP COLUMN IF EXISTS search_vector');
+    await knex.raw('DROP TEXT SEARCH CONFIGURATION IF EXISTS petspot_search');
+    return;
+  }
+  for (const trigger of ['announcement_fts_insert', 'announcement_fts_update', 'announcement_fts_delete']) {
+    await knex.raw(`DROP TRIGGER IF EXISTS ${trigger}`);
+  }
+  await knex.raw('DROP TABLE IF EXISTS announcement_fts');
+}
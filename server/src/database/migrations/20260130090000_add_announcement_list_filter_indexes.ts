@@ -0,0 +1,22 @@
+import type { Knex } from 'knex';
+
+/**
+ * Indexes for filtered and sorted list pages, e.g. "5 most recent missing pets": the row value keyset
+ * comparison and ORDER BY ... DESC LIMIT are answered by walking one index from its end.
+ * Filters without an index of their own (species, sex) are checked on the rows walked.
+ */
+export async function up(knex: Knex): Promise<void> {
+  await knex.schema.alterTable('announcement', (table) => {
+    table.index(['status', 'created_at', 'id'], 'announcement_status_created_at_id_idx');
+    table.index(['status', 'last_seen_date', 'id'], 'announcement_status_last_seen_date_id_idx');
+    table.index(['last_seen_date', 'id'], 'announcement_last_seen_date_id_idx');
+  });
+}
+
+export async function down(knex: Knex): Promise<void> {
+  await knex.schema.alterTable('announcement', (table) => {
+    table.dropIndex(['status', 'created_at', 'id'], 'announcement_status_created_at_id_idx');
+    table.dropIndex(['status', 'last_seen_date', 'id'], 'announcement_status_last_seen_date_id_idx');
+    table.dropIndex(['last_seen_date', 'id'], 'announcement_last_seen_date_id_idx');
+  });
+}
@@ -1,66 +1,183 @@
 import { v4 as uuidv4 } from 'uuid';
 import type { Knex } from 'knex';
-import type { Announcement, AnnouncementRow, CreateAnnouncementDto, LocationFilter } from '../../types/announcement.ts';
+import type {
+  Announcement,
+  AnnouncementField,
+  AnnouncementListFilter,
+  AnnouncementProjection,
+  AnnouncementRow,
+  CreateAnnouncementDto,
+  LocationFilter,
+  MapPoint,
+  OffsetPageRequest,
+  PageRequest,
+  PhotoVariants
+} from '../../types/announcement.ts';
 import { hashPassword } from '../../lib/password-management.ts';
+import type { DatasetVersion } from '../../lib/dataset-version.ts';
+import { boundingBox, EARTH_RADIUS_KM, GEO_CELL_SQL, geoCellsInBoundingBox } from '../../lib/geo-grid.ts';
+import { timed } from '../../lib/metrics.ts';
+import { TOMBSTONE_RETENTION_MS } from '../../lib/sync-watermark.ts';
+import { isPostgres, toIsoTimestamp } from '../dialect.ts';
+import { dbQueryDuration } from '../../conf/metrics.ts';
+
+// Column holding each field of a projection
+const FIELD_COLUMNS: Record<AnnouncementField, keyof AnnouncementRow> = {
+  id: 'id',
+  petName: 'pet_name',
+  species: 'species',
+  breed: 'breed',
+  sex: 'sex',
+  age: 'age',
+  description: 'description',
+  microchipNumber: 'microchip_number',
+  locationLatitude: 'location_latitude',
+  locationLongitude: 'location_longitude',
+  lastSeenDate: 'last_seen_date',
+  email: 'email',
+  phone: 'phone',
+  photoUrl: 'photo_url',
+  photoVariants: 'photo_variants',
+  status: 'status',
+  reward: 'reward',
+  createdAt: 'created_at',
+  updatedAt: 'updated_at'
+};
 
 export interface IAnnouncementRepository {
-  findAll(locationFilter?: LocationFilter): Promise<Announcement[]>;
+  /**
+   * With `page`, returns up to `page.limit` rows after `page.cursor` in (sort key DESC, id DESC) order,
+   * where the sort key is `filter.sort` (createdAt by default). Without `page`, rows are ordered only when
+   * `filter.sort` is given.
+   */
+  findAll(locationFilter?: LocationFilter, page?: PageRequest, filter?: AnnouncementListFilter): Promise<Announcement[]>;
+  /**
+   * Same rows as `findAll`, reading and returning only `fields`.
+   */
+  findFields(
+    fields: AnnouncementField[],
+    locationFilter?: LocationFilter,
+    page?: PageRequest,
+    filter?: AnnouncementListFilter
+  ): Promise<AnnouncementProjection[]>;
+  /**
+   * Announcements listed by `findAll` whose pet name, breed, description or reward contain every term
+   * (as a word prefix), best matches first.
+   */
+  search(terms: string[], locationFilter: LocationFilter | undefined, page: OffsetPageRequest): Promise<Announcement[]>;
+  /**
+   * Id, coordinates, species and status of every announcement listed by `findAll`, for map clustering.
+   */
+  findMapPoints(): Promise<MapPoint[]>;
+  /**
+   * Announcements with `updated_at` after `since`, including those without a photo (not listed by `findAll`).
+   */
+  findUpdatedSince(since: string): Promise<Announcement[]>;
+  /**
+   * Ids of announcements deleted after `since`.
+   */
+  findDeletedSince(since: string): Promise<string[]>;
   findById(id: string): Promise<Announcement | null>;
   existsByMicrochip(microchipNumber: string): Promise<boolean>;
   create(data: CreateAnnouncementDto, managementPassword: string): Promise<Announcement>;
-  updatePhotoUrl(trx: Knex.Transaction, id: string, photoUrl: string): Promise<void>;
+  updatePhotoUrl(trx: Knex.Transaction, id: string, photoUrl: string | null, photoVariants?: PhotoVariants | null): Promise<void>;
   delete(id: string): Promise<void>;
 }
 
 export class AnnouncementRepository implements IAnnouncementRepository {
-  constructor(private db: Knex) {}
+  constructor(
+    private db: Knex,
+    private datasetVersion?: DatasetVersion
+  ) {}
 
-  async findAll(locationFilter?: LocationFilter): Promise<Announcement[]> {
-    let rows: AnnouncementRow[] = [];
-    if (!locationFilter) {
-      rows = await this.db('announcement').whereNotNull('photo_url').select('*');
+  async findAll(locationFilter?: LocationFilter, page?: PageRequest, filter: AnnouncementListFilter = {}): Promise<Announcement[]> {
+    const query = this.listQuery(locationFilter, page, filter);
+    const rows: AnnouncementRow[] = await this.timed('findAll', () => query);
+    return rows.map(this.rowToEntity);
+  }
+
+  async findFields(
+    fields: AnnouncementField[],
+    locationFilter?: LocationFilter,
+    page?: PageRequest,
+    filter: AnnouncementListFilter = {}
+  ): Promise<AnnouncementProjection[]> {
+    const query = this.listQuery(locationFilter, page, filter)
+      .clearSelect()
+      .select(fields.map((field) => FIELD_COLUMNS[field]));
+    const rows: Partial<AnnouncementRow>[] = await this.timed('findFields', () => query);
+    return rows.map((row) => this.rowToProjection(row, fields));
+  }
+
+  /**
+   * Ranked by BM25 (SQLite FTS5) or ts_rank (PostgreSQL), with matches in the pet name weighted highest, then
+   * breed, description and reward. Ties, such as an equal rank for every match, fall back to newest first.
+   * Diacritics are ignored on both databases (see the search index migration).
+   */
+  async search(terms: string[], locationFilter: LocationFilter | undefined, page: OffsetPageRequest): Promise<Announcement[]> {
+    let query: Knex.QueryBuilder;
+    if (isPostgres(this.db)) {
+      const tsquery = terms.map((term) => `${term}:*`).join(' & ');
+      query = locationFilter ? this.withinRangePostgis(locationFilter) : this.db('announcement').whereNotNull('photo_url').select('*');
+      query
+        .select(this.db.raw("ts_rank(search_vector, to_tsquery('petspot_search', ?)) AS search_rank", [tsquery]))
+        .whereRaw("search_vector @@ to_tsquery('petspot_search', ?)", [tsquery])
+        .orderBy('search_rank', 'desc');
     } else {
-      const { lat, lng, range } = locationFilter;
-
-      /**
-       * Haversine formula calculates great-circle distance between two points on a sphere.
-       * Formula: d = R * acos(cos(φ1) * cos(φ2) * cos(Δλ) + sin(φ1) * sin(φ2))
-       * Where: R = Earth radius (6371 km), φ = latitude, λ = longitude
-       */
-      const subquery = this.db('announcement').select(
-        '*',
-        this.db.raw(
-          `
-            (6371 * acos(
-              cos(radians(?)) *
-              cos(radians(location_latitude)) *
-              cos(radians(location_longitude) - radians(?)) +
-              sin(radians(?)) *
-              sin(radians(location_latitude))
-            )) AS distance
-          `,
-          [lat, lng, lat]
-        )
-      );
+      // bm25() is lower for better matches; weights follow the column order of announcement_fts.
+      // The index holds `ł` folded to `l`, which the tokenizer does not strip like other diacritics.
+      const matches = this.db('announcement_fts')
+        .select(this.db.raw('rowid AS fts_rowid'), this.db.raw('bm25(announcement_fts, 10.0, 5.0, 1.0, 1.0) AS search_rank'))
+        .whereRaw('announcement_fts MATCH ?', [terms.map((term) => `"${term.replace(/ł/g, 'l')}"*`).join(' ')]);
+      const source = this.db('announcement').join(matches.as('matches'), 'matches.fts_rowid', 'announcement.rowid');
+      query = locationFilter ? this.withinRangeSqlite(locationFilter, source) : source.whereNotNull('photo_url').select('*');
+      query.orderBy('search_rank', 'asc');
+    }
+
+    query
+      .orderBy([
+        { column: 'created_at', order: 'desc' },
+        { column: 'id', order: 'desc' }
+      ])
+      .limit(page.limit)
+      .offset(page.offset);
 
-      rows = await this.db
-        .from(subquery.as('announcements_with_distance'))
-        .where('distance', '<', range)
+    const rows: AnnouncementRow[] = await this.timed('search', () => query);
+    return rows.map(this.rowToEntity);
+  }
+
+  async findMapPoints(): Promise<MapPoint[]> {
+    return this.timed('findMapPoints', () =>
+      this.db('announcement')
         .whereNotNull('photo_url')
-        .select('*');
-    }
+        .select('id', 'location_latitude as latitude', 'location_longitude as longitude', 'species', 'status')
+    );
+  }
 
+  async findUpdatedSince(since: string): Promise<Announcement[]> {
+    const rows: AnnouncementRow[] = await this.timed('findUpdatedSince', () =>
+      this.db('announcement').where('updated_at', '>', since).select('*')
+    );
     return rows.map(this.rowToEntity);
   }
 
+  async findDeletedSince(since: string): Promise<string[]> {
+    const rows: { id: string }[] = await this.timed('findDeletedSince', () =>
+      this.db('announcement_tombstone').where('deleted_at', '>', since).select('id')
+    );
+    return rows.map((row) => row.id);
+  }
+
   async findById(id: string): Promise<Announcement | null> {
-    const row: AnnouncementRow | undefined = await this.db('announcement').where('id', id).first();
+    const row: AnnouncementRow | undefined = await this.timed('findById', () => this.db('announcement').where('id', id).first());
 
     return row ? this.rowToEntity(row) : null;
   }
 
   async existsByMicrochip(microchipNumber: string): Promise<boolean> {
-    const row: AnnouncementRow | undefined = await this.db('announcement').where('microchip_number', microchipNumber).first();
+    const row: AnnouncementRow | undefined = await this.timed('existsByMicrochip', () =>
+      this.db('announcement').where('microchip_number', microchipNumber).first()
+    );
 
     return !!row;
   }
@@ -85,6 +202,7 @@ export class AnnouncementRepository implements IAnnouncementRepository {
       email: data.email ?? null,
       phone: data.phone ?? null,
       photo_url: null,
+      photo_variants: null,
       status: data.status,
       reward: data.reward ?? null,
       management_password_hash: passwordHash,
@@ -92,19 +210,178 @@ export class AnnouncementRepository implements IAnnouncementRepository {
       updated_at: now
     };
 
-    await this.db('announcement').insert(row);
+    await this.timed('create', () =>
+      this.db.transaction(async (trx) => {
+        await trx('announcement').insert(row);
+        await this.datasetVersion?.bump(trx);
+      })
+    );
     return this.findById(id) as Promise<Announcement>;
   }
 
-  async updatePhotoUrl(trx: Knex.Transaction, id: string, photoUrl: string): Promise<void> {
-    await trx('announcement').where('id', id).update({
-      photo_url: photoUrl,
-      updated_at: new Date().toISOString()
-    });
+  async updatePhotoUrl(
+    trx: Knex.Transaction,
+    id: string,
+    photoUrl: string | null,
+    photoVariants: PhotoVariants | null = null
+  ): Promise<void> {
+    await this.timed('updatePhotoUrl', () =>
+      trx('announcement').where('id', id).update({
+        photo_url: photoUrl,
+        photo_variants: photoVariants ? JSON.stringify(photoVariants) : null,
+        updated_at: new Date().toISOString()
+      })
+    );
+    await this.datasetVersion?.bump(trx);
   }
 
   async delete(id: string): Promise<void> {
-    await this.db('announcement').where('id', id).delete();
+    await this.timed('delete', () =>
+      this.db.transaction(async (trx) => {
+        const now = Date.now();
+        await trx('announcement').where('id', id).delete();
+        // Tombstones let delta sync clients drop the announcement; expired ones are pruned on the way
+        await trx('announcement_tombstone').insert({ id, deleted_at: new Date(now).toISOString() }).onConflict('id').merge();
+        await trx('announcement_tombstone').where('deleted_at', '<', new Date(now - TOMBSTONE_RETENTION_MS).toISOString()).delete();
+        await this.datasetVersion?.bump(trx);
+      })
+    );
+  }
+
+  /**
+   * Listed announcements (with a photo) matching the filters, selecting all columns.
+   */
+  private listQuery(
+    locationFilter: LocationFilter | undefined,
+    page: PageRequest | undefined,
+    filter: AnnouncementListFilter
+  ): Knex.QueryBuilder {
+    let query: Knex.QueryBuilder;
+    if (!locationFilter) {
+      query = this.db('announcement').whereNotNull('photo_url').select('*');
+    } else if (isPostgres(this.db)) {
+      query = this.withinRangePostgis(locationFilter);
+    } else {
+      query = this.withinRangeSqlite(locationFilter);
+    }
+    this.applyListFilter(query, filter);
+
+    const sortColumn = filter.sort === 'lastSeenDate' ? 'last_seen_date' : 'created_at';
+    if (page?.cursor) {
+      // Keyset pagination: row value comparison is answered by the (sort column, id) and (status, sort column, id) indexes
+      const key = 'lastSeenDate' in page.cursor ? page.cursor.lastSeenDate : page.cursor.createdAt;
+      query.whereRaw(`(${sortColumn}, id) < (?, ?)`, [key, page.cursor.id]);
+    }
+    if (page || filter.sort) {
+      query.orderBy([
+        { column: sortColumn, order: 'desc' },
+        { column: 'id', order: 'desc' }
+      ]);
+    }
+    if (page) {
+      query.limit(page.limit);
+    }
+    return query;
+  }
+
+  private applyListFilter(query: Knex.QueryBuilder, { status, species, sex, lastSeenFrom, lastSeenTo }: AnnouncementListFilter): void {
+    if (status) {
+      query.where('status', status);
+    }
+    if (species) {
+      query.where('species', species);
+    }
+    if (sex) {
+      query.where('sex', sex);
+    }
+    if (lastSeenFrom) {
+      query.where('last_seen_date', '>=', lastSeenFrom);
+    }
+    if (lastSeenTo) {
+      query.where('last_seen_date', '<=', lastSeenTo);
+    }
+  }
+
+  /**
+   * `source` is the announcement table, or announcements joined with extra columns (search rank).
+   */
+  private withinRangeSqlite(locationFilter: LocationFilter, source: Knex.QueryBuilder = this.db('announcement')): Knex.QueryBuilder {
+    const { lat, lng, range } = locationFilter;
+    const box = boundingBox(lat, lng, range);
+    const cells = geoCellsInBoundingBox(box);
+
+    /**
+     * Haversine formula calculates great-circle distance between two points on a sphere.
+     * Formula: d = R * acos(cos(φ1) * cos(φ2) * cos(Δλ) + sin(φ1) * sin(φ2))
+     * Where: R = Earth radius (6371 km), φ = latitude, λ = longitude
+     *
+     * It is evaluated only for candidates inside the bounding box of the search circle, which are
+     * found through the grid cell index (small ranges) or the latitude/longitude index (large ranges).
+     */
+    const subquery = source
+      .select(
+        '*',
+        this.db.raw(
+          `
+          (${EARTH_RADIUS_KM} * acos(
+            cos(radians(?)) *
+            cos(radians(location_latitude)) *
+            cos(radians(location_longitude) - radians(?)) +
+            sin(radians(?)) *
+            sin(radians(location_latitude))
+          )) AS distance
+        `,
+          [lat, lng, lat]
+        )
+      )
+      .whereBetween('location_latitude', [box.minLat, box.maxLat]);
+    if (box.minLng !== undefined && box.maxLng !== undefined) {
+      subquery.whereBetween('location_longitude', [box.minLng, box.maxLng]);
+    }
+    if (cells) {
+      subquery.whereRaw(`${GEO_CELL_SQL} IN (${cells.map(() => '?').join(', ')})`, cells);
+    }
+
+    return this.db
+      .from(subquery.as('announcements_with_distance'))
+      .where('distance', '<', range)
+      .whereNotNull('photo_url')
+      .select('*');
+  }
+
+  /**
+   * ST_DWithin on the `location` geography column is answered by announcement_location_gist_idx.
+   * `use_spheroid = false` measures great-circle distance on a sphere, like the SQLite haversine query,
+   * so both databases return the same announcements near the edge of the range.
+   */
+  private withinRangePostgis({ lat, lng, range }: LocationFilter): Knex.QueryBuilder {
+    return this.db('announcement')
+      .whereRaw('ST_DWithin(location, ST_SetSRID(ST_MakePoint(?, ?), 4326)::geography, ?, false)', [lng, lat, range * 1000])
+      .whereNotNull('photo_url')
+      .select('*');
+  }
+
+  /**
+   * Records query time in db_query_duration_seconds. Only the Knex query is timed, not password hashing
+   * or row mapping.
+   */
+  private timed<T>(method: string, query: () => PromiseLike<T>): Promise<T> {
+    return timed(dbQueryDuration, { repository: 'announcement', method }, query);
+  }
+
+  private rowToProjection(row: Partial<AnnouncementRow>, fields: AnnouncementField[]): AnnouncementProjection {
+    const entity: Record<string, unknown> = {};
+    for (const field of fields) {
+      const value = row[FIELD_COLUMNS[field]];
+      if (field === 'photoVariants') {
+        entity[field] = value ? JSON.parse(value as string) : null;
+      } else if (field === 'createdAt' || field === 'updatedAt') {
+        entity[field] = toIsoTimestamp(value as string | Date);
+      } else {
+        entity[field] = value;
+      }
+    }
+    return entity as AnnouncementProjection;
   }
 
   private rowToEntity(row: AnnouncementRow): Announcement {
@@ -123,10 +400,11 @@ export class AnnouncementRepository implements IAnnouncementRepository {
       email: row.email,
       phone: row.phone,
       photoUrl: row.photo_url,
+      photoVariants: row.photo_variants ? JSON.parse(row.photo_variants) : null,
       status: row.status,
       reward: row.reward,
-      createdAt: row.created_at,
-      updatedAt: row.updated_at
+      createdAt: toIsoTimestamp(row.created_at),
+      updatedAt: toIsoTimestamp(row.updated_at)
     };
   }
 }
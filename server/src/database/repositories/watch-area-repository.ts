@@ -0,0 +1,143 @@
+import type { Knex } from 'knex';
+import type { CreateWatchAreaDto, WatchArea, WatchAreaNotification, WatchAreaRow } from '../../types/watch-area.ts';
+import { boundingBox, distanceKm } from '../../lib/geo-grid.ts';
+import { timed } from '../../lib/metrics.ts';
+import { isPostgres, toIsoTimestamp } from '../dialect.ts';
+import { dbQueryDuration } from '../../conf/metrics.ts';
+
+export interface IWatchAreaRepository {
+  create(userId: string, data: CreateWatchAreaDto): Promise<WatchArea>;
+  /**
+   * Creates the area unless the user already has `maxAreas` areas. The count and the insert are one statement
+   * (behind a lock on the user row on PostgreSQL), so concurrent creates cannot exceed the limit.
+   * Returns null when the limit is reached.
+   */
+  createWithinLimit(userId: string, data: CreateWatchAreaDto, maxAreas: number): Promise<WatchArea | null>;
+  findByUser(userId: string): Promise<WatchArea[]>;
+  /**
+   * Deletes the area if it belongs to the user. Returns false when there was no such area.
+   */
+  delete(userId: string, id: number): Promise<boolean>;
+  /**
+   * Watch areas whose circle contains the point.
+   */
+  findContaining(lat: number, lng: number): Promise<WatchArea[]>;
+  /**
+   * Queues notifications; a user is notified at most once per announcement.
+   */
+  queueNotifications(notifications: WatchAreaNotification[]): Promise<void>;
+}
+
+export class WatchAreaRepository implements IWatchAreaRepository {
+  constructor(private db: Knex) {}
+
+  async create(userId: string, data: CreateWatchAreaDto): Promise<WatchArea> {
+    const row = this.toRow(userId, data);
+    const [inserted]: { id: number }[] = await this.timed('create', () => this.db('watch_area').insert(row).returning('id'));
+    return this.rowToEntity({ ...row, id: inserted.id });
+  }
+
+  async createWithinLimit(userId: string, data: CreateWatchAreaDto, maxAreas: number): Promise<WatchArea | null> {
+    const row = this.toRow(userId, data);
+    const columns = Object.keys(row);
+    const inserted: { id: number }[] = await this.timed('createWithinLimit', () =>
+      isPostgres(this.db)
+        ? this.db.transaction(async (trx) => {
+            // Locking the user row serializes concurrent creates of one user, so each one counts the other's area
+            await trx('user').where('id', userId).forUpdate().select('id');
+            const count = await trx('watch_area').where('user_id', userId).count({ count: '*' }).first();
+            return Number(count?.count ?? 0) < maxAreas ? trx('watch_area').insert(row).returning('id') : [];
+          })
+        : // A single statement runs under SQLite's write lock, so the count cannot go stale before the insert
+          this.db.raw(
+            `INSERT INTO watch_area (${columns.map(() => '??').join(', ')})
+             SELECT ${columns.map(() => '?').join(', ')} WHERE (SELECT count(*) FROM watch_area WHERE user_id = ?) < ?
+             RETURNING id`,
+            [...columns, ...Object.values(row), userId, maxAreas]
+          )
+    );
+    return inserted.length > 0 ? this.rowToEntity({ ...row, id: inserted[0].id }) : null;
+  }
+
+  async findByUser(userId: string): Promise<WatchArea[]> {
+    const rows: WatchAreaRow[] = await this.timed('findByUser', () =>
+      this.db('watch_area').where('user_id', userId).orderBy('id').select('*')
+    );
+    return rows.map(this.rowToEntity);
+  }
+
+  async delete(userId: string, id: number): Promise<boolean> {
+    const deleted = await this.timed('delete', () => this.db('watch_area').where({ id, user_id: userId }).delete());
+    return deleted > 0;
+  }
+
+  /**
+   * The spatial index returns the areas whose bounding box contains the point, in O(log n + candidates);
+   * the exact distance check then drops points in the corners of the box.
+   */
+  async findContaining(lat: number, lng: number): Promise<WatchArea[]> {
+    const rows: WatchAreaRow[] = await this.timed('findContaining', () =>
+      isPostgres(this.db)
+        ? this.db('watch_area')
+            .whereRaw('box(point(min_lng, min_lat), point(max_lng, max_lat)) @> box(point(?, ?), point(?, ?))', [lng, lat, lng, lat])
+            .select('*')
+        : this.db('watch_area_rtree')
+            .join('watch_area', 'watch_area.id', 'watch_area_rtree.id')
+            .where('watch_area_rtree.min_lat', '<=', lat)
+            .where('watch_area_rtree.max_lat', '>=', lat)
+            .where('watch_area_rtree.min_lng', '<=', lng)
+            .where('watch_area_rtree.max_lng', '>=', lng)
+            .select('watch_area.*')
+    );
+    return rows.filter((row) => distanceKm(row.latitude, row.longitude, lat, lng) <= row.radius_km).map(this.rowToEntity);
+  }
+
+  async queueNotifications(notifications: WatchAreaNotification[]): Promise<void> {
+    if (notifications.length === 0) {
+      return;
+    }
+    const createdAt = new Date().toISOString();
+    const rows = notifications.map(({ userId, watchAreaId, announcementId }) => ({
+      user_id: userId,
+      watch_area_id: watchAreaId,
+      announcement_id: announcementId,
+      created_at: createdAt
+    }));
+    await this.timed('queueNotifications', () =>
+      this.db('watch_area_notification').insert(rows).onConflict(['user_id', 'announcement_id']).ignore()
+    );
+  }
+
+  private toRow(userId: string, data: CreateWatchAreaDto): Omit<WatchAreaRow, 'id'> {
+    const box = boundingBox(data.latitude, data.longitude, data.radiusKm);
+    return {
+      user_id: userId,
+      name: data.name ?? null,
+      latitude: data.latitude,
+      longitude: data.longitude,
+      radius_km: data.radiusKm,
+      min_lat: box.minLat,
+      max_lat: box.maxLat,
+      // Boxes around a pole or across the antimeridian span all longitudes
+      min_lng: box.minLng ?? -180,
+      max_lng: box.maxLng ?? 180,
+      created_at: new Date().toISOString()
+    };
+  }
+
+  private timed<T>(method: string, query: () => PromiseLike<T>): Promise<T> {
+    return timed(dbQueryDuration, { repository: 'watch_area', method }, query);
+  }
+
+  private rowToEntity(row: Omit<WatchAreaRow, 'min_lat' | 'max_lat' | 'min_lng' | 'max_lng'>): WatchArea {
+    return {
+      id: row.id,
+      userId: row.user_id,
+      name: row.name,
+      latitude: row.latitude,
+      longitude: row.longitude,
+      radiusKm: row.radius_km,
+      createdAt: toIsoTimestamp(row.created_at)
+    };
+  }
+}
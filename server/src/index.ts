@@ -1,30 +1,103 @@
+import cluster from 'node:cluster';
 import type { Server } from 'node:http';
+import config from './conf/config.ts';
 import log from './conf/logger.ts';
-import server from './server.ts';
+import { relayClusterMessages } from './lib/cluster-relay.ts';
+import { aggregateClusterMetrics } from './lib/cluster-metrics.ts';
 
 const port = Number(process.env.PORT ?? 3000);
-const httpServer: Server = server.listen(port, () => log.info(`Server running on port ${port}`));
-httpServer.on('error', (error) => {
-  log.error(error, 'HTTP server error');
-  process.exit(1);
-});
-
-function cleanup(signal: NodeJS.Signals): void {
-  log.info(`${signal} received, closing server gracefully...`);
-  httpServer.close((err) => {
-    if (err) {
-      log.error(err, 'Error during server shutdown');
-      process.exit(1);
+const SHUTDOWN_TIMEOUT_MS = 10000;
+const WORKER_RESTART_DELAY_MS = 1000;
+
+if (cluster.isPrimary && config.clusterWorkers > 1) {
+  await startPrimary(config.clusterWorkers);
+} else {
+  await startServer();
+}
+
+/**
+ * Cluster primary: migrates and seeds the database once, then forks HTTP workers that share the port.
+ * It serves no requests itself; crashed workers are replaced and signals are forwarded for a graceful stop.
+ */
+async function startPrimary(workerCount: number): Promise<void> {
+  const { db, runDbMigrations } = await import('./database/db-utils.ts');
+  await runDbMigrations();
+  await db.destroy();
+
+  let shuttingDown = false;
+  cluster.on('exit', (worker, code, signal) => {
+    if (shuttingDown) {
+      if (Object.keys(cluster.workers ?? {}).length === 0) {
+        log.info('Cluster stopped.');
+        process.exit(0);
+      }
+      return;
     }
-    log.info('Server closed.');
-    process.exit(0);
+    log.error({ pid: worker.process.pid, code, signal }, 'Cluster worker exited, starting a replacement');
+    setTimeout(() => cluster.fork(), WORKER_RESTART_DELAY_MS);
   });
 
-  setTimeout(() => {
-    log.error('Forced shutdown after timeout');
-    process.exit(1);
-  }, 10000);
+  // Announcement stream events published by one worker reach subscribers connected to any worker
+  relayClusterMessages();
+  // Any worker answering /metrics reports the metrics of all workers
+  aggregateClusterMetrics();
+  for (let i = 0; i < workerCount; i++) {
+    cluster.fork();
+  }
+  log.info(`Cluster primary started ${workerCount} workers on port ${port}`);
+
+  function stop(signal: NodeJS.Signals): void {
+    if (shuttingDown) {
+      return;
+    }
+    shuttingDown = true;
+    log.info(`${signal} received, stopping cluster workers...`);
+    Object.values(cluster.workers ?? {}).forEach((worker) => worker?.process.kill(signal));
+
+    setTimeout(() => {
+      log.error('Forced cluster shutdown after timeout');
+      process.exit(1);
+    }, SHUTDOWN_TIMEOUT_MS).unref();
+  }
+
+  process.on('SIGTERM', () => stop('SIGTERM'));
+  process.on('SIGINT', () => stop('SIGINT'));
 }
 
-process.on('SIGTERM', () => cleanup('SIGTERM'));
-process.on('SIGINT', () => cleanup('SIGINT'));
+async function startServer(): Promise<void> {
+  const { default: server } = await import('./server.ts');
+  const { announcementFeed } = await import('./conf/di.conf.ts');
+  const httpServer: Server = server.listen(port, () => log.info(`Server running on port ${port}`));
+  httpServer.on('error', (error) => {
+    log.error(error, 'HTTP server error');
+    process.exit(1);
+  });
+
+  let closing = false;
+  function cleanup(signal: NodeJS.Signals): void {
+    // Ctrl+C reaches cluster workers both directly and forwarded by the primary
+    if (closing) {
+      return;
+    }
+    closing = true;
+    log.info(`${signal} received, closing server gracefully...`);
+    // Open event streams would otherwise keep the server from closing until the forced shutdown
+    announcementFeed.close();
+    httpServer.close((err) => {
+      if (err) {
+        log.error(err, 'Error during server shutdown');
+        process.exit(1);
+      }
+      log.info('Server closed.');
+      process.exit(0);
+    });
+
+    setTimeout(() => {
+      log.error('Forced shutdown after timeout');
+      process.exit(1);
+    }, SHUTDOWN_TIMEOUT_MS);
+  }
+
+  process.on('SIGTERM', () => cleanup('SIGTERM'));
+  process.on('SIGINT', () => cleanup('SIGINT'));
+}
@@ -0,0 +1,35 @@
+import { describe, it, expect } from 'vitest';
+import { ANNOUNCEMENT_FIELDS, parseFields } from '../announcement-fields.ts';
+import { ValidationError } from '../errors.ts';
+
+describe('parseFields', () => {
+  it('should return undefined when fields are not requested', () => {
+    // when/then
+    expect(parseFields()).toBeUndefined();
+  });
+
+  it.each([
+    { fields: 'species,id,petName', expected: ['id', 'petName', 'species'] },
+    { fields: ' photoUrl , status ', expected: ['id', 'photoUrl', 'status'] },
+    { fields: 'status,status', expected: ['id', 'status'] },
+    { fields: ANNOUNCEMENT_FIELDS.join(','), expected: ANNOUNCEMENT_FIELDS }
+  ])('should return "$fields" with id in response order', ({ fields, expected }) => {
+    // when/then
+    expect(parseFields(fields)).toEqual(expected);
+  });
+
+  it.each([
+    { fields: 'petName,managementPasswordHash', description: 'unknown field' },
+    { fields: 'pet_name', description: 'column name' },
+    { fields: '', description: 'empty value' },
+    { fields: 'petName,,status', description: 'empty entry' }
+  ])('should throw ValidationError for $description', ({ fields }) => {
+    // when/then
+    expect(() => parseFields(fields)).toThrow(ValidationError);
+    try {
+      parseFields(fields);
+    } catch (error) {
+      expect((error as ValidationError).field).toBe('fields');
+    }
+  });
+});
@@ -0,0 +1,70 @@
+import { describe, it, expect, vi } from 'vitest';
+import { CoalescingCache } from '../coalescing-cache.ts';
+
+function deferred<T>() {
+  let resolve: (value: T) => void = () => undefined;
+  const promise = new Promise<T>((res) => (resolve = res));
+  return { promise, resolve };
+}
+
+describe('CoalescingCache', () => {
+  it('should return cached value until TTL expires', async () => {
+    // given
+    let now = 0;
+    const cache = new CoalescingCache<string>(10, 1000, () => now);
+    const load = vi.fn().mockResolvedValueOnce('first').mockResolvedValueOnce('second');
+
+    // when
+    const first = await cache.get('key', load);
+    now = 999;
+    const cached = await cache.get('key', load);
+    now = 1000;
+    const reloaded = await cache.get('key', load);
+
+    // then
+    expect([first, cached, reloaded]).toEqual(['first', 'first', 'second']);
+    expect(load).toHaveBeenCalledTimes(2);
+  });
+
+  it('should share one in-flight load between concurrent misses', async () => {
+    // given
+    const cache = new CoalescingCache<string>(10, 1000);
+    const pending = deferred<string>();
+    const load = vi.fn(() => pending.promise);
+
+    // when
+    const results = [cache.get('key', load), cache.get('key', load), cache.get('key', load)];
+    pending.resolve('value');
+
+    // then
+    expect(await Promise.all(results)).toEqual(['value', 'value', 'value']);
+    expect(load).toHaveBeenCalledTimes(1);
+  });
+
+  it('should evict least recently used entry when full', async () => {
+    // given
+    const cache = new CoalescingCache<string>(2, 1000);
+    await cache.get('a', async () => 'a');
+    await cache.get('b', async () => 'b');
+    await cache.get('a', async () => 'unused');
+
+    // when
+    await cache.get('c', async () => 'c');
+
+    // then
+    expect(cache.size).toBe(2);
+    expect(await cache.get('a', async () => 'reloaded')).toBe('a');
+    expect(await cache.get('b', async () => 'reloaded')).toBe('reloaded');
+  });
+
+  it('should not cache failed loads', async () => {
+    // given
+    const cache = new CoalescingCache<string>(10, 1000);
+
+    // when
+    await expect(cache.get('key', () => Promise.reject(new Error('boom')))).rejects.toThrow('boom');
+
+    // then
+    expect(await cache.get('key', async () => 'value')).toBe('value');
+  });
+});
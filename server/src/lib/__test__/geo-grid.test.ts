@@ -0,0 +1,108 @@
+import { describe, it, expect } from 'vitest';
+import { boundingBox, distanceKm, EARTH_RADIUS_KM, geoCell, geoCellsInBoundingBox } from '../geo-grid.ts';
+
+function haversineKm(lat1: number, lng1: number, lat2: number, lng2: number): number {
+  const toRad = (deg: number) => (deg * Math.PI) / 180;
+  const a = Math.sin(toRad(lat2 - lat1) / 2) ** 2 + Math.cos(toRad(lat1)) * Math.cos(toRad(lat2)) * Math.sin(toRad(lng2 - lng1) / 2) ** 2;
+  return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+}
+
+describe('geoCell', () => {
+  it.each([
+    { lat: -90, lng: -180, expected: 0 },
+    { lat: -89.95, lng: -179.95, expected: 0 },
+    { lat: -89.85, lng: -180, expected: 3600 },
+    { lat: 90, lng: 180, expected: 1799 * 3600 + 3599 },
+    { lat: 50.0614, lng: 19.9383, expected: 1400 * 3600 + 1999 }
+  ])('should map ($lat, $lng) to cell $expected', ({ lat, lng, expected }) => {
+    // when/then
+    expect(geoCell(lat, lng)).toBe(expected);
+  });
+});
+
+describe('boundingBox', () => {
+  it.each([
+    { lat: 50.0614, lng: 19.9383, range: 5 },
+    { lat: 0, lng: 0, range: 100 },
+    { lat: -33.8688, lng: 151.2093, range: 300 },
+    { lat: 70, lng: 25, range: 50 }
+  ])('should contain every point of the circle around ($lat, $lng) with range $range km', ({ lat, lng, range }) => {
+    // given
+    const box = boundingBox(lat, lng, range);
+
+    // when/then
+    for (let bearing = 0; bearing < 360; bearing += 5) {
+      const b = (bearing * Math.PI) / 180;
+      const d = (range * 0.999) / EARTH_RADIUS_KM;
+      const lat1 = (lat * Math.PI) / 180;
+      const lat2 = Math.asin(Math.sin(lat1) * Math.cos(d) + Math.cos(lat1) * Math.sin(d) * Math.cos(b));
+      const lng2 =
+        (lng * Math.PI) / 180 + Math.atan2(Math.sin(b) * Math.sin(d) * Math.cos(lat1), Math.cos(d) - Math.sin(lat1) * Math.sin(lat2));
+      const pointLat = (lat2 * 180) / Math.PI;
+      const pointLng = (lng2 * 180) / Math.PI;
+
+      expect(haversineKm(lat, lng, pointLat, pointLng)).toBeLessThan(range);
+      expect(pointLat).toBeGreaterThanOrEqual(box.minLat);
+      expect(pointLat).toBeLessThanOrEqual(box.maxLat);
+      expect(pointLng).toBeGreaterThanOrEqual(box.minLng!);
+      expect(pointLng).toBeLessThanOrEqual(box.maxLng!);
+    }
+  });
+
+  it('should span all longitudes when the circle reaches a pole', () => {
+    // when
+    const box = boundingBox(89.99, 10, 5);
+
+    // then
+    expect(box.maxLat).toBe(90);
+    expect(box.minLng).toBeUndefined();
+    expect(box.maxLng).toBeUndefined();
+  });
+
+  it('should span all longitudes when the circle crosses the antimeridian', () => {
+    // when
+    const box = boundingBox(0, 179.99, 10);
+
+    // then
+    expect(box.minLng).toBeUndefined();
+  });
+});
+
+describe('geoCellsInBoundingBox', () => {
+  it('should return all cells overlapping a small box', () => {
+    // given
+    const box = { minLat: 50.05, maxLat: 50.15, minLng: 19.95, maxLng: 20.05 };
+
+    // when
+    const cells = geoCellsInBoundingBox(box);
+
+    // then
+    expect(cells).toEqual([geoCell(50.05, 19.95), geoCell(50.05, 20.05), geoCell(50.15, 19.95), geoCell(50.15, 20.05)]);
+  });
+
+  it('should return null for boxes covering too many cells', () => {
+    // when/then
+    expect(geoCellsInBoundingBox(boundingBox(50, 20, 300))).toBeNull();
+  });
+
+  it('should return null when longitude is unbounded', () => {
+    // when/then
+    expect(geoCellsInBoundingBox({ minLat: 89, maxLat: 90 })).toBeNull();
+  });
+});
+
+describe('distanceKm', () => {
+  it.each([
+    { lat1: 50.0614, lng1: 19.9383, lat2: 52.2297, lng2: 21.0122 },
+    { lat1: 54.48, lng1: 18.53, lat2: 54.43, lng2: 18.57 },
+    { lat1: 0, lng1: 179.9, lat2: 0, lng2: -179.9 }
+  ])('should match haversine distance from ($lat1, $lng1) to ($lat2, $lng2)', ({ lat1, lng1, lat2, lng2 }) => {
+    // when/then
+    expect(distanceKm(lat1, lng1, lat2, lng2)).toBeCloseTo(haversineKm(lat1, lng1, lat2, lng2), 3);
+  });
+
+  it('should return zero for the same point', () => {
+    // when/then
+    expect(distanceKm(50.0614, 19.9383, 50.0614, 19.9383)).toBe(0);
+  });
+});
@@ -0,0 +1,93 @@
+import { promises as fs } from 'fs';
+import os from 'os';
+import path from 'path';
+import sharp from 'sharp';
+import { afterEach, beforeEach, describe, expect, it } from 'vitest';
+import { generateImageVariants, variantUrls } from '../image-variants.ts';
+
+describe('image-variants', () => {
+  let outputDir: string;
+
+  beforeEach(async () => {
+    outputDir = await fs.mkdtemp(path.join(os.tmpdir(), 'image-variants-'));
+  });
+
+  afterEach(async () => {
+    await fs.rm(outputDir, { recursive: true, force: true });
+  });
+
+  function createJpeg(width: number, height: number): Promise<Buffer> {
+    return sharp({ create: { width, height, channels: 3, background: { r: 200, g: 120, b: 40 } } })
+      .jpeg()
+      .toBuffer();
+  }
+
+  describe('generateImageVariants', () => {
+    it('should write resized WebP and AVIF files for every variant', async () => {
+      // Given
+      const original = await createJpeg(2400, 1200);
+
+      // When
+      const variants = await generateImageVariants(original, outputDir, 'announce-1');
+
+      // Then
+      expect(variants.card).toEqual({ width: 400, webp: '/images/announce-1-card.webp', avif: '/images/announce-1-card.avif' });
+      const card = await sharp(path.join(outputDir, 'announce-1-card.webp')).metadata();
+      expect(card).toMatchObject({ format: 'webp', width: 400, height: 200 });
+      const full = await sharp(path.join(outputDir, 'announce-1-full.avif')).metadata();
+      expect(full.width).toBe(1600);
+      expect(await fs.readdir(outputDir)).toHaveLength(6);
+    });
+
+    it('should not upscale images smaller than variant width', async () => {
+      // Given
+      const original = await createJpeg(300, 200);
+
+      // When
+      const variants = await generateImageVariants(original, outputDir, 'announce-2');
+
+      // Then
+      const popup = await sharp(path.join(outputDir, 'announce-2-popup.webp')).metadata();
+      expect(popup.width).toBe(300);
+      expect(variants.popup.width).toBe(300);
+      expect(variants.card.width).toBe(300);
+    });
+
+    it('should remove written files when one of the variants cannot be written', async () => {
+      // Given
+      const original = await createJpeg(800, 600);
+      await fs.mkdir(path.join(outputDir, 'announce-5-full.avif'));
+
+      // When / Then
+      await expect(generateImageVariants(original, outputDir, 'announce-5')).rejects.toThrow();
+      expect(await fs.readdir(outputDir)).toEqual(['announce-5-full.avif']);
+    });
+
+    it('should reject data that is not a decodable image', async () => {
+      // Given
+      const corrupted = Buffer.from([0xff, 0xd8, 0xff, 0xe0, 0x00, 0x10]);
+
+      // When / Then
+      await expect(generateImageVariants(corrupted, outputDir, 'announce-3')).rejects.toThrow();
+    });
+  });
+
+  describe('variantUrls', () => {
+    it('should list all variant URLs', async () => {
+      // Given
+      const variants = await generateImageVariants(await createJpeg(800, 600), outputDir, 'announce-4');
+
+      // When
+      const urls = variantUrls(variants);
+
+      // Then
+      expect(urls).toHaveLength(6);
+      expect(urls).toContain('/images/announce-4-popup.avif');
+    });
+
+    it('should return empty list when announcement has no variants', () => {
+      // Given / When / Then
+      expect(variantUrls(null)).toEqual([]);
+    });
+  });
+});
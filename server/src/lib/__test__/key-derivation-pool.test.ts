@@ -0,0 +1,87 @@
+import { randomBytes, scryptSync } from 'crypto';
+import type { Worker } from 'worker_threads';
+import { afterEach, describe, expect, it, vi } from 'vitest';
+import { KeyDerivationPool } from '../key-derivation-pool.ts';
+import { ServiceUnavailableError } from '../errors.ts';
+
+const SALT = randomBytes(16);
+
+describe('KeyDerivationPool', () => {
+  let pool: KeyDerivationPool;
+
+  afterEach(async () => {
+    await pool.destroy();
+  });
+
+  it('should derive the same key as scrypt', async () => {
+    // given
+    pool = new KeyDerivationPool(2, 4);
+
+    // when
+    const key = await pool.deriveKey('123456', SALT, 64);
+
+    // then
+    expect(key.equals(scryptSync('123456', SALT, 64))).toBe(true);
+  });
+
+  it('should queue calls beyond pool size and run them all', async () => {
+    // given
+    pool = new KeyDerivationPool(1, 3);
+
+    // when
+    const keys = await Promise.all(['a', 'b', 'c', 'd'].map((password) => pool.deriveKey(password, SALT, 32)));
+
+    // then
+    expect(new Set(keys.map((key) => key.toString('hex'))).size).toBe(4);
+    expect(pool.metrics()).toMatchObject({ size: 1, busy: 0, queued: 0, completed: 4, rejected: 0 });
+  });
+
+  it('should reject with 503 error when queue is full', async () => {
+    // given
+    pool = new KeyDerivationPool(1, 1);
+
+    // when
+    const results = await Promise.allSettled(['a', 'b', 'c'].map((password) => pool.deriveKey(password, SALT, 32)));
+
+    // then
+    expect(results.map((result) => result.status)).toEqual(['fulfilled', 'fulfilled', 'rejected']);
+    const rejection = (results[2] as PromiseRejectedResult).reason;
+    expect(rejection).toBeInstanceOf(ServiceUnavailableError);
+    expect(rejection.statusCode).toBe(503);
+    expect(pool.metrics().rejected).toBe(1);
+  });
+
+  it('should report queue wait and derivation time', async () => {
+    // given
+    pool = new KeyDerivationPool(1, 2);
+    const observer = vi.fn();
+    pool.observe(observer);
+
+    // when
+    await Promise.all([pool.deriveKey('a', SALT, 32), pool.deriveKey('b', SALT, 32)]);
+
+    // then
+    expect(observer).toHaveBeenCalledTimes(2);
+    const [[firstWait], [secondWait, secondDerive]] = observer.mock.calls;
+    expect(secondWait).toBeGreaterThan(firstWait);
+    expect(secondDerive).toBeGreaterThan(0);
+    const metrics = pool.metrics();
+    expect(metrics.queueWait.count).toBe(2);
+    expect(metrics.derive.maxMs).toBeGreaterThan(0);
+  });
+
+  it('should reject the running call and keep serving when a worker exits without an error', async () => {
+    // given
+    pool = new KeyDerivationPool(1, 1);
+    const running = expect(pool.deriveKey('a', SALT, 32)).rejects.toThrow('Key derivation worker exited');
+    const [worker] = (pool as unknown as { running: Map<Worker, unknown> }).running.keys();
+
+    // when
+    await worker.terminate();
+
+    // then
+    await running;
+    expect(pool.metrics().busy).toBe(0);
+    expect((await pool.deriveKey('b', SALT, 32)).equals(scryptSync('b', SALT, 32))).toBe(true);
+  });
+});
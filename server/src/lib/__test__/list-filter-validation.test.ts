@@ -0,0 +1,45 @@
+import { describe, it, expect } from 'vitest';
+import { toListFilter } from '../list-filter-validation.ts';
+import { ValidationError } from '../errors.ts';
+
+describe('toListFilter', () => {
+  it('should return empty filter when no parameters are given', () => {
+    // when/then
+    expect(toListFilter()).toEqual({});
+    expect(toListFilter({ status: undefined, sort: undefined })).toEqual({});
+  });
+
+  it('should return given parameters', () => {
+    // given
+    const params = {
+      status: 'MISSING',
+      species: ' DOG ',
+      sex: 'FEMALE',
+      lastSeenFrom: '2025-11-01',
+      lastSeenTo: '2025-11-30',
+      sort: 'lastSeenDate'
+    };
+
+    // when/then
+    expect(toListFilter(params)).toEqual({ ...params, species: 'DOG' });
+  });
+
+  it.each([
+    { params: { status: 'LOST' }, field: 'status' },
+    { params: { species: ' ' }, field: 'species' },
+    { params: { sex: 'x'.repeat(51) }, field: 'sex' },
+    { params: { lastSeenFrom: '2025-1-1' }, field: 'lastSeenFrom' },
+    { params: { lastSeenTo: 'yesterday' }, field: 'lastSeenTo' },
+    { params: { lastSeenFrom: '2025-11-30', lastSeenTo: '2025-11-01' }, field: 'lastSeenFrom' },
+    { params: { sort: 'createdAt,desc' }, field: 'sort' }
+  ])('should throw ValidationError for invalid $field: $params', ({ params, field }) => {
+    // when/then
+    expect(() => toListFilter(params)).toThrow(ValidationError);
+    try {
+      toListFilter(params);
+    } catch (error) {
+      expect((error as ValidationError).code).toBe('INVALID_PARAMETER');
+      expect((error as ValidationError).field).toBe(field);
+    }
+  });
+});
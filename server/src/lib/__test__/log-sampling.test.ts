@@ -0,0 +1,67 @@
+import { describe, it, expect } from 'vitest';
+import { shouldLogBody } from '../log-sampling';
+import type { BodySamplingRule } from '../log-sampling';
+
+const RULES: BodySamplingRule[] = [
+  { method: 'POST', path: /^\/api\/v1\/users\/login$/, rate: 0 },
+  { method: 'GET', path: /^\/api\/v1\/announcements/, rate: 0.1 }
+];
+
+describe('shouldLogBody', () => {
+  it('should always log bodies of failed requests', () => {
+    // given
+    const request = { method: 'POST', path: '/api/v1/users/login', requestId: 'a1', statusCode: 401 };
+
+    // when
+    const sampled = shouldLogBody(request, RULES, 1);
+
+    // then
+    expect(sampled).toBe(true);
+  });
+
+  it('should apply rate of the matching route', () => {
+    // given
+    const request = { method: 'POST', path: '/api/v1/users/login', requestId: 'a1', statusCode: 200 };
+
+    // when
+    const sampled = shouldLogBody(request, RULES, 1);
+
+    // then
+    expect(sampled).toBe(false);
+  });
+
+  it('should fall back to default rate for other routes', () => {
+    // given
+    const request = { method: 'POST', path: '/api/v1/announcements', requestId: 'a1', statusCode: 201 };
+
+    // when / then
+    expect(shouldLogBody(request, RULES, 1)).toBe(true);
+    expect(shouldLogBody(request, RULES, 0)).toBe(false);
+  });
+
+  it('should sample roughly the configured share of requests', () => {
+    // given
+    const requestIds = Array.from({ length: 10000 }, (_, i) => `req-${i}`);
+
+    // when
+    const sampled = requestIds.filter((requestId) =>
+      shouldLogBody({ method: 'GET', path: '/api/v1/announcements', requestId, statusCode: 200 }, RULES, 1)
+    );
+
+    // then
+    expect(sampled.length).toBeGreaterThan(800);
+    expect(sampled.length).toBeLessThan(1200);
+  });
+
+  it('should make the same decision for request and response of one request', () => {
+    // given
+    const request = { method: 'GET', path: '/api/v1/announcements', requestId: 'k3Jd9QaZ' };
+
+    // when
+    const forRequest = shouldLogBody(request, RULES, 1);
+    const forResponse = shouldLogBody({ ...request, statusCode: 200 }, RULES, 1);
+
+    // then
+    expect(forRequest).toBe(forResponse);
+  });
+});
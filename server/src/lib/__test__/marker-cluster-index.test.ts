@@ -0,0 +1,72 @@
+import { describe, it, expect } from 'vitest';
+import { MAX_CLUSTER_ZOOM, MarkerClusterIndex } from '../marker-cluster-index.ts';
+import type { MapPoint, Viewport } from '../../types/announcement.ts';
+
+function point(id: string, latitude: number, longitude: number): MapPoint {
+  return { id, latitude, longitude, species: 'DOG', status: 'MISSING' };
+}
+
+// Wrocław old town and Kraków, ~240 km apart
+const WROCLAW = [point('w1', 51.1079, 17.0385), point('w2', 51.1099, 17.0325), point('w3', 51.1109, 17.0405)];
+const KRAKOW = point('k1', 50.0614, 19.9383);
+const POLAND: Omit<Viewport, 'zoom'> = { minLat: 49, minLng: 14, maxLat: 55, maxLng: 24 };
+
+describe('MarkerClusterIndex', () => {
+  const index = new MarkerClusterIndex([...WROCLAW, KRAKOW]);
+
+  it('should cluster nearby announcements at low zoom and return lone ones as points', () => {
+    // when
+    const result = index.query({ ...POLAND, zoom: 8 });
+
+    // then
+    expect(result.zoom).toBe(8);
+    expect(result.clusters).toHaveLength(1);
+    expect(result.clusters[0]).toMatchObject({ count: 3, sampleId: 'w1' });
+    expect(result.clusters[0].latitude).toBeCloseTo((51.1079 + 51.1099 + 51.1109) / 3, 6);
+    expect(result.points).toEqual([KRAKOW]);
+  });
+
+  it('should split clusters as zoom increases', () => {
+    // when
+    const result = index.query({ minLat: 51.1, minLng: 17.0, maxLat: 51.12, maxLng: 17.06, zoom: MAX_CLUSTER_ZOOM });
+
+    // then
+    expect(result.clusters).toEqual([]);
+    expect(result.points.map((p) => p.id).sort()).toEqual(['w1', 'w2', 'w3']);
+  });
+
+  it('should return only points inside viewport above max cluster zoom', () => {
+    // when
+    const result = index.query({ minLat: 51.105, minLng: 17.035, maxLat: 51.109, maxLng: 17.04, zoom: MAX_CLUSTER_ZOOM + 2.5 });
+
+    // then
+    expect(result).toEqual({ zoom: MAX_CLUSTER_ZOOM + 2, clusters: [], points: [WROCLAW[0]] });
+  });
+
+  it('should skip cells outside viewport', () => {
+    // when
+    const result = index.query({ minLat: 49.5, minLng: 19, maxLat: 50.5, maxLng: 21, zoom: 10 });
+
+    // then
+    expect(result).toEqual({ zoom: 10, clusters: [], points: [KRAKOW] });
+  });
+
+  it('should include both sides of viewport crossing the antimeridian', () => {
+    // given
+    const pacific = new MarkerClusterIndex([point('east', -17.7, 178.1), point('west', -13.8, -171.8), point('far', 0, 0)]);
+
+    // when
+    const result = pacific.query({ minLat: -20, minLng: 170, maxLat: -10, maxLng: -165, zoom: 6 });
+
+    // then
+    expect(result.points.map((p) => p.id).sort()).toEqual(['east', 'west']);
+  });
+
+  it('should return empty result for empty index', () => {
+    // when
+    const result = new MarkerClusterIndex([]).query({ ...POLAND, zoom: 3 });
+
+    // then
+    expect(result).toEqual({ zoom: 3, clusters: [], points: [] });
+  });
+});
@@ -0,0 +1,34 @@
+import { describe, it, expect, vi } from 'vitest';
+import { sharedJson } from '../memoized-json.ts';
+
+describe('sharedJson', () => {
+  it('should return the same text as JSON.stringify', () => {
+    // given
+    const value = [{ id: 'a1', petName: 'Rex "Junior"', age: null, locationLatitude: 54.35 }];
+
+    // when/then
+    expect(sharedJson(value).text).toBe(JSON.stringify(value));
+  });
+
+  it('should serialize each object only once', () => {
+    // given
+    const value = [{ id: 'a1' }];
+    const toJson = vi.fn((list: { id: string }[]) => `{"data":${JSON.stringify(list)}}`);
+    const first = sharedJson(value, toJson);
+
+    // when
+    value.push({ id: 'a2' });
+    const second = sharedJson(value, toJson);
+
+    // then
+    expect(second).toBe(first);
+    expect(second.text).toBe('{"data":[{"id":"a1"}]}');
+    expect(toJson).toHaveBeenCalledTimes(1);
+  });
+
+  it('should serialize different objects separately', () => {
+    // when/then
+    expect(sharedJson([{ id: 'a1' }]).text).toBe('[{"id":"a1"}]');
+    expect(sharedJson([{ id: 'a2' }]).text).toBe('[{"id":"a2"}]');
+  });
+});
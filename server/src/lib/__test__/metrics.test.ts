@@ -0,0 +1,102 @@
+import { describe, it, expect } from 'vitest';
+import { Counter, Gauge, Histogram, MetricsRegistry, renderFamilies, timed } from '../metrics.ts';
+
+describe('MetricsRegistry', () => {
+  it('should render cumulative histogram buckets with sum and count', () => {
+    // given
+    const registry = new MetricsRegistry();
+    const histogram = registry.register(new Histogram('request_seconds', 'Request time', [0.1, 1]));
+
+    // when
+    histogram.observe({ route: '/a' }, 0.05);
+    histogram.observe({ route: '/a' }, 0.5);
+    histogram.observe({ route: '/a' }, 3);
+
+    // then
+    expect(registry.render()).toBe(
+      [
+        '# HELP request_seconds Request time',
+        '# TYPE request_seconds histogram',
+        'request_seconds_bucket{route="/a",le="0.1"} 1',
+        'request_seconds_bucket{route="/a",le="1"} 2',
+        'request_seconds_bucket{route="/a",le="+Inf"} 3',
+        'request_seconds_sum{route="/a"} 3.55',
+        'request_seconds_count{route="/a"} 3',
+        ''
+      ].join('\n')
+    );
+  });
+
+  it('should keep one series per label set regardless of label order', () => {
+    // given
+    const registry = new MetricsRegistry();
+    const counter = registry.register(new Counter('events_total', 'Events'));
+
+    // when
+    counter.inc({ a: '1', b: '2' });
+    counter.inc({ b: '2', a: '1' }, 2);
+
+    // then
+    expect(registry.render()).toContain('events_total{a="1",b="2"} 3');
+  });
+
+  it('should read collected gauges at render time and escape label values', () => {
+    // given
+    const registry = new MetricsRegistry();
+    let depth = 1;
+    registry.register(new Gauge('queue_depth', 'Queue depth', () => depth));
+    registry.register(new Gauge('labelled', 'Labelled', () => [{ labels: { name: 'say "hi"' }, value: 1 }]));
+
+    // when
+    depth = 5;
+
+    // then
+    const output = registry.render();
+    expect(output).toContain('queue_depth 5');
+    expect(output).toContain('labelled{name="say \\"hi\\""} 1');
+  });
+
+  it('should render registries of several workers under one header per metric', () => {
+    // given
+    const workers = [1, 2].map((worker) => {
+      const registry = new MetricsRegistry();
+      registry.register(new Counter('events_total', 'Events')).inc({ kind: 'a' }, worker);
+      registry.register(new Histogram('op_seconds', 'Op', [1])).observe({}, 0.5);
+      return registry.collect({ worker });
+    });
+
+    // when
+    const output = renderFamilies(workers);
+
+    // then
+    expect(output.match(/# TYPE events_total counter/g)).toHaveLength(1);
+    expect(output).toContain('events_total{kind="a",worker="1"} 1');
+    expect(output).toContain('events_total{kind="a",worker="2"} 2');
+    expect(output).toContain('op_seconds_bucket{worker="1",le="1"} 1');
+    expect(output).toContain('op_seconds_count{worker="2"} 1');
+  });
+
+  it('should reject duplicate metric names', () => {
+    // given
+    const registry = new MetricsRegistry();
+    registry.register(new Gauge('dup', 'First'));
+
+    // when / then
+    expect(() => registry.register(new Gauge('dup', 'Second'))).toThrow('already registered');
+  });
+
+  it('should time operations with their outcome', async () => {
+    // given
+    const registry = new MetricsRegistry();
+    const histogram = registry.register(new Histogram('op_seconds', 'Op', [1]));
+
+    // when
+    await timed(histogram, { op: 'ok' }, async () => 'done');
+    await expect(timed(histogram, { op: 'fail' }, async () => Promise.reject(new Error('boom')))).rejects.toThrow('boom');
+
+    // then
+    const output = registry.render();
+    expect(output).toContain('op_seconds_count{op="ok",outcome="success"} 1');
+    expect(output).toContain('op_seconds_count{op="fail",outcome="error"} 1');
+  });
+});
@@ -0,0 +1,106 @@
+import { describe, it, expect } from 'vitest';
+import {
+  decodeCursor,
+  decodeOffsetCursor,
+  DEFAULT_PAGE_SIZE,
+  encodeCursor,
+  encodeOffsetCursor,
+  MAX_OFFSET,
+  toOffsetPageRequest,
+  toPageRequest
+} from '../pagination.ts';
+import { ValidationError } from '../errors.ts';
+
+describe('pagination', () => {
+  describe('encodeCursor / decodeCursor', () => {
+    it('should round-trip a cursor', () => {
+      // given
+      const cursor = { createdAt: '2025-11-19T10:00:00.000Z', id: 'aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa' };
+
+      // when
+      const encoded = encodeCursor(cursor);
+
+      // then
+      expect(encoded).toMatch(/^[A-Za-z0-9_-]+$/);
+      expect(decodeCursor(encoded)).toEqual(cursor);
+    });
+
+    it.each([
+      { cursor: 'not-a-cursor', description: 'garbage' },
+      { cursor: Buffer.from('{"createdAt":"x"}').toString('base64url'), description: 'missing id' },
+      { cursor: Buffer.from('{"createdAt":"x","id":"y","extra":1}').toString('base64url'), description: 'unknown field' }
+    ])('should throw ValidationError for $description', ({ cursor }) => {
+      // when/then
+      expect(() => decodeCursor(cursor)).toThrow(ValidationError);
+      try {
+        decodeCursor(cursor);
+      } catch (error) {
+        expect((error as ValidationError).field).toBe('cursor');
+      }
+    });
+  });
+
+  describe('toPageRequest', () => {
+    it('should use default page size when limit is not provided', () => {
+      // when/then
+      expect(toPageRequest()).toEqual({ limit: DEFAULT_PAGE_SIZE, cursor: undefined });
+    });
+
+    it('should decode cursor', () => {
+      // given
+      const cursor = { createdAt: '2025-11-19T10:00:00.000Z', id: 'a' };
+
+      // when/then
+      expect(toPageRequest(10, encodeCursor(cursor))).toEqual({ limit: 10, cursor });
+    });
+
+    it.each([
+      { limit: 0, expectedMessage: "Parameter 'limit' must be between 1 and 100" },
+      { limit: 101, expectedMessage: "Parameter 'limit' must be between 1 and 100" },
+      { limit: 2.5, expectedMessage: "Parameter 'limit' must be an integer" },
+      { limit: NaN, expectedMessage: "Parameter 'limit' must be a valid number" }
+    ])('should throw ValidationError for limit $limit', ({ limit, expectedMessage }) => {
+      // when/then
+      expect(() => toPageRequest(limit)).toThrow(expectedMessage);
+    });
+  });
+
+  describe('toPageRequest with sort', () => {
+    it('should accept cursor issued for the same sort order', () => {
+      // given
+      const cursor = { lastSeenDate: '2025-11-19', id: 'a' };
+
+      // when/then
+      expect(toPageRequest(10, encodeCursor(cursor), 'lastSeenDate')).toEqual({ limit: 10, cursor });
+    });
+
+    it('should throw ValidationError for cursor issued for another sort order', () => {
+      // given
+      const cursor = encodeCursor({ createdAt: '2025-11-19T10:00:00.000Z', id: 'a' });
+
+      // when/then
+      expect(() => toPageRequest(10, cursor, 'lastSeenDate')).toThrow("Parameter 'cursor' does not match 'sort'");
+    });
+  });
+
+  describe('toOffsetPageRequest', () => {
+    it('should start at offset 0 without cursor', () => {
+      // when/then
+      expect(toOffsetPageRequest()).toEqual({ limit: DEFAULT_PAGE_SIZE, offset: 0 });
+    });
+
+    it('should decode offset cursor', () => {
+      // when/then
+      expect(toOffsetPageRequest(10, encodeOffsetCursor(40))).toEqual({ limit: 10, offset: 40 });
+    });
+
+    it.each([
+      { cursor: 'not-a-cursor', description: 'garbage' },
+      { cursor: encodeCursor({ createdAt: '2025-11-19T10:00:00.000Z', id: 'a' }), description: 'keyset cursor' },
+      { cursor: encodeOffsetCursor(MAX_OFFSET + 1), description: 'offset above the limit' }
+    ])('should throw ValidationError for $description', ({ cursor }) => {
+      // when/then
+      expect(() => decodeOffsetCursor(cursor)).toThrow(ValidationError);
+    });
+  });
+});
@@ -1,5 +1,5 @@
 import { describe, it, expect } from 'vitest';
-import { redactPhone, redactEmail } from '../pii-redaction';
+import { redactPhone, redactEmail, redactPII, redactLogLine } from '../pii-redaction';
 
 describe('redactPhone', () => {
   it.each([
@@ -44,3 +44,47 @@ describe('redactEmail', () => {
     expect(redacted).toBe(email);
   });
 });
+
+describe('redactPII', () => {
+  it('should redact nested email, phone and password fields', () => {
+    // given
+    const data = { email: 'john@example.com', contact: [{ phone: '+1-555-123-4567' }], password: 'secret', petName: 'Max' };
+
+    // when
+    const redacted = redactPII(data);
+
+    // then
+    expect(redacted).toEqual({ email: 'j***@example.com', contact: [{ phone: '***-***-567' }], password: '***', petName: 'Max' });
+  });
+});
+
+describe('redactLogLine', () => {
+  it('should redact request and response bodies of a log record', () => {
+    // given
+    const line = JSON.stringify({
+      level: 'INFO',
+      requestId: 'abc',
+      req: { id: 'abc', body: { email: 'john@example.com' } },
+      res: { statusCode: 201, body: { phone: '+1-555-123-4567' } }
+    });
+
+    // when
+    const redacted = JSON.parse(redactLogLine(line));
+
+    // then
+    expect(redacted.req.body.email).toBe('j***@example.com');
+    expect(redacted.res.body.phone).toBe('***-***-567');
+    expect(redacted.requestId).toBe('abc');
+  });
+
+  it.each(['not json', JSON.stringify({ msg: 'Server running', email: 'kept@example.com' })])(
+    'should leave lines without bodies untouched (%s)',
+    (line) => {
+      // given / when
+      const redacted = redactLogLine(line);
+
+      // then
+      expect(redacted).toBe(line);
+    }
+  );
+});
@@ -0,0 +1,32 @@
+import { describe, it, expect } from 'vitest';
+import { MAX_SEARCH_QUERY_LENGTH, parseSearchTerms } from '../search-query.ts';
+import { ValidationError } from '../errors.ts';
+
+describe('parseSearchTerms', () => {
+  it.each([
+    { q: 'Max', expected: ['max'] },
+    { q: '  golden   retriever ', expected: ['golden', 'retriever'] },
+    { q: 'Żółta obroża, nagroda 500 zł!', expected: ['żółta', 'obroża', 'nagroda', '500', 'zł'] },
+    { q: 'max MAX Max', expected: ['max'] },
+    { q: '"max" OR NEAR(rex*)', expected: ['max', 'or', 'near', 'rex'] }
+  ])('should split "$q" into plain lowercase terms', ({ q, expected }) => {
+    // when/then
+    expect(parseSearchTerms(q)).toEqual(expected);
+  });
+
+  it.each([
+    { q: undefined, description: 'missing query' },
+    { q: '', description: 'empty query' },
+    { q: '*** --', description: 'query without letters or digits' },
+    { q: Array.from({ length: 9 }, (_, i) => `word${i}`).join(' '), description: 'too many terms' },
+    { q: 'a'.repeat(MAX_SEARCH_QUERY_LENGTH + 1), description: 'too long query' }
+  ])('should throw ValidationError for $description', ({ q }) => {
+    // when/then
+    expect(() => parseSearchTerms(q)).toThrow(ValidationError);
+    try {
+      parseSearchTerms(q);
+    } catch (error) {
+      expect((error as ValidationError).field).toBe('q');
+    }
+  });
+});
@@ -0,0 +1,111 @@
+import { createHash } from 'crypto';
+import { promises as fs } from 'fs';
+import os from 'os';
+import path from 'path';
+import { PassThrough } from 'stream';
+import type { Request } from 'express';
+import { afterEach, beforeEach, describe, expect, it } from 'vitest';
+import { StreamingImageStorage } from '../streaming-image-storage.ts';
+import type { StoredImageInfo } from '../streaming-image-storage.ts';
+import { PayloadTooLargeError, ValidationError } from '../errors.ts';
+
+const MAX_FILE_SIZE = 16 * 1024;
+
+async function detectJpeg(head: Buffer): Promise<string | null> {
+  return head[0] === 0xff && head[1] === 0xd8 ? 'image/jpeg' : null;
+}
+
+function jpeg(size: number): Buffer {
+  const buffer = Buffer.alloc(size, 0x42);
+  buffer[0] = 0xff;
+  buffer[1] = 0xd8;
+  return buffer;
+}
+
+describe('StreamingImageStorage', () => {
+  let tempDir: string;
+  let storage: StreamingImageStorage;
+
+  beforeEach(async () => {
+    tempDir = path.join(await fs.mkdtemp(path.join(os.tmpdir(), 'streaming-storage-')), 'uploads');
+    storage = new StreamingImageStorage(tempDir, MAX_FILE_SIZE, detectJpeg);
+  });
+
+  afterEach(async () => {
+    await fs.rm(path.dirname(tempDir), { recursive: true, force: true });
+  });
+
+  function upload(chunks: Buffer[]): Promise<{ error?: unknown; info?: StoredImageInfo }> {
+    return new Promise((resolve) => {
+      const stream = new PassThrough();
+      storage._handleFile({} as Request, { stream } as Express.Multer.File, (error, info) =>
+        resolve({ error, info: info as StoredImageInfo | undefined })
+      );
+      chunks.forEach((chunk) => stream.write(chunk));
+      stream.end();
+    });
+  }
+
+  it('should stream image to temp file with size, detected type and hash', async () => {
+    // Given
+    const content = jpeg(10 * 1024);
+
+    // When
+    const { error, info } = await upload([content.subarray(0, 100), content.subarray(100, 5000), content.subarray(5000)]);
+
+    // Then
+    expect(error).toBeNull();
+    expect(info).toMatchObject({ size: content.length, mimetype: 'image/jpeg' });
+    expect(info?.sha256).toBe(createHash('sha256').update(content).digest('hex'));
+    expect(await fs.readFile(info?.path ?? '')).toEqual(content);
+  });
+
+  it('should accept image smaller than sniff window', async () => {
+    // Given
+    const content = jpeg(16);
+
+    // When
+    const { info } = await upload([content]);
+
+    // Then
+    expect(info?.size).toBe(16);
+  });
+
+  it('should reject content that is not an image and remove temp file', async () => {
+    // Given
+    const content = Buffer.alloc(8 * 1024, 0x00);
+
+    // When
+    const { error } = await upload([content]);
+
+    // Then
+    expect(error).toBeInstanceOf(ValidationError);
+    expect((error as ValidationError).code).toBe('INVALID_FILE_FORMAT');
+    expect(await fs.readdir(tempDir)).toEqual([]);
+  });
+
+  it('should abort upload as soon as size limit is exceeded', async () => {
+    // Given
+    const content = jpeg(MAX_FILE_SIZE + 1);
+
+    // When
+    const { error } = await upload([content.subarray(0, 8 * 1024), content.subarray(8 * 1024)]);
+
+    // Then
+    expect(error).toBeInstanceOf(PayloadTooLargeError);
+    expect(await fs.readdir(tempDir)).toEqual([]);
+  });
+
+  it('should remove stored file', async () => {
+    // Given
+    const { info } = await upload([jpeg(1024)]);
+
+    // When
+    await new Promise<void>((resolve, reject) =>
+      storage._removeFile({} as Request, { path: info?.path } as Express.Multer.File, (error) => (error ? reject(error) : resolve()))
+    );
+
+    // Then
+    expect(await fs.readdir(tempDir)).toEqual([]);
+  });
+});
@@ -0,0 +1,32 @@
+import { describe, it, expect } from 'vitest';
+import { decodeWatermark, encodeWatermark } from '../sync-watermark.ts';
+import { ValidationError } from '../errors.ts';
+
+describe('sync-watermark', () => {
+  it('should round-trip a watermark', () => {
+    // given
+    const watermark = { epoch: '3', since: '2025-11-19T10:00:00.000Z' };
+
+    // when
+    const encoded = encodeWatermark(watermark);
+
+    // then
+    expect(encoded).toMatch(/^[A-Za-z0-9_-]+$/);
+    expect(decodeWatermark(encoded)).toEqual(watermark);
+  });
+
+  it.each([
+    { watermark: 'not-a-watermark', description: 'garbage' },
+    { watermark: Buffer.from('{"epoch":"1"}').toString('base64url'), description: 'missing since' },
+    { watermark: Buffer.from('{"epoch":"1","since":"yesterday"}').toString('base64url'), description: 'invalid timestamp' },
+    { watermark: Buffer.from('{"epoch":"1","since":"2025-11-19T10:00:00.000Z","x":1}').toString('base64url'), description: 'unknown field' }
+  ])('should throw ValidationError for $description', ({ watermark }) => {
+    // when/then
+    expect(() => decodeWatermark(watermark)).toThrow(ValidationError);
+    try {
+      decodeWatermark(watermark);
+    } catch (error) {
+      expect((error as ValidationError).field).toBe('since');
+    }
+  });
+});
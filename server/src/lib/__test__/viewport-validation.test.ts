@@ -0,0 +1,50 @@
+import { describe, it, expect } from 'vitest';
+import { validateViewport } from '../viewport-validation.ts';
+import { ValidationError } from '../errors.ts';
+
+describe('validateViewport', () => {
+  it('should return viewport for valid parameters', () => {
+    // when
+    const viewport = validateViewport(49, 14, 55, 24, 7.5);
+
+    // then
+    expect(viewport).toEqual({ minLat: 49, minLng: 14, maxLat: 55, maxLng: 24, zoom: 7.5 });
+  });
+
+  it('should accept viewport crossing the antimeridian', () => {
+    // when/then
+    expect(() => validateViewport(-20, 170, -10, -165, 6)).not.toThrow();
+  });
+
+  it('should accept the whole world up to zoom 5 and a 4k screen at any zoom', () => {
+    // when/then
+    expect(() => validateViewport(-85, -180, 85, 180, 5.9)).not.toThrow();
+    // 3840 x 2160 px around Kraków at zoom 17
+    expect(() => validateViewport(50.0545, 19.9193, 50.0693, 19.9605, 17)).not.toThrow();
+  });
+
+  it.each([
+    { args: [undefined, 14, 55, 24, 7], expectedError: "Parameter 'minLat' is required", expectedField: 'minLat' },
+    { args: [49, 14, 55, 24, undefined], expectedError: "Parameter 'zoom' is required", expectedField: 'zoom' },
+    { args: [49, NaN, 55, 24, 7], expectedError: "Parameter 'minLng' must be a valid number", expectedField: 'minLng' },
+    { args: [49, 14, 91, 24, 7], expectedError: "Parameter 'maxLat' must be between -90 and 90", expectedField: 'maxLat' },
+    { args: [49, 14, 55, 181, 7], expectedError: "Parameter 'maxLng' must be between -180 and 180", expectedField: 'maxLng' },
+    { args: [49, 14, 55, 24, 23], expectedError: "Parameter 'zoom' must be between 0 and 22", expectedField: 'zoom' },
+    { args: [55, 14, 49, 24, 7], expectedError: "Parameter 'minLat' must not be greater than 'maxLat'", expectedField: 'minLat' },
+    { args: [-85, -180, 85, 180, 17], expectedError: 'Viewport must not be larger than 8192 x 8192 px', expectedField: 'zoom' },
+    { args: [-85, -180, 85, 180, 6], expectedError: 'Viewport must not be larger than 8192 x 8192 px', expectedField: 'zoom' },
+    { args: [49, 14, 55, 24, 12], expectedError: 'Viewport must not be larger than 8192 x 8192 px', expectedField: 'zoom' }
+  ])('should throw ValidationError: $expectedError', ({ args, expectedError, expectedField }) => {
+    // when
+    const call = () => validateViewport(...(args as [number, number, number, number, number]));
+
+    // then
+    expect(call).toThrow(ValidationError);
+    expect(call).toThrow(expectedError);
+    try {
+      call();
+    } catch (error) {
+      expect((error as ValidationError).field).toBe(expectedField);
+    }
+  });
+});
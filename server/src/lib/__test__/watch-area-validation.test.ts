@@ -0,0 +1,41 @@
+import { describe, it, expect } from 'vitest';
+import validateCreateWatchArea from '../watch-area-validation.ts';
+import { ValidationError } from '../errors.ts';
+import type { CreateWatchAreaDto } from '../../types/watch-area';
+
+function expectValidationError(data: unknown, expectedCode: string, expectedField: string): void {
+  let error: ValidationError | undefined;
+  try {
+    validateCreateWatchArea(data as CreateWatchAreaDto);
+  } catch (e) {
+    error = e as ValidationError;
+  }
+  expect(error).toBeInstanceOf(ValidationError);
+  expect(error?.code).toBe(expectedCode);
+  expect(error?.field).toBe(expectedField);
+}
+
+const VALID_WATCH_AREA: CreateWatchAreaDto = { name: 'Home', latitude: 54.35, longitude: 18.65, radiusKm: 5 };
+
+describe('validateCreateWatchArea', () => {
+  it.each([
+    { description: 'all fields', data: VALID_WATCH_AREA },
+    { description: 'no name', data: { latitude: 54.35, longitude: 18.65, radiusKm: 0.5 } },
+    { description: 'maximum radius', data: { ...VALID_WATCH_AREA, radiusKm: 50 } }
+  ])('should accept $description', ({ data }) => {
+    // when/then
+    expect(() => validateCreateWatchArea(data)).not.toThrow();
+  });
+
+  it.each([
+    { description: 'missing latitude', data: { longitude: 18.65, radiusKm: 5 }, code: 'MISSING_VALUE', field: 'latitude' },
+    { description: 'latitude out of range', data: { ...VALID_WATCH_AREA, latitude: 91 }, code: 'INVALID_FORMAT', field: 'latitude' },
+    { description: 'longitude out of range', data: { ...VALID_WATCH_AREA, longitude: -181 }, code: 'INVALID_FORMAT', field: 'longitude' },
+    { description: 'zero radius', data: { ...VALID_WATCH_AREA, radiusKm: 0 }, code: 'INVALID_FORMAT', field: 'radiusKm' },
+    { description: 'radius above maximum', data: { ...VALID_WATCH_AREA, radiusKm: 51 }, code: 'INVALID_FORMAT', field: 'radiusKm' },
+    { description: 'unknown field', data: { ...VALID_WATCH_AREA, userId: 'other' }, code: 'INVALID_FIELD', field: 'userId' }
+  ])('should reject $description', ({ data, code, field }) => {
+    // when/then
+    expectValidationError(data, code, field);
+  });
+});
@@ -0,0 +1,46 @@
+import type { AnnouncementField } from '../types/announcement.ts';
+import { ValidationError } from './errors.ts';
+
+/** Fields that can be requested with `fields=`, in response order */
+export const ANNOUNCEMENT_FIELDS: readonly AnnouncementField[] = [
+  'id',
+  'petName',
+  'species',
+  'breed',
+  'sex',
+  'age',
+  'description',
+  'microchipNumber',
+  'locationLatitude',
+  'locationLongitude',
+  'lastSeenDate',
+  'email',
+  'phone',
+  'photoUrl',
+  'photoVariants',
+  'status',
+  'reward',
+  'createdAt',
+  'updatedAt'
+];
+
+/**
+ * Parses a comma-separated `fields` parameter. Returns undefined (all fields) when it is absent;
+ * `id` is always included.
+ */
+export function parseFields(fields?: string): AnnouncementField[] | undefined {
+  if (fields === undefined) {
+    return undefined;
+  }
+
+  const requested = new Set(fields.split(',').map((field) => field.trim()));
+  const unknown = [...requested].find((field) => !ANNOUNCEMENT_FIELDS.includes(field as AnnouncementField));
+  if (unknown !== undefined) {
+    throw new ValidationError(
+      'INVALID_PARAMETER',
+      unknown ? `Parameter 'fields' contains unknown field '${unknown}'` : "Parameter 'fields' cannot contain empty entries",
+      'fields'
+    );
+  }
+  return ANNOUNCEMENT_FIELDS.filter((field) => field === 'id' || requested.has(field));
+}
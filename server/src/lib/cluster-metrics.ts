@@ -0,0 +1,97 @@
+import cluster from 'node:cluster';
+import type { MetricFamily, MetricsRegistry } from './metrics.ts';
+import { renderFamilies } from './metrics.ts';
+
+const METRICS_CHANNEL = 'cluster-metrics';
+/** Workers that have not answered by then are left out of the scrape */
+export const CLUSTER_METRICS_TIMEOUT_MS = 1000;
+
+type MetricsMessage =
+  | { channel: typeof METRICS_CHANNEL; type: 'request'; requestId: number }
+  | { channel: typeof METRICS_CHANNEL; type: 'collect'; requestId: number }
+  | { channel: typeof METRICS_CHANNEL; type: 'samples'; requestId: number; families: MetricFamily[] }
+  | { channel: typeof METRICS_CHANNEL; type: 'response'; requestId: number; families: MetricFamily[][] };
+
+function isMetricsMessage(message: unknown): message is MetricsMessage {
+  return typeof message === 'object' && message !== null && (message as MetricsMessage).channel === METRICS_CHANNEL;
+}
+
+/**
+ * Returns a function rendering the metrics of every server process.
+ *
+ * A single process renders its own registry. A cluster worker asks the primary, which collects the registries of
+ * all workers and sends them back; each sample is labelled with `worker` (the cluster worker id). Every scrape
+ * therefore sees the same series whichever worker serves it, instead of jumping between per-process counters.
+ */
+export function createClusterMetrics(registry: MetricsRegistry): () => Promise<string> {
+  const worker = cluster.worker;
+  if (!cluster.isWorker || !worker || !process.send) {
+    return async () => registry.render();
+  }
+
+  const labels = { worker: worker.id };
+  const pending = new Map<number, (families: MetricFamily[][]) => void>();
+  let nextRequestId = 0;
+  process.on('message', (message: unknown) => {
+    if (!isMetricsMessage(message)) {
+      return;
+    }
+    if (message.type === 'collect') {
+      const families = registry.collect(labels);
+      process.send?.({ channel: METRICS_CHANNEL, type: 'samples', requestId: message.requestId, families } satisfies MetricsMessage);
+    } else if (message.type === 'response') {
+      pending.get(message.requestId)?.(message.families);
+      pending.delete(message.requestId);
+    }
+  });
+
+  return () =>
+    new Promise((resolve) => {
+      const requestId = nextRequestId++;
+      pending.set(requestId, (families) => resolve(renderFamilies(families)));
+      process.send?.({ channel: METRICS_CHANNEL, type: 'request', requestId } satisfies MetricsMessage);
+    });
+}
+
+/**
+ * Cluster primary side of `createClusterMetrics`: answers a worker's request with the registries of all live
+ * workers, or of those that answered within CLUSTER_METRICS_TIMEOUT_MS.
+ */
+export function aggregateClusterMetrics(timeoutMs = CLUSTER_METRICS_TIMEOUT_MS): void {
+  const collections = new Map<number, { families: MetricFamily[][]; remaining: number; finish: () => void }>();
+  let nextCollectionId = 0;
+
+  cluster.on('message', (sender, message: unknown) => {
+    if (!isMetricsMessage(message)) {
+      return;
+    }
+
+    if (message.type === 'request') {
+      const collectionId = nextCollectionId++;
+      const workers = Object.values(cluster.workers ?? {}).filter((worker) => worker?.isConnected());
+      const families: MetricFamily[][] = [];
+      const finish = () => {
+        if (!collections.delete(collectionId)) {
+          return;
+        }
+        clearTimeout(timeout);
+        if (sender.isConnected()) {
+          sender.send({ channel: METRICS_CHANNEL, type: 'response', requestId: message.requestId, families } satisfies MetricsMessage);
+        }
+      };
+      const timeout = setTimeout(finish, timeoutMs);
+      collections.set(collectionId, { families, remaining: workers.length, finish });
+      workers.forEach((worker) =>
+        worker?.send({ channel: METRICS_CHANNEL, type: 'collect', requestId: collectionId } satisfies MetricsMessage)
+      );
+    } else if (message.type === 'samples') {
+      const collection = collections.get(message.requestId);
+      if (collection) {
+        collection.families.push(message.families);
+        if (--collection.remaining === 0) {
+          collection.finish();
+        }
+      }
+    }
+  });
+}
@@ -0,0 +1,53 @@
+import cluster from 'node:cluster';
+
+/** Channels relayed between cluster workers */
+export const RELAY_CHANNELS = {
+  announcementFeed: 'announcement-feed'
+};
+
+interface RelayMessage<T> {
+  channel: string;
+  payload: T;
+}
+
+function isRelayMessage(message: unknown, channel: string): message is RelayMessage<unknown> {
+  return typeof message === 'object' && message !== null && (message as RelayMessage<unknown>).channel === channel;
+}
+
+/**
+ * Returns a publish function that delivers `payload` to `deliver` in every server process.
+ *
+ * In cluster mode the worker sends the message to the primary, which relays it to all workers (the sender
+ * included, so delivery order is the same everywhere); a single process delivers it directly.
+ */
+export function createClusterRelay<T>(channel: string, deliver: (payload: T) => void): (payload: T) => void {
+  if (!cluster.isWorker || !process.send) {
+    return deliver;
+  }
+
+  process.on('message', (message: unknown) => {
+    if (isRelayMessage(message, channel)) {
+      deliver(message.payload as T);
+    }
+  });
+  return (payload) => {
+    process.send?.({ channel, payload } satisfies RelayMessage<T>);
+  };
+}
+
+/**
+ * Cluster primary side of `createClusterRelay`: forwards messages of RELAY_CHANNELS to every live worker.
+ */
+export function relayClusterMessages(): void {
+  const channels = Object.values(RELAY_CHANNELS);
+  cluster.on('message', (_sender, message: unknown) => {
+    if (!channels.some((channel) => isRelayMessage(message, channel))) {
+      return;
+    }
+    for (const worker of Object.values(cluster.workers ?? {})) {
+      if (worker?.isConnected()) {
+        worker.send(message as RelayMessage<unknown>);
+      }
+    }
+  });
+}
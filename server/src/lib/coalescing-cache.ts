@@ -0,0 +1,68 @@
+interface Entry<V> {
+  value: V;
+  expiresAt: number;
+}
+
+/**
+ * In-process LRU cache with a short TTL that also coalesces concurrent misses: callers asking for a key
+ * that is already being loaded share the pending promise instead of starting their own load.
+ *
+ * There is no explicit invalidation: callers put the data version in the key (see DatasetVersion), so a
+ * write makes later lookups miss and old entries age out through the TTL or LRU eviction.
+ *
+ * Cached values are shared between callers and must not be mutated.
+ */
+export class CoalescingCache<V> {
+  private entries = new Map<string, Entry<V>>();
+  private inFlight = new Map<string, Promise<V>>();
+
+  constructor(
+    private maxEntries: number,
+    private ttlMs: number,
+    private now: () => number = Date.now
+  ) {}
+
+  get(key: string, load: () => Promise<V>): Promise<V> {
+    const entry = this.entries.get(key);
+    if (entry) {
+      this.entries.delete(key);
+      if (entry.expiresAt > this.now()) {
+        // Re-insert to mark as most recently used (Map keeps insertion order)
+        this.entries.set(key, entry);
+        return Promise.resolve(entry.value);
+      }
+    }
+
+    const pending = this.inFlight.get(key);
+    if (pending) {
+      return pending;
+    }
+
+    const loading = load()
+      .then((value) => {
+        this.store(key, value);
+        return value;
+      })
+      .finally(() => {
+        if (this.inFlight.get(key) === loading) {
+          this.inFlight.delete(key);
+        }
+      });
+    this.inFlight.set(key, loading);
+    return loading;
+  }
+
+  get size(): number {
+    return this.entries.size;
+  }
+
+  private store(key: string, value: V): void {
+    this.entries.set(key, { value, expiresAt: this.now() + this.ttlMs });
+    if (this.entries.size > this.maxEntries) {
+      const leastRecentlyUsed = this.entries.keys().next().value;
+      if (leastRecentlyUsed !== undefined) {
+        this.entries.delete(leastRecentlyUsed);
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+import type { Knex } from 'knex';
+
+interface DatasetVersionRow {
+  version: number | string;
+}
+
+interface DatasetEpochRow {
+  epoch: number | string;
+}
+
+/**
+ * Version of the announcement dataset, used as the ETag of list and detail responses.
+ *
+ * The counter lives in the `dataset_version` table so that every process (cluster workers, other hosts
+ * on PostgreSQL) issues the same ETag for the same data. Writers bump it inside the transaction of their
+ * change, so readers see the new version exactly when they can see the new data.
+ *
+ * The epoch changes only when the whole dataset is replaced (seeding, snapshot restore); delta sync
+ * watermarks from an older epoch make clients reload everything.
+ */
+export class DatasetVersion {
+  constructor(private db: Knex) {}
+
+  async current(): Promise<string> {
+    const row: DatasetVersionRow | undefined = await this.db('dataset_version').where('id', 1).first('version');
+    return String(row?.version ?? 0);
+  }
+
+  async etag(): Promise<string> {
+    return `W/"${await this.current()}"`;
+  }
+
+  async epoch(): Promise<string> {
+    const row: DatasetEpochRow | undefined = await this.db('dataset_version').where('id', 1).first('epoch');
+    return String(row?.epoch ?? 0);
+  }
+
+  async bump(trx: Knex | Knex.Transaction = this.db): Promise<void> {
+    await trx('dataset_version').where('id', 1).increment('version', 1);
+  }
+
+  async startEpoch(trx: Knex | Knex.Transaction = this.db): Promise<void> {
+    await trx('dataset_version').where('id', 1).increment({ version: 1, epoch: 1 });
+  }
+}
@@ -70,3 +70,12 @@ export class PayloadTooLargeError extends CustomError {
     super(413, 'PAYLOAD_TOO_LARGE', message, field);
   }
 }
+
+export class ServiceUnavailableError extends CustomError {
+  constructor(
+    message = 'Service temporarily overloaded, please retry',
+    public retryAfterSeconds = 1
+  ) {
+    super(503, 'SERVICE_UNAVAILABLE', message);
+  }
+}
@@ -0,0 +1,97 @@
+export const EARTH_RADIUS_KM = 6371;
+
+const CELLS_PER_DEGREE = 10;
+const GRID_ROWS = 180 * CELLS_PER_DEGREE;
+const GRID_COLUMNS = 360 * CELLS_PER_DEGREE;
+const MAX_CELLS_PER_QUERY = 64;
+
+/**
+ * Grid cell of an announcement as a SQL expression (0.1° x 0.1° cells, row-major).
+ * Must stay identical to the expression of `announcement_geo_cell_idx` so SQLite can use the index.
+ */
+export const GEO_CELL_SQL = `(min(CAST((location_latitude + 90) * ${CELLS_PER_DEGREE} AS INTEGER), ${GRID_ROWS - 1}) * ${GRID_COLUMNS} + min(CAST((location_longitude + 180) * ${CELLS_PER_DEGREE} AS INTEGER), ${GRID_COLUMNS - 1}))`;
+
+export interface BoundingBox {
+  minLat: number;
+  maxLat: number;
+  /** Undefined when the box spans all longitudes (near a pole or across the antimeridian) */
+  minLng?: number;
+  maxLng?: number;
+}
+
+/**
+ * Smallest lat/lng box containing every point within `rangeKm` great-circle distance of the center.
+ */
+export function boundingBox(lat: number, lng: number, rangeKm: number): BoundingBox {
+  const angularDistance = rangeKm / EARTH_RADIUS_KM;
+  const deltaLat = toDegrees(angularDistance);
+  const minLat = Math.max(lat - deltaLat, -90);
+  const maxLat = Math.min(lat + deltaLat, 90);
+
+  const sinDistance = Math.sin(angularDistance);
+  const cosLat = Math.cos(toRadians(lat));
+  if (minLat === -90 || maxLat === 90 || sinDistance >= cosLat) {
+    return { minLat, maxLat };
+  }
+
+  const deltaLng = toDegrees(Math.asin(sinDistance / cosLat));
+  if (lng - deltaLng < -180 || lng + deltaLng > 180) {
+    return { minLat, maxLat };
+  }
+  return { minLat, maxLat, minLng: lng - deltaLng, maxLng: lng + deltaLng };
+}
+
+/**
+ * Grid cells overlapping the box, or null when there are too many to be worth an IN list
+ * (the latitude/longitude index is used instead).
+ */
+export function geoCellsInBoundingBox(box: BoundingBox): number[] | null {
+  if (box.minLng === undefined || box.maxLng === undefined) {
+    return null;
+  }
+  const minRow = row(box.minLat);
+  const maxRow = row(box.maxLat);
+  const minColumn = column(box.minLng);
+  const maxColumn = column(box.maxLng);
+  if ((maxRow - minRow + 1) * (maxColumn - minColumn + 1) > MAX_CELLS_PER_QUERY) {
+    return null;
+  }
+
+  const cells: number[] = [];
+  for (let r = minRow; r <= maxRow; r++) {
+    for (let c = minColumn; c <= maxColumn; c++) {
+      cells.push(r * GRID_COLUMNS + c);
+    }
+  }
+  return cells;
+}
+
+/**
+ * Great-circle distance in km, with the same spherical law of cosines as the SQLite location query.
+ */
+export function distanceKm(lat1: number, lng1: number, lat2: number, lng2: number): number {
+  const phi1 = toRadians(lat1);
+  const phi2 = toRadians(lat2);
+  const cosine = Math.cos(phi1) * Math.cos(phi2) * Math.cos(toRadians(lng2) - toRadians(lng1)) + Math.sin(phi1) * Math.sin(phi2);
+  return EARTH_RADIUS_KM * Math.acos(Math.min(Math.max(cosine, -1), 1));
+}
+
+export function geoCell(lat: number, lng: number): number {
+  return row(lat) * GRID_COLUMNS + column(lng);
+}
+
+function row(lat: number): number {
+  return Math.min(Math.floor((lat + 90) * CELLS_PER_DEGREE), GRID_ROWS - 1);
+}
+
+function column(lng: number): number {
+  return Math.min(Math.floor((lng + 180) * CELLS_PER_DEGREE), GRID_COLUMNS - 1);
+}
+
+function toRadians(degrees: number): number {
+  return (degrees * Math.PI) / 180;
+}
+
+function toDegrees(radians: number): number {
+  return (radians * 180) / Math.PI;
+}
@@ -0,0 +1,79 @@
+import { promises as fs } from 'fs';
+import path from 'path';
+import sharp from 'sharp';
+import type { PhotoVariantName, PhotoVariants } from '../types/announcement.ts';
+
+type VariantFormat = 'webp' | 'avif';
+
+interface VariantSpec {
+  width: number;
+}
+
+/**
+ * Target widths: `card` for list rows/cards, `popup` for map popups and detail previews,
+ * `full` for the full-screen photo. Smaller originals are never upscaled.
+ */
+export const PHOTO_VARIANTS: Record<PhotoVariantName, VariantSpec> = {
+  card: { width: 400 },
+  popup: { width: 800 },
+  full: { width: 1600 }
+};
+
+const FORMAT_OPTIONS: Record<VariantFormat, sharp.WebpOptions | sharp.AvifOptions> = {
+  webp: { quality: 75 },
+  avif: { quality: 50, effort: 4 }
+};
+
+const VARIANT_NAMES = Object.keys(PHOTO_VARIANTS) as PhotoVariantName[];
+const VARIANT_FORMATS = Object.keys(FORMAT_OPTIONS) as VariantFormat[];
+
+export function variantFilename(baseName: string, variant: PhotoVariantName, format: VariantFormat): string {
+  return `${baseName}-${variant}.${format}`;
+}
+
+/**
+ * Resizes the image (buffer or file path) to every variant width and encodes each as WebP and AVIF into `outputDir`.
+ * EXIF orientation is applied and metadata stripped. Encoding runs on the libuv thread pool,
+ * so the event loop stays free while a large upload is processed. If any file cannot be written,
+ * the files already written are removed before the error is rethrown.
+ *
+ * @returns public URLs (`/images/...`) of the written files and the actual width of each variant
+ */
+export async function generateImageVariants(input: Buffer | string, outputDir: string, baseName: string): Promise<PhotoVariants> {
+  const source = sharp(input, { failOn: 'error' }).rotate();
+
+  const writes = VARIANT_NAMES.flatMap((variant) => {
+    const resized = source.clone().resize({ width: PHOTO_VARIANTS[variant].width, withoutEnlargement: true });
+    return VARIANT_FORMATS.map((format) => {
+      const filename = variantFilename(baseName, variant, format);
+      const filePath = path.join(outputDir, filename);
+      return { variant, format, filename, filePath, info: resized.clone().toFormat(format, FORMAT_OPTIONS[format]).toFile(filePath) };
+    });
+  });
+
+  const results = await Promise.allSettled(writes.map((write) => write.info));
+  const failed = results.find((result): result is PromiseRejectedResult => result.status === 'rejected');
+  if (failed) {
+    await Promise.all(writes.filter((_, i) => results[i].status === 'fulfilled').map((write) => fs.rm(write.filePath, { force: true })));
+    throw failed.reason;
+  }
+
+  const variants = {} as PhotoVariants;
+  writes.forEach(({ variant, format, filename }, i) => {
+    const { width } = (results[i] as PromiseFulfilledResult<sharp.OutputInfo>).value;
+    // Originals narrower than the variant are not upscaled, so report the width actually written
+    variants[variant] ??= { width, webp: '', avif: '' };
+    variants[variant][format] = `/images/${filename}`;
+  });
+  return variants;
+}
+
+/**
+ * Public URLs of all variant files, used to remove them together with the original photo.
+ */
+export function variantUrls(variants: PhotoVariants | null | undefined): string[] {
+  if (!variants) {
+    return [];
+  }
+  return VARIANT_NAMES.flatMap((variant) => (variants[variant] ? VARIANT_FORMATS.map((format) => variants[variant][format]) : []));
+}
@@ -0,0 +1,195 @@
+import { Worker } from 'worker_threads';
+import { ServiceUnavailableError } from './errors.ts';
+
+// Inline CommonJS source so the worker runs the same way under node and vitest
+const WORKER_SOURCE = `
+const { parentPort } = require('worker_threads');
+const { scryptSync } = require('crypto');
+parentPort.on('message', ({ password, salt, keyLength }) => {
+  try {
+    parentPort.postMessage({ key: scryptSync(password, salt, keyLength) });
+  } catch (error) {
+    parentPort.postMessage({ error: error.message });
+  }
+});
+`;
+
+interface Task {
+  password: string;
+  salt: Buffer;
+  keyLength: number;
+  enqueuedAt: number;
+  startedAt: number;
+  resolve: (key: Buffer) => void;
+  reject: (error: Error) => void;
+}
+
+interface WorkerReply {
+  key?: Uint8Array;
+  error?: string;
+}
+
+export interface TimingStats {
+  count: number;
+  totalMs: number;
+  maxMs: number;
+}
+
+export interface KeyDerivationPoolMetrics {
+  size: number;
+  busy: number;
+  queued: number;
+  completed: number;
+  rejected: number;
+  queueWait: TimingStats;
+  derive: TimingStats;
+}
+
+export type KeyDerivationObserver = (queueWaitMs: number, deriveMs: number) => void;
+
+/**
+ * Fixed-size pool of worker threads running scrypt.
+ *
+ * Key derivation is CPU and memory heavy (~16 MB per call). Running it through `crypto.scrypt` shares
+ * libuv's 4-thread pool with file system and DNS work, so a burst of logins stalls unrelated I/O.
+ * Here each worker derives synchronously on its own thread, at most `queueLimit` calls wait for a free
+ * worker, and anything beyond that fails fast with ServiceUnavailableError (503) instead of piling up.
+ *
+ * Workers start on first use and are unref'd while idle, so an unused pool never keeps the process alive.
+ */
+export class KeyDerivationPool {
+  private idle: Worker[] = [];
+  private running = new Map<Worker, Task>();
+  private queue: Task[] = [];
+  private completed = 0;
+  private rejected = 0;
+  private queueWait: TimingStats = { count: 0, totalMs: 0, maxMs: 0 };
+  private derive: TimingStats = { count: 0, totalMs: 0, maxMs: 0 };
+  private observers: KeyDerivationObserver[] = [];
+
+  constructor(
+    private size: number,
+    private queueLimit: number
+  ) {}
+
+  deriveKey(password: string, salt: Buffer, keyLength: number): Promise<Buffer> {
+    return new Promise((resolve, reject) => {
+      const task: Task = { password, salt, keyLength, enqueuedAt: performance.now(), startedAt: 0, resolve, reject };
+      const worker = this.idle.pop() ?? (this.workerCount() < this.size ? this.spawn() : undefined);
+      if (worker) {
+        this.run(worker, task);
+      } else if (this.queue.length < this.queueLimit) {
+        this.queue.push(task);
+      } else {
+        this.rejected++;
+        reject(new ServiceUnavailableError('Too many concurrent authentication requests, please retry'));
+      }
+    });
+  }
+
+  /**
+   * Called after every derivation with the time spent waiting for a worker and the scrypt time.
+   */
+  observe(observer: KeyDerivationObserver): void {
+    this.observers.push(observer);
+  }
+
+  metrics(): KeyDerivationPoolMetrics {
+    return {
+      size: this.size,
+      busy: this.running.size,
+      queued: this.queue.length,
+      completed: this.completed,
+      rejected: this.rejected,
+      queueWait: { ...this.queueWait },
+      derive: { ...this.derive }
+    };
+  }
+
+  async destroy(): Promise<void> {
+    const workers = [...this.idle, ...this.running.keys()];
+    this.idle = [];
+    for (const task of [...this.running.values(), ...this.queue]) {
+      task.reject(new Error('Key derivation pool destroyed'));
+    }
+    this.running.clear();
+    this.queue = [];
+    await Promise.all(workers.map((worker) => worker.terminate()));
+  }
+
+  private workerCount(): number {
+    return this.idle.length + this.running.size;
+  }
+
+  private spawn(): Worker {
+    const worker = new Worker(WORKER_SOURCE, { eval: true });
+    worker.on('message', (reply: WorkerReply) => this.finish(worker, reply));
+    worker.on('error', (error) => this.fail(worker, error));
+    // A worker can also die without an 'error' event, e.g. when it exceeds its resource limits
+    worker.on('exit', (code) => this.fail(worker, new Error(`Key derivation worker exited with code ${code}`)));
+    return worker;
+  }
+
+  private run(worker: Worker, task: Task): void {
+    task.startedAt = performance.now();
+    this.running.set(worker, task);
+    worker.ref();
+    worker.postMessage({ password: task.password, salt: task.salt, keyLength: task.keyLength });
+  }
+
+  private finish(worker: Worker, reply: WorkerReply): void {
+    const task = this.running.get(worker);
+    this.running.delete(worker);
+    if (task) {
+      this.record(task);
+      if (reply.key) {
+        task.resolve(Buffer.from(reply.key.buffer, reply.key.byteOffset, reply.key.byteLength));
+      } else {
+        task.reject(new Error(`Key derivation failed: ${reply.error ?? 'unknown error'}`));
+      }
+    }
+
+    const next = this.queue.shift();
+    if (next) {
+      this.run(worker, next);
+    } else {
+      worker.unref();
+      this.idle.push(worker);
+    }
+  }
+
+  /**
+   * A crashed or exited worker is dropped; its task fails and a replacement is started if work is queued.
+   * The 'exit' that follows an 'error', or a termination by destroy(), finds the worker already dropped.
+   */
+  private fail(worker: Worker, error: Error): void {
+    if (!this.running.has(worker) && !this.idle.includes(worker)) {
+      return;
+    }
+    const task = this.running.get(worker);
+    this.running.delete(worker);
+    this.idle = this.idle.filter((candidate) => candidate !== worker);
+    task?.reject(error);
+
+    const next = this.queue.shift();
+    if (next) {
+      this.run(this.spawn(), next);
+    }
+  }
+
+  private record(task: Task): void {
+    const finishedAt = performance.now();
+    const waitMs = task.startedAt - task.enqueuedAt;
+    const deriveMs = finishedAt - task.startedAt;
+    this.completed++;
+    addTiming(this.queueWait, waitMs);
+    addTiming(this.derive, deriveMs);
+    this.observers.forEach((observer) => observer(waitMs, deriveMs));
+  }
+}
+
+function addTiming(stats: TimingStats, durationMs: number): void {
+  stats.count++;
+  stats.totalMs += durationMs;
+  stats.maxMs = Math.max(stats.maxMs, durationMs);
+}
@@ -0,0 +1,51 @@
+import { z } from 'zod';
+import type { AnnouncementListFilter, AnnouncementListFilterParams } from '../types/announcement.ts';
+import { ValidationError } from './errors.ts';
+
+const DATE_PATTERN = /^\d{4}-\d{2}-\d{2}$/;
+
+const dateParam = (name: string) =>
+  z
+    .string()
+    .regex(DATE_PATTERN, { message: `Parameter '${name}' must be a date in YYYY-MM-DD format` })
+    .optional();
+
+const textParam = (name: string) =>
+  z
+    .string()
+    .trim()
+    .min(1, { message: `Parameter '${name}' cannot be empty` })
+    .max(50, { message: `Parameter '${name}' must be at most 50 characters long` })
+    .optional();
+
+const ListFilterSchema = z
+  .object({
+    status: z
+      .enum(['MISSING', 'FOUND'], { errorMap: () => ({ message: "Parameter 'status' must be either MISSING or FOUND" }) })
+      .optional(),
+    species: textParam('species'),
+    sex: textParam('sex'),
+    lastSeenFrom: dateParam('lastSeenFrom'),
+    lastSeenTo: dateParam('lastSeenTo'),
+    sort: z
+      .enum(['createdAt', 'lastSeenDate'], { errorMap: () => ({ message: "Parameter 'sort' must be either createdAt or lastSeenDate" }) })
+      .optional()
+  })
+  .refine((data) => !data.lastSeenFrom || !data.lastSeenTo || data.lastSeenFrom <= data.lastSeenTo, {
+    message: "Parameter 'lastSeenFrom' must not be after 'lastSeenTo'",
+    path: ['lastSeenFrom']
+  });
+
+/**
+ * Validates list query parameters and returns the filter without the parameters that were not given.
+ */
+export function toListFilter(params: AnnouncementListFilterParams = {}): AnnouncementListFilter {
+  const result = ListFilterSchema.safeParse(params);
+  if (!result.success) {
+    const firstError = result.error.errors[0];
+    const field = firstError.path.length > 0 ? firstError.path[0].toString() : undefined;
+    throw new ValidationError('INVALID_PARAMETER', firstError.message, field);
+  }
+
+  return Object.fromEntries(Object.entries(result.data).filter(([, value]) => value !== undefined)) as AnnouncementListFilter;
+}
@@ -0,0 +1,47 @@
+export interface BodySamplingRule {
+  method: string;
+  path: RegExp;
+  /** Fraction of requests (0-1) whose bodies are logged */
+  rate: number;
+}
+
+export interface SampledRequest {
+  method: string;
+  path: string;
+  requestId: string;
+  statusCode?: number;
+}
+
+/**
+ * Decides whether the request/response bodies of a request are logged.
+ *
+ * Failed requests (status >= 400) are always logged in full. Otherwise the rate of the first rule matching
+ * method and path applies, falling back to `defaultRate`. The decision is derived from the request ID,
+ * so the request and response of one request are sampled together and can be correlated.
+ */
+export function shouldLogBody(request: SampledRequest, rules: BodySamplingRule[], defaultRate: number): boolean {
+  if (request.statusCode !== undefined && request.statusCode >= 400) {
+    return true;
+  }
+  const rule = rules.find((candidate) => candidate.method === request.method && candidate.path.test(request.path));
+  const rate = rule?.rate ?? defaultRate;
+  if (rate >= 1) {
+    return true;
+  }
+  if (rate <= 0) {
+    return false;
+  }
+  return sampleFraction(request.requestId) < rate;
+}
+
+/**
+ * Maps a request ID to a stable number in [0, 1) using 32-bit FNV-1a.
+ */
+function sampleFraction(requestId: string): number {
+  let hash = 0x811c9dc5;
+  for (let i = 0; i < requestId.length; i++) {
+    hash ^= requestId.charCodeAt(i);
+    hash = Math.imul(hash, 0x01000193);
+  }
+  return (hash >>> 0) / 0x100000000;
+}
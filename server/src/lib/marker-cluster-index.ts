@@ -0,0 +1,163 @@
+import type { MapCluster, MapClusters, MapPoint, Viewport } from '../types/announcement.ts';
+
+/** Highest zoom with clusters; above it every announcement in the viewport is returned as a point */
+export const MAX_CLUSTER_ZOOM = 16;
+
+// 4 x 4 cells per 256 px Web Mercator tile: one cluster per 64 px square on screen
+const CELLS_PER_TILE = 4;
+const MAX_MERCATOR_LATITUDE = 85.05112878;
+
+interface Cell {
+  count: number;
+  latitudeSum: number;
+  longitudeSum: number;
+  sample: MapPoint;
+  /** Only kept on the MAX_CLUSTER_ZOOM level, to list points when zoomed in further */
+  points?: MapPoint[];
+}
+
+interface CellRange {
+  minX: number;
+  maxX: number;
+  minY: number;
+  maxY: number;
+}
+
+/**
+ * Precomputed grid clusters for every zoom level from 0 to MAX_CLUSTER_ZOOM.
+ *
+ * Each level partitions the Web Mercator plane into square cells of a fixed on-screen size and keeps
+ * count, coordinate sums and a sample announcement per non-empty cell, so a viewport query touches at most
+ * the cells visible on screen (about 500 for a full HD map) whatever the size of the dataset.
+ * Building costs O(points x levels); the index is immutable and rebuilt when the dataset changes.
+ */
+export class MarkerClusterIndex {
+  private levels: Map<number, Cell>[] = [];
+
+  constructor(points: MapPoint[]) {
+    for (let zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+      const cells = new Map<number, Cell>();
+      const cellsAcross = cellsAtZoom(zoom);
+      for (const point of points) {
+        const key = cellY(point.latitude, cellsAcross) * cellsAcross + cellX(point.longitude, cellsAcross);
+        const cell = cells.get(key);
+        if (cell) {
+          cell.count++;
+          cell.latitudeSum += point.latitude;
+          cell.longitudeSum += point.longitude;
+          cell.points?.push(point);
+        } else {
+          cells.set(key, {
+            count: 1,
+            latitudeSum: point.latitude,
+            longitudeSum: point.longitude,
+            sample: point,
+            points: zoom === MAX_CLUSTER_ZOOM ? [point] : undefined
+          });
+        }
+      }
+      this.levels.push(cells);
+    }
+  }
+
+  /**
+   * Clusters of the cells intersecting the viewport at `floor(zoom)`. Cells holding a single announcement
+   * are returned as points; above MAX_CLUSTER_ZOOM all announcements inside the viewport are points.
+   */
+  query(viewport: Viewport): MapClusters {
+    const zoom = Math.floor(viewport.zoom);
+    const level = Math.min(zoom, MAX_CLUSTER_ZOOM);
+    const cells = this.cellsInViewport(level, viewport);
+
+    if (zoom > MAX_CLUSTER_ZOOM) {
+      const points = cells.flatMap((cell) => cell.points ?? []).filter((point) => contains(viewport, point));
+      return { zoom, clusters: [], points };
+    }
+
+    const clusters: MapCluster[] = [];
+    const points: MapPoint[] = [];
+    for (const cell of cells) {
+      if (cell.count === 1) {
+        points.push(cell.sample);
+      } else {
+        clusters.push({
+          latitude: cell.latitudeSum / cell.count,
+          longitude: cell.longitudeSum / cell.count,
+          count: cell.count,
+          sampleId: cell.sample.id
+        });
+      }
+    }
+    return { zoom, clusters, points };
+  }
+
+  private cellsInViewport(level: number, viewport: Viewport): Cell[] {
+    const cells = this.levels[level];
+    const cellsAcross = cellsAtZoom(level);
+    const minY = cellY(viewport.maxLat, cellsAcross);
+    const maxY = cellY(viewport.minLat, cellsAcross);
+    const minX = cellX(viewport.minLng, cellsAcross);
+    const maxX = cellX(viewport.maxLng, cellsAcross);
+    const ranges: CellRange[] =
+      viewport.minLng <= viewport.maxLng
+        ? [{ minX, maxX, minY, maxY }]
+        : [
+            { minX, maxX: cellsAcross - 1, minY, maxY },
+            { minX: 0, maxX, minY, maxY }
+          ];
+
+    const result: Cell[] = [];
+    for (const range of ranges) {
+      const rangeSize = (range.maxX - range.minX + 1) * (range.maxY - range.minY + 1);
+      if (rangeSize <= cells.size) {
+        // Few cells on screen: look each one up
+        for (let y = range.minY; y <= range.maxY; y++) {
+          for (let x = range.minX; x <= range.maxX; x++) {
+            const cell = cells.get(y * cellsAcross + x);
+            if (cell) {
+              result.push(cell);
+            }
+          }
+        }
+      } else {
+        // Sparse level (low zoom or little data): scan the non-empty cells instead
+        for (const [key, cell] of cells) {
+          const x = key % cellsAcross;
+          const y = Math.floor(key / cellsAcross);
+          if (x >= range.minX && x <= range.maxX && y >= range.minY && y <= range.maxY) {
+            result.push(cell);
+          }
+        }
+      }
+    }
+    return result;
+  }
+}
+
+function cellsAtZoom(zoom: number): number {
+  return 2 ** zoom * CELLS_PER_TILE;
+}
+
+function cellX(longitude: number, cellsAcross: number): number {
+  return Math.min(Math.floor(((longitude + 180) / 360) * cellsAcross), cellsAcross - 1);
+}
+
+function cellY(latitude: number, cellsAcross: number): number {
+  return Math.min(Math.max(Math.floor(mercatorY(latitude) * cellsAcross), 0), cellsAcross - 1);
+}
+
+/** Web Mercator y of the latitude, from 0 (north edge of the map) to 1 (south edge) */
+export function mercatorY(latitude: number): number {
+  const clamped = Math.max(Math.min(latitude, MAX_MERCATOR_LATITUDE), -MAX_MERCATOR_LATITUDE);
+  const radians = (clamped * Math.PI) / 180;
+  return (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+}
+
+function contains(viewport: Viewport, point: MapPoint): boolean {
+  if (point.latitude < viewport.minLat || point.latitude > viewport.maxLat) {
+    return false;
+  }
+  return viewport.minLng <= viewport.maxLng
+    ? point.longitude >= viewport.minLng && point.longitude <= viewport.maxLng
+    : point.longitude >= viewport.minLng || point.longitude <= viewport.maxLng;
+}
@@ -0,0 +1,24 @@
+/** JSON response body of a shared value, with compressed copies added as clients ask for them */
+export interface SharedJson {
+  text: string;
+  /** Compressed text by Content-Encoding, filled by the compression middleware */
+  encoded: Map<string, Promise<Buffer>>;
+}
+
+const bodies = new WeakMap<object, SharedJson>();
+
+/**
+ * Response body of `value`, serialized with `toJson` once per object: later calls with the same object return
+ * the stored body, including compressed copies made for earlier responses.
+ *
+ * Meant for values shared between requests that are never mutated, such as CoalescingCache entries, so a
+ * cached list is serialized and compressed once instead of on every hit. The body is dropped together with the object.
+ */
+export function sharedJson<T extends object>(value: T, toJson: (value: T) => string = JSON.stringify): SharedJson {
+  let body = bodies.get(value);
+  if (body === undefined) {
+    body = { text: toJson(value), encoded: new Map() };
+    bodies.set(value, body);
+  }
+  return body;
+}
@@ -0,0 +1,213 @@
+export type Labels = Record<string, string | number>;
+
+interface Sample {
+  labels: Labels;
+  value: number;
+}
+
+type Collector = () => number | Sample[];
+
+/** Current samples of one metric as exposition lines; plain data, so it can be sent between cluster workers */
+export interface MetricFamily {
+  name: string;
+  help: string;
+  type: 'counter' | 'gauge' | 'histogram';
+  samples: string[];
+}
+
+interface Metric {
+  name: string;
+  /** `labels` are added to every sample, e.g. the cluster worker id */
+  collect(labels: Labels): MetricFamily;
+}
+
+/**
+ * Minimal Prometheus text exposition (format 0.0.4) for counters, gauges and histograms.
+ */
+export class MetricsRegistry {
+  private metrics: Metric[] = [];
+
+  register<T extends Metric>(metric: T): T {
+    if (this.metrics.some((existing) => existing.name === metric.name)) {
+      throw new Error(`Metric ${metric.name} is already registered`);
+    }
+    this.metrics.push(metric);
+    return metric;
+  }
+
+  collect(labels: Labels = {}): MetricFamily[] {
+    return this.metrics.map((metric) => metric.collect(labels));
+  }
+
+  render(): string {
+    return renderFamilies([this.collect()]);
+  }
+}
+
+/**
+ * Renders the metrics of several registries (one per cluster worker) as one exposition. Families with the
+ * same name are written under a single HELP/TYPE header, so their samples must differ in labels.
+ */
+export function renderFamilies(sources: MetricFamily[][]): string {
+  const merged = new Map<string, MetricFamily>();
+  for (const family of sources.flat()) {
+    const existing = merged.get(family.name);
+    if (existing) {
+      existing.samples.push(...family.samples);
+    } else {
+      merged.set(family.name, { ...family, samples: [...family.samples] });
+    }
+  }
+  return (
+    [...merged.values()]
+      .flatMap(({ name, help, type, samples }) => [`# HELP ${name} ${help}`, `# TYPE ${name} ${type}`, ...samples])
+      .join('\n') + '\n'
+  );
+}
+
+export class Counter implements Metric {
+  private values = new Map<string, Sample>();
+
+  constructor(
+    readonly name: string,
+    private help: string,
+    private collector?: Collector
+  ) {}
+
+  inc(labels: Labels = {}, value = 1): void {
+    const key = labelKey(labels);
+    const sample = this.values.get(key) ?? { labels, value: 0 };
+    sample.value += value;
+    this.values.set(key, sample);
+  }
+
+  collect(labels: Labels): MetricFamily {
+    const samples = this.collector ? toSamples(this.collector()) : [...this.values.values()];
+    return { name: this.name, help: this.help, type: 'counter', samples: renderSamples(this.name, samples, labels) };
+  }
+}
+
+export class Gauge implements Metric {
+  private values = new Map<string, Sample>();
+
+  constructor(
+    readonly name: string,
+    private help: string,
+    private collector?: Collector
+  ) {}
+
+  set(labels: Labels, value: number): void {
+    this.values.set(labelKey(labels), { labels, value });
+  }
+
+  inc(labels: Labels = {}, value = 1): void {
+    const key = labelKey(labels);
+    const sample = this.values.get(key) ?? { labels, value: 0 };
+    sample.value += value;
+    this.values.set(key, sample);
+  }
+
+  dec(labels: Labels = {}, value = 1): void {
+    this.inc(labels, -value);
+  }
+
+  collect(labels: Labels): MetricFamily {
+    const samples = this.collector ? toSamples(this.collector()) : [...this.values.values()];
+    return { name: this.name, help: this.help, type: 'gauge', samples: renderSamples(this.name, samples, labels) };
+  }
+}
+
+interface HistogramSeries {
+  labels: Labels;
+  buckets: number[];
+  sum: number;
+  count: number;
+}
+
+export class Histogram implements Metric {
+  private series = new Map<string, HistogramSeries>();
+
+  constructor(
+    readonly name: string,
+    private help: string,
+    private bounds: number[]
+  ) {}
+
+  observe(labels: Labels, value: number): void {
+    const key = labelKey(labels);
+    let series = this.series.get(key);
+    if (!series) {
+      series = { labels, buckets: new Array(this.bounds.length).fill(0), sum: 0, count: 0 };
+      this.series.set(key, series);
+    }
+    const index = this.bounds.findIndex((bound) => value <= bound);
+    if (index >= 0) {
+      series.buckets[index]++;
+    }
+    series.sum += value;
+    series.count++;
+  }
+
+  /**
+   * Starts a timer; the returned function records the elapsed seconds, optionally with extra labels.
+   */
+  startTimer(labels: Labels): (extraLabels?: Labels) => void {
+    const start = process.hrtime.bigint();
+    return (extraLabels = {}) => this.observe({ ...labels, ...extraLabels }, Number(process.hrtime.bigint() - start) / 1e9);
+  }
+
+  collect(labels: Labels): MetricFamily {
+    const lines: string[] = [];
+    for (const series of this.series.values()) {
+      const seriesLabels = { ...series.labels, ...labels };
+      let cumulative = 0;
+      this.bounds.forEach((bound, i) => {
+        cumulative += series.buckets[i];
+        lines.push(`${this.name}_bucket${formatLabels({ ...seriesLabels, le: bound })} ${cumulative}`);
+      });
+      lines.push(`${this.name}_bucket${formatLabels({ ...seriesLabels, le: '+Inf' })} ${series.count}`);
+      lines.push(`${this.name}_sum${formatLabels(seriesLabels)} ${series.sum}`);
+      lines.push(`${this.name}_count${formatLabels(seriesLabels)} ${series.count}`);
+    }
+    return { name: this.name, help: this.help, type: 'histogram', samples: lines };
+  }
+}
+
+/**
+ * Awaits `operation` and records its duration in `histogram`, labelled with `outcome` (success/error).
+ */
+export async function timed<T>(histogram: Histogram, labels: Labels, operation: () => PromiseLike<T>): Promise<T> {
+  const end = histogram.startTimer(labels);
+  try {
+    const result = await operation();
+    end({ outcome: 'success' });
+    return result;
+  } catch (error) {
+    end({ outcome: 'error' });
+    throw error;
+  }
+}
+
+function toSamples(collected: number | Sample[]): Sample[] {
+  return typeof collected === 'number' ? [{ labels: {}, value: collected }] : collected;
+}
+
+function renderSamples(name: string, samples: Sample[], labels: Labels): string[] {
+  return samples.map((sample) => `${name}${formatLabels({ ...sample.labels, ...labels })} ${sample.value}`);
+}
+
+function labelKey(labels: Labels): string {
+  return JSON.stringify(Object.entries(labels).sort(([a], [b]) => a.localeCompare(b)));
+}
+
+function formatLabels(labels: Labels): string {
+  const entries = Object.entries(labels);
+  if (entries.length === 0) {
+    return '';
+  }
+  return `{${entries.map(([key, value]) => `${key}="${escapeLabelValue(String(value))}"`).join(',')}}`;
+}
+
+function escapeLabelValue(value: string): string {
+  return value.replace(/\\/g, '\\\\').replace(/"/g, '\\"').replace(/\n/g, '\\n');
+}
@@ -0,0 +1,74 @@
+import { z } from 'zod';
+import type { AnnouncementSort, OffsetPageRequest, PageCursor, PageRequest } from '../types/announcement.ts';
+import { ValidationError } from './errors.ts';
+
+export const DEFAULT_PAGE_SIZE = 20;
+export const MAX_PAGE_SIZE = 100;
+// Ranked results are paged by offset; deeper pages re-rank every match and are rarely useful
+export const MAX_OFFSET = 1000;
+
+const LimitSchema = z
+  .number({ message: "Parameter 'limit' must be a valid number" })
+  .int({ message: "Parameter 'limit' must be an integer" })
+  .min(1, { message: `Parameter 'limit' must be between 1 and ${MAX_PAGE_SIZE}` })
+  .max(MAX_PAGE_SIZE, { message: `Parameter 'limit' must be between 1 and ${MAX_PAGE_SIZE}` })
+  .optional();
+
+const CursorSchema = z.union([
+  z.object({ createdAt: z.string().min(1), id: z.string().min(1) }).strict(),
+  z.object({ lastSeenDate: z.string().min(1), id: z.string().min(1) }).strict()
+]);
+const OffsetCursorSchema = z.object({ offset: z.number().int().min(1).max(MAX_OFFSET) }).strict();
+
+/**
+ * Opaque keyset cursor: position of the last returned item in (sort key DESC, id DESC) order.
+ * Clients must pass it back unchanged; the encoding may change between releases.
+ */
+export function encodeCursor(cursor: PageCursor): string {
+  return Buffer.from(JSON.stringify(cursor)).toString('base64url');
+}
+
+export function decodeCursor(cursor: string): PageCursor {
+  try {
+    return CursorSchema.parse(JSON.parse(Buffer.from(cursor, 'base64url').toString('utf8')));
+  } catch {
+    throw new ValidationError('INVALID_PARAMETER', "Parameter 'cursor' is invalid", 'cursor');
+  }
+}
+
+/**
+ * Opaque offset cursor for ranked lists, where there is no stable key to continue from. Writes between
+ * requests can shift items across page boundaries.
+ */
+export function encodeOffsetCursor(offset: number): string {
+  return Buffer.from(JSON.stringify({ offset })).toString('base64url');
+}
+
+export function decodeOffsetCursor(cursor: string): number {
+  try {
+    return OffsetCursorSchema.parse(JSON.parse(Buffer.from(cursor, 'base64url').toString('utf8'))).offset;
+  } catch {
+    throw new ValidationError('INVALID_PARAMETER', "Parameter 'cursor' is invalid", 'cursor');
+  }
+}
+
+/**
+ * A cursor is only valid for the sort order of the page it came from.
+ */
+export function toPageRequest(limit?: number, cursor?: string, sort: AnnouncementSort = 'createdAt'): PageRequest {
+  const result = LimitSchema.safeParse(limit);
+  if (!result.success) {
+    throw new ValidationError('INVALID_PARAMETER', result.error.errors[0].message, 'limit');
+  }
+
+  const decoded = cursor !== undefined ? decodeCursor(cursor) : undefined;
+  if (decoded && !(sort in decoded)) {
+    throw new ValidationError('INVALID_PARAMETER', "Parameter 'cursor' does not match 'sort'", 'cursor');
+  }
+  return { limit: limit ?? DEFAULT_PAGE_SIZE, cursor: decoded };
+}
+
+export function toOffsetPageRequest(limit?: number, cursor?: string): OffsetPageRequest {
+  const page = toPageRequest(limit);
+  return { limit: page.limit, offset: cursor !== undefined ? decodeOffsetCursor(cursor) : 0 };
+}
@@ -1,10 +1,19 @@
-import { scrypt, randomBytes, randomInt, timingSafeEqual } from 'crypto';
-import { promisify } from 'util';
+import { randomBytes, randomInt, timingSafeEqual } from 'crypto';
+import { availableParallelism } from 'os';
+import { KeyDerivationPool } from './key-derivation-pool.ts';
 
-const scryptAsync = promisify(scrypt);
 const SALT_LENGTH = 16;
 const KEY_LENGTH = 64;
 
+/**
+ * Shared scrypt pool. Defaults to half of the cores (2-4 workers) and 64 waiting calls;
+ * override with KDF_POOL_SIZE / KDF_QUEUE_LIMIT.
+ */
+export const keyDerivationPool = new KeyDerivationPool(
+  Number(process.env.KDF_POOL_SIZE) || Math.min(Math.max(Math.floor(availableParallelism() / 2), 2), 4),
+  Number(process.env.KDF_QUEUE_LIMIT) || 64
+);
+
 export function generateManagementPassword(): string {
   const password = randomInt(100000, 1000000);
   return password.toString();
@@ -12,7 +21,7 @@ export function generateManagementPassword(): string {
 
 export async function hashPassword(plainPassword: string): Promise<string> {
   const salt = randomBytes(SALT_LENGTH);
-  const derivedKey = (await scryptAsync(plainPassword, salt, KEY_LENGTH)) as Buffer;
+  const derivedKey = await keyDerivationPool.deriveKey(plainPassword, salt, KEY_LENGTH);
   return salt.toString('hex') + ':' + derivedKey.toString('hex');
 }
 
@@ -20,6 +29,6 @@ export async function verifyPassword(plainPassword: string, hash: string): Promi
   const [saltHex, keyHex] = hash.split(':');
   const salt = Buffer.from(saltHex, 'hex');
   const originalKey = Buffer.from(keyHex, 'hex');
-  const derivedKey = (await scryptAsync(plainPassword, salt, KEY_LENGTH)) as Buffer;
+  const derivedKey = await keyDerivationPool.deriveKey(plainPassword, salt, KEY_LENGTH);
   return timingSafeEqual(originalKey, derivedKey);
 }
@@ -20,3 +20,62 @@ export function redactEmail(email: string): string {
   const firstChar = localPart[0];
   return `${firstChar}***@${domain}`;
 }
+
+/**
+ * Recursively redacts PII (email and phone) and passwords from an object or array.
+ * Preserves structure while redacting sensitive fields.
+ */
+export function redactPII(data: unknown): unknown {
+  if (data === null || data === undefined) {
+    return data;
+  }
+
+  if (typeof data !== 'object') {
+    return data;
+  }
+
+  if (Array.isArray(data)) {
+    return data.map((item) => redactPII(item));
+  }
+
+  const redacted: Record<string, unknown> = {};
+
+  for (const [key, value] of Object.entries(data)) {
+    if (key === 'email' && typeof value === 'string') {
+      redacted[key] = redactEmail(value);
+    } else if (key === 'phone' && typeof value === 'string') {
+      redacted[key] = redactPhone(value);
+    } else if (key === 'password' && typeof value === 'string') {
+      redacted[key] = '***';
+    } else if (typeof value === 'object' && value !== null) {
+      redacted[key] = redactPII(value);
+    } else {
+      redacted[key] = value;
+    }
+  }
+
+  return redacted;
+}
+
+/**
+ * Redacts PII in the request and response bodies of one serialized (NDJSON) log record.
+ * Lines that are not JSON objects are returned unchanged.
+ */
+export function redactLogLine(line: string): string {
+  let record: { req?: { body?: unknown }; res?: { body?: unknown } };
+  try {
+    record = JSON.parse(line);
+  } catch {
+    return line;
+  }
+  if (!record?.req?.body && !record?.res?.body) {
+    return line;
+  }
+  if (record.req?.body) {
+    record.req.body = redactPII(record.req.body);
+  }
+  if (record.res?.body) {
+    record.res.body = redactPII(record.res.body);
+  }
+  return JSON.stringify(record);
+}
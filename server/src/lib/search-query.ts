@@ -0,0 +1,26 @@
+import { ValidationError } from './errors.ts';
+
+export const MAX_SEARCH_QUERY_LENGTH = 200;
+export const MAX_SEARCH_TERMS = 8;
+
+// Letters and digits (with combining marks), like the unicode61 FTS5 tokenizer; everything else separates terms
+const TERM_PATTERN = /[\p{L}\p{M}\p{N}]+/gu;
+
+/**
+ * Splits the `q` parameter into lowercase terms. Search operators are not supported, so user input never
+ * reaches the FTS5 / tsquery syntax except as plain terms.
+ */
+export function parseSearchTerms(q?: string): string[] {
+  if (q === undefined || q.length > MAX_SEARCH_QUERY_LENGTH) {
+    throw new ValidationError('INVALID_PARAMETER', `Parameter 'q' must be 1 to ${MAX_SEARCH_QUERY_LENGTH} characters long`, 'q');
+  }
+
+  const terms = [...new Set(q.toLowerCase().match(TERM_PATTERN) ?? [])];
+  if (terms.length === 0) {
+    throw new ValidationError('INVALID_PARAMETER', "Parameter 'q' must contain at least one letter or digit", 'q');
+  }
+  if (terms.length > MAX_SEARCH_TERMS) {
+    throw new ValidationError('INVALID_PARAMETER', `Parameter 'q' can contain at most ${MAX_SEARCH_TERMS} words`, 'q');
+  }
+  return terms;
+}
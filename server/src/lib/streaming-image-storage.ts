@@ -0,0 +1,150 @@
+import { createHash, randomUUID } from 'crypto';
+import { createWriteStream, promises as fs } from 'fs';
+import type { WriteStream } from 'fs';
+import path from 'path';
+import { Transform } from 'stream';
+import type { TransformCallback } from 'stream';
+import type { Request } from 'express';
+import type { StorageEngine } from 'multer';
+import { PayloadTooLargeError, ValidationError } from './errors.ts';
+
+/** file-type needs at most this many leading bytes to recognise any supported image format */
+const SNIFF_BYTES = 4100;
+
+export interface StoredImageInfo {
+  path: string;
+  size: number;
+  mimetype: string;
+  sha256: string;
+}
+
+/**
+ * Multer storage engine that streams an uploaded image to a temp file instead of buffering it.
+ *
+ * The leading bytes are held back until the format is recognised by its magic bytes, so a
+ * non-image is rejected before anything is written. The rest is passed through chunk by chunk
+ * while the SHA-256 digest and size are computed, and the upload is aborted as soon as it grows
+ * past `maxFileSize`. Memory per upload is bounded by the sniff buffer and the stream highWaterMarks.
+ *
+ * On success `req.file` carries the temp `path`, the sniffed `mimetype`, `size` and `sha256`;
+ * the caller is responsible for moving or removing the temp file.
+ */
+export class StreamingImageStorage implements StorageEngine {
+  constructor(
+    private tempDir: string,
+    private maxFileSize: number,
+    private validateFormat: (head: Buffer) => Promise<string | null>
+  ) {}
+
+  _handleFile(_req: Request, file: Express.Multer.File, callback: (error?: unknown, info?: Partial<Express.Multer.File>) => void): void {
+    const tempPath = path.join(this.tempDir, `${randomUUID()}.upload`);
+    const inspector = new ImageStreamInspector(this.maxFileSize, this.validateFormat);
+    let output: WriteStream | undefined;
+    let settled = false;
+
+    const fail = (error: unknown) => {
+      if (settled) {
+        return;
+      }
+      settled = true;
+      // Keep consuming the request so multer can finish parsing and respond with the error
+      file.stream.unpipe(inspector);
+      file.stream.resume();
+      output?.destroy();
+      fs.rm(tempPath, { force: true }).finally(() => callback(error));
+    };
+
+    fs.mkdir(this.tempDir, { recursive: true }).then(() => {
+      output = createWriteStream(tempPath, { flags: 'wx' });
+      output.on('error', fail);
+      output.on('finish', () => {
+        if (settled || !inspector.mimeType) {
+          return;
+        }
+        settled = true;
+        const info: StoredImageInfo = { path: tempPath, size: inspector.size, mimetype: inspector.mimeType, sha256: inspector.digest() };
+        callback(null, info);
+      });
+      inspector.on('error', fail);
+      file.stream.on('error', fail);
+      file.stream.pipe(inspector).pipe(output);
+    }, fail);
+  }
+
+  _removeFile(_req: Request, file: Express.Multer.File, callback: (error: Error | null) => void): void {
+    fs.rm(file.path, { force: true }).then(
+      () => callback(null),
+      (error: Error) => callback(error)
+    );
+  }
+}
+
+/**
+ * Pass-through stream that validates the magic bytes, hashes the content and enforces the size limit.
+ */
+class ImageStreamInspector extends Transform {
+  size = 0;
+  mimeType: string | null = null;
+  private hash = createHash('sha256');
+  private head: Buffer[] = [];
+  private headLength = 0;
+
+  constructor(
+    private maxFileSize: number,
+    private validateFormat: (head: Buffer) => Promise<string | null>
+  ) {
+    super();
+  }
+
+  override _transform(chunk: Buffer, _encoding: BufferEncoding, callback: TransformCallback): void {
+    this.size += chunk.length;
+    if (this.size > this.maxFileSize) {
+      callback(new PayloadTooLargeError(`File size exceeds maximum limit of ${this.maxFileSize / (1024 * 1024)}MB`, 'file'));
+      return;
+    }
+    this.hash.update(chunk);
+
+    if (this.mimeType) {
+      callback(null, chunk);
+      return;
+    }
+    this.head.push(chunk);
+    this.headLength += chunk.length;
+    if (this.headLength < SNIFF_BYTES) {
+      callback();
+      return;
+    }
+    this.releaseHead(callback);
+  }
+
+  override _flush(callback: TransformCallback): void {
+    if (this.mimeType) {
+      callback();
+      return;
+    }
+    this.releaseHead(callback);
+  }
+
+  digest(): string {
+    return this.hash.digest('hex');
+  }
+
+  private releaseHead(callback: TransformCallback): void {
+    const head = Buffer.concat(this.head);
+    this.head = [];
+    this.validateFormat(head).then((mimeType) => {
+      if (!mimeType) {
+        callback(
+          new ValidationError(
+            'INVALID_FILE_FORMAT',
+            'File is not a valid image format (JPEG, PNG, GIF, WebP, BMP, TIFF, HEIC, HEIF)',
+            'file'
+          )
+        );
+        return;
+      }
+      this.mimeType = mimeType;
+      callback(null, head);
+    }, callback);
+  }
+}
@@ -0,0 +1,29 @@
+import { z } from 'zod';
+import type { SyncWatermark } from '../types/announcement.ts';
+import { ValidationError } from './errors.ts';
+
+/** Deleted announcements are remembered this long; older watermarks get a full reload */
+export const TOMBSTONE_RETENTION_MS = 30 * 24 * 60 * 60 * 1000;
+
+/**
+ * Each delta repeats the changes of the last few seconds, so writes that commit after the watermark was
+ * issued with an earlier `updated_at` (slow transactions, clock skew between processes) are not lost.
+ */
+export const SYNC_OVERLAP_MS = 5000;
+
+const WatermarkSchema = z.object({ epoch: z.string().min(1), since: z.string().datetime() }).strict();
+
+/**
+ * Opaque delta sync watermark. Clients must pass it back unchanged; the encoding may change between releases.
+ */
+export function encodeWatermark(watermark: SyncWatermark): string {
+  return Buffer.from(JSON.stringify(watermark)).toString('base64url');
+}
+
+export function decodeWatermark(watermark: string): SyncWatermark {
+  try {
+    return WatermarkSchema.parse(JSON.parse(Buffer.from(watermark, 'base64url').toString('utf8')));
+  } catch {
+    throw new ValidationError('INVALID_PARAMETER', "Parameter 'since' is invalid", 'since');
+  }
+}
@@ -0,0 +1,67 @@
+import { z } from 'zod';
+import type { Viewport } from '../types/announcement.ts';
+import { ValidationError } from './errors.ts';
+import { mercatorY } from './marker-cluster-index.ts';
+
+export const MAX_ZOOM = 22;
+/** Largest viewport side in screen pixels at the requested zoom: about two 4k screens, 128 cluster cells */
+export const MAX_VIEWPORT_PX = 8192;
+const TILE_PX = 256;
+
+/**
+ * Width and height of the viewport in pixels on a Web Mercator map at `floor(zoom)`, the level clusters are taken from.
+ */
+function viewportSizePx({ minLat, minLng, maxLat, maxLng, zoom }: Viewport): { width: number; height: number } {
+  const mapPx = TILE_PX * 2 ** Math.floor(zoom);
+  const lngSpan = minLng <= maxLng ? maxLng - minLng : 360 - (minLng - maxLng);
+  return { width: (lngSpan / 360) * mapPx, height: (mercatorY(minLat) - mercatorY(maxLat)) * mapPx };
+}
+
+function latitude(name: string) {
+  return z
+    .number({ required_error: `Parameter '${name}' is required`, invalid_type_error: `Parameter '${name}' must be a valid number` })
+    .min(-90, { message: `Parameter '${name}' must be between -90 and 90` })
+    .max(90, { message: `Parameter '${name}' must be between -90 and 90` });
+}
+
+function longitude(name: string) {
+  return z
+    .number({ required_error: `Parameter '${name}' is required`, invalid_type_error: `Parameter '${name}' must be a valid number` })
+    .min(-180, { message: `Parameter '${name}' must be between -180 and 180` })
+    .max(180, { message: `Parameter '${name}' must be between -180 and 180` });
+}
+
+const ViewportSchema = z
+  .object({
+    minLat: latitude('minLat'),
+    minLng: longitude('minLng'),
+    maxLat: latitude('maxLat'),
+    maxLng: longitude('maxLng'),
+    zoom: z
+      .number({ required_error: "Parameter 'zoom' is required", invalid_type_error: "Parameter 'zoom' must be a valid number" })
+      .min(0, { message: `Parameter 'zoom' must be between 0 and ${MAX_ZOOM}` })
+      .max(MAX_ZOOM, { message: `Parameter 'zoom' must be between 0 and ${MAX_ZOOM}` })
+  })
+  // Longitudes may wrap (minLng > maxLng crosses the antimeridian), latitudes may not
+  .refine((viewport) => viewport.minLat <= viewport.maxLat, {
+    message: "Parameter 'minLat' must not be greater than 'maxLat'",
+    path: ['minLat']
+  })
+  // Keeps the response bounded: a world-sized box at a high zoom would return every announcement
+  .refine(
+    (viewport) => {
+      const { width, height } = viewportSizePx(viewport);
+      return width <= MAX_VIEWPORT_PX && height <= MAX_VIEWPORT_PX;
+    },
+    { message: `Viewport must not be larger than ${MAX_VIEWPORT_PX} x ${MAX_VIEWPORT_PX} px at the requested 'zoom'`, path: ['zoom'] }
+  );
+
+export function validateViewport(minLat?: number, minLng?: number, maxLat?: number, maxLng?: number, zoom?: number): Viewport {
+  const result = ViewportSchema.safeParse({ minLat, minLng, maxLat, maxLng, zoom });
+  if (!result.success) {
+    const firstError = result.error.errors[0];
+    const field = firstError.path.length > 0 ? firstError.path[0].toString() : undefined;
+    throw new ValidationError('INVALID_PARAMETER', firstError.message, field);
+  }
+  return result.data;
+}
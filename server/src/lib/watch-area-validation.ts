@@ -0,0 +1,44 @@
+import { z } from 'zod';
+import type { CreateWatchAreaDto } from '../types/watch-area.ts';
+import { ValidationError } from './errors.ts';
+import { mapZodErrorCode } from './zod-errors.ts';
+
+/** Larger areas would match most announcements in a region and make a poor alert */
+export const MAX_WATCH_AREA_RADIUS_KM = 50;
+
+const CreateWatchAreaSchema = z
+  .object({
+    name: z.string().trim().max(100, { message: 'name must be at most 100 characters long' }).optional(),
+    latitude: z
+      .number()
+      .min(-90, { message: 'latitude must be between -90 and 90' })
+      .max(90, { message: 'latitude must be between -90 and 90' }),
+    longitude: z
+      .number()
+      .min(-180, { message: 'longitude must be between -180 and 180' })
+      .max(180, { message: 'longitude must be between -180 and 180' }),
+    radiusKm: z
+      .number()
+      .positive({ message: 'radiusKm must be a positive number' })
+      .max(MAX_WATCH_AREA_RADIUS_KM, { message: `radiusKm must be at most ${MAX_WATCH_AREA_RADIUS_KM}` })
+  })
+  .strict();
+
+export default function validateCreateWatchArea(data: CreateWatchAreaDto): void {
+  try {
+    CreateWatchAreaSchema.parse(data);
+  } catch (error) {
+    if (error instanceof z.ZodError) {
+      const firstError = error.issues[0];
+
+      if (firstError.code === 'unrecognized_keys' && 'keys' in firstError) {
+        const unknownField = firstError.keys[0];
+        throw new ValidationError('INVALID_FIELD', `${unknownField} is not a valid field`, unknownField);
+      }
+
+      const field = firstError.path.length > 0 ? firstError.path[0].toString() : undefined;
+      throw new ValidationError(mapZodErrorCode(firstError.code, firstError), firstError.message, field);
+    }
+    throw error;
+  }
+}
@@ -0,0 +1,108 @@
+import http from 'node:http';
+import type { AddressInfo } from 'node:net';
+import zlib from 'node:zlib';
+import { describe, it, expect, beforeAll, afterAll } from 'vitest';
+import express from 'express';
+import compressionMiddleware, { COMPRESSION_THRESHOLD_BYTES } from '../compression-middleware.ts';
+import { sharedJson } from '../../lib/memoized-json.ts';
+
+const LARGE_BODY = { data: Array.from({ length: 100 }, (_, i) => ({ id: `announcement-${i}`, species: 'DOG' })) };
+const SMALL_BODY = { data: [] };
+const SHARED_BODY = sharedJson(LARGE_BODY);
+
+function get(port: number, path: string, acceptEncoding?: string): Promise<{ headers: http.IncomingHttpHeaders; body: Buffer }> {
+  return new Promise((resolve, reject) => {
+    http
+      .get({ port, path, headers: acceptEncoding ? { 'Accept-Encoding': acceptEncoding } : {} }, (res) => {
+        const chunks: Buffer[] = [];
+        res.on('data', (chunk: Buffer) => chunks.push(chunk));
+        res.on('end', () => resolve({ headers: res.headers, body: Buffer.concat(chunks) }));
+      })
+      .on('error', reject);
+  });
+}
+
+describe('compressionMiddleware', () => {
+  let listener: http.Server;
+  let port: number;
+
+  beforeAll(() => {
+    const app = express();
+    app.use(compressionMiddleware);
+    app.get('/large', (_req, res) => res.json(LARGE_BODY));
+    app.get('/small', (_req, res) => res.json(SMALL_BODY));
+    app.get('/large-text', (_req, res) => res.type('json').send(JSON.stringify(LARGE_BODY)));
+    app.get('/large-shared', (_req, res) => {
+      res.locals.sharedJson = SHARED_BODY;
+      res.type('json').send(SHARED_BODY.text);
+    });
+    app.get('/large-html', (_req, res) => res.type('html').send(JSON.stringify(LARGE_BODY)));
+    listener = app.listen(0);
+    port = (listener.address() as AddressInfo).port;
+  });
+
+  afterAll(() => {
+    listener.close();
+  });
+
+  it.each([
+    { acceptEncoding: 'br', expected: 'br', decompress: zlib.brotliDecompressSync },
+    { acceptEncoding: 'gzip, deflate', expected: 'gzip', decompress: zlib.gunzipSync },
+    { acceptEncoding: 'gzip;q=1, br;q=0.5', expected: 'gzip', decompress: zlib.gunzipSync }
+  ])('should compress large JSON body for Accept-Encoding "$acceptEncoding"', async ({ acceptEncoding, expected, decompress }) => {
+    // when
+    const response = await get(port, '/large', acceptEncoding);
+
+    // then
+    expect(response.headers['content-encoding']).toBe(expected);
+    expect(response.headers['content-type']).toContain('application/json');
+    expect(response.headers.vary).toContain('Accept-Encoding');
+    expect(JSON.parse(decompress(response.body).toString('utf8'))).toEqual(LARGE_BODY);
+  });
+
+  it('should compress JSON text sent with res.send', async () => {
+    // when
+    const response = await get(port, '/large-text', 'br');
+
+    // then
+    expect(response.headers['content-encoding']).toBe('br');
+    expect(JSON.parse(zlib.brotliDecompressSync(response.body).toString('utf8'))).toEqual(LARGE_BODY);
+  });
+
+  it('should compress a shared body once per encoding', async () => {
+    // when
+    const first = await get(port, '/large-shared', 'br');
+    const compressed = SHARED_BODY.encoded.get('br');
+    const second = await get(port, '/large-shared', 'br');
+
+    // then
+    expect(compressed).toBeDefined();
+    expect(SHARED_BODY.encoded.get('br')).toBe(compressed);
+    expect(second.body).toEqual(first.body);
+    expect(JSON.parse(zlib.brotliDecompressSync(second.body).toString('utf8'))).toEqual(LARGE_BODY);
+    expect(SHARED_BODY.encoded.has('gzip')).toBe(false);
+  });
+
+  it('should not compress responses other than JSON', async () => {
+    // when
+    const response = await get(port, '/large-html', 'br, gzip');
+
+    // then
+    expect(response.headers['content-encoding']).toBeUndefined();
+    expect(response.headers['content-type']).toContain('text/html');
+  });
+
+  it.each([
+    { path: '/large', acceptEncoding: undefined, description: 'client does not accept compression' },
+    { path: '/large', acceptEncoding: 'deflate', description: 'client accepts only unsupported encodings' },
+    { path: '/small', acceptEncoding: 'br, gzip', description: `body is smaller than ${COMPRESSION_THRESHOLD_BYTES} bytes` }
+  ])('should send uncompressed body when $description', async ({ path, acceptEncoding }) => {
+    // when
+    const response = await get(port, path, acceptEncoding);
+
+    // then
+    expect(response.headers['content-encoding']).toBeUndefined();
+    expect(response.headers.vary).toContain('Accept-Encoding');
+    expect(JSON.parse(response.body.toString('utf8'))).toEqual(path === '/large' ? LARGE_BODY : SMALL_BODY);
+  });
+});
@@ -0,0 +1,47 @@
+import { describe, it, expect, beforeEach, vi } from 'vitest';
+import type { Response, NextFunction } from 'express';
+import jwt from 'jsonwebtoken';
+import jwtAuthMiddleware, { type RequestWithUser } from '../jwt-auth.ts';
+import { generateToken } from '../../lib/jwt-utils.ts';
+import { UnauthenticatedError } from '../../lib/errors.ts';
+
+describe('jwtAuthMiddleware', () => {
+  let req: Partial<RequestWithUser>;
+  let res: Partial<Response>;
+  let next: NextFunction;
+
+  beforeEach(() => {
+    req = {
+      headers: {}
+    };
+    res = {};
+    next = vi.fn();
+  });
+
+  it.each(['Bearer', 'bearer'])('should attach user ID from a valid token with scheme "%s"', (scheme) => {
+    // given
+    req.headers = { authorization: `${scheme} ${generateToken('user-123')}` };
+
+    // when
+    jwtAuthMiddleware(req as RequestWithUser, res as Response, next);
+
+    // then
+    expect(next).toHaveBeenCalledOnce();
+    expect(req.userId).toBe('user-123');
+  });
+
+  it.each([
+    { description: 'missing header', authorization: undefined },
+    { description: 'Basic scheme', authorization: 'Basic dXNlcjpwYXNz' },
+    { description: 'missing token', authorization: 'Bearer' },
+    { description: 'malformed token', authorization: 'Bearer not-a-jwt' },
+    { description: 'token signed with another secret', authorization: `Bearer ${jwt.sign({ userId: 'user-123' }, 'another-secret')}` }
+  ])('should throw UnauthenticatedError for $description', ({ authorization }) => {
+    // given
+    req.headers = authorization ? { authorization } : {};
+
+    // when/then
+    expect(() => jwtAuthMiddleware(req as RequestWithUser, res as Response, next)).toThrow(UnauthenticatedError);
+    expect(next).not.toHaveBeenCalled();
+  });
+});
@@ -0,0 +1,63 @@
+import { promisify } from 'node:util';
+import zlib from 'node:zlib';
+import type { NextFunction, Request, Response } from 'express';
+import type { SharedJson } from '../lib/memoized-json.ts';
+
+const brotliCompress = promisify(zlib.brotliCompress);
+const gzip = promisify(zlib.gzip);
+
+/** Smaller bodies gain little from compression and fit in a single TCP packet anyway */
+export const COMPRESSION_THRESHOLD_BYTES = 1024;
+
+// Quality 4 beats gzip on size at a similar speed; the default (11) is meant for precompressed static assets
+const BROTLI_OPTIONS = { params: { [zlib.constants.BROTLI_PARAM_QUALITY]: 4 } };
+
+function compress(text: string, encoding: 'br' | 'gzip'): Promise<Buffer> {
+  return encoding === 'br' ? brotliCompress(text, BROTLI_OPTIONS) : gzip(text);
+}
+
+/**
+ * Compresses the body once per encoding; a failed compression is not kept, so the next response tries again.
+ */
+function compressShared(shared: SharedJson, encoding: 'br' | 'gzip'): Promise<Buffer> {
+  let compressed = shared.encoded.get(encoding);
+  if (!compressed) {
+    compressed = compress(shared.text, encoding);
+    shared.encoded.set(encoding, compressed);
+    compressed.catch(() => shared.encoded.delete(encoding));
+  }
+  return compressed;
+}
+
+/**
+ * Compresses JSON responses with brotli or gzip, whichever the client prefers in `Accept-Encoding`. Covers
+ * `res.json` and JSON text sent with `res.type('json').send(...)`. Compression runs on the libuv thread pool,
+ * so large lists do not block the event loop. A body from `sharedJson`, passed in `res.locals.sharedJson`, is
+ * compressed only once per encoding. Responses written directly (Server-Sent Events, static images) are left
+ * alone. If compression fails, the body is sent as is.
+ */
+export default function compressionMiddleware(req: Request, res: Response, next: NextFunction): void {
+  const send = res.send.bind(res);
+  res.send = (body?: unknown) => {
+    if (typeof body !== 'string' || !res.get('Content-Type')?.includes('json')) {
+      return send(body);
+    }
+    res.vary('Accept-Encoding');
+
+    const encoding = Buffer.byteLength(body) >= COMPRESSION_THRESHOLD_BYTES ? req.acceptsEncodings('br', 'gzip') : false;
+    if (encoding !== 'br' && encoding !== 'gzip') {
+      return send(body);
+    }
+
+    const shared: SharedJson | undefined = res.locals.sharedJson;
+    (shared?.text === body ? compressShared(shared, encoding) : compress(body, encoding)).then(
+      (compressed) => {
+        res.set('Content-Encoding', encoding);
+        send(compressed);
+      },
+      () => send(body)
+    );
+    return res;
+  };
+  next();
+}
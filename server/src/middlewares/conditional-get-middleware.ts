@@ -0,0 +1,20 @@
+import type { NextFunction, Request, Response } from 'express';
+
+/**
+ * Answers conditional GET requests from a cheap version tag before the route handler runs.
+ * Sets `ETag` to the current version; if `If-None-Match` matches, responds 304 without
+ * querying the announcements or serializing the body. `no-cache` makes clients revalidate every time.
+ */
+export default function conditionalGetMiddleware(currentETag: () => Promise<string>) {
+  return async (req: Request, res: Response, next: NextFunction): Promise<void> => {
+    res.set('ETag', await currentETag());
+    res.set('Cache-Control', 'no-cache');
+
+    if (req.fresh) {
+      res.status(304).end();
+      return;
+    }
+
+    next();
+  };
+}
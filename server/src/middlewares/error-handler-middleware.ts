@@ -1,5 +1,5 @@
 import type { NextFunction, Request, Response } from 'express';
-import { CustomError } from '../lib/errors.ts';
+import { CustomError, ServiceUnavailableError } from '../lib/errors.ts';
 import { getRequestId } from '../lib/request-context.ts';
 import type { ErrorResponse } from '../lib/errors.ts';
 
@@ -10,6 +10,10 @@ export default function errorHandlerMiddleware(err: Error, _req: Request, res: R
     return res.status(413).json(payloadTooLargeErrorResponse(requestId));
   }
 
+  if (err instanceof ServiceUnavailableError) {
+    res.set('Retry-After', String(err.retryAfterSeconds));
+  }
+
   if (err instanceof CustomError) {
     return res.status(err.statusCode).json(err.toErrorResponse(requestId));
   }
@@ -0,0 +1,35 @@
+import type { Request, Response, NextFunction } from 'express';
+import { UnauthenticatedError } from '../lib/errors.ts';
+import { verifyToken } from '../lib/jwt-utils.ts';
+
+export interface RequestWithUser extends Request {
+  userId?: string;
+}
+
+/**
+ * Authenticates a registered user with the access token returned by login/registration
+ * (`Authorization: Bearer <token>`) and attaches the user ID to req.userId.
+ *
+ * Throws UnauthenticatedError (401) if the header is missing, not a Bearer token,
+ * or the token is invalid or expired.
+ */
+export default function jwtAuthMiddleware(req: RequestWithUser, _res: Response, next: NextFunction): void {
+  const authHeader = req.headers.authorization;
+
+  if (!authHeader) {
+    throw new UnauthenticatedError();
+  }
+
+  const [scheme, token] = authHeader.split(' ');
+  if (!scheme || scheme.toLowerCase() !== 'bearer' || !token) {
+    throw new UnauthenticatedError('Invalid Authorization header format');
+  }
+
+  try {
+    req.userId = verifyToken(token).userId;
+  } catch {
+    throw new UnauthenticatedError('Invalid or expired access token');
+  }
+
+  next();
+}
@@ -1,47 +1,43 @@
 import { pinoHttp, stdSerializers } from 'pino-http';
 import { serializeBody } from '../lib/log-serializers.ts';
-import log from '../conf/logger.ts';
-import { redactEmail, redactPhone } from '../lib/pii-redaction.ts';
+import log, { offThreadLogging } from '../conf/logger.ts';
+import { redactPII } from '../lib/pii-redaction.ts';
+import { shouldLogBody } from '../lib/log-sampling.ts';
+import type { BodySamplingRule } from '../lib/log-sampling.ts';
 
 /**
- * Recursively redacts PII (email and phone) from an object or array.
- * Preserves structure while redacting sensitive fields.
+ * Share of successful requests whose bodies are logged, per route (first match wins).
+ * Failed requests always log bodies; other routes use LOG_BODY_SAMPLE_RATE (default: all).
  */
-function redactPII(data: unknown): unknown {
-  if (data === null || data === undefined) {
-    return data;
-  }
-
-  if (typeof data !== 'object') {
-    return data;
-  }
+const BODY_SAMPLING_RULES: BodySamplingRule[] = [
+  // High-volume and low debugging value: credentials only, redacted anyway
+  { method: 'POST', path: /^\/api\/v1\/users\/login\/?$/, rate: 0.05 },
+  { method: 'GET', path: /^\/api\/v1\/announcements/, rate: 0.01 }
+];
+const DEFAULT_BODY_SAMPLE_RATE = Number(process.env.LOG_BODY_SAMPLE_RATE ?? 1);
 
-  if (Array.isArray(data)) {
-    return data.map((item) => redactPII(item));
-  }
-
-  const redacted: Record<string, unknown> = {};
-
-  for (const [key, value] of Object.entries(data)) {
-    if (key === 'email' && typeof value === 'string') {
-      redacted[key] = redactEmail(value);
-    } else if (key === 'phone' && typeof value === 'string') {
-      redacted[key] = redactPhone(value);
-    } else if (key === 'password' && typeof value === 'string') {
-      redacted[key] = '***';
-    } else if (typeof value === 'object' && value !== null) {
-      redacted[key] = redactPII(value);
-    } else {
-      redacted[key] = value;
-    }
-  }
+/* eslint-disable @typescript-eslint/no-explicit-any */
+function bodyIsSampled(rawReq: any, statusCode: number | undefined): boolean {
+  const url: string = rawReq?.originalUrl ?? rawReq?.url ?? '';
+  return shouldLogBody(
+    { method: rawReq?.method ?? '', path: url.split('?')[0], requestId: String(rawReq?.id ?? ''), statusCode },
+    BODY_SAMPLING_RULES,
+    DEFAULT_BODY_SAMPLE_RATE
+  );
+}
 
-  return redacted;
+/**
+ * With off-thread logging, PII is redacted by the log transport worker instead of on the request path.
+ */
+function redactInline(body: unknown): unknown {
+  return offThreadLogging ? body : redactPII(body);
 }
+/* eslint-enable @typescript-eslint/no-explicit-any */
 
 /**
  * Pino HTTP logger middleware with comprehensive request/response logging.
- * Includes body truncation, binary omission, header redaction, PII redaction, and request ID correlation.
+ * Includes body truncation, binary omission, per-route body sampling, header redaction, PII redaction,
+ * and request ID correlation.
  */
 /* eslint-disable @typescript-eslint/no-explicit-any */
 export default pinoHttp({
@@ -51,10 +47,10 @@ export default pinoHttp({
     req(req: any) {
       const serialized: any = stdSerializers.req(req);
 
-      if (req.raw?.body) {
+      if (req.raw?.body && bodyIsSampled(req.raw, req.raw.res?.statusCode)) {
         const contentType = req.headers['content-type'] as string | undefined;
         const body = serializeBody(req.raw.body, contentType, req.headers);
-        serialized.body = redactPII(body);
+        serialized.body = redactInline(body);
       }
 
       return serialized;
@@ -68,11 +64,11 @@ export default pinoHttp({
         serialized.statusCode = res.statusCode;
       }
 
-      if (res.raw?.body) {
+      if (res.raw?.body && bodyIsSampled(res.raw.req, res.statusCode)) {
         const contentType = (res.headers?.['content-type'] || res.raw.headers?.['content-type']) as string | undefined;
         const headers = res.headers || res.raw.headers || {};
         const body = serializeBody(res.raw.body, contentType, headers);
-        serialized.body = redactPII(body);
+        serialized.body = redactInline(body);
       }
 
       return serialized;
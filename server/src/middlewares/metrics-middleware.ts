@@ -0,0 +1,36 @@
+import type { NextFunction, Request, Response } from 'express';
+import { httpRequestDuration } from '../conf/metrics.ts';
+
+/**
+ * Records request latency labelled with the matched route template (e.g. `/api/v1/announcements/:id`),
+ * never the raw path, so IDs do not create a series per request. Unrouted requests are labelled with the
+ * mount path that served them (`/images`) or `unmatched`.
+ *
+ * The template is captured when the router assigns `req.route`: by the time an error reaches the
+ * app-level error handler, Express has already reset `req.baseUrl` to the app root.
+ *
+ * Server-Sent Events streams are not recorded: their duration is the connection lifetime, and open
+ * connections are already counted by `announcement_feed_subscribers`.
+ */
+export default function metricsMiddleware(req: Request, res: Response, next: NextFunction): void {
+  const end = httpRequestDuration.startTimer({ method: req.method });
+  let route: string | undefined;
+  let matchedRoute: Request['route'];
+  Object.defineProperty(req, 'route', {
+    configurable: true,
+    enumerable: true,
+    get: () => matchedRoute,
+    set: (value: Request['route']) => {
+      matchedRoute = value;
+      route = value ? `${req.baseUrl}${value.path}` : undefined;
+    }
+  });
+
+  res.on('finish', () => {
+    if (String(res.getHeader('Content-Type') ?? '').startsWith('text/event-stream')) {
+      return;
+    }
+    end({ route: route ?? (req.baseUrl || 'unmatched'), status_code: res.statusCode });
+  });
+  next();
+}
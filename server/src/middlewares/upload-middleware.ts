@@ -1,9 +1,17 @@
+import path from 'path';
 import multer from 'multer';
+import { validateImageFormat } from '../lib/file-validation.ts';
+import { StreamingImageStorage } from '../lib/streaming-image-storage.ts';
+
+export const MAX_PHOTO_SIZE = 20 * 1024 * 1024; // 20 MB
+
+// Temp files live next to the images so they can be renamed into place; dot-directories are not served by express.static
+export const UPLOAD_TEMP_DIR = path.join(process.cwd(), 'public', 'images', '.uploads');
 
 const CONFIG = {
-  storage: multer.memoryStorage(),
+  storage: new StreamingImageStorage(UPLOAD_TEMP_DIR, MAX_PHOTO_SIZE, validateImageFormat),
   limits: {
-    fileSize: 20 * 1024 * 1024 // 20 MB
+    fileSize: MAX_PHOTO_SIZE
   }
 };
 
@@ -1,6 +1,7 @@
 import { Router } from 'express';
 import adminAuthMiddleware from '../middlewares/admin-auth.ts';
-import { announcementService } from '../conf/di.conf.ts';
+import { announcementService, dbSnapshotService } from '../conf/di.conf.ts';
+import config from '../conf/config.ts';
 
 const router = Router();
 
@@ -10,4 +11,21 @@ router.delete('/announcements/:id', adminAuthMiddleware, async (req, res) => {
   res.status(204).send();
 });
 
+if (config.testSnapshotsEnabled) {
+  router.post('/snapshots/:name', adminAuthMiddleware, async (req, res) => {
+    await dbSnapshotService.createSnapshot(req.params.name);
+    res.status(201).json({ name: req.params.name });
+  });
+
+  router.post('/snapshots/:name/restore', adminAuthMiddleware, async (req, res) => {
+    await dbSnapshotService.restoreSnapshot(req.params.name);
+    res.status(204).send();
+  });
+
+  router.delete('/snapshots/:name', adminAuthMiddleware, async (req, res) => {
+    await dbSnapshotService.deleteSnapshot(req.params.name);
+    res.status(204).send();
+  });
+}
+
 export default router;
@@ -1,28 +1,117 @@
 import path from 'path';
 import { Router } from 'express';
-import type { CreateAnnouncementDto } from '../types/announcement.ts';
+import type { AnnouncementListFilterParams, CreateAnnouncementDto } from '../types/announcement.ts';
 import upload from '../middlewares/upload-middleware.ts';
 import basicAuthMiddleware from '../middlewares/basic-auth.ts';
 import announcementAuthMiddleware from '../middlewares/announcement-auth.ts';
 import adminAuthMiddleware from '../middlewares/admin-auth.ts';
 import type { RequestWithBasicAuth } from '../middlewares/basic-auth.ts';
+import conditionalGetMiddleware from '../middlewares/conditional-get-middleware.ts';
 import { ValidationError } from '../lib/errors.ts';
-import { announcementService, photoUploadService } from '../conf/di.conf.ts';
+import { sharedJson } from '../lib/memoized-json.ts';
+import {
+  announcementFeed,
+  announcementService,
+  announcementSyncService,
+  datasetVersion,
+  mapClusterService,
+  photoUploadService
+} from '../conf/di.conf.ts';
 
 const router = Router();
 
 const imagesDir = path.join(process.cwd(), 'public', 'images');
 
-router.get('/', async (req, res) => {
+const conditionalGet = conditionalGetMiddleware(() => datasetVersion.etag());
+
+function parseNumber(value: unknown): number | undefined {
+  return value !== undefined ? parseFloat(value as string) : undefined;
+}
+
+function parseString(value: unknown): string | undefined {
+  return value !== undefined ? String(value) : undefined;
+}
+
+router.get('/', conditionalGet, async (req, res) => {
   const lat = req.query.lat ? parseFloat(req.query.lat as string) : undefined;
   const lng = req.query.lng ? parseFloat(req.query.lng as string) : undefined;
   const range = req.query.range ? parseFloat(req.query.range as string) : undefined;
+  const { status, species, sex, lastSeenFrom, lastSeenTo, sort } = req.query;
+  const filterParams: AnnouncementListFilterParams = {
+    status: parseString(status),
+    species: parseString(species),
+    sex: parseString(sex),
+    lastSeenFrom: parseString(lastSeenFrom),
+    lastSeenTo: parseString(lastSeenTo),
+    sort: parseString(sort)
+  };
+  const fields = parseString(req.query.fields);
+
+  // Pagination is opt-in: without limit/cursor the full list is returned as before
+  if (req.query.limit !== undefined || req.query.cursor !== undefined) {
+    const limit = req.query.limit !== undefined ? parseFloat(req.query.limit as string) : undefined;
+    const cursor = req.query.cursor !== undefined ? String(req.query.cursor) : undefined;
+    const page = await announcementService.getAnnouncementsPage(lat, lng, range, limit, cursor, filterParams, fields);
+    res.json(page);
+    return;
+  }
+
+  const announcements = await announcementService.getAllAnnouncements(lat, lng, range, filterParams, fields);
+  // Cached lists are shared between requests, so each one is serialized and compressed once rather than on every hit
+  const body = sharedJson(announcements, (list) => `{"data":${JSON.stringify(list)}}`);
+  res.locals.sharedJson = body;
+  res.type('json').send(body.text);
+});
+
+router.get('/clusters', conditionalGet, async (req, res) => {
+  const { minLat, minLng, maxLat, maxLng, zoom } = req.query;
+  const clusters = await mapClusterService.getClusters(
+    parseNumber(minLat),
+    parseNumber(minLng),
+    parseNumber(maxLat),
+    parseNumber(maxLng),
+    parseNumber(zoom)
+  );
+  res.json(clusters);
+});
+
+/**
+ * Server-Sent Events stream of announcements becoming visible near `lat`/`lng` (within `range` km, default 5).
+ * Clients reconnect automatically; missed events can be fetched through /changes.
+ */
+router.get('/stream', (req, res) => {
+  const { lat, lng, range } = req.query;
+  const unsubscribe = announcementFeed.subscribe(res, parseNumber(lat), parseNumber(lng), parseNumber(range));
+  res.on('close', unsubscribe);
+
+  res.writeHead(200, {
+    'Content-Type': 'text/event-stream',
+    'Cache-Control': 'no-cache',
+    // Tells nginx not to buffer the stream
+    'X-Accel-Buffering': 'no'
+  });
+  res.write('retry: 5000\n\n');
+});
+
+router.get('/search', conditionalGet, async (req, res) => {
+  const { q, lat, lng, range, limit, cursor } = req.query;
+  const page = await announcementService.searchAnnouncements(
+    typeof q === 'string' ? q : undefined,
+    parseNumber(lat),
+    parseNumber(lng),
+    parseNumber(range),
+    parseNumber(limit),
+    parseString(cursor)
+  );
+  res.json(page);
+});
 
-  const announcements = await announcementService.getAllAnnouncements(lat, lng, range);
-  res.json({ data: announcements });
+router.get('/changes', async (req, res) => {
+  const since = req.query.since !== undefined ? String(req.query.since) : undefined;
+  res.json(await announcementSyncService.getChanges(since));
 });
 
-router.get('/:id', async (req, res) => {
+router.get('/:id', conditionalGet, async (req, res) => {
   const announcement = await announcementService.getAnnouncementById(req.params.id);
   return res.status(200).json(announcement);
 });
@@ -44,8 +133,8 @@ router.post(
     }
 
     const announcementId = req.params.id;
-    const photoBuffer = req.file.buffer;
-    await photoUploadService.uploadPhoto(announcementId, photoBuffer, imagesDir);
+    const { path: tempPath, mimetype: mimeType, size, sha256 } = req.file;
+    await photoUploadService.uploadPhoto(announcementId, { tempPath, mimeType, size, sha256 }, imagesDir);
 
     res.status(201).json({});
   }
@@ -1,4 +1,5 @@
 import express from 'express';
+import { renderMetrics } from '../conf/metrics.ts';
 import adminRouter from './admin.ts';
 import announcementsRouter from './announcements.ts';
 import usersRouter from './users.ts';
@@ -7,6 +8,11 @@ const router = express.Router();
 
 router.get('/api/health', (_req, res) => res.json({ status: 'ok', timestamp: new Date().toISOString() }));
 
+// Prometheus scrape endpoint; outside /api so the public proxy does not expose it (see deployment/nginx)
+router.get('/metrics', async (_req, res) => {
+  res.type('text/plain; version=0.0.4').send(await renderMetrics());
+});
+
 router.use('/api/admin/v1', adminRouter);
 
 router.use('/api/v1/announcements', announcementsRouter);
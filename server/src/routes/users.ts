@@ -1,6 +1,8 @@
 import type { Request, Response } from 'express';
 import express from 'express';
-import { userService } from '../conf/di.conf.ts';
+import { userService, watchAreaService } from '../conf/di.conf.ts';
+import jwtAuthMiddleware from '../middlewares/jwt-auth.ts';
+import type { RequestWithUser } from '../middlewares/jwt-auth.ts';
 const router = express.Router();
 
 router.post('/', async (req: Request, res: Response) => {
@@ -13,4 +15,19 @@ router.post('/login', async (req: Request, res: Response) => {
   res.status(200).json(result);
 });
 
+router.get('/me/watch-areas', jwtAuthMiddleware, async (req: RequestWithUser, res: Response) => {
+  const watchAreas = await watchAreaService.getWatchAreas(req.userId as string);
+  res.status(200).json({ data: watchAreas });
+});
+
+router.post('/me/watch-areas', jwtAuthMiddleware, async (req: RequestWithUser, res: Response) => {
+  const watchArea = await watchAreaService.createWatchArea(req.userId as string, req.body);
+  res.status(201).json(watchArea);
+});
+
+router.delete('/me/watch-areas/:id', jwtAuthMiddleware, async (req: RequestWithUser, res: Response) => {
+  await watchAreaService.deleteWatchArea(req.userId as string, Number(req.params.id));
+  res.status(204).send();
+});
+
 export default router;
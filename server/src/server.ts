@@ -1,3 +1,4 @@
+import cluster from 'node:cluster';
 import express from 'express';
 import cors from 'cors';
 import helmet from 'helmet';
@@ -5,6 +6,8 @@ import { runDbMigrations } from './database/db-utils.ts';
 import routes from './routes/routes.ts';
 import requestIdMiddleware from './middlewares/request-id-middleware.ts';
 import loggerMiddleware from './middlewares/logger-middleware.ts';
+import metricsMiddleware from './middlewares/metrics-middleware.ts';
+import compressionMiddleware from './middlewares/compression-middleware.ts';
 import notFoundMiddleware from './middlewares/not-found-middleware.ts';
 import log from './conf/logger.ts';
 import errorHandlerMiddleware from './middlewares/error-handler-middleware.ts';
@@ -12,7 +15,10 @@ import errorHandlerMiddleware from './middlewares/error-handler-middleware.ts';
 export async function prepareServer(): Promise<express.Express> {
   log.info('App starting...');
 
-  await runDbMigrations();
+  // In cluster mode the primary has already migrated and seeded the database before forking
+  if (cluster.isPrimary) {
+    await runDbMigrations();
+  }
 
   const server = express();
   server.use(cors());
@@ -31,6 +37,12 @@ export async function prepareServer(): Promise<express.Express> {
   // Pino HTTP logger middleware - logs all requests and responses
   server.use(loggerMiddleware);
 
+  // Request latency histogram by route template, scraped from GET /metrics
+  server.use(metricsMiddleware);
+
+  // brotli/gzip for JSON responses, negotiated through Accept-Encoding
+  server.use(compressionMiddleware);
+
   // Static file serving for uploaded images
   server.use('/images', express.static('public/images'));
 
@@ -0,0 +1,172 @@
+import { describe, it, expect, vi, afterEach } from 'vitest';
+import { AnnouncementFeed } from '../announcement-feed.ts';
+import type { FeedSink } from '../announcement-feed.ts';
+import type { Announcement } from '../../types/announcement.ts';
+import { ServiceUnavailableError, ValidationError } from '../../lib/errors.ts';
+import { validateLocation } from '../../lib/location-validation.ts';
+
+const GDANSK = { lat: 54.35, lng: 18.65 };
+const KRAKOW = { lat: 50.06, lng: 19.94 };
+
+function announcement(id: string, lat: number, lng: number): Announcement {
+  return {
+    id,
+    petName: null,
+    species: 'DOG',
+    breed: null,
+    sex: 'MALE',
+    age: null,
+    description: null,
+    microchipNumber: null,
+    locationLatitude: lat,
+    locationLongitude: lng,
+    lastSeenDate: '2025-11-18',
+    email: 'john@example.com',
+    phone: null,
+    photoUrl: `/images/${id}.jpeg`,
+    photoVariants: null,
+    status: 'MISSING',
+    reward: null,
+    createdAt: '2025-11-20T11:00:00.000Z',
+    updatedAt: '2025-11-20T11:00:00.000Z'
+  };
+}
+
+function createSink(writableLength = 0): FeedSink & { chunks: string[]; end: ReturnType<typeof vi.fn> } {
+  const chunks: string[] = [];
+  return { chunks, write: (chunk: string) => chunks.push(chunk), end: vi.fn(), writableLength };
+}
+
+const createFeed = (maxSubscribers = 100) =>
+  new AnnouncementFeed(validateLocation, { heartbeatMs: 1000, maxBufferedBytes: 1024, maxSubscribers });
+
+describe('AnnouncementFeed', () => {
+  afterEach(() => {
+    vi.useRealTimers();
+  });
+
+  it('should send announcement only to subscribers within range', () => {
+    // given
+    const feed = createFeed();
+    const near = createSink();
+    const far = createSink();
+    feed.subscribe(near, GDANSK.lat, GDANSK.lng, 10);
+    feed.subscribe(far, KRAKOW.lat, KRAKOW.lng, 10);
+
+    // when
+    feed.publish(announcement('a1', GDANSK.lat + 0.05, GDANSK.lng));
+
+    // then
+    expect(near.chunks).toHaveLength(1);
+    expect(near.chunks[0]).toMatch(/^id: a1\nevent: announcement\ndata: \{.*"id":"a1".*\}\n\n$/);
+    expect(far.chunks).toEqual([]);
+    feed.close();
+  });
+
+  it('should not send announcement outside range in the same grid cell', () => {
+    // given
+    const feed = createFeed();
+    const sink = createSink();
+    feed.subscribe(sink, GDANSK.lat, GDANSK.lng, 1);
+
+    // when
+    feed.publish(announcement('a1', GDANSK.lat + 0.04, GDANSK.lng));
+
+    // then
+    expect(sink.chunks).toEqual([]);
+    feed.close();
+  });
+
+  it('should send announcement to subscribers with ranges too large for grid buckets', () => {
+    // given
+    const feed = createFeed();
+    const sink = createSink();
+    feed.subscribe(sink, GDANSK.lat, GDANSK.lng, 600);
+
+    // when
+    feed.publish(announcement('a1', KRAKOW.lat, KRAKOW.lng));
+
+    // then
+    expect(sink.chunks).toHaveLength(1);
+    feed.close();
+  });
+
+  it('should stop sending after unsubscribe', () => {
+    // given
+    const feed = createFeed();
+    const sink = createSink();
+    const unsubscribe = feed.subscribe(sink, GDANSK.lat, GDANSK.lng);
+
+    // when
+    unsubscribe();
+    unsubscribe();
+    feed.publish(announcement('a1', GDANSK.lat, GDANSK.lng));
+
+    // then
+    expect(sink.chunks).toEqual([]);
+    expect(feed.size).toBe(0);
+  });
+
+  it('should disconnect subscriber whose buffered output exceeds the limit', () => {
+    // given
+    const feed = createFeed();
+    const slow = createSink(2048);
+    feed.subscribe(slow, GDANSK.lat, GDANSK.lng);
+
+    // when
+    feed.publish(announcement('a1', GDANSK.lat, GDANSK.lng));
+
+    // then
+    expect(slow.chunks).toEqual([]);
+    expect(slow.end).toHaveBeenCalled();
+    expect(feed.size).toBe(0);
+  });
+
+  it('should send heartbeats to idle subscribers', () => {
+    // given
+    vi.useFakeTimers();
+    const feed = createFeed();
+    const sink = createSink();
+    feed.subscribe(sink, GDANSK.lat, GDANSK.lng);
+
+    // when
+    vi.advanceTimersByTime(2500);
+
+    // then
+    expect(sink.chunks).toEqual([':\n\n', ':\n\n']);
+    feed.close();
+  });
+
+  it('should end all subscriber responses on close', () => {
+    // given
+    const feed = createFeed();
+    const sinks = [createSink(), createSink()];
+    sinks.forEach((sink) => feed.subscribe(sink, GDANSK.lat, GDANSK.lng));
+
+    // when
+    feed.close();
+
+    // then
+    sinks.forEach((sink) => expect(sink.end).toHaveBeenCalled());
+    expect(feed.size).toBe(0);
+  });
+
+  it('should throw ValidationError when location is missing', () => {
+    // given
+    const feed = createFeed();
+
+    // when/then
+    expect(() => feed.subscribe(createSink())).toThrow(ValidationError);
+    expect(() => feed.subscribe(createSink(), 91, GDANSK.lng)).toThrow(ValidationError);
+  });
+
+  it('should throw ServiceUnavailableError when subscriber limit is reached', () => {
+    // given
+    const feed = createFeed(1);
+    feed.subscribe(createSink(), GDANSK.lat, GDANSK.lng);
+
+    // when/then
+    expect(() => feed.subscribe(createSink(), GDANSK.lat, GDANSK.lng)).toThrow(ServiceUnavailableError);
+    feed.close();
+  });
+});
@@ -2,8 +2,12 @@ import { describe, it, expect, vi, beforeEach } from 'vitest';
 import { AnnouncementService } from '../announcement-service.ts';
 import type { Announcement, CreateAnnouncementDto } from '../../types/announcement.ts';
 import type { IAnnouncementRepository } from '../../database/repositories/announcement-repository.ts';
-import { ConflictError, NotFoundError } from '../../lib/errors.ts';
+import { ConflictError, NotFoundError, ValidationError } from '../../lib/errors.ts';
+import { decodeCursor, decodeOffsetCursor, encodeCursor, encodeOffsetCursor } from '../../lib/pagination.ts';
 import { PhotoUploadService } from '../photo-upload-service.ts';
+import { CoalescingCache } from '../../lib/coalescing-cache.ts';
+import type { DatasetVersion } from '../../lib/dataset-version.ts';
+import type { WatchAreaService } from '../watch-area-service.ts';
 
 const MOCK_ANNOUNCEMENT: Announcement = {
   id: '550e8400-e29b-41d4-a716-446655440000',
@@ -18,6 +22,7 @@ const MOCK_ANNOUNCEMENT: Announcement = {
   email: 'john@example.com',
   phone: '+1-555-0101',
   photoUrl: 'https://example.com/max.jpg',
+  photoVariants: null,
   status: 'MISSING',
   createdAt: '2025-11-19T10:00:00Z',
   updatedAt: '2025-11-19T10:00:00Z'
@@ -25,6 +30,11 @@ const MOCK_ANNOUNCEMENT: Announcement = {
 
 const defaultMockRepository: IAnnouncementRepository = {
   findAll: async () => [],
+  findFields: async () => [],
+  search: async () => [],
+  findMapPoints: async () => [],
+  findUpdatedSince: async () => [],
+  findDeletedSince: async () => [],
   findById: async () => null,
   existsByMicrochip: async () => false,
   create: async () => MOCK_ANNOUNCEMENT,
@@ -107,7 +117,7 @@ describe('AnnouncementService', () => {
       // then
       expect(locationValidatorSpy).toHaveBeenCalledWith(lat, lng, range);
       expect(locationValidatorSpy).toHaveBeenCalledTimes(1);
-      expect(findAllSpy).toHaveBeenCalledWith(expectedFilter);
+      expect(findAllSpy).toHaveBeenCalledWith(expectedFilter, undefined, {});
       expect(findAllSpy).toHaveBeenCalledTimes(1);
     });
 
@@ -129,7 +139,7 @@ describe('AnnouncementService', () => {
       await service.getAllAnnouncements(lat, lng, undefined);
 
       // then
-      expect(findAllSpy).toHaveBeenCalledWith(expectedFilter);
+      expect(findAllSpy).toHaveBeenCalledWith(expectedFilter, undefined, {});
     });
 
     it('should pass undefined filter when coordinates are not provided', async () => {
@@ -146,7 +156,257 @@ describe('AnnouncementService', () => {
       await service.getAllAnnouncements(undefined, undefined, undefined);
 
       // then
-      expect(findAllSpy).toHaveBeenCalledWith(undefined);
+      expect(findAllSpy).toHaveBeenCalledWith(undefined, undefined, {});
+    });
+
+    describe('with list cache', () => {
+      const createCachedService = (repository: IAnnouncementRepository, version = vi.fn().mockResolvedValue('1')) =>
+        new AnnouncementService(repository, mockValidator, mockSanitizer, mockLocationValidator, undefined, {
+          cache: new CoalescingCache<Announcement[]>(10, 60000),
+          datasetVersion: { current: version } as unknown as DatasetVersion
+        });
+
+      it('should query rounded coordinates once for nearby concurrent requests', async () => {
+        // given
+        const findAllSpy = vi.fn().mockResolvedValue([MOCK_ANNOUNCEMENT]);
+        const service = createCachedService({ ...defaultMockRepository, findAll: findAllSpy });
+
+        // when
+        const results = await Promise.all([
+          service.getAllAnnouncements(50.06141, 19.93832, 10),
+          service.getAllAnnouncements(50.0614, 19.9383, 10),
+          service.getAllAnnouncements(50.061379, 19.938301, 10)
+        ]);
+
+        // then
+        expect(results).toEqual([[MOCK_ANNOUNCEMENT], [MOCK_ANNOUNCEMENT], [MOCK_ANNOUNCEMENT]]);
+        expect(findAllSpy).toHaveBeenCalledTimes(1);
+        expect(findAllSpy).toHaveBeenCalledWith({ lat: 50.061, lng: 19.938, range: 10 }, undefined, {});
+      });
+
+      it('should query again when range differs', async () => {
+        // given
+        const findAllSpy = vi.fn().mockResolvedValue([]);
+        const service = createCachedService({ ...defaultMockRepository, findAll: findAllSpy });
+
+        // when
+        await service.getAllAnnouncements(50.0614, 19.9383, 10);
+        await service.getAllAnnouncements(50.0614, 19.9383, 20);
+
+        // then
+        expect(findAllSpy).toHaveBeenCalledTimes(2);
+      });
+
+      it('should query again when filter differs', async () => {
+        // given
+        const findAllSpy = vi.fn().mockResolvedValue([]);
+        const service = createCachedService({ ...defaultMockRepository, findAll: findAllSpy });
+
+        // when
+        await service.getAllAnnouncements(undefined, undefined, undefined, { status: 'MISSING' });
+        await service.getAllAnnouncements(undefined, undefined, undefined, { status: 'FOUND' });
+
+        // then
+        expect(findAllSpy).toHaveBeenCalledTimes(2);
+        expect(findAllSpy).toHaveBeenLastCalledWith(undefined, undefined, { status: 'FOUND' });
+      });
+
+      it('should query again after dataset version changed', async () => {
+        // given
+        const findAllSpy = vi.fn().mockResolvedValueOnce([]).mockResolvedValueOnce([MOCK_ANNOUNCEMENT]);
+        const version = vi.fn().mockResolvedValueOnce('1').mockResolvedValueOnce('2');
+        const service = createCachedService({ ...defaultMockRepository, findAll: findAllSpy }, version);
+
+        // when
+        const before = await service.getAllAnnouncements();
+        const after = await service.getAllAnnouncements();
+
+        // then
+        expect(before).toEqual([]);
+        expect(after).toEqual([MOCK_ANNOUNCEMENT]);
+      });
+    });
+  });
+
+  describe('getAllAnnouncements with fields', () => {
+    it('should read only requested fields', async () => {
+      // given
+      const findFieldsSpy = vi.fn().mockResolvedValue([{ id: 'a', photoUrl: '/images/a.jpeg' }]);
+      const findAllSpy = vi.fn();
+      const service = createService({ ...defaultMockRepository, findAll: findAllSpy, findFields: findFieldsSpy });
+
+      // when
+      const result = await service.getAllAnnouncements(undefined, undefined, undefined, undefined, 'photoUrl');
+
+      // then
+      expect(result).toEqual([{ id: 'a', photoUrl: '/images/a.jpeg' }]);
+      expect(findFieldsSpy).toHaveBeenCalledWith(['id', 'photoUrl'], undefined, undefined, {});
+      expect(findAllSpy).not.toHaveBeenCalled();
+    });
+
+    it('should reject unknown field before querying repository', async () => {
+      // given
+      const findFieldsSpy = vi.fn();
+      const service = createService({ ...defaultMockRepository, findFields: findFieldsSpy });
+
+      // when/then
+      await expect(service.getAllAnnouncements(undefined, undefined, undefined, undefined, 'password')).rejects.toThrow(ValidationError);
+      expect(findFieldsSpy).not.toHaveBeenCalled();
+    });
+  });
+
+  describe('getAnnouncementsPage', () => {
+    const announcementAt = (id: string, createdAt: string): Announcement => ({ ...MOCK_ANNOUNCEMENT, id, createdAt });
+
+    it('should request one extra row and return next cursor of the last item when more rows exist', async () => {
+      // given
+      const rows = [
+        announcementAt('c', '2025-11-21T10:00:00.000Z'),
+        announcementAt('b', '2025-11-20T10:00:00.000Z'),
+        announcementAt('a', '2025-11-19T10:00:00.000Z')
+      ];
+      const findAllSpy = vi.fn().mockResolvedValue(rows);
+      const service = createService({ ...defaultMockRepository, findAll: findAllSpy });
+
+      // when
+      const page = await service.getAnnouncementsPage(undefined, undefined, undefined, 2);
+
+      // then
+      expect(findAllSpy).toHaveBeenCalledWith(undefined, { limit: 3, cursor: undefined }, {});
+      expect(page.data.map((a) => a.id)).toEqual(['c', 'b']);
+      expect(decodeCursor(page.nextCursor!)).toEqual({ createdAt: '2025-11-20T10:00:00.000Z', id: 'b' });
+    });
+
+    it('should return null next cursor on the last page', async () => {
+      // given
+      const rows = [announcementAt('a', '2025-11-19T10:00:00.000Z')];
+      const service = createService({ ...defaultMockRepository, findAll: async () => rows });
+
+      // when
+      const page = await service.getAnnouncementsPage(undefined, undefined, undefined, 2);
+
+      // then
+      expect(page).toEqual({ data: rows, nextCursor: null });
+    });
+
+    it('should pass decoded cursor and location filter to repository', async () => {
+      // given
+      const cursor = { createdAt: '2025-11-20T10:00:00.000Z', id: 'b' };
+      const findAllSpy = vi.fn().mockResolvedValue([]);
+      const service = createService({ ...defaultMockRepository, findAll: findAllSpy });
+
+      // when
+      await service.getAnnouncementsPage(50.0614, 19.9383, undefined, 10, encodeCursor(cursor));
+
+      // then
+      expect(findAllSpy).toHaveBeenCalledWith({ lat: 50.0614, lng: 19.9383, range: 5 }, { limit: 11, cursor }, {});
+    });
+
+    it('should reject invalid limit before querying repository', async () => {
+      // given
+      const findAllSpy = vi.fn();
+      const service = createService({ ...defaultMockRepository, findAll: findAllSpy });
+
+      // when/then
+      await expect(service.getAnnouncementsPage(undefined, undefined, undefined, 0)).rejects.toThrow(ValidationError);
+      expect(findAllSpy).not.toHaveBeenCalled();
+    });
+
+    it('should pass filter to repository and return lastSeenDate cursor when sorted by lastSeenDate', async () => {
+      // given
+      const rows = [
+        { ...MOCK_ANNOUNCEMENT, id: 'b', lastSeenDate: '2025-11-21' },
+        { ...MOCK_ANNOUNCEMENT, id: 'a', lastSeenDate: '2025-11-20' }
+      ];
+      const findAllSpy = vi.fn().mockResolvedValue(rows);
+      const service = createService({ ...defaultMockRepository, findAll: findAllSpy });
+
+      // when
+      const page = await service.getAnnouncementsPage(undefined, undefined, undefined, 1, undefined, {
+        status: 'MISSING',
+        sort: 'lastSeenDate'
+      });
+
+      // then
+      expect(findAllSpy).toHaveBeenCalledWith(undefined, { limit: 2, cursor: undefined }, { status: 'MISSING', sort: 'lastSeenDate' });
+      expect(decodeCursor(page.nextCursor as string)).toEqual({ lastSeenDate: '2025-11-21', id: 'b' });
+    });
+
+    it('should read only requested fields and the sort key needed for the cursor', async () => {
+      // given
+      const rows = [
+        { id: 'c', species: 'DOG', createdAt: '2025-11-21T10:00:00.000Z' },
+        { id: 'b', species: 'CAT', createdAt: '2025-11-20T10:00:00.000Z' },
+        { id: 'a', species: 'DOG', createdAt: '2025-11-19T10:00:00.000Z' }
+      ];
+      const findFieldsSpy = vi.fn().mockResolvedValue(rows);
+      const service = createService({ ...defaultMockRepository, findFields: findFieldsSpy });
+
+      // when
+      const page = await service.getAnnouncementsPage(undefined, undefined, undefined, 2, undefined, undefined, 'species');
+
+      // then
+      expect(findFieldsSpy).toHaveBeenCalledWith(['id', 'species', 'createdAt'], undefined, { limit: 3, cursor: undefined }, {});
+      expect(page.data).toEqual([
+        { id: 'c', species: 'DOG' },
+        { id: 'b', species: 'CAT' }
+      ]);
+      expect(decodeCursor(page.nextCursor as string)).toEqual({ createdAt: '2025-11-20T10:00:00.000Z', id: 'b' });
+    });
+
+    it('should reject cursor issued for another sort order', async () => {
+      // given
+      const cursor = encodeCursor({ createdAt: '2025-11-20T10:00:00.000Z', id: 'b' });
+      const findAllSpy = vi.fn();
+      const service = createService({ ...defaultMockRepository, findAll: findAllSpy });
+
+      // when/then
+      await expect(
+        service.getAnnouncementsPage(undefined, undefined, undefined, 5, cursor, { sort: 'lastSeenDate' })
+      ).rejects.toThrow(ValidationError);
+      expect(findAllSpy).not.toHaveBeenCalled();
+    });
+  });
+
+  describe('searchAnnouncements', () => {
+    it('should pass parsed terms and location filter to repository and return next offset cursor', async () => {
+      // given
+      const rows = [{ ...MOCK_ANNOUNCEMENT, id: 'a' }, { ...MOCK_ANNOUNCEMENT, id: 'b' }, { ...MOCK_ANNOUNCEMENT, id: 'c' }];
+      const searchSpy = vi.fn().mockResolvedValue(rows);
+      const service = createService({ ...defaultMockRepository, search: searchSpy });
+
+      // when
+      const page = await service.searchAnnouncements('Golden  retriever!', 50.0614, 19.9383, undefined, 2, encodeOffsetCursor(4));
+
+      // then
+      expect(searchSpy).toHaveBeenCalledWith(['golden', 'retriever'], { lat: 50.0614, lng: 19.9383, range: 5 }, { limit: 3, offset: 4 });
+      expect(page.data.map((a) => a.id)).toEqual(['a', 'b']);
+      expect(decodeOffsetCursor(page.nextCursor as string)).toBe(6);
+    });
+
+    it('should return null next cursor on the last page', async () => {
+      // given
+      const rows = [MOCK_ANNOUNCEMENT];
+      const service = createService({ ...defaultMockRepository, search: async () => rows });
+
+      // when
+      const page = await service.searchAnnouncements('max');
+
+      // then
+      expect(page).toEqual({ data: rows, nextCursor: null });
+    });
+
+    it.each([
+      { q: undefined, description: 'missing query' },
+      { q: ' ?! ', description: 'query without words' }
+    ])('should reject $description before querying repository', async ({ q }) => {
+      // given
+      const searchSpy = vi.fn();
+      const service = createService({ ...defaultMockRepository, search: searchSpy });
+
+      // when/then
+      await expect(service.searchAnnouncements(q)).rejects.toThrow(ValidationError);
+      expect(searchSpy).not.toHaveBeenCalled();
     });
   });
 
@@ -213,6 +473,7 @@ describe('AnnouncementService', () => {
         locationLatitude: 40.7128,
         locationLongitude: -74.006,
         photoUrl: 'https://example.com/photo.jpg',
+        photoVariants: null,
         lastSeenDate: '2025-11-19',
         status: 'MISSING',
         email: 'test@example.com',
@@ -264,6 +525,7 @@ describe('AnnouncementService', () => {
         locationLatitude: 40.7128,
         locationLongitude: -74.006,
         photoUrl: 'https://example.com/photo.jpg',
+        photoVariants: null,
         lastSeenDate: '2025-11-19',
         status: 'MISSING',
         email: 'test@example.com',
@@ -302,6 +564,7 @@ describe('AnnouncementService', () => {
         locationLatitude: 40.7128,
         locationLongitude: -74.006,
         photoUrl: 'https://example.com/photo.jpg',
+        photoVariants: null,
         lastSeenDate: '2025-11-19',
         status: 'MISSING',
         email: 'test@example.com',
@@ -363,6 +626,7 @@ describe('AnnouncementService', () => {
         locationLatitude: 40.7128,
         locationLongitude: -74.006,
         photoUrl: 'https://example.com/photo.jpg',
+        photoVariants: null,
         lastSeenDate: '2025-11-19',
         status: 'MISSING',
         email: 'test@example.com',
@@ -402,6 +666,7 @@ describe('AnnouncementService', () => {
             locationLatitude: 40.7128,
             locationLongitude: -74.006,
             photoUrl: 'https://example.com/photo.jpg',
+            photoVariants: null,
             lastSeenDate: '2025-11-19',
             status: 'MISSING',
             email: 'test@example.com',
@@ -446,6 +711,7 @@ describe('AnnouncementService', () => {
         locationLatitude: 40.7128,
         locationLongitude: -74.006,
         photoUrl: 'https://example.com/photo.jpg',
+        photoVariants: null,
         lastSeenDate: '2025-11-19',
         status: 'MISSING',
         email: 'test@example.com',
@@ -473,6 +739,46 @@ describe('AnnouncementService', () => {
       });
       expect(fakeRepository.create).toHaveBeenCalled();
     });
+
+    it('should notify watchers of the created announcement', async () => {
+      // Given
+      const notifyWatchers = vi.fn().mockResolvedValue(2);
+      const service = new AnnouncementService(
+        { ...defaultMockRepository, create: async () => MOCK_ANNOUNCEMENT },
+        mockValidator,
+        mockSanitizer,
+        mockLocationValidator,
+        undefined,
+        undefined,
+        { notifyWatchers } as unknown as WatchAreaService
+      );
+
+      // When
+      await service.createAnnouncement(VALID_CREATE_DATA);
+
+      // Then
+      expect(notifyWatchers).toHaveBeenCalledWith(MOCK_ANNOUNCEMENT);
+    });
+
+    it('should create announcement when watchers cannot be notified', async () => {
+      // Given
+      const notifyWatchers = vi.fn().mockRejectedValue(new Error('Database is locked'));
+      const service = new AnnouncementService(
+        { ...defaultMockRepository, create: async () => MOCK_ANNOUNCEMENT },
+        mockValidator,
+        mockSanitizer,
+        mockLocationValidator,
+        undefined,
+        undefined,
+        { notifyWatchers } as unknown as WatchAreaService
+      );
+
+      // When
+      const result = await service.createAnnouncement(VALID_CREATE_DATA);
+
+      // Then
+      expect(result.id).toBe(MOCK_ANNOUNCEMENT.id);
+    });
   });
 
   describe('deleteAnnouncement', () => {
@@ -558,7 +864,7 @@ describe('AnnouncementService', () => {
       await service.deleteAnnouncement(MOCK_ANNOUNCEMENT.id);
 
       // Then: Photos are deleted using photoUrl before announcement
-      expect(deletePhotosSpy).toHaveBeenCalledWith(MOCK_ANNOUNCEMENT.photoUrl);
+      expect(deletePhotosSpy).toHaveBeenCalledWith(MOCK_ANNOUNCEMENT.photoUrl, MOCK_ANNOUNCEMENT.photoVariants);
       expect(deletePhotosSpy).toHaveBeenCalledTimes(1);
       expect(fakeRepository.delete).toHaveBeenCalled();
     });
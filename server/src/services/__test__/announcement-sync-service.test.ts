@@ -0,0 +1,122 @@
+import { describe, it, expect, vi } from 'vitest';
+import { AnnouncementSyncService } from '../announcement-sync-service.ts';
+import type { Announcement } from '../../types/announcement.ts';
+import type { IAnnouncementRepository } from '../../database/repositories/announcement-repository.ts';
+import type { DatasetVersion } from '../../lib/dataset-version.ts';
+import { decodeWatermark, encodeWatermark, SYNC_OVERLAP_MS, TOMBSTONE_RETENTION_MS } from '../../lib/sync-watermark.ts';
+import { ValidationError } from '../../lib/errors.ts';
+
+const NOW = Date.parse('2025-11-20T12:00:00.000Z');
+
+function announcement(id: string, photoUrl: string | null): Announcement {
+  return {
+    id,
+    petName: null,
+    species: 'DOG',
+    breed: null,
+    sex: 'MALE',
+    age: null,
+    description: null,
+    microchipNumber: null,
+    locationLatitude: 50.06,
+    locationLongitude: 19.94,
+    lastSeenDate: '2025-11-18',
+    email: 'john@example.com',
+    phone: null,
+    photoUrl,
+    photoVariants: null,
+    status: 'MISSING',
+    reward: null,
+    createdAt: '2025-11-20T11:00:00.000Z',
+    updatedAt: '2025-11-20T11:00:00.000Z'
+  };
+}
+
+const defaultMockRepository: IAnnouncementRepository = {
+  findAll: async () => [],
+  findFields: async () => [],
+  search: async () => [],
+  findMapPoints: async () => [],
+  findUpdatedSince: async () => [],
+  findDeletedSince: async () => [],
+  findById: async () => null,
+  existsByMicrochip: async () => false,
+  create: async () => announcement('created', null),
+  updatePhotoUrl: async () => undefined,
+  delete: async () => undefined
+};
+
+const createService = (repository: IAnnouncementRepository, epoch = '1') =>
+  new AnnouncementSyncService(repository, { epoch: async () => epoch } as unknown as DatasetVersion, () => NOW);
+
+describe('AnnouncementSyncService', () => {
+  it('should return full list with reset when no watermark is given', async () => {
+    // given
+    const findAllSpy = vi.fn().mockResolvedValue([announcement('a', '/images/a.jpeg')]);
+    const service = createService({ ...defaultMockRepository, findAll: findAllSpy }, '2');
+
+    // when
+    const changes = await service.getChanges();
+
+    // then
+    expect(changes.reset).toBe(true);
+    expect(changes.data.map((item) => item.id)).toEqual(['a']);
+    expect(changes.deleted).toEqual([]);
+    expect(findAllSpy).toHaveBeenCalledWith();
+    expect(decodeWatermark(changes.watermark)).toEqual({ epoch: '2', since: new Date(NOW - SYNC_OVERLAP_MS).toISOString() });
+  });
+
+  it('should return changes and tombstones since watermark', async () => {
+    // given
+    const since = '2025-11-20T10:00:00.000Z';
+    const findUpdatedSinceSpy = vi.fn().mockResolvedValue([announcement('a', '/images/a.jpeg'), announcement('no-photo', null)]);
+    const findDeletedSinceSpy = vi.fn().mockResolvedValue(['deleted']);
+    const findAllSpy = vi.fn();
+    const service = createService({
+      ...defaultMockRepository,
+      findAll: findAllSpy,
+      findUpdatedSince: findUpdatedSinceSpy,
+      findDeletedSince: findDeletedSinceSpy
+    });
+
+    // when
+    const changes = await service.getChanges(encodeWatermark({ epoch: '1', since }));
+
+    // then
+    expect(changes.reset).toBe(false);
+    expect(changes.data.map((item) => item.id)).toEqual(['a']);
+    expect(changes.deleted).toEqual(['deleted', 'no-photo']);
+    expect(findUpdatedSinceSpy).toHaveBeenCalledWith(since);
+    expect(findDeletedSinceSpy).toHaveBeenCalledWith(since);
+    expect(findAllSpy).not.toHaveBeenCalled();
+  });
+
+  it.each([
+    { description: 'older epoch', watermark: { epoch: '0', since: '2025-11-20T10:00:00.000Z' } },
+    {
+      description: 'watermark older than tombstone retention',
+      watermark: { epoch: '1', since: new Date(NOW - TOMBSTONE_RETENTION_MS - 1).toISOString() }
+    }
+  ])('should return full list with reset for $description', async ({ watermark }) => {
+    // given
+    const findAllSpy = vi.fn().mockResolvedValue([]);
+    const findUpdatedSinceSpy = vi.fn();
+    const service = createService({ ...defaultMockRepository, findAll: findAllSpy, findUpdatedSince: findUpdatedSinceSpy });
+
+    // when
+    const changes = await service.getChanges(encodeWatermark(watermark));
+
+    // then
+    expect(changes.reset).toBe(true);
+    expect(findAllSpy).toHaveBeenCalled();
+    expect(findUpdatedSinceSpy).not.toHaveBeenCalled();
+  });
+
+  it('should throw ValidationError for invalid watermark', async () => {
+    // given
+    const service = createService(defaultMockRepository);
+
+    // when/then
+    await expect(service.getChanges('garbage')).rejects.toThrow(ValidationError);
+  });
+});
@@ -5,44 +5,40 @@ import type { Knex } from 'knex';
 import type { IAnnouncementRepository } from '../../database/repositories/announcement-repository.ts';
 import type { TransactionalWrapper } from '../../database/db-utils.ts';
 import { PhotoUploadService } from '../photo-upload-service.ts';
-import { NotFoundError, PayloadTooLargeError, ValidationError } from '../../lib/errors.ts';
-
-// Mock file system operations
-vi.mock('fs/promises');
-
-// Mock file-validation functions
-vi.mock('../../lib/file-validation.ts', () => ({
-  validateImageFormat: vi.fn((buffer: Buffer) => {
-    // Simulate valid JPEG
-    if (buffer[0] === 0xff && buffer[1] === 0xd8) {
-      return Promise.resolve('image/jpeg');
-    }
-    return Promise.resolve(null);
-  })
-}));
+import type { StagedPhoto } from '../photo-upload-service.ts';
+import type { PhotoVariants } from '../../types/announcement.ts';
+import { NotFoundError } from '../../lib/errors.ts';
 
 const findByIdMock = vi.fn();
 const updatePhotoUrlMock = vi.fn();
-const writeFileMock = vi.fn();
+const renameMock = vi.fn();
+const rmMock = vi.fn();
+
+const PHOTO_VARIANTS: PhotoVariants = {
+  card: { width: 400, webp: '/images/announce-123-card.webp', avif: '/images/announce-123-card.avif' },
+  popup: { width: 800, webp: '/images/announce-123-popup.webp', avif: '/images/announce-123-popup.avif' },
+  full: { width: 1600, webp: '/images/announce-123-full.webp', avif: '/images/announce-123-full.avif' }
+};
+
+const STAGED_PHOTO: StagedPhoto = {
+  tempPath: '/uploads/.uploads/0b1c.upload',
+  mimeType: 'image/jpeg',
+  size: 4,
+  sha256: '4f9a'
+};
 
 describe('PhotoUploadService', () => {
   let service: PhotoUploadService;
   let mockRepository: IAnnouncementRepository;
   let mockFs: Partial<typeof fs>;
-  let mockValidateImageFormat: (buffer: Buffer) => Promise<string | null>;
   let mockWithTransaction: TransactionalWrapper;
 
   beforeEach(() => {
     // Reset all mocks before each test
     vi.clearAllMocks();
-
-    // Setup validation mocks with proper typing
-    mockValidateImageFormat = vi.fn(async (buffer: Buffer): Promise<string | null> => {
-      if (buffer[0] === 0xff && buffer[1] === 0xd8) {
-        return 'image/jpeg';
-      }
-      return null;
-    });
+    updatePhotoUrlMock.mockResolvedValue(undefined);
+    renameMock.mockResolvedValue(undefined);
+    rmMock.mockResolvedValue(undefined);
 
     // Setup repository mock
     mockRepository = {
@@ -55,7 +51,8 @@ describe('PhotoUploadService', () => {
 
     // Setup fs mock
     mockFs = {
-      writeFile: writeFileMock
+      rename: renameMock,
+      rm: rmMock
     };
 
     // Setup withTransaction mock
@@ -66,14 +63,13 @@ describe('PhotoUploadService', () => {
     });
 
     // Create service with mocked dependencies
-    service = new PhotoUploadService(mockRepository, mockValidateImageFormat, mockWithTransaction, path, mockFs as unknown as typeof fs);
+    service = new PhotoUploadService(mockRepository, mockWithTransaction, path, mockFs as unknown as typeof fs);
   });
 
   describe('uploadPhoto', () => {
-    it('should save photo and update database with transaction', async () => {
-      // Given: valid announcement and photo
+    it('should move staged photo into upload path and update database with transaction', async () => {
+      // Given: valid announcement and staged photo
       const announcementId = 'announce-123';
-      const photoBuffer = Buffer.from([0xff, 0xd8, 0xff, 0xe0]);
       const uploadPath = '/uploads';
 
       findByIdMock.mockResolvedValue({
@@ -82,91 +78,156 @@ describe('PhotoUploadService', () => {
       });
 
       // When: uploadPhoto is called
-      const result = await service.uploadPhoto(announcementId, photoBuffer, uploadPath);
+      const result = await service.uploadPhoto(announcementId, STAGED_PHOTO, uploadPath);
 
-      // Then: should return photo URL, save file, and update DB
+      // Then: should return photo URL, move file, and update DB
       expect(result).toBe(`/images/${announcementId}.jpeg`);
-      expect(writeFileMock).toHaveBeenCalledWith(expect.stringContaining(announcementId), photoBuffer);
-      expect(updatePhotoUrlMock).toHaveBeenCalledWith(expect.any(Object), announcementId, `/images/announce-123.jpeg`);
-      expect(findByIdMock).toHaveBeenCalled();
+      expect(renameMock).toHaveBeenCalledWith(STAGED_PHOTO.tempPath, path.join(uploadPath, 'announce-123.jpeg'));
+      expect(updatePhotoUrlMock).toHaveBeenCalledWith(expect.any(Object), announcementId, `/images/announce-123.jpeg`, null);
+      expect(rmMock).not.toHaveBeenCalled();
+    });
+
+    it('should use extension of detected format', async () => {
+      // Given: staged PNG
+      findByIdMock.mockResolvedValue({ id: 'announce-789', photo_url: null });
+
+      // When
+      const result = await service.uploadPhoto('announce-789', { ...STAGED_PHOTO, mimeType: 'image/png' }, '/uploads');
+
+      // Then
+      expect(result).toBe('/images/announce-789.png');
+    });
+  });
+
+  describe('visibility notification', () => {
+    function createNotifyingService(onVisible: () => void): PhotoUploadService {
+      return new PhotoUploadService(mockRepository, mockWithTransaction, path, mockFs as unknown as typeof fs, undefined, onVisible);
+    }
+
+    it('should report announcement when its first photo is uploaded', async () => {
+      // Given: announcement without photo
+      const onVisible = vi.fn();
+      const announcement = { id: 'announce-123', photoUrl: null };
+      findByIdMock.mockResolvedValueOnce(announcement).mockResolvedValueOnce({ ...announcement, photoUrl: '/images/announce-123.jpeg' });
+      const notifyingService = createNotifyingService(onVisible);
+
+      // When
+      await notifyingService.uploadPhoto('announce-123', STAGED_PHOTO, '/uploads');
+
+      // Then
+      expect(onVisible).toHaveBeenCalledWith({ id: 'announce-123', photoUrl: '/images/announce-123.jpeg' });
+    });
+
+    it('should not report announcement when its photo is replaced', async () => {
+      // Given: announcement already listed
+      const onVisible = vi.fn();
+      findByIdMock.mockResolvedValue({ id: 'announce-123', photoUrl: '/images/announce-123.png', photoVariants: null });
+      const notifyingService = createNotifyingService(onVisible);
+
+      // When
+      await notifyingService.uploadPhoto('announce-123', STAGED_PHOTO, '/uploads');
+
+      // Then
+      expect(onVisible).not.toHaveBeenCalled();
+    });
+
+    it('should not fail upload when announcement cannot be reported', async () => {
+      // Given: reading the updated announcement fails
+      const onVisible = vi.fn();
+      findByIdMock.mockResolvedValueOnce({ id: 'announce-123', photoUrl: null }).mockRejectedValueOnce(new Error('Database is locked'));
+      const notifyingService = createNotifyingService(onVisible);
+
+      // When
+      const result = await notifyingService.uploadPhoto('announce-123', STAGED_PHOTO, '/uploads');
+
+      // Then
+      expect(result).toBe('/images/announce-123.jpeg');
+      expect(onVisible).not.toHaveBeenCalled();
+      expect(rmMock).not.toHaveBeenCalled();
     });
   });
 
   describe('error handling', () => {
-    it('should throw error when announcement not found', async () => {
+    it('should throw error and remove staged photo when announcement not found', async () => {
       // Given: non-existent announcement
-      const announcementId = 'non-existent';
-      const photoBuffer = Buffer.from([0xff, 0xd8, 0xff, 0xe0]);
-      const uploadPath = '/uploads';
-
       findByIdMock.mockResolvedValue(null);
 
-      // When/Then: should throw NotFoundError without saving file
-      await expect(service.uploadPhoto(announcementId, photoBuffer, uploadPath)).rejects.toThrow(NotFoundError);
-      expect(writeFileMock).not.toHaveBeenCalled();
+      // When/Then: should throw NotFoundError without moving file
+      await expect(service.uploadPhoto('non-existent', STAGED_PHOTO, '/uploads')).rejects.toThrow(NotFoundError);
+      expect(renameMock).not.toHaveBeenCalled();
+      expect(rmMock).toHaveBeenCalledWith(STAGED_PHOTO.tempPath, { force: true });
     });
 
-    it('should not save the file if the DB write fails inside transaction', async () => {
-      // Given: file save fails inside transaction
-      const announcementId = 'announce-456';
-      const photoBuffer = Buffer.from([0xff, 0xd8, 0xff, 0xe0]);
-      const uploadPath = '/uploads';
-      const saveError = new Error('Disk full');
+    it('should not move the file if the DB write fails inside transaction', async () => {
+      // Given: DB write fails inside transaction
+      updatePhotoUrlMock.mockRejectedValue(new Error('Database is locked'));
+      findByIdMock.mockResolvedValue({ id: 'announce-456', photo_url: null });
 
-      // Create fresh mocks for this test
-      updatePhotoUrlMock.mockRejectedValue(saveError);
+      // When/Then: should throw error and clean up staged photo
+      await expect(service.uploadPhoto('announce-456', STAGED_PHOTO, '/uploads')).rejects.toThrow('Database is locked');
+      expect(renameMock).not.toHaveBeenCalled();
+      expect(rmMock).toHaveBeenCalledWith(STAGED_PHOTO.tempPath, { force: true });
+    });
 
-      findByIdMock.mockResolvedValue({
-        id: announcementId,
-        photo_url: null
-      });
+    it('should restore previous photo when staged photo cannot be moved after commit', async () => {
+      // Given: rename fails after the photo columns were updated
+      renameMock.mockRejectedValue(new Error('EACCES: permission denied'));
+      findByIdMock.mockResolvedValue({ id: 'announce-456', photoUrl: '/images/announce-456.png', photoVariants: PHOTO_VARIANTS });
 
-      const failService = new PhotoUploadService(
-        mockRepository,
-        mockValidateImageFormat,
-        mockWithTransaction,
-        path,
-        mockFs as unknown as typeof fs
-      );
-
-      // When/Then: should throw error
-      await expect(failService.uploadPhoto(announcementId, photoBuffer, uploadPath)).rejects.toThrow();
-      expect(updatePhotoUrlMock).toHaveBeenCalled();
+      // When/Then
+      await expect(service.uploadPhoto('announce-456', STAGED_PHOTO, '/uploads')).rejects.toThrow('Failed to save photo file');
+      expect(updatePhotoUrlMock).toHaveBeenCalledTimes(2);
+      expect(updatePhotoUrlMock).toHaveBeenLastCalledWith(expect.any(Object), 'announce-456', '/images/announce-456.png', PHOTO_VARIANTS);
+      expect(rmMock).toHaveBeenCalledWith(STAGED_PHOTO.tempPath, { force: true });
     });
   });
 
-  describe('file validation', () => {
-    it('should reject invalid image format', async () => {
-      // Given: invalid image buffer
-      const announcementId = 'announce-111';
-      const invalidBuffer = Buffer.from([0x00, 0x01, 0x02, 0x03]);
-      const uploadPath = '/uploads';
-
-      findByIdMock.mockResolvedValue({
-        id: announcementId,
-        photo_url: null
+  describe('transaction scope', () => {
+    it('should rename staged photo only after transaction has committed', async () => {
+      // Given
+      const commitMock = vi.fn();
+      mockWithTransaction = vi.fn(async (callback) => {
+        const result = await callback({} as Knex.Transaction);
+        commitMock();
+        return result;
       });
+      findByIdMock.mockResolvedValue({ id: 'announce-123', photoUrl: null, photoVariants: null });
+      const scopedService = new PhotoUploadService(mockRepository, mockWithTransaction, path, mockFs as unknown as typeof fs);
+
+      // When
+      await scopedService.uploadPhoto('announce-123', STAGED_PHOTO, '/uploads');
 
-      // When/Then: should throw validation error without saving file
-      await expect(service.uploadPhoto(announcementId, invalidBuffer, uploadPath)).rejects.toThrow(ValidationError);
-      expect(writeFileMock).not.toHaveBeenCalled();
+      // Then: transaction does no file I/O
+      expect(mockWithTransaction).toHaveBeenCalledTimes(1);
+      expect(commitMock.mock.invocationCallOrder[0]).toBeLessThan(renameMock.mock.invocationCallOrder[0]);
     });
 
-    it('should reject files exceeding 20MB limit', async () => {
-      // Given: oversized file
-      const announcementId = 'announce-222';
-      const MAX_SIZE = 20 * 1024 * 1024;
-      const oversizeBuffer = Buffer.alloc(MAX_SIZE + 1);
-      const uploadPath = '/uploads';
+    it('should remove files of replaced photo that are no longer referenced', async () => {
+      // Given: previous PNG photo with variants
+      const unlinkMock = vi.fn().mockResolvedValue(undefined);
+      mockFs.unlink = unlinkMock;
+      findByIdMock.mockResolvedValue({ id: 'announce-123', photoUrl: '/images/announce-123.png', photoVariants: PHOTO_VARIANTS });
 
-      findByIdMock.mockResolvedValue({
-        id: announcementId,
-        photo_url: null
-      });
+      // When: JPEG replaces it
+      await service.uploadPhoto('announce-123', STAGED_PHOTO, '/uploads');
+
+      // Then
+      expect(unlinkMock).toHaveBeenCalledTimes(7);
+      expect(unlinkMock).toHaveBeenCalledWith(path.join(process.cwd(), 'public', 'images', 'announce-123.png'));
+      expect(unlinkMock).not.toHaveBeenCalledWith(path.join(process.cwd(), 'public', 'images', 'announce-123.jpeg'));
+    });
+
+    it('should keep external photo URLs when replacing photo', async () => {
+      // Given
+      const unlinkMock = vi.fn().mockResolvedValue(undefined);
+      mockFs.unlink = unlinkMock;
+      findByIdMock.mockResolvedValue({ id: 'announce-123', photoUrl: 'https://example.com/photo.jpg', photoVariants: null });
 
-      // When/Then: should throw validation error without saving file
-      await expect(service.uploadPhoto(announcementId, oversizeBuffer, uploadPath)).rejects.toThrow(PayloadTooLargeError);
-      expect(writeFileMock).not.toHaveBeenCalled();
+      // When
+      await service.uploadPhoto('announce-123', STAGED_PHOTO, '/uploads');
+
+      // Then
+      expect(unlinkMock).not.toHaveBeenCalled();
     });
   });
 
@@ -259,4 +320,75 @@ describe('PhotoUploadService', () => {
       expect(unlinkMock).toHaveBeenCalledWith(path.join(process.cwd(), 'public', 'images', 'announce-123.jpeg'));
     });
   });
+
+  describe('photo variants', () => {
+    const announcementId = 'announce-123';
+    const uploadPath = '/uploads';
+
+    function createServiceWithVariants(
+      generateVariants: (input: Buffer | string, outputDir: string, baseName: string) => Promise<PhotoVariants>
+    ) {
+      return new PhotoUploadService(mockRepository, mockWithTransaction, path, mockFs as unknown as typeof fs, generateVariants);
+    }
+
+    beforeEach(() => {
+      findByIdMock.mockResolvedValue({ id: announcementId, photo_url: null });
+    });
+
+    it('should generate variants into upload path and store them with photo URL', async () => {
+      // Given
+      const generateVariants = vi.fn().mockResolvedValue(PHOTO_VARIANTS);
+      const variantService = createServiceWithVariants(generateVariants);
+
+      // When
+      await variantService.uploadPhoto(announcementId, STAGED_PHOTO, uploadPath);
+
+      // Then
+      expect(generateVariants).toHaveBeenCalledWith(STAGED_PHOTO.tempPath, uploadPath, `${announcementId}-${STAGED_PHOTO.sha256}`);
+      expect(updatePhotoUrlMock).toHaveBeenCalledWith(expect.any(Object), announcementId, '/images/announce-123.jpeg', PHOTO_VARIANTS);
+    });
+
+    it('should keep original upload when variants cannot be generated', async () => {
+      // Given
+      const generateVariants = vi.fn().mockRejectedValue(new Error('unsupported image format'));
+      const variantService = createServiceWithVariants(generateVariants);
+
+      // When
+      const result = await variantService.uploadPhoto(announcementId, STAGED_PHOTO, uploadPath);
+
+      // Then
+      expect(result).toBe('/images/announce-123.jpeg');
+      expect(updatePhotoUrlMock).toHaveBeenCalledWith(expect.any(Object), announcementId, '/images/announce-123.jpeg', null);
+      expect(renameMock).toHaveBeenCalled();
+    });
+
+    it('should remove generated variants when transaction fails', async () => {
+      // Given
+      updatePhotoUrlMock.mockRejectedValue(new Error('Database is locked'));
+      const unlinkMock = vi.fn().mockResolvedValue(undefined);
+      mockFs.unlink = unlinkMock;
+      const variantService = createServiceWithVariants(vi.fn().mockResolvedValue(PHOTO_VARIANTS));
+
+      // When
+      await expect(variantService.uploadPhoto(announcementId, STAGED_PHOTO, uploadPath)).rejects.toThrow('Database is locked');
+
+      // Then
+      expect(unlinkMock).toHaveBeenCalledTimes(6);
+      expect(unlinkMock).toHaveBeenCalledWith(path.join(process.cwd(), 'public', 'images', 'announce-123-card.avif'));
+    });
+
+    it('should delete variants together with original photo', async () => {
+      // Given
+      const unlinkMock = vi.fn().mockResolvedValue(undefined);
+      mockFs.unlink = unlinkMock;
+
+      // When
+      await service.deletePhotos('/images/announce-123.jpeg', PHOTO_VARIANTS);
+
+      // Then
+      expect(unlinkMock).toHaveBeenCalledTimes(7);
+      expect(unlinkMock).toHaveBeenCalledWith(path.join(process.cwd(), 'public', 'images', 'announce-123.jpeg'));
+      expect(unlinkMock).toHaveBeenCalledWith(path.join(process.cwd(), 'public', 'images', 'announce-123-full.webp'));
+    });
+  });
 });
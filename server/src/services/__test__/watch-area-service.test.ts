@@ -0,0 +1,116 @@
+import { describe, it, expect, vi } from 'vitest';
+import { MAX_WATCH_AREAS_PER_USER, WatchAreaService } from '../watch-area-service.ts';
+import type { IWatchAreaRepository } from '../../database/repositories/watch-area-repository.ts';
+import type { WatchArea } from '../../types/watch-area.ts';
+import type { Announcement } from '../../types/announcement.ts';
+import { ConflictError, NotFoundError, ValidationError } from '../../lib/errors.ts';
+
+function watchArea(id: number, userId: string): WatchArea {
+  return { id, userId, name: null, latitude: 54.35, longitude: 18.65, radiusKm: 5, createdAt: '2025-11-20T10:00:00.000Z' };
+}
+
+const ANNOUNCEMENT = { id: 'announcement-1', locationLatitude: 54.36, locationLongitude: 18.66 } as Announcement;
+
+const defaultMockRepository: IWatchAreaRepository = {
+  create: async (userId, data) => ({ ...watchArea(1, userId), ...data, name: data.name ?? null }),
+  createWithinLimit: async (userId, data) => ({ ...watchArea(1, userId), ...data, name: data.name ?? null }),
+  findByUser: async () => [],
+  delete: async () => true,
+  findContaining: async () => [],
+  queueNotifications: async () => undefined
+};
+
+const mockValidator = vi.fn();
+const mockSanitizer = (input: string) => input.replace(/</g, '&lt;');
+
+describe('WatchAreaService', () => {
+  describe('createWatchArea', () => {
+    it('should validate and store the area with a sanitized name', async () => {
+      // given
+      const createSpy = vi.fn(defaultMockRepository.createWithinLimit);
+      const service = new WatchAreaService({ ...defaultMockRepository, createWithinLimit: createSpy }, mockValidator, mockSanitizer);
+      const data = { name: '<Home>', latitude: 54.35, longitude: 18.65, radiusKm: 5 };
+
+      // when
+      const created = await service.createWatchArea('user-1', data);
+
+      // then
+      expect(mockValidator).toHaveBeenCalledWith(data);
+      expect(createSpy).toHaveBeenCalledWith('user-1', { ...data, name: '&lt;Home>' }, MAX_WATCH_AREAS_PER_USER);
+      expect(created.userId).toBe('user-1');
+    });
+
+    it('should throw ConflictError when user already watches the maximum number of areas', async () => {
+      // given
+      const service = new WatchAreaService({ ...defaultMockRepository, createWithinLimit: async () => null }, mockValidator, mockSanitizer);
+
+      // when/then
+      await expect(service.createWatchArea('user-1', { latitude: 54.35, longitude: 18.65, radiusKm: 5 })).rejects.toThrow(ConflictError);
+    });
+
+    it('should propagate validation errors', async () => {
+      // given
+      const validator = vi.fn(() => {
+        throw new ValidationError('INVALID_FORMAT', 'radiusKm must be at most 50', 'radiusKm');
+      });
+      const service = new WatchAreaService(defaultMockRepository, validator, mockSanitizer);
+
+      // when/then
+      await expect(service.createWatchArea('user-1', { latitude: 54.35, longitude: 18.65, radiusKm: 500 })).rejects.toThrow(
+        ValidationError
+      );
+    });
+  });
+
+  describe('deleteWatchArea', () => {
+    it.each([
+      { description: 'area of another user or missing', id: 1, deleted: false },
+      { description: 'non-numeric id', id: Number.NaN, deleted: true }
+    ])('should throw NotFoundError for $description', async ({ id, deleted }) => {
+      // given
+      const service = new WatchAreaService({ ...defaultMockRepository, delete: async () => deleted }, mockValidator, mockSanitizer);
+
+      // when/then
+      await expect(service.deleteWatchArea('user-1', id)).rejects.toThrow(NotFoundError);
+    });
+  });
+
+  describe('notifyWatchers', () => {
+    it('should queue one notification per user with a matching area', async () => {
+      // given
+      const queueSpy = vi.fn().mockResolvedValue(undefined);
+      const service = new WatchAreaService(
+        {
+          ...defaultMockRepository,
+          findContaining: async () => [watchArea(1, 'user-1'), watchArea(2, 'user-1'), watchArea(3, 'user-2')],
+          queueNotifications: queueSpy
+        },
+        mockValidator,
+        mockSanitizer
+      );
+
+      // when
+      const notified = await service.notifyWatchers(ANNOUNCEMENT);
+
+      // then
+      expect(notified).toBe(2);
+      expect(queueSpy).toHaveBeenCalledWith([
+        { userId: 'user-1', watchAreaId: 1, announcementId: 'announcement-1' },
+        { userId: 'user-2', watchAreaId: 3, announcementId: 'announcement-1' }
+      ]);
+    });
+
+    it('should look up areas containing the announcement location', async () => {
+      // given
+      const findContainingSpy = vi.fn().mockResolvedValue([]);
+      const service = new WatchAreaService({ ...defaultMockRepository, findContaining: findContainingSpy }, mockValidator, mockSanitizer);
+
+      // when
+      const notified = await service.notifyWatchers(ANNOUNCEMENT);
+
+      // then
+      expect(notified).toBe(0);
+      expect(findContainingSpy).toHaveBeenCalledWith(54.36, 18.66);
+    });
+  });
+});
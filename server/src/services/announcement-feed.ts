@@ -0,0 +1,154 @@
+import type { Announcement, LocationFilter } from '../types/announcement.ts';
+import { ServiceUnavailableError, ValidationError } from '../lib/errors.ts';
+import { boundingBox, distanceKm, geoCell, geoCellsInBoundingBox } from '../lib/geo-grid.ts';
+import { feedDroppedSubscribers, feedSubscribers } from '../conf/metrics.ts';
+
+const DEFAULT_RANGE_KM = 5;
+
+/**
+ * Writable end of a Server-Sent Events response. `writableLength` is the number of bytes queued
+ * but not yet taken by the client.
+ */
+export interface FeedSink {
+  write(chunk: string): unknown;
+  end(): unknown;
+  readonly writableLength: number;
+}
+
+export interface AnnouncementFeedOptions {
+  heartbeatMs: number;
+  /** Bytes a subscriber may have queued before it is disconnected as too slow */
+  maxBufferedBytes: number;
+  maxSubscribers: number;
+}
+
+interface Subscriber {
+  area: LocationFilter;
+  sink: FeedSink;
+  /** Grid cells the subscriber is registered in; null for ranges too large to bucket */
+  cells: number[] | null;
+}
+
+/**
+ * Pushes announcements that became visible on the list to Server-Sent Events subscribers near them.
+ *
+ * Subscribers are bucketed by the 0.1° grid cells their search circle overlaps, so an event only visits
+ * subscribers registered in the announcement's cell (plus the few with very large ranges) before the exact
+ * distance check. Each event is serialized once for all recipients. Idle connections cost no timers of their
+ * own: one shared interval writes heartbeats, and a subscriber whose unread output exceeds `maxBufferedBytes`
+ * is disconnected instead of buffering without bound; clients reconnect and catch up through the delta sync.
+ */
+export class AnnouncementFeed {
+  private all = new Set<Subscriber>();
+  private cells = new Map<number, Set<Subscriber>>();
+  private wide = new Set<Subscriber>();
+  private heartbeat?: NodeJS.Timeout;
+
+  constructor(
+    private locationValidator: (lat?: number, lng?: number, range?: number) => void,
+    private options: AnnouncementFeedOptions
+  ) {}
+
+  get size(): number {
+    return this.all.size;
+  }
+
+  /**
+   * Validates the area and registers the sink. Returns the function that unregisters it.
+   */
+  subscribe(sink: FeedSink, lat?: number, lng?: number, range?: number): () => void {
+    this.locationValidator(lat, lng, range);
+    if (lat === undefined || lng === undefined) {
+      throw new ValidationError('INVALID_PARAMETER', "Parameter 'lat' is required", 'lat');
+    }
+    if (this.all.size >= this.options.maxSubscribers) {
+      throw new ServiceUnavailableError('Too many feed subscribers, please retry', 5);
+    }
+
+    const area = { lat, lng, range: range ?? DEFAULT_RANGE_KM };
+    const subscriber: Subscriber = { area, sink, cells: geoCellsInBoundingBox(boundingBox(lat, lng, area.range)) };
+    if (subscriber.cells) {
+      for (const cell of subscriber.cells) {
+        const bucket = this.cells.get(cell) ?? new Set<Subscriber>();
+        bucket.add(subscriber);
+        this.cells.set(cell, bucket);
+      }
+    } else {
+      this.wide.add(subscriber);
+    }
+    this.all.add(subscriber);
+    feedSubscribers.inc();
+    this.startHeartbeat();
+
+    return () => this.remove(subscriber);
+  }
+
+  /**
+   * Sends the announcement to subscribers of this process whose area contains it.
+   */
+  publish(announcement: Announcement): void {
+    const { locationLatitude: lat, locationLongitude: lng } = announcement;
+    const recipients = [...(this.cells.get(geoCell(lat, lng)) ?? []), ...this.wide].filter(
+      ({ area }) => distanceKm(area.lat, area.lng, lat, lng) <= area.range
+    );
+    if (recipients.length === 0) {
+      return;
+    }
+
+    const event = `id: ${announcement.id}\nevent: announcement\ndata: ${JSON.stringify(announcement)}\n\n`;
+    recipients.forEach((subscriber) => this.send(subscriber, event));
+  }
+
+  /**
+   * Ends every subscriber's response, e.g. on shutdown so that the HTTP server can close.
+   */
+  close(): void {
+    for (const subscriber of this.all) {
+      subscriber.sink.end();
+      this.remove(subscriber);
+    }
+  }
+
+  private send(subscriber: Subscriber, chunk: string): void {
+    if (subscriber.sink.writableLength > this.options.maxBufferedBytes) {
+      feedDroppedSubscribers.inc();
+      subscriber.sink.end();
+      this.remove(subscriber);
+      return;
+    }
+    subscriber.sink.write(chunk);
+  }
+
+  private remove(subscriber: Subscriber): void {
+    if (!this.all.delete(subscriber)) {
+      return;
+    }
+    if (subscriber.cells) {
+      subscriber.cells.forEach((cell) => this.removeFromCell(cell, subscriber));
+    } else {
+      this.wide.delete(subscriber);
+    }
+    feedSubscribers.dec();
+    if (this.all.size === 0) {
+      clearInterval(this.heartbeat);
+      this.heartbeat = undefined;
+    }
+  }
+
+  private removeFromCell(cell: number, subscriber: Subscriber): void {
+    const bucket = this.cells.get(cell);
+    bucket?.delete(subscriber);
+    if (bucket?.size === 0) {
+      this.cells.delete(cell);
+    }
+  }
+
+  private startHeartbeat(): void {
+    if (this.heartbeat) {
+      return;
+    }
+    // Comment lines keep proxies and load balancers from closing idle connections
+    this.heartbeat = setInterval(() => this.all.forEach((subscriber) => this.send(subscriber, ':\n\n')), this.options.heartbeatMs);
+    this.heartbeat.unref();
+  }
+}
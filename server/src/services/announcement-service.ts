@@ -1,10 +1,40 @@
-import type { Announcement, AnnouncementWithManagementPassword, CreateAnnouncementDto, LocationFilter } from '../types/announcement.ts';
+import type {
+  Announcement,
+  AnnouncementField,
+  AnnouncementListFilter,
+  AnnouncementListFilterParams,
+  AnnouncementPage,
+  AnnouncementProjection,
+  AnnouncementWithManagementPassword,
+  CreateAnnouncementDto,
+  LocationFilter,
+  PageRequest
+} from '../types/announcement.ts';
 import type { IAnnouncementRepository } from '../database/repositories/announcement-repository.ts';
 import { ConflictError, NotFoundError } from '../lib/errors.ts';
 import { generateManagementPassword } from '../lib/password-management.ts';
+import { encodeCursor, encodeOffsetCursor, MAX_OFFSET, toOffsetPageRequest, toPageRequest } from '../lib/pagination.ts';
+import { parseSearchTerms } from '../lib/search-query.ts';
+import { toListFilter } from '../lib/list-filter-validation.ts';
+import { parseFields } from '../lib/announcement-fields.ts';
+import type { CoalescingCache } from '../lib/coalescing-cache.ts';
+import type { DatasetVersion } from '../lib/dataset-version.ts';
+import log from '../conf/logger.ts';
 import type { PhotoUploadService } from './photo-upload-service.ts';
+import type { WatchAreaService } from './watch-area-service.ts';
 
 const DEFAULT_RANGE_KM = 5;
+// Cached list queries are keyed by coordinates rounded to 3 decimals (~110 m)
+const CACHE_COORDINATE_DECIMALS = 3;
+
+/**
+ * Cache of full (unpaginated) list results. Keys include the dataset version, so writes made by any
+ * process make older entries unreachable; they age out through the TTL and LRU eviction.
+ */
+export interface AnnouncementListCache {
+  cache: CoalescingCache<AnnouncementProjection[]>;
+  datasetVersion: DatasetVersion;
+}
 
 export class AnnouncementService {
   constructor(
@@ -12,22 +42,109 @@ export class AnnouncementService {
     private validator: (data: CreateAnnouncementDto) => void,
     private sanitizer: (data: string) => string,
     private locationValidator: (lat?: number, lng?: number, range?: number) => void,
-    private photoUploadService?: PhotoUploadService
+    private photoUploadService?: PhotoUploadService,
+    private listCache?: AnnouncementListCache,
+    private watchAreaService?: WatchAreaService
   ) {}
 
-  async getAllAnnouncements(lat?: number, lng?: number, range?: number): Promise<Announcement[]> {
-    this.locationValidator(lat, lng, range);
+  /**
+   * With a list cache, nearby coordinates share one cached result: the query runs for the rounded
+   * coordinates and concurrent identical misses wait for the same query.
+   */
+  async getAllAnnouncements(
+    lat?: number,
+    lng?: number,
+    range?: number,
+    filterParams?: AnnouncementListFilterParams,
+    fields?: string
+  ): Promise<AnnouncementProjection[]> {
+    const locationFilter = this.toLocationFilter(lat, lng, range);
+    const filter = toListFilter(filterParams);
+    const fieldList = parseFields(fields);
+    if (!this.listCache) {
+      return this.findList(fieldList, locationFilter, undefined, filter);
+    }
+
+    const { cache, datasetVersion } = this.listCache;
+    const quantized = locationFilter && {
+      lat: roundCoordinate(locationFilter.lat),
+      lng: roundCoordinate(locationFilter.lng),
+      range: locationFilter.range
+    };
+    const key = [
+      await datasetVersion.current(),
+      quantized ? `${quantized.lat},${quantized.lng},${quantized.range}` : 'all',
+      JSON.stringify(filter),
+      fieldList?.join(',') ?? '*'
+    ].join('|');
+    return cache.get(key, () => this.findList(fieldList, quantized, undefined, filter));
+  }
 
-    let locationFilter: LocationFilter | undefined;
-    if (lat !== undefined && lng !== undefined) {
-      locationFilter = {
-        lat,
-        lng,
-        range: range ?? DEFAULT_RANGE_KM
-      };
+  /**
+   * Returns one page in (sort key DESC, id DESC) order, createdAt unless `filterParams.sort` says otherwise.
+   * `nextCursor` is null on the last page.
+   */
+  async getAnnouncementsPage(
+    lat?: number,
+    lng?: number,
+    range?: number,
+    limit?: number,
+    cursor?: string,
+    filterParams?: AnnouncementListFilterParams,
+    fields?: string
+  ): Promise<AnnouncementPage<AnnouncementProjection>> {
+    const locationFilter = this.toLocationFilter(lat, lng, range);
+    const filter = toListFilter(filterParams);
+    const page = toPageRequest(limit, cursor, filter.sort);
+    const sortField = filter.sort ?? 'createdAt';
+    const fieldList = parseFields(fields);
+    // The cursor needs the sort key of the last item even when it was not requested
+    const omitSortField = fieldList !== undefined && !fieldList.includes(sortField);
+
+    // Fetch one extra row to know whether another page exists
+    const announcements = await this.findList(
+      omitSortField ? [...fieldList, sortField] : fieldList,
+      locationFilter,
+      { ...page, limit: page.limit + 1 },
+      filter
+    );
+    const data = announcements.slice(0, page.limit);
+    const last = data[data.length - 1];
+    const nextCursor =
+      announcements.length <= page.limit
+        ? null
+        : encodeCursor(
+            sortField === 'lastSeenDate'
+              ? { lastSeenDate: last.lastSeenDate as string, id: last.id }
+              : { createdAt: last.createdAt as string, id: last.id }
+          );
+    if (omitSortField) {
+      data.forEach((announcement) => delete announcement[sortField]);
     }
+    return { data, nextCursor };
+  }
 
-    return this.repository.findAll(locationFilter);
+  /**
+   * Full-text search over listed announcements, optionally within a location range. Results are ranked, so
+   * pages are addressed by offset (up to MAX_OFFSET); `nextCursor` is null on the last page.
+   */
+  async searchAnnouncements(
+    q?: string,
+    lat?: number,
+    lng?: number,
+    range?: number,
+    limit?: number,
+    cursor?: string
+  ): Promise<AnnouncementPage> {
+    const terms = parseSearchTerms(q);
+    const locationFilter = this.toLocationFilter(lat, lng, range);
+    const page = toOffsetPageRequest(limit, cursor);
+
+    const announcements = await this.repository.search(terms, locationFilter, { ...page, limit: page.limit + 1 });
+    const data = announcements.slice(0, page.limit);
+    const nextOffset = page.offset + page.limit;
+    const hasMore = announcements.length > page.limit && nextOffset <= MAX_OFFSET;
+    return { data, nextCursor: hasMore ? encodeOffsetCursor(nextOffset) : null };
   }
 
   async getAnnouncementById(id: string): Promise<Announcement> {
@@ -63,6 +180,7 @@ export class AnnouncementService {
     const managementPassword = generateManagementPassword();
 
     const created: Announcement = await this.repository.create(sanitized, managementPassword);
+    await this.notifyWatchers(created);
 
     return {
       ...created,
@@ -70,6 +188,45 @@ export class AnnouncementService {
     };
   }
 
+  /**
+   * The announcement is already stored, so a failure to queue watch area notifications is logged
+   * instead of failing the request (a retry would create a duplicate announcement).
+   */
+  private async notifyWatchers(announcement: Announcement): Promise<void> {
+    if (!this.watchAreaService) {
+      return;
+    }
+    try {
+      await this.watchAreaService.notifyWatchers(announcement);
+    } catch (error) {
+      log.warn({ err: error, announcementId: announcement.id }, 'Could not queue watch area notifications');
+    }
+  }
+
+  private findList(
+    fields: AnnouncementField[] | undefined,
+    locationFilter: LocationFilter | undefined,
+    page: PageRequest | undefined,
+    filter: AnnouncementListFilter
+  ): Promise<AnnouncementProjection[]> {
+    return fields
+      ? this.repository.findFields(fields, locationFilter, page, filter)
+      : this.repository.findAll(locationFilter, page, filter);
+  }
+
+  private toLocationFilter(lat?: number, lng?: number, range?: number): LocationFilter | undefined {
+    this.locationValidator(lat, lng, range);
+
+    if (lat === undefined || lng === undefined) {
+      return undefined;
+    }
+    return {
+      lat,
+      lng,
+      range: range ?? DEFAULT_RANGE_KM
+    };
+  }
+
   async deleteAnnouncement(id: string): Promise<void> {
     const announcement = await this.repository.findById(id);
 
@@ -79,9 +236,13 @@ export class AnnouncementService {
 
     // Delete associated photos if photoUploadService is available
     if (this.photoUploadService) {
-      await this.photoUploadService.deletePhotos(announcement.photoUrl);
+      await this.photoUploadService.deletePhotos(announcement.photoUrl, announcement.photoVariants);
     }
 
     await this.repository.delete(id);
   }
 }
+
+function roundCoordinate(value: number): number {
+  return Number(value.toFixed(CACHE_COORDINATE_DECIMALS));
+}
@@ -0,0 +1,42 @@
+import type { AnnouncementChanges } from '../types/announcement.ts';
+import type { IAnnouncementRepository } from '../database/repositories/announcement-repository.ts';
+import type { DatasetVersion } from '../lib/dataset-version.ts';
+import { decodeWatermark, encodeWatermark, SYNC_OVERLAP_MS, TOMBSTONE_RETENTION_MS } from '../lib/sync-watermark.ts';
+
+export class AnnouncementSyncService {
+  constructor(
+    private repository: IAnnouncementRepository,
+    private datasetVersion: DatasetVersion,
+    private now: () => number = Date.now
+  ) {}
+
+  /**
+   * Changes of the announcement list since the watermark, plus the watermark for the next call.
+   *
+   * Without a watermark, or when it belongs to an older dataset epoch or is older than the tombstone retention,
+   * the full list is returned with `reset: true`. Announcements that lost their photo leave the list and are
+   * reported in `deleted` together with deleted ones.
+   */
+  async getChanges(watermark?: string): Promise<AnnouncementChanges> {
+    const previous = watermark !== undefined ? decodeWatermark(watermark) : undefined;
+    const now = this.now();
+    // Read before the data: a concurrent reset then leaves the client on the old epoch and it reloads once more
+    const epoch = await this.datasetVersion.epoch();
+    const next = encodeWatermark({ epoch, since: new Date(now - SYNC_OVERLAP_MS).toISOString() });
+
+    if (!previous || previous.epoch !== epoch || Date.parse(previous.since) < now - TOMBSTONE_RETENTION_MS) {
+      return { data: await this.repository.findAll(), deleted: [], watermark: next, reset: true };
+    }
+
+    const [updated, deleted] = await Promise.all([
+      this.repository.findUpdatedSince(previous.since),
+      this.repository.findDeletedSince(previous.since)
+    ]);
+    return {
+      data: updated.filter((announcement) => announcement.photoUrl !== null),
+      deleted: [...deleted, ...updated.filter((announcement) => announcement.photoUrl === null).map((announcement) => announcement.id)],
+      watermark: next,
+      reset: false
+    };
+  }
+}
@@ -0,0 +1,125 @@
+import type { promises as fs } from 'fs';
+import type { Knex } from 'knex';
+import { NotFoundError, ValidationError } from '../lib/errors.ts';
+import type { DatasetVersion } from '../lib/dataset-version.ts';
+
+const SNAPSHOT_NAME_PATTERN = /^[A-Za-z0-9_-]{1,64}$/;
+const DB_FILENAME = 'db.sqlite';
+const IMAGES_DIRNAME = 'images';
+// Index tables (R*Tree, FTS5 and their shadow tables) rebuilt by triggers while their source table is restored
+const TRIGGER_MAINTAINED_TABLES = /^(watch_area_rtree|announcement_fts)/;
+
+interface TableRow {
+  name: string;
+}
+
+/**
+ * Test-only named checkpoints of the SQLite database and the uploaded images directory.
+ * Snapshot uses `VACUUM INTO` for a consistent copy without stopping the server.
+ * Restore attaches the snapshot file and replaces all table contents in a single transaction,
+ * so readers never see a half-restored database; images are reconciled file by file afterwards.
+ */
+export class DbSnapshotService {
+  constructor(
+    private db: Knex,
+    private path: typeof import('path'),
+    private fileSystem: typeof fs,
+    private snapshotsDir: string,
+    private imagesDir: string,
+    private datasetVersion?: DatasetVersion
+  ) {}
+
+  async createSnapshot(name: string): Promise<void> {
+    const snapshotDir = this.snapshotDir(name);
+    const dbFile = this.path.join(snapshotDir, DB_FILENAME);
+
+    await this.fileSystem.rm(snapshotDir, { recursive: true, force: true });
+    await this.fileSystem.mkdir(snapshotDir, { recursive: true });
+    await this.db.raw('VACUUM INTO ?', [dbFile]);
+    await this.fileSystem.cp(this.imagesDir, this.path.join(snapshotDir, IMAGES_DIRNAME), {
+      recursive: true,
+      preserveTimestamps: true,
+      filter: (source) => !isHidden(this.path.basename(source))
+    });
+  }
+
+  async restoreSnapshot(name: string): Promise<void> {
+    const snapshotDir = this.snapshotDir(name);
+    const dbFile = this.path.join(snapshotDir, DB_FILENAME);
+
+    try {
+      await this.fileSystem.access(dbFile);
+    } catch {
+      throw new NotFoundError(`Snapshot ${name} not found`);
+    }
+
+    // SQLite forbids ATTACH inside a transaction; knex keeps a single connection for SQLite,
+    // so the attached schema is visible to the transaction below.
+    await this.db.raw('ATTACH DATABASE ? AS snapshot', [dbFile]);
+    try {
+      const tables: TableRow[] = await this.db.raw(
+        "SELECT name FROM snapshot.sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%' AND name NOT LIKE 'knex_%'"
+      );
+      await this.db.transaction(async (trx) => {
+        // The dataset version keeps counting up: restoring it would reissue ETags of data written since the checkpoint
+        const restored = tables.filter(({ name }) => name !== 'dataset_version' && !TRIGGER_MAINTAINED_TABLES.test(name));
+        for (const { name: table } of restored) {
+          await trx.raw('DELETE FROM main.??', [table]);
+          await trx.raw('INSERT INTO main.?? SELECT * FROM snapshot.??', [table, table]);
+        }
+        // Delta sync clients cannot follow a restore through tombstones and reload everything
+        await this.datasetVersion?.startEpoch(trx);
+      });
+    } finally {
+      await this.db.raw('DETACH DATABASE snapshot');
+    }
+
+    await this.restoreImages(this.path.join(snapshotDir, IMAGES_DIRNAME));
+  }
+
+  async deleteSnapshot(name: string): Promise<void> {
+    await this.fileSystem.rm(this.snapshotDir(name), { recursive: true, force: true });
+  }
+
+  /**
+   * Makes the images directory match the snapshot: removes files added since the checkpoint
+   * and copies back missing or changed ones. The directory itself is kept in place because
+   * it is usually a mounted volume.
+   */
+  private async restoreImages(snapshotImagesDir: string): Promise<void> {
+    // Hidden entries (e.g. the in-flight upload directory) are not part of snapshots
+    const [current, snapshot] = await Promise.all([
+      this.fileSystem.readdir(this.imagesDir).then((files) => files.filter((file) => !isHidden(file))),
+      this.fileSystem.readdir(snapshotImagesDir).then((files) => files.filter((file) => !isHidden(file)), () => [] as string[])
+    ]);
+    const snapshotFiles = new Set(snapshot);
+
+    await Promise.all(
+      current
+        .filter((file) => !snapshotFiles.has(file))
+        .map((file) => this.fileSystem.rm(this.path.join(this.imagesDir, file), { force: true }))
+    );
+
+    await Promise.all(
+      snapshot.map(async (file) => {
+        const source = this.path.join(snapshotImagesDir, file);
+        const target = this.path.join(this.imagesDir, file);
+        const [sourceStat, targetStat] = await Promise.all([this.fileSystem.stat(source), this.fileSystem.stat(target).catch(() => null)]);
+        if (!targetStat || targetStat.size !== sourceStat.size || targetStat.mtimeMs !== sourceStat.mtimeMs) {
+          await this.fileSystem.cp(source, target, { preserveTimestamps: true });
+        }
+      })
+    );
+  }
+
+  private snapshotDir(name: string): string {
+    if (!SNAPSHOT_NAME_PATTERN.test(name)) {
+      throw new ValidationError('INVALID_PARAMETER', 'Snapshot name may only contain letters, digits, dashes and underscores', 'name');
+    }
+    return this.path.join(this.snapshotsDir, name);
+  }
+}
+
+function isHidden(filename: string): boolean {
+  return filename.startsWith('.');
+}
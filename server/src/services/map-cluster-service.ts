@@ -0,0 +1,26 @@
+import type { MapClusters, Viewport } from '../types/announcement.ts';
+import type { IAnnouncementRepository } from '../database/repositories/announcement-repository.ts';
+import type { DatasetVersion } from '../lib/dataset-version.ts';
+import { CoalescingCache } from '../lib/coalescing-cache.ts';
+import { MarkerClusterIndex } from '../lib/marker-cluster-index.ts';
+
+export class MapClusterService {
+  // One index per process, keyed by dataset version; concurrent requests after a write share one rebuild
+  private indexes = new CoalescingCache<MarkerClusterIndex>(1, Number.POSITIVE_INFINITY);
+
+  constructor(
+    private repository: IAnnouncementRepository,
+    private datasetVersion: DatasetVersion,
+    private viewportValidator: (minLat?: number, minLng?: number, maxLat?: number, maxLng?: number, zoom?: number) => Viewport
+  ) {}
+
+  /**
+   * Clusters and single announcements inside the viewport, answered from the precomputed cluster index.
+   */
+  async getClusters(minLat?: number, minLng?: number, maxLat?: number, maxLng?: number, zoom?: number): Promise<MapClusters> {
+    const viewport = this.viewportValidator(minLat, minLng, maxLat, maxLng, zoom);
+    const version = await this.datasetVersion.current();
+    const index = await this.indexes.get(version, async () => new MarkerClusterIndex(await this.repository.findMapPoints()));
+    return index.query(viewport);
+  }
+}
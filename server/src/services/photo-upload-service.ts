@@ -1,74 +1,160 @@
 import type { promises as fs } from 'fs';
 import type { IAnnouncementRepository } from '../database/repositories/announcement-repository.ts';
 import type { TransactionalWrapper } from '../database/db-utils.ts';
-import { NotFoundError, PayloadTooLargeError, ValidationError } from '../lib/errors.ts';
+import type { Announcement, PhotoVariants } from '../types/announcement.ts';
+import { NotFoundError } from '../lib/errors.ts';
+import { variantUrls } from '../lib/image-variants.ts';
+import { timed } from '../lib/metrics.ts';
+import { activeUploads, photoUploadDuration } from '../conf/metrics.ts';
+import log from '../conf/logger.ts';
 
-const MAX_FILE_SIZE = 20 * 1024 * 1024; // 20MB
+/**
+ * Photo already streamed to a temp file by the upload middleware, with its format detected from magic bytes.
+ */
+export interface StagedPhoto {
+  tempPath: string;
+  mimeType: string;
+  size: number;
+  sha256: string;
+}
 
 export class PhotoUploadService {
   constructor(
     private repository: IAnnouncementRepository,
-    private validateFormat: (buffer: Buffer) => Promise<string | null>,
     private withTransaction: TransactionalWrapper,
     private path: typeof import('path'),
-    private fileSystem: typeof fs
+    private fileSystem: typeof fs,
+    private generateVariants?: (input: Buffer | string, outputDir: string, baseName: string) => Promise<PhotoVariants>,
+    private onVisible?: (announcement: Announcement) => void
   ) {}
 
-  async uploadPhoto(announcementId: string, photoBuffer: Buffer, uploadPath: string): Promise<string> {
-    const announcement = await this.repository.findById(announcementId);
-    if (!announcement) {
-      throw new NotFoundError(`Announcement with ID ${announcementId} not found`);
+  /**
+   * Moves a staged photo into `uploadPath` and points the announcement at it.
+   *
+   * All file work happens outside the DB transaction, which only updates the photo columns, so the
+   * SQLite write lock is held for a single UPDATE. The staged file is renamed into place after commit;
+   * if that fails the previous photo columns are restored. Variant files get content-addressed names,
+   * so they never overwrite the variants the committed row still points to.
+   * The temp file is consumed on success and removed on failure. The first photo makes the announcement
+   * visible on the list, which is reported to `onVisible`.
+   */
+  async uploadPhoto(announcementId: string, photo: StagedPhoto, uploadPath: string): Promise<string> {
+    activeUploads.inc();
+    try {
+      return await timed(photoUploadDuration, {}, () => this.storePhoto(announcementId, photo, uploadPath));
+    } finally {
+      activeUploads.dec();
     }
+  }
 
-    if (photoBuffer.length > MAX_FILE_SIZE) {
-      throw new PayloadTooLargeError(`File size exceeds maximum limit of ${MAX_FILE_SIZE / (1024 * 1024)}MB`, 'file');
+  /**
+   * Deletes photo file associated with an announcement using its photoUrl, together with its resized variants.
+   * Converts relative photoUrl to absolute file path and removes the file if it exists.
+   */
+  async deletePhotos(photoUrl: string | null, photoVariants?: PhotoVariants | null): Promise<void> {
+    if (!photoUrl) {
+      return;
     }
 
-    const mimeType = await this.validateFormat(photoBuffer);
-    if (!mimeType) {
-      throw new ValidationError(
-        'INVALID_FILE_FORMAT',
-        'File is not a valid image format (JPEG, PNG, GIF, WebP, BMP, TIFF, HEIC, HEIF)',
-        'file'
-      );
-    }
+    await this.removeFiles([photoUrl, ...variantUrls(photoVariants)]);
+  }
+
+  private async storePhoto(announcementId: string, photo: StagedPhoto, uploadPath: string): Promise<string> {
+    let photoVariants: PhotoVariants | null = null;
+    try {
+      const announcement = await this.repository.findById(announcementId);
+      if (!announcement) {
+        throw new NotFoundError(`Announcement with ID ${announcementId} not found`);
+      }
 
-    // Determine file extension and path
-    const ext = mimeType.split('/')[1];
-    const filename = `${announcementId}.${ext}`;
-    const filePath = this.path.join(uploadPath, filename);
-    const relativePhotoUrl = `/images/${filename}`;
+      // Determine file extension and path
+      const ext = photo.mimeType.split('/')[1];
+      const filename = `${announcementId}.${ext}`;
+      const filePath = this.path.join(uploadPath, filename);
+      const relativePhotoUrl = `/images/${filename}`;
+
+      photoVariants = await this.createVariants(photo.tempPath, uploadPath, `${announcementId}-${photo.sha256.slice(0, 12)}`);
+
+      await this.withTransaction((trx) => this.repository.updatePhotoUrl(trx, announcementId, relativePhotoUrl, photoVariants));
 
-    await this.withTransaction(async (trx) => {
-      await this.repository.updatePhotoUrl(trx, announcementId, relativePhotoUrl);
       try {
-        await this.fileSystem.writeFile(filePath, photoBuffer);
+        await this.fileSystem.rename(photo.tempPath, filePath);
       } catch (error) {
+        await this.withTransaction((trx) =>
+          this.repository.updatePhotoUrl(trx, announcementId, announcement.photoUrl, announcement.photoVariants)
+        );
         throw new Error(`Failed to save photo file: ${error instanceof Error ? error.message : 'unknown error'}`);
       }
-    });
 
-    return relativePhotoUrl;
+      await this.removeStaleFiles(announcement.photoUrl, announcement.photoVariants, [relativePhotoUrl, ...variantUrls(photoVariants)]);
+      log.info({ announcementId, size: photo.size, sha256: photo.sha256 }, 'Photo uploaded');
+      if (!announcement.photoUrl) {
+        await this.reportVisible(announcementId);
+      }
+      return relativePhotoUrl;
+    } catch (error) {
+      await this.fileSystem.rm(photo.tempPath, { force: true });
+      await this.removeFiles(variantUrls(photoVariants));
+      throw error;
+    }
   }
 
   /**
-   * Deletes photo file associated with an announcement using its photoUrl.
-   * Converts relative photoUrl to absolute file path and removes the file if it exists.
+   * The photo is already committed at this point, so a failure here is logged and must not fail the upload.
    */
-  async deletePhotos(photoUrl: string | null): Promise<void> {
-    if (!photoUrl) {
+  private async reportVisible(announcementId: string): Promise<void> {
+    if (!this.onVisible) {
       return;
     }
+    try {
+      const announcement = await this.repository.findById(announcementId);
+      if (announcement) {
+        this.onVisible(announcement);
+      }
+    } catch (error) {
+      log.warn({ err: error, announcementId }, 'Could not report newly visible announcement');
+    }
+  }
 
-    // Convert relative photoUrl (e.g., "/images/announcement-id.jpeg") to absolute file path
-    // Remove leading slash and join with project public directory
-    const relativePath = photoUrl.startsWith('/') ? photoUrl.slice(1) : photoUrl;
-    const filePath = this.path.join(process.cwd(), 'public', relativePath);
-
+  /**
+   * Variants are an optimization: when the image cannot be decoded for resizing (e.g. HEIC without
+   * codec support) the upload still succeeds and clients fall back to the original photoUrl.
+   */
+  private async createVariants(photoPath: string, uploadPath: string, announcementId: string): Promise<PhotoVariants | null> {
+    if (!this.generateVariants) {
+      return null;
+    }
     try {
-      await this.fileSystem.unlink(filePath);
-    } catch {
-      // File doesn't exist or cannot be deleted, silently ignore
+      return await this.generateVariants(photoPath, uploadPath, announcementId);
+    } catch (error) {
+      log.warn({ err: error, announcementId }, 'Photo variants could not be generated, serving original only');
+      return null;
+    }
+  }
+
+  /**
+   * Removes files of the replaced photo that the announcement no longer references
+   * (e.g. previous variants, or the original when the format changed).
+   */
+  private async removeStaleFiles(previousUrl: string | null, previousVariants: PhotoVariants | null, currentUrls: string[]): Promise<void> {
+    const stale = [previousUrl, ...variantUrls(previousVariants)].filter(
+      (url): url is string => !!url && url.startsWith('/images/') && !currentUrls.includes(url)
+    );
+    await this.removeFiles(stale);
+  }
+
+  private async removeFiles(urls: string[]): Promise<void> {
+    for (const url of urls) {
+      // Convert relative URL (e.g., "/images/announcement-id.jpeg") to absolute file path
+      // Remove leading slash and join with project public directory
+      const relativePath = url.startsWith('/') ? url.slice(1) : url;
+      const filePath = this.path.join(process.cwd(), 'public', relativePath);
+
+      try {
+        await this.fileSystem.unlink(filePath);
+      } catch {
+        // File doesn't exist or cannot be deleted, silently ignore
+      }
     }
   }
 }
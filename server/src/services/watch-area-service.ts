@@ -0,0 +1,53 @@
+import type { Announcement } from '../types/announcement.ts';
+import type { CreateWatchAreaDto, WatchArea } from '../types/watch-area.ts';
+import type { IWatchAreaRepository } from '../database/repositories/watch-area-repository.ts';
+import { ConflictError, NotFoundError } from '../lib/errors.ts';
+
+export const MAX_WATCH_AREAS_PER_USER = 20;
+
+export class WatchAreaService {
+  constructor(
+    private repository: IWatchAreaRepository,
+    private validator: (data: CreateWatchAreaDto) => void,
+    private sanitizer: (data: string) => string
+  ) {}
+
+  async createWatchArea(userId: string, data: CreateWatchAreaDto): Promise<WatchArea> {
+    this.validator(data);
+
+    const area = await this.repository.createWithinLimit(
+      userId,
+      { ...data, name: data.name ? this.sanitizer(data.name) : undefined },
+      MAX_WATCH_AREAS_PER_USER
+    );
+    if (!area) {
+      throw new ConflictError(`A user can watch at most ${MAX_WATCH_AREAS_PER_USER} areas`);
+    }
+    return area;
+  }
+
+  async getWatchAreas(userId: string): Promise<WatchArea[]> {
+    return this.repository.findByUser(userId);
+  }
+
+  async deleteWatchArea(userId: string, id: number): Promise<void> {
+    if (!Number.isInteger(id) || !(await this.repository.delete(userId, id))) {
+      throw new NotFoundError();
+    }
+  }
+
+  /**
+   * Queues one notification per user with a watch area containing the announcement's location.
+   * Returns the number of users notified.
+   */
+  async notifyWatchers(announcement: Announcement): Promise<number> {
+    const areas = await this.repository.findContaining(announcement.locationLatitude, announcement.locationLongitude);
+    const areaByUser = new Map<string, WatchArea>();
+    areas.forEach((area) => areaByUser.set(area.userId, areaByUser.get(area.userId) ?? area));
+
+    await this.repository.queueNotifications(
+      [...areaByUser.values()].map((area) => ({ userId: area.userId, watchAreaId: area.id, announcementId: announcement.id }))
+    );
+    return areaByUser.size;
+  }
+}
@@ -1,11 +1,105 @@
 export type AnnouncementStatus = 'MISSING' | 'FOUND';
 
+export type PhotoVariantName = 'card' | 'popup' | 'full';
+
+export interface PhotoVariant {
+  /** Width in pixels of the encoded files; less than the variant's target width when the original is narrower */
+  width: number;
+  webp: string;
+  avif: string;
+}
+
+export type PhotoVariants = Record<PhotoVariantName, PhotoVariant>;
+
 export interface LocationFilter {
   lat: number;
   lng: number;
   range: number;
 }
 
+/** Sort key of the list, newest first; ties are broken by id */
+export type AnnouncementSort = 'createdAt' | 'lastSeenDate';
+
+/** Attribute filters and sort order of the list; `lastSeenFrom`/`lastSeenTo` are inclusive YYYY-MM-DD dates */
+export interface AnnouncementListFilter {
+  status?: AnnouncementStatus;
+  species?: string;
+  sex?: string;
+  lastSeenFrom?: string;
+  lastSeenTo?: string;
+  sort?: AnnouncementSort;
+}
+
+/** Raw query string values of AnnouncementListFilter, validated by the service */
+export type AnnouncementListFilterParams = { [K in keyof AnnouncementListFilter]?: string };
+
+/** Position of the last returned item in the sort order of the list */
+export type PageCursor = { createdAt: string; id: string } | { lastSeenDate: string; id: string };
+
+export interface PageRequest {
+  limit: number;
+  cursor?: PageCursor;
+}
+
+/** Page of a ranked list (search results): `limit` items after skipping `offset` */
+export interface OffsetPageRequest {
+  limit: number;
+  offset: number;
+}
+
+export interface AnnouncementPage<T extends AnnouncementProjection = Announcement> {
+  data: T[];
+  nextCursor: string | null;
+}
+
+/** Position of a delta sync client: changes after `since` within dataset epoch `epoch` */
+export interface SyncWatermark {
+  epoch: string;
+  since: string;
+}
+
+/**
+ * Announcements created or changed since the watermark and ids of announcements removed from the list.
+ * With `reset`, `data` is the full list and replaces the client's copy.
+ */
+export interface AnnouncementChanges {
+  data: Announcement[];
+  deleted: string[];
+  watermark: string;
+  reset: boolean;
+}
+
+/** Map viewport; `minLng` > `maxLng` when the box crosses the antimeridian */
+export interface Viewport {
+  minLat: number;
+  minLng: number;
+  maxLat: number;
+  maxLng: number;
+  zoom: number;
+}
+
+export interface MapPoint {
+  id: string;
+  latitude: number;
+  longitude: number;
+  species: string;
+  status: AnnouncementStatus;
+}
+
+export interface MapCluster {
+  /** Centroid of the clustered announcements */
+  latitude: number;
+  longitude: number;
+  count: number;
+  sampleId: string;
+}
+
+export interface MapClusters {
+  zoom: number;
+  clusters: MapCluster[];
+  points: MapPoint[];
+}
+
 export interface CreateAnnouncementDto {
   petName?: string;
   species: string;
@@ -41,6 +135,7 @@ export interface Announcement {
   email?: string | null;
   phone?: string | null;
   photoUrl: string | null;
+  photoVariants: PhotoVariants | null;
   lastSeenDate: string;
   status: AnnouncementStatus;
   reward?: string | null;
@@ -48,6 +143,11 @@ export interface Announcement {
   updatedAt: string;
 }
 
+export type AnnouncementField = keyof Announcement;
+
+/** Announcement limited to the fields requested with `fields=` (all fields when none were requested) */
+export type AnnouncementProjection = Partial<Announcement> & Pick<Announcement, 'id'>;
+
 export interface AnnouncementRow {
   id: string;
   pet_name: string | null;
@@ -62,10 +162,13 @@ export interface AnnouncementRow {
   email: string | null;
   phone: string | null;
   photo_url: string | null;
+  /** JSON-encoded PhotoVariants */
+  photo_variants: string | null;
   last_seen_date: string;
   status: AnnouncementStatus;
   reward: string | null;
   management_password_hash: string;
-  created_at: string;
-  updated_at: string;
+  /** ISO string on SQLite, Date when read from PostgreSQL */
+  created_at: string | Date;
+  updated_at: string | Date;
 }
@@ -9,10 +9,13 @@
 import { Logger } from 'pino';
 
 interface MulterFile {
-  buffer: Buffer;
+  /** Temp file written by StreamingImageStorage */
+  path: string;
   originalname: string;
+  /** Detected from magic bytes, not taken from the request */
   mimetype: string;
   size: number;
+  sha256: string;
 }
 
 declare global {
@@ -0,0 +1,37 @@
+export interface CreateWatchAreaDto {
+  name?: string;
+  latitude: number;
+  longitude: number;
+  radiusKm: number;
+}
+
+export interface WatchArea {
+  id: number;
+  userId: string;
+  name: string | null;
+  latitude: number;
+  longitude: number;
+  radiusKm: number;
+  createdAt: string;
+}
+
+export interface WatchAreaRow {
+  id: number;
+  user_id: string;
+  name: string | null;
+  latitude: number;
+  longitude: number;
+  radius_km: number;
+  min_lat: number;
+  max_lat: number;
+  min_lng: number;
+  max_lng: number;
+  created_at: string | Date;
+}
+
+/** Queued alert for a user whose watch area contains a newly reported announcement */
+export interface WatchAreaNotification {
+  userId: string;
+  watchAreaId: number;
+  announcementId: string;
+}